@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.io.File;
+import java.util.*;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.dllearner.refinementoperators.RhoDRDown;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.util.OWLObjectDuplicator;
+
+/**
+ * Loads the example ontologies used by the benchmarks and derives the
+ * workloads, i.e. scaled ABoxes, learning problems and class expressions,
+ * from them in a deterministic way.
+ * <p>
+ * The ontologies are resolved relative to the directory given by the system
+ * property {@value #EXAMPLES_DIR_PROPERTY}, which defaults to
+ * <code>../examples</code>.
+ */
+public class BenchmarkData {
+
+	public static final String EXAMPLES_DIR_PROPERTY = "dllearner.examples";
+
+	/**
+	 * The example ontologies.
+	 */
+	public enum Dataset {
+		FAMILY("family-benchmark/family-benchmark_rich_background.owl"),
+		CARCINOGENESIS("carcinogenesis/carcinogenesis.owl"),
+		MUTAGENESIS("mutagenesis/mutagenesis.owl");
+
+		private final String path;
+
+		Dataset(String path) {
+			this.path = path;
+		}
+
+		public File getFile() {
+			return new File(System.getProperty(EXAMPLES_DIR_PROPERTY, "../examples"), path);
+		}
+	}
+
+	private BenchmarkData() {}
+
+	/**
+	 * Loads the ontology of the dataset and replicates its ABox.
+	 *
+	 * @param dataset the dataset
+	 * @param scale how often the ABox is contained in the returned ontology
+	 * @return the ontology
+	 * @throws OWLOntologyCreationException if the ontology can not be loaded
+	 */
+	public static OWLOntology loadOntology(Dataset dataset, int scale) throws OWLOntologyCreationException {
+		File file = dataset.getFile();
+		if (!file.isFile()) {
+			throw new IllegalStateException("Ontology " + file.getAbsolutePath() + " not found. Set -D"
+					+ EXAMPLES_DIR_PROPERTY + " to the examples directory, the carcinogenesis and mutagenesis "
+					+ "ontologies have to be generated with the corresponding scripts first.");
+		}
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLOntology ontology = man.loadOntologyFromOntologyDocument(file);
+		scaleABox(ontology, scale);
+		return ontology;
+	}
+
+	/**
+	 * Adds <code>scale - 1</code> copies of the ABox to the ontology, in which
+	 * each named individual is replaced by a fresh one.
+	 *
+	 * @param ontology the ontology
+	 * @param scale the scale factor
+	 */
+	public static void scaleABox(OWLOntology ontology, int scale) {
+		OWLOntologyManager man = ontology.getOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		Set<OWLAxiom> aboxAxioms = ontology.getABoxAxioms(Imports.INCLUDED);
+		Set<OWLNamedIndividual> individuals = ontology.getIndividualsInSignature(Imports.INCLUDED);
+
+		for (int copy = 1; copy < scale; copy++) {
+			Map<IRI, IRI> renaming = new HashMap<>();
+			for (OWLNamedIndividual ind : individuals) {
+				renaming.put(ind.getIRI(), IRI.create(ind.toStringID() + "_copy" + copy));
+			}
+			OWLObjectDuplicator duplicator = new OWLObjectDuplicator(df, renaming);
+			Set<OWLAxiom> copies = new HashSet<>(aboxAxioms.size());
+			for (OWLAxiom axiom : aboxAxioms) {
+				copies.add(duplicator.duplicateObject(axiom));
+			}
+			man.addAxioms(ontology, copies);
+		}
+	}
+
+	/**
+	 * @param ontology the ontology
+	 * @return an initialized closed world reasoner for the ontology
+	 * @throws ComponentInitException if the initialization fails
+	 */
+	public static ClosedWorldReasoner createReasoner(OWLOntology ontology) throws ComponentInitException {
+		OWLAPIOntology ks = new OWLAPIOntology(ontology);
+		ks.init();
+		ClosedWorldReasoner reasoner = new ClosedWorldReasoner(ks);
+		reasoner.init();
+		return reasoner;
+	}
+
+	/**
+	 * @param reasoner the reasoner
+	 * @return an initialized refinement operator with default settings
+	 * @throws ComponentInitException if the initialization fails
+	 */
+	public static RhoDRDown createOperator(AbstractReasonerComponent reasoner) throws ComponentInitException {
+		RhoDRDown op = new RhoDRDown();
+		op.setReasoner(reasoner);
+		op.init();
+		return op;
+	}
+
+	/**
+	 * Selects the class whose number of instances is closest to half of all
+	 * individuals, its instances are the positive examples and all other
+	 * individuals the negative examples of the learning problem.
+	 *
+	 * @param reasoner the reasoner
+	 * @return the positive and the negative examples
+	 */
+	public static List<SortedSet<OWLIndividual>> createExamples(AbstractReasonerComponent reasoner) {
+		SortedSet<OWLIndividual> individuals = reasoner.getIndividuals();
+		SortedSet<OWLIndividual> pos = null;
+		int bestDistance = Integer.MAX_VALUE;
+		for (OWLClass cls : new TreeSet<>(reasoner.getClasses())) {
+			if (cls.isOWLThing() || cls.isOWLNothing()) {
+				continue;
+			}
+			SortedSet<OWLIndividual> instances = reasoner.getIndividuals(cls);
+			int distance = Math.abs(2 * instances.size() - individuals.size());
+			if (!instances.isEmpty() && distance < bestDistance) {
+				bestDistance = distance;
+				pos = instances;
+			}
+		}
+		if (pos == null) {
+			throw new IllegalStateException("The ontology does not contain any class with instances.");
+		}
+		SortedSet<OWLIndividual> neg = new TreeSet<>(individuals);
+		neg.removeAll(pos);
+		return Arrays.asList(new TreeSet<>(pos), neg);
+	}
+
+	/**
+	 * Collects class expressions by a breadth-first traversal of the
+	 * refinements of <code>owl:Thing</code>.
+	 *
+	 * @param op the refinement operator
+	 * @param maxLength the maximum length of the class expressions
+	 * @param count the maximum number of class expressions
+	 * @return the class expressions in the order in which they were found
+	 */
+	public static List<OWLClassExpression> createExpressions(RhoDRDown op, int maxLength, int count) {
+		OWLClassExpression top = OWLManager.getOWLDataFactory().getOWLThing();
+		Set<OWLClassExpression> result = new LinkedHashSet<>();
+		Deque<OWLClassExpression> queue = new ArrayDeque<>();
+		queue.add(top);
+		while (!queue.isEmpty() && result.size() < count) {
+			for (OWLClassExpression refinement : op.refine(queue.poll(), maxLength)) {
+				if (result.size() < count && result.add(refinement)) {
+					queue.add(refinement);
+				}
+			}
+		}
+		return new ArrayList<>(result);
+	}
+
+}
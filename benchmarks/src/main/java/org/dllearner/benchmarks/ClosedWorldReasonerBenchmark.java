@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.benchmarks.BenchmarkData.Dataset;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Benchmarks the materialization, retrieval and instance checks of the
+ * {@link ClosedWorldReasoner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClosedWorldReasonerBenchmark {
+
+	@Param({"FAMILY", "CARCINOGENESIS", "MUTAGENESIS"})
+	public Dataset dataset;
+
+	@Param({"1", "4"})
+	public int scale;
+
+	private OWLOntology ontology;
+	private ClosedWorldReasoner reasoner;
+	private List<OWLClassExpression> expressions;
+	private List<OWLIndividual> individuals;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		ontology = BenchmarkData.loadOntology(dataset, scale);
+		reasoner = BenchmarkData.createReasoner(ontology);
+		expressions = BenchmarkData.createExpressions(BenchmarkData.createOperator(reasoner), 5, 200);
+		individuals = new ArrayList<>(reasoner.getIndividuals());
+	}
+
+	@Benchmark
+	public ClosedWorldReasoner materialize() throws Exception {
+		return BenchmarkData.createReasoner(ontology);
+	}
+
+	@Benchmark
+	public void retrieval(Blackhole bh) {
+		for (OWLClassExpression ce : expressions) {
+			SortedSet<OWLIndividual> instances = reasoner.getIndividuals(ce);
+			bh.consume(instances);
+		}
+	}
+
+	@Benchmark
+	public void instanceChecks(Blackhole bh) {
+		// a fixed sample of individuals keeps the costs independent of the ABox scale
+		int step = Math.max(1, individuals.size() / 100);
+		for (OWLClassExpression ce : expressions) {
+			for (int i = 0; i < individuals.size(); i += step) {
+				bh.consume(reasoner.hasType(ce, individuals.get(i)));
+			}
+		}
+	}
+
+}
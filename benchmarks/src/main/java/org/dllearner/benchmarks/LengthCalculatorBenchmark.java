@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.benchmarks.BenchmarkData.Dataset;
+import org.dllearner.utilities.owl.OWLClassExpressionLengthCalculator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+/**
+ * Benchmarks the {@link OWLClassExpressionLengthCalculator}, which is invoked
+ * for each refinement during the search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LengthCalculatorBenchmark {
+
+	@Param({"FAMILY", "CARCINOGENESIS", "MUTAGENESIS"})
+	public Dataset dataset;
+
+	private List<OWLClassExpression> expressions;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		expressions = BenchmarkData.createExpressions(
+				BenchmarkData.createOperator(
+						BenchmarkData.createReasoner(BenchmarkData.loadOntology(dataset, 1))), 6, 5000);
+	}
+
+	@Benchmark
+	public void getLength(Blackhole bh) {
+		OWLClassExpressionLengthCalculator lengthCalculator = new OWLClassExpressionLengthCalculator();
+		for (OWLClassExpression ce : expressions) {
+			bh.consume(lengthCalculator.getLength(ce));
+		}
+	}
+
+}
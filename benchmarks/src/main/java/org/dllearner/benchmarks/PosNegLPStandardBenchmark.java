@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.benchmarks.BenchmarkData.Dataset;
+import org.dllearner.learningproblems.PosNegLPStandard;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+/**
+ * Benchmarks the evaluation of class expressions by
+ * {@link PosNegLPStandard#getAccuracyOrTooWeak(OWLClassExpression, double)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PosNegLPStandardBenchmark {
+
+	@Param({"FAMILY", "CARCINOGENESIS", "MUTAGENESIS"})
+	public Dataset dataset;
+
+	@Param({"1", "4"})
+	public int scale;
+
+	@Param({"0.05"})
+	public double noise;
+
+	private PosNegLPStandard lp;
+	private List<OWLClassExpression> expressions;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		ClosedWorldReasoner reasoner = BenchmarkData.createReasoner(BenchmarkData.loadOntology(dataset, scale));
+		List<SortedSet<OWLIndividual>> examples = BenchmarkData.createExamples(reasoner);
+		lp = new PosNegLPStandard(reasoner, examples.get(0), examples.get(1));
+		lp.init();
+		expressions = BenchmarkData.createExpressions(BenchmarkData.createOperator(reasoner), 5, 200);
+	}
+
+	@Benchmark
+	public void getAccuracyOrTooWeak(Blackhole bh) {
+		for (OWLClassExpression ce : expressions) {
+			bh.consume(lp.getAccuracyOrTooWeak(ce, noise));
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.benchmarks.BenchmarkData.Dataset;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.dllearner.refinementoperators.RhoDRDown;
+import org.dllearner.utilities.owl.OWLClassExpressionLengthCalculator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+/**
+ * Benchmarks the initialization of the {@link RhoDRDown} operator, the
+ * computation of the top refinements and the refinement of class expressions
+ * with an already initialized operator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RhoDRDownBenchmark {
+
+	@Param({"FAMILY", "CARCINOGENESIS", "MUTAGENESIS"})
+	public Dataset dataset;
+
+	@Param({"1", "4"})
+	public int scale;
+
+	@Param({"5"})
+	public int maxLength;
+
+	private ClosedWorldReasoner reasoner;
+	private RhoDRDown operator;
+	private List<OWLClassExpression> expressions;
+	private int[] lengths;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		reasoner = BenchmarkData.createReasoner(BenchmarkData.loadOntology(dataset, scale));
+		operator = BenchmarkData.createOperator(reasoner);
+		expressions = BenchmarkData.createExpressions(operator, maxLength - 1, 200);
+		OWLClassExpressionLengthCalculator lengthCalculator = new OWLClassExpressionLengthCalculator();
+		lengths = new int[expressions.size()];
+		for (int i = 0; i < lengths.length; i++) {
+			lengths[i] = lengthCalculator.getLength(expressions.get(i));
+		}
+	}
+
+	@Benchmark
+	public Object refineTop() throws Exception {
+		// a fresh operator, otherwise the top refinements would be cached
+		RhoDRDown op = BenchmarkData.createOperator(reasoner);
+		return op.refine(OWLManager.getOWLDataFactory().getOWLThing(), maxLength);
+	}
+
+	@Benchmark
+	public void refine(Blackhole bh) {
+		for (int i = 0; i < lengths.length; i++) {
+			bh.consume(operator.refine(expressions.get(i), lengths[i] + 1));
+		}
+	}
+
+}
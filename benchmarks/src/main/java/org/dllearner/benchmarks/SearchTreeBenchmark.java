@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.algorithms.celoe.OEHeuristicRuntime;
+import org.dllearner.algorithms.celoe.OENode;
+import org.dllearner.utilities.datastructures.AbstractSearchTree;
+import org.dllearner.utilities.datastructures.ConcurrentSearchTree;
+import org.dllearner.utilities.datastructures.SearchTree;
+import org.openjdk.jmh.annotations.*;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+/**
+ * Benchmarks the search tree operations of an OCEL/CELOE style search, i.e.
+ * repeatedly taking the best node, expanding it and inserting its children,
+ * for the sequential and the concurrent search tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchTreeBenchmark {
+
+	@Param({"sequential", "concurrent"})
+	public String tree;
+
+	@Param({"10000", "100000"})
+	public int nrOfNodes;
+
+	@Param({"10"})
+	public int nrOfChildren;
+
+	private OEHeuristicRuntime heuristic;
+	private OWLClassExpression[] expressions;
+	private double[] accuracies;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		heuristic = new OEHeuristicRuntime();
+		heuristic.init();
+		OWLDataFactory df = OWLManager.getOWLDataFactory();
+		// distinct expressions, otherwise the tree would treat nodes of equal score as duplicates
+		expressions = new OWLClassExpression[nrOfNodes + 1];
+		accuracies = new double[nrOfNodes + 1];
+		Random rnd = new Random(42);
+		for (int i = 0; i <= nrOfNodes; i++) {
+			expressions[i] = df.getOWLClass(IRI.create("http://dl-learner.org/benchmark#C" + i));
+			accuracies[i] = rnd.nextDouble();
+		}
+		// make sure that every child is actually inserted, otherwise the benchmark measures nothing
+		int size = expandAndInsert().size();
+		if (size != nrOfNodes + 1) {
+			throw new IllegalStateException("The search tree contains " + size + " instead of " + (nrOfNodes + 1) + " nodes.");
+		}
+	}
+
+	@Benchmark
+	public AbstractSearchTree<OENode> expandAndInsert() {
+		AbstractSearchTree<OENode> searchTree = "concurrent".equals(tree)
+				? new ConcurrentSearchTree<>(heuristic)
+				: new SearchTree<>(heuristic);
+		searchTree.setRoot(new OENode(expressions[0], accuracies[0]));
+		int next = 1;
+		while (next <= nrOfNodes) {
+			OENode best = searchTree.best();
+			// the node has to be re-inserted before its children are added, as in CELOE
+			searchTree.updatePrepare(best);
+			best.incHorizontalExpansion();
+			searchTree.updateDone(best);
+			for (int i = 0; i < nrOfChildren && next <= nrOfNodes; i++, next++) {
+				searchTree.addNode(best, new OENode(expressions[next], accuracies[next]));
+			}
+		}
+		return searchTree;
+	}
+
+}
@@ -30,6 +30,7 @@ import org.dllearner.kb.OWLAPIOntology;
 import org.dllearner.learningproblems.ClassAsInstanceLearningProblem;
 import org.dllearner.learningproblems.ClassLearningProblem;
 import org.dllearner.learningproblems.PosNegLP;
+import org.dllearner.learningproblems.PosNegLPStandard;
 import org.dllearner.learningproblems.PosOnlyLP;
 import org.dllearner.reasoning.ClosedWorldReasoner;
 import org.dllearner.reasoning.OWLAPIReasoner;
@@ -87,7 +88,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	private OWLClassExpression startClass;
 	
 	// all descriptions in the search tree plus those which were too weak (for fast redundancy check)
-	private TreeSet<OWLClassExpression> descriptions;
+	private OWLClassExpressionInterner descriptions;
 	
 	
 	// if true, then each solution is evaluated exactly instead of approximately
@@ -179,6 +180,13 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	private boolean expandAccuracy100Nodes = false;
 	private double currentHighestAccuracy;
 
+	@ConfigOption(defaultValue = "false", description = "whether refinements are only evaluated against the examples "
+			+ "covered by their parent node, which saves instance checks at the cost of storing the covered examples "
+			+ "in each node (only used for the rho refinement operator and the standard positive/negative learning problem)")
+	private boolean restrictEvaluationToParentCoverage = false;
+	// whether the option above applies to the current learning problem and operator
+	private boolean useParentCoverage;
+
 	// option to keep track of best score during algorithm run
 	private boolean keepTrackOfBestScore = false;
 	private SortedMap<Long, Double> runtimeVsBestScore = new TreeMap<>();
@@ -210,12 +218,8 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		setMaxNrOfResults(celoe.maxNrOfResults);
 		setNoisePercentage(celoe.noisePercentage);
 		
+		// the operator is initialised in init(), after the hierarchies have been set
 		LengthLimitedRefinementOperator op = new RhoDRDown((RhoDRDown)celoe.operator);
-		try {
-			op.init();
-		} catch (ComponentInitException e) {
-			e.printStackTrace();
-		}
 		setOperator(op);
 		
 		
@@ -223,6 +227,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		setSingleSuggestionMode(celoe.singleSuggestionMode);
 		setStartClass(celoe.startClass);
 		setStopOnFirstDefinition(celoe.stopOnFirstDefinition);
+		setRestrictEvaluationToParentCoverage(celoe.restrictEvaluationToParentCoverage);
 		setTerminateOnNoiseReached(celoe.terminateOnNoiseReached);
 		setUseMinimizer(celoe.isUseMinimizer());
 		
@@ -311,6 +316,12 @@ public class CELOE extends AbstractCELA implements Cloneable{
 			((CustomHierarchyRefinementOperator) operator).setDataPropertyHierarchy(datatypePropertyHierarchy);
 		}
 		operator.init();
+
+		// rho is a downward refinement operator, i.e. a refinement can only cover examples covered by its parent
+		useParentCoverage = restrictEvaluationToParentCoverage
+				&& operator instanceof RhoDRDown
+				&& learningProblem instanceof PosNegLPStandard
+				&& ((PosNegLPStandard) learningProblem).isRestrictedEvaluationSupported();
 	}
 	
 	@Override
@@ -318,50 +329,57 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		stop = false;
 		isRunning = true;
 		reset();
+		initAccuracyBound();
+		initInstanceCheckExecutor();
 		nanoStartTime = System.nanoTime();
 		
-		currentHighestAccuracy = 0.0;
-		OENode nextNode;
+		try {
+			currentHighestAccuracy = 0.0;
+			OENode nextNode;
 
-		logger.info("start class:" + startClass);
-		addNode(startClass, null);
+			logger.info("start class:" + startClass);
+			addNode(startClass, null);
 		
-		while (!terminationCriteriaSatisfied()) {
-			showIfBetterSolutionsFound();
+			while (!terminationCriteriaSatisfied()) {
+				showIfBetterSolutionsFound();
 
-			// chose best node according to heuristics
-			nextNode = getNextNodeToExpand();
-			int horizExp = nextNode.getHorizontalExpansion();
+				// chose best node according to heuristics
+				nextNode = getNextNodeToExpand();
+				int horizExp = nextNode.getHorizontalExpansion();
 			
-			// apply refinement operator
-			TreeSet<OWLClassExpression> refinements = refineNode(nextNode);
+				// apply refinement operator
+				TreeSet<OWLClassExpression> refinements = refineNode(nextNode);
 				
-			while(!refinements.isEmpty() && !terminationCriteriaSatisfied()) {
-				// pick element from set
-				OWLClassExpression refinement = refinements.pollFirst();
+				while(!refinements.isEmpty() && !terminationCriteriaSatisfied()) {
+					// pick element from set
+					OWLClassExpression refinement = refinements.pollFirst();
 
-				// get length of class expression
-				int length = OWLClassExpressionUtils.getLength(refinement);
+					// get length of class expression
+					int length = OWLClassExpressionUtils.getLength(refinement);
 				
-				// we ignore all refinements with lower length and too high depth
-				// (this also avoids duplicate node children)
-				if(length > horizExp && OWLClassExpressionUtils.getDepth(refinement) <= maxDepth) {
-					// add node to search tree
-					addNode(refinement, nextNode);
+					// we ignore all refinements with lower length and too high depth
+					// (this also avoids duplicate node children)
+					if(length > horizExp && OWLClassExpressionUtils.getDepth(refinement) <= maxDepth) {
+						// add node to search tree
+						addNode(refinement, nextNode);
+					}
 				}
-			}
 			
-			showIfBetterSolutionsFound();
+				showIfBetterSolutionsFound();
 			
-			// update the global min and max horizontal expansion values
-			updateMinMaxHorizExp(nextNode);
+				// update the global min and max horizontal expansion values
+				updateMinMaxHorizExp(nextNode);
 			
-			// write the search tree (if configured)
-			if (writeSearchTree) {
-				writeSearchTree(refinements);
+				// write the search tree (if configured)
+				if (writeSearchTree) {
+					writeSearchTree(refinements);
+				}
 			}
+		} finally {
+			resetAccuracyBound();
+			shutdownInstanceCheckExecutor();
 		}
-		
+
 		if(singleSuggestionMode) {
 			bestEvaluatedDescriptions.add(bestDescription, bestAccuracy, learningProblem);
 		}
@@ -459,30 +477,30 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	private OENode getNextNodeToExpand() {
 		// we expand the best node of those, which have not achieved 100% accuracy
 		// already and have a horizontal expansion equal to their length
-		// (rationale: further extension is likely to add irrelevant syntactical constructs)
-		Iterator<OENode> it = searchTree.descendingIterator();
+		// (rationale: further extension is likely to add irrelevant syntactical constructs);
+		// the search tree keeps track of these nodes, see isExpandable()
 		if (logger.isTraceEnabled()) {
 			for (OENode N:searchTree.getNodeSet()) {
 				logger.trace(sparql_debug,"`getnext:"+N);
 			}
 		}
 
-		while(it.hasNext()) {
-			OENode node = it.next();
+		OENode node = searchTree.bestExpandable();
+		if (node != null) {
 			logger.trace(sparql_debug,"``"+node+node.getAccuracy());
-			if (isExpandAccuracy100Nodes() && node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription())) {
-					return node;
-			} else {
-				if(node.getAccuracy() < 1.0 || node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription())) {
-					return node;
-				}
-			}
+			return node;
 		}
 		
 		// this should practically never be called, since for any reasonable learning
 		// task, we will always have at least one node with less than 100% accuracy
 		throw new RuntimeException("CELOE could not find any node with lesser accuracy.");
 	}
+
+	private boolean isExpandable(OENode node) {
+		// note that nodes with a horizontal expansion below their length are expanded
+		// regardless of their accuracy, thus expandAccuracy100Nodes does not make a difference here
+		return node.getAccuracy() < 1.0 || node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription());
+	}
 	
 	// expand node horizontically
 	private TreeSet<OWLClassExpression> refineNode(OENode node) {
@@ -528,7 +546,29 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		// quality of class expression (return if too weak)
 		Monitor mon = MonitorFactory.start("lp");
 		logger.trace(sparql_debug, sparql_debug_out);
-		double accuracy = learningProblem.getAccuracyOrTooWeak(description, noise);
+		double accuracy;
+		BitSet coveredPositives = null;
+		BitSet coveredNegatives = null;
+		if(useParentCoverage && (parentNode == null || parentNode.getCoveredPositives() != null)) {
+			PosNegLPStandard lp = (PosNegLPStandard) learningProblem;
+			BitSet candidatePositives;
+			BitSet candidateNegatives;
+			if(parentNode == null) {
+				candidatePositives = new BitSet();
+				candidatePositives.set(0, lp.getPositiveExampleList().size());
+				candidateNegatives = new BitSet();
+				candidateNegatives.set(0, lp.getNegativeExampleList().size());
+			} else {
+				candidatePositives = parentNode.getCoveredPositives();
+				candidateNegatives = parentNode.getCoveredNegatives();
+			}
+			coveredPositives = new BitSet();
+			coveredNegatives = new BitSet();
+			accuracy = lp.getAccuracyOrTooWeak(description, noise, candidatePositives, candidateNegatives,
+					coveredPositives, coveredNegatives);
+		} else {
+			accuracy = learningProblem.getAccuracyOrTooWeak(description, noise);
+		}
 		logger.trace(sparql_debug, "`acc:"+accuracy);
 		mon.stop();
 		
@@ -546,6 +586,9 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		}
 		
 		OENode node = new OENode(description, accuracy);
+		if(coveredPositives != null) {
+			node.setCoveredExamples(coveredPositives, coveredNegatives);
+		}
 		searchTree.addNode(parentNode, node);
 		
 		// in some cases (e.g. mutation) fully evaluating even a single class expression is too expensive
@@ -603,6 +646,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 				if(!filterFollowsFromKB || !((ClassLearningProblem)learningProblem).followsFromKB(niceDescription)) {
 //					System.out.println(node + "->" + niceDescription);
 					bestEvaluatedDescriptions.add(niceDescription, accuracy, learningProblem);
+					updateAccuracyBound();
 //					System.out.println("acc: " + accuracy);
 //					System.out.println(bestEvaluatedDescriptions);
 				}
@@ -753,7 +797,8 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		// set all values back to their default values (used for running
 		// the algorithm more than once)
 		searchTree = new SearchTree<>(heuristic);
-		descriptions = new TreeSet<>();
+		searchTree.setExpandablePredicate(this::isExpandable);
+		descriptions = new OWLClassExpressionInterner();
 		bestEvaluatedDescriptions.getSet().clear();
 		expressionTests = 0;
 		runtimeVsBestScore.clear();
@@ -1026,6 +1071,14 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		this.stopOnFirstDefinition = stopOnFirstDefinition;
 	}
 
+	public boolean isRestrictEvaluationToParentCoverage() {
+		return restrictEvaluationToParentCoverage;
+	}
+
+	public void setRestrictEvaluationToParentCoverage(boolean restrictEvaluationToParentCoverage) {
+		this.restrictEvaluationToParentCoverage = restrictEvaluationToParentCoverage;
+	}
+
 	public long getTotalRuntimeNs() {
 		return totalRuntimeNs;
 	}
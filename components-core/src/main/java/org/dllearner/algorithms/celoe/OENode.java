@@ -19,6 +19,7 @@
 package org.dllearner.algorithms.celoe;
 
 import java.text.DecimalFormat;
+import java.util.BitSet;
 import java.util.Map;
 
 import org.dllearner.core.AbstractSearchTreeNode;
@@ -31,8 +32,9 @@ import org.semanticweb.owlapi.model.OWLClassExpression;
  * A node in the search tree of the ontology engineering algorithm.
  * 
  * Differences to the node structures in other algorithms (this may change):
- * - covered examples are not stored in node (i.e. coverage needs to be recomputed
- * for child nodes, which costs time but saves memory)
+ * - covered examples are only stored as bit sets if the learning algorithm
+ * restricts the evaluation of child nodes to them, otherwise coverage needs to
+ * be recomputed for child nodes, which costs time but saves memory
  * - only evaluated nodes are stored
  * - too weak nodes are not stored
  * - redundant nodes are not stored (?)
@@ -54,6 +56,10 @@ public class OENode extends AbstractSearchTreeNode<OENode> implements SearchTree
 	// OWLClassExpression in this node - it is a better heuristic indicator than child count
 	// (and avoids the problem that adding children changes the heuristic value)
 	private int refinementCount = 0;
+
+	// the covered examples (null if not stored)
+	private BitSet coveredPositives;
+	private BitSet coveredNegatives;
 	
 	private static DecimalFormat dfPercent = new DecimalFormat("0.00%");
 	
@@ -135,4 +141,27 @@ public class OENode extends AbstractSearchTreeNode<OENode> implements SearchTree
 	public void setRefinementCount(int refinementCount) {
 		this.refinementCount = refinementCount;
 	}
+
+	/**
+	 * @param coveredPositives the covered positive examples
+	 * @param coveredNegatives the covered negative examples
+	 */
+	public void setCoveredExamples(BitSet coveredPositives, BitSet coveredNegatives) {
+		this.coveredPositives = coveredPositives;
+		this.coveredNegatives = coveredNegatives;
+	}
+
+	/**
+	 * @return the covered positive examples or null if they are not stored
+	 */
+	public BitSet getCoveredPositives() {
+		return coveredPositives;
+	}
+
+	/**
+	 * @return the covered negative examples or null if they are not stored
+	 */
+	public BitSet getCoveredNegatives() {
+		return coveredNegatives;
+	}
 }
\ No newline at end of file
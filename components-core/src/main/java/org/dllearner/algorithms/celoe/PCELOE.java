@@ -42,7 +42,7 @@ import org.dllearner.utilities.Files;
 import org.dllearner.utilities.Helper;
 import org.dllearner.utilities.OWLAPIUtils;
 import org.dllearner.utilities.TreeUtils;
-import org.dllearner.utilities.datastructures.SynchronizedSearchTree;
+import org.dllearner.utilities.datastructures.ConcurrentSearchTree;
 import org.dllearner.utilities.owl.*;
 import org.semanticweb.owlapi.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,6 +50,7 @@ import uk.ac.manchester.cs.owl.owlapi.OWLClassImpl;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -72,7 +73,7 @@ public class PCELOE extends AbstractCELA {
 	@ConfigOption(description = "the refinement operator instance to use")
 	private LengthLimitedRefinementOperator operator;
 
-	private SynchronizedSearchTree<OENode> searchTree;
+	private ConcurrentSearchTree<OENode> searchTree;
 	@ConfigOption(defaultValue="celoe_heuristic")
 	private AbstractHeuristic heuristic;
 	// the class with which we start the refinement process
@@ -80,8 +81,7 @@ public class PCELOE extends AbstractCELA {
 	private OWLClassExpression startClass;
 
 	// all descriptions in the search tree plus those which were too weak (for fast redundancy check)
-//	private TreeSet<OWLClassExpression> descriptions;
-	private SortedSet<OWLClassExpression> descriptions;
+	private OWLClassExpressionInterner descriptions;
 
 	// if true, then each solution is evaluated exactly instead of approximately
 	// private boolean exactBestDescriptionEvaluation = false;
@@ -181,7 +181,8 @@ public class PCELOE extends AbstractCELA {
 	private int expressionTestCountLastImprovement;
 	private long timeLastImprovement = 0;
 
-	private Set<OENode> currentlyProcessedNodes = Collections.synchronizedSet(new HashSet<>());
+	// nodes which are currently expanded by a worker
+	private Set<OENode> currentlyProcessedNodes = ConcurrentHashMap.newKeySet();
 	private volatile double highestAccuracy = 0.0;
 
 	public PCELOE() {}
@@ -320,7 +321,10 @@ public class PCELOE extends AbstractCELA {
 		}
 
 		reasoner.setSynchronized();
-		operator = new SynchronizedRefinementOperator(operator);
+		// RhoDRDown can be used by all workers in parallel, other operators have to be synchronized
+		if (!(operator instanceof RhoDRDown)) {
+			operator = new SynchronizedRefinementOperator(operator);
+		}
 	}
 
 	@Override
@@ -333,61 +337,67 @@ public class PCELOE extends AbstractCELA {
 		reset();
 		nanoStartTime = System.nanoTime();
 
-		addNode(startClass, null);
-
 		int nrOfWorkers = nrOfThreads;
 		if(nrOfWorkers == 0){
 			nrOfWorkers = Runtime.getRuntime().availableProcessors();
 		}
 		ExecutorService service = Executors.newFixedThreadPool(nrOfWorkers);
+		initInstanceCheckExecutor();
+
+		try {
+			addNode(startClass, null);
 
-		List<Runnable> tasks = new ArrayList<>();
+			List<Runnable> tasks = new ArrayList<>();
 
-		boolean shareRefinementOperator = false;
+			boolean shareRefinementOperator = false;
 		
-		for(int i = 0; i < nrOfWorkers; i++){
-			PCELOEWorker worker;
-			if(shareRefinementOperator) {
-				ClosedWorldReasoner reasonerCopy = new ClosedWorldReasoner();
-				reasonerCopy.setSources(reasoner.getSources());
-				try {
-					reasonerCopy.init();
-				} catch (ComponentInitException e1) {
-					// TODO Auto-generated catch block
-					e1.printStackTrace();
-				}
+			for(int i = 0; i < nrOfWorkers; i++){
+				PCELOEWorker worker;
+				if(shareRefinementOperator) {
+					ClosedWorldReasoner reasonerCopy = new ClosedWorldReasoner();
+					reasonerCopy.setSources(reasoner.getSources());
+					try {
+						reasonerCopy.init();
+					} catch (ComponentInitException e1) {
+						// TODO Auto-generated catch block
+						e1.printStackTrace();
+					}
+
+					if(operator instanceof SynchronizedRefinementOperator) {
+						operator = ((SynchronizedRefinementOperator) operator).getDelegate();
+					}
+					RhoDRDown op = new RhoDRDown((RhoDRDown) operator);
+					op.setReasoner(reasonerCopy);
+					try {
+						op.init();
+					} catch (ComponentInitException e) {
+						// TODO Auto-generated catch block
+						e.printStackTrace();
+					}
+					worker = new PCELOEWorker(op);
+				} else {
+					worker = new PCELOEWorker();
 
-				if(operator instanceof SynchronizedRefinementOperator) {
-					operator = ((SynchronizedRefinementOperator) operator).getDelegate();
 				}
-				RhoDRDown op = new RhoDRDown((RhoDRDown) operator);
-				op.setReasoner(reasonerCopy);
+				tasks.add(worker);
+			}
+			nanoStartTime = System.nanoTime();
+
+			//needed to block until all threads have been finished, because otherwise the main thread outputs the result to early
+			List<Future> futures = new ArrayList<>();
+			for(Runnable task : tasks){
+				futures.add(service.submit(task));
+			}
+			for(Future future : futures){
 				try {
-					op.init();
-				} catch (ComponentInitException e) {
-					// TODO Auto-generated catch block
+					future.get();
+				} catch (InterruptedException | ExecutionException e) {
 					e.printStackTrace();
 				}
-				worker = new PCELOEWorker(op);
-			} else {
-				worker = new PCELOEWorker();
-
-			}
-			tasks.add(worker);
-		}
-		nanoStartTime = System.nanoTime();
-
-		//needed to block until all threads have been finished, because otherwise the main thread outputs the result to early
-		List<Future> futures = new ArrayList<>();
-		for(Runnable task : tasks){
-			futures.add(service.submit(task));
-		}
-		for(Future future : futures){
-			try {
-				future.get();
-			} catch (InterruptedException | ExecutionException e) {
-				e.printStackTrace();
 			}
+		} finally {
+			service.shutdown();
+			shutdownInstanceCheckExecutor();
 		}
 
 		if (stop) {
@@ -407,7 +417,6 @@ public class PCELOE extends AbstractCELA {
 //		System.out.println(startNode.toTreeString(baseURI));
 
 		isRunning = false;
-		service.shutdown();
 //		System.out.println("isRunning: " + isRunning);
 	}
 
@@ -496,22 +505,19 @@ public class PCELOE extends AbstractCELA {
 		// we expand the best node of those, which have not achieved 100% accuracy
 		// already and have a horizontal expansion equal to their length
 		// (rationale: further extension is likely to add irrelevant syntactical constructs)
-		synchronized (searchTree) {
-			Iterator<OENode> it = searchTree.descendingIterator();
+		// the iterator is weakly consistent, nodes currently expanded by other workers are skipped
+		Iterator<OENode> it = searchTree.descendingExpandableIterator();
 
-			while(it.hasNext()) {
-				OENode node = it.next();
-				if (currentlyProcessedNodes.contains(node)) continue;
+		while(it.hasNext()) {
+			OENode node = it.next();
+			if (currentlyProcessedNodes.contains(node)) continue;
 
-				if (isExpandAccuracy100Nodes() && node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription())) {
-						currentlyProcessedNodes.add(node);
-						return node;
-				} else {
-					if(node.getAccuracy() < 1.0 || node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription())) {
-						currentlyProcessedNodes.add(node);
-						return node;
-					}
+			if (isExpandable(node) && currentlyProcessedNodes.add(node)) {
+				// the node might have been expanded by another worker in the meantime
+				if (isExpandable(node)) {
+					return node;
 				}
+				currentlyProcessedNodes.remove(node);
 			}
 		}
 
@@ -520,6 +526,10 @@ public class PCELOE extends AbstractCELA {
 		return null;//nodes.last();
 	}
 
+	private boolean isExpandable(OENode node) {
+		return node.getAccuracy() < 1.0 || node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription());
+	}
+
 	// expand node horizontically
 	private TreeSet<OWLClassExpression> refineNode(LengthLimitedRefinementOperator operator, OENode node) {
 		MonitorFactory.getTimeMonitor("refineNode").start();
@@ -788,9 +798,9 @@ public class PCELOE extends AbstractCELA {
 		// set all values back to their default values (used for running
 		// the algorithm more than once)
 //		nodes = new TreeSet<OENode>(heuristic);
-		searchTree = new SynchronizedSearchTree(heuristic);
-		//Sets.synchronizedNavigableSet(new TreeSet<OENode>(Collections.reverseOrder(heuristic)));
-		descriptions = Collections.synchronizedSortedSet(new TreeSet<>());
+		searchTree = new ConcurrentSearchTree<>(heuristic);
+		searchTree.setExpandablePredicate(this::isExpandable);
+		descriptions = new OWLClassExpressionInterner();
 		bestEvaluatedDescriptions.getSet().clear();
 		expressionTests = 0;
 		highestAccuracy = 0.0;
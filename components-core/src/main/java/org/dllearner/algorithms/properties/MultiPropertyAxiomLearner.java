@@ -21,6 +21,7 @@ package org.dllearner.algorithms.properties;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
 import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.query.Query;
@@ -42,6 +43,9 @@ import uk.ac.manchester.cs.owl.owlapi.OWLObjectPropertyImpl;
 
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -52,7 +56,10 @@ import java.util.concurrent.TimeUnit;
  * algorithms on that sample afterwards.
  * Note that this only works for subsets of axiom types that have the same sample structure.
  * </br>
- * Additionally, this class is able to configure and run the algorithms in a parallel way.
+ * Additionally, this class is able to configure and run the algorithms in a parallel way. When sampling is
+ * activated, the samples of all clusters are merged into a single local model shared by all algorithms.
+ * The learners for several entities can share an executor via {@link #setExecutor(Executor)}, which then
+ * bounds the number of concurrently running sample queries and algorithms for all of them.
  * @author Lorenz Buehmann
  *
  */
@@ -69,7 +76,12 @@ public class MultiPropertyAxiomLearner {
 	private long pageSize = 10000;
 
 	private boolean multiThreaded = false;
-	private int maxNrOfThreads = 1;
+	// 0 means one thread, or the number of available processors if multi-threading is enabled
+	private int maxNrOfThreads = 0;
+
+	// the executor set by the user, or a pool owned by this learner and reused for each run
+	private Executor executor;
+	private ExecutorService threadPool;
 	
 	private long maxExecutionTimeMilliseconds = -1;
 
@@ -83,7 +95,7 @@ public class MultiPropertyAxiomLearner {
 
 	private Set<AxiomType<? extends OWLAxiom>> axiomTypes;
 	
-	private Map<AxiomType<? extends OWLAxiom>, AbstractAxiomLearningAlgorithm> algorithms = new HashMap<>();
+	private Map<AxiomType<? extends OWLAxiom>, AbstractAxiomLearningAlgorithm> algorithms = new ConcurrentHashMap<>();
 	
 	public MultiPropertyAxiomLearner(SparqlEndpointKS ks) {
 		this(ks.getQueryExecutionFactory());
@@ -96,19 +108,23 @@ public class MultiPropertyAxiomLearner {
 	}
 	
 	public void start(){
+		startAsync().join();
+	}
+
+	/**
+	 * Starts the learning without waiting for it to finish. The sample generation and the algorithms are
+	 * run by the executor, no thread of it is blocked while waiting for other tasks.
+	 * @return a future which is completed when all algorithms have finished
+	 */
+	public CompletableFuture<Void> startAsync(){
 		startTime = System.currentTimeMillis();
 
 		checkConfigOptions();
-		
-		// check if entity is empty
-		int popularity = reasoner.getPopularity(entity);
-		if(popularity == 0){
-			logger.warn("Cannot make axiom suggestions for empty " + entity.getEntityType().getName() + " " + entity.toStringID());
-			return;
-		}
-		
+
+		final OWLEntity entity = this.entity;
 		results = Maps.newConcurrentMap();
-		
+		algorithms = new ConcurrentHashMap<>();
+
 		EntityType<?> entityType = entity.getEntityType();
 		
 		// check for axiom types that are not appropriate for the given entity
@@ -118,71 +134,101 @@ public class MultiPropertyAxiomLearner {
 			logger.warn("Not supported axiom types for entity " + entity + " :" + notAllowed);
 		}
 		
-		Set<AxiomType<? extends OWLAxiom>> todo = Sets.intersection(axiomTypes,  possibleAxiomTypes);
-		
-		// compute samples for axiom types
-		Set<AxiomTypeCluster> sampleClusters = AxiomAlgorithms.getSameSampleClusters(entityType);
-		
-		ExecutorService tp = Executors.newFixedThreadPool(maxNrOfThreads);
-		
-		for (final AxiomTypeCluster cluster : sampleClusters) {
-			final SetView<AxiomType<? extends OWLAxiom>> sampleAxiomTypes = Sets.intersection(cluster.getAxiomTypes(), todo);
-			
-			if(!sampleAxiomTypes.isEmpty()){
-				tp.submit(() -> {
-					try {
-						SparqlEndpointKS ks1 = MultiPropertyAxiomLearner.this.ks;
-
-						// get sample if enabled
-						if(useSampling){
-							Model sample = generateSample(entity, cluster);
-
-							// if sampling failed, we skip
-							if(sample == null) {
-								return;
-							}
-
-							// if the sample is empty, we skip and show warning
-							if(sample.isEmpty()) {
-								logger.warn("Empty sample. Skipped learning.");
-								return;
-							}
-
-							ks1 = new LocalModelBasedSparqlEndpointKS(sample);
-						}
+		final Set<AxiomType<? extends OWLAxiom>> todo = Sets.newHashSet(Sets.intersection(axiomTypes,  possibleAxiomTypes));
+		final Executor executor = getExecutor();
+
+		return CompletableFuture.supplyAsync(() -> reasoner.getPopularity(entity), executor)
+				.thenCompose(popularity -> {
+					// check if entity is empty
+					if(popularity == 0){
+						logger.warn("Cannot make axiom suggestions for empty " + entity.getEntityType().getName() + " " + entity.toStringID());
+						return CompletableFuture.completedFuture(null);
+					}
+					return useSampling ? learnOnSample(entity, todo, executor) : learn(entity, todo, ks, executor);
+				})
+				.exceptionally(e -> {
+					logger.error("Failed to process " + OWLAPIUtils.getPrintName(entity.getEntityType()) + " " + entity.toStringID(), e);
+					return null;
+				});
+	}
 
-						// process each axiom type
-						for (AxiomType<? extends OWLAxiom> axiomType : sampleAxiomTypes) {
-							try {
-								List<EvaluatedAxiom<OWLAxiom>> result = applyAlgorithm(axiomType, ks1);
-								results.put(axiomType, result);
-							} catch (Exception e) {
-								logger.error("An error occurred while generating " + axiomType.getName() +
-										" axioms for " + OWLAPIUtils.getPrintName(entity.getEntityType()) + " " + entity.toStringID(), e);
-							}
+	private CompletableFuture<Void> learnOnSample(OWLEntity entity, Set<AxiomType<? extends OWLAxiom>> todo, Executor executor) {
+		// compute the samples of the clusters concurrently
+		Map<AxiomTypeCluster, CompletableFuture<Model>> samples = new HashMap<>();
+		for (final AxiomTypeCluster cluster : AxiomAlgorithms.getSameSampleClusters(entity.getEntityType())) {
+			if(!Sets.intersection(cluster.getAxiomTypes(), todo).isEmpty()){
+				samples.put(cluster, CompletableFuture.supplyAsync(() -> generateSample(entity, cluster), executor));
+			}
+		}
+
+		return CompletableFuture.allOf(samples.values().toArray(new CompletableFuture[samples.size()]))
+				.thenCompose(v -> {
+					// merge the samples, the axiom types of clusters for which sampling failed are skipped
+					Model sample = ModelFactory.createDefaultModel();
+					Set<AxiomType<? extends OWLAxiom>> sampled = new HashSet<>();
+					for (Map.Entry<AxiomTypeCluster, CompletableFuture<Model>> entry : samples.entrySet()) {
+						Model clusterSample = entry.getValue().join();
+						if(clusterSample != null) {
+							sample.add(clusterSample);
+							sampled.addAll(Sets.intersection(entry.getKey().getAxiomTypes(), todo));
 						}
-					} catch (Exception e) {
-						logger.error("Failed to process " + cluster, e);
 					}
+
+					// if sampling failed for all clusters, we skip
+					if(sampled.isEmpty()) {
+						return CompletableFuture.completedFuture(null);
+					}
+
+					// if the sample is empty, we skip and show warning
+					if(sample.isEmpty()) {
+						logger.warn("Empty sample. Skipped learning.");
+						return CompletableFuture.completedFuture(null);
+					}
+
+					// the algorithms only read the sample, thus they can share it
+					return learn(entity, sampled, new LocalModelBasedSparqlEndpointKS(sample), executor);
 				});
-				
-			}
+	}
+
+	private CompletableFuture<Void> learn(OWLEntity entity, Set<AxiomType<? extends OWLAxiom>> axiomTypes,
+										  SparqlEndpointKS ks, Executor executor) {
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (AxiomType<? extends OWLAxiom> axiomType : axiomTypes) {
+			futures.add(CompletableFuture.runAsync(() -> {
+				try {
+					List<EvaluatedAxiom<OWLAxiom>> result = applyAlgorithm(entity, axiomType, ks);
+					results.put(axiomType, result);
+				} catch (Exception e) {
+					logger.error("An error occurred while generating " + axiomType.getName() +
+							" axioms for " + OWLAPIUtils.getPrintName(entity.getEntityType()) + " " + entity.toStringID(), e);
+				}
+			}, executor));
 		}
-		
-		try {
-			tp.shutdown();
-			tp.awaitTermination(1, TimeUnit.HOURS);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+	}
+
+	private synchronized Executor getExecutor() {
+		if(executor != null) {
+			return executor;
+		}
+		if(threadPool == null) {
+			int nrOfThreads = maxNrOfThreads > 0 ? maxNrOfThreads
+					: multiThreaded ? Runtime.getRuntime().availableProcessors() : 1;
+			threadPool = Executors.newFixedThreadPool(nrOfThreads,
+					new ThreadFactoryBuilder().setNameFormat("axiom-learner-%d").setDaemon(true).build());
+		}
+		return threadPool;
+	}
+
+	/**
+	 * Shuts down the pool of threads created by this learner, if any. An executor set via
+	 * {@link #setExecutor(Executor)} is not shut down.
+	 */
+	public synchronized void shutdown() {
+		if(threadPool != null) {
+			threadPool.shutdown();
+			threadPool = null;
 		}
-//		
-//		for (AxiomType<? extends OWLAxiom> axiomType : todo) {
-//			try {
-//				applyAlgorithm(entity, axiomType, useSampling ? axiomType2Ks.get(axiomType) : ks);
-//			} catch (Exception e) {
-//				logger.error("Error occurred while generating " + axiomType.getName() + " for entity " + entity, e);
-//			}
-//		}
 	}
 	
 	public Map<AxiomType<? extends OWLAxiom>, List<EvaluatedAxiom<OWLAxiom>>> getCurrentlyBestEvaluatedAxioms() {
@@ -261,8 +307,19 @@ public class MultiPropertyAxiomLearner {
 	/**
 	 * @param maxNrOfThreads the max. nr of threads
 	 */
-	public void setMaxNrOfThreads(int maxNrOfThreads) {
+	public synchronized void setMaxNrOfThreads(int maxNrOfThreads) {
 		this.maxNrOfThreads = maxNrOfThreads;
+		shutdown();
+	}
+
+	/**
+	 * Set the executor which runs the sample generation and the algorithms, e.g. to share a bounded pool of
+	 * threads among the learners for several entities. If not set, a pool of
+	 * {@link #setMaxNrOfThreads(int)} threads is created.
+	 * @param executor the executor
+	 */
+	public synchronized void setExecutor(Executor executor) {
+		this.executor = executor;
 	}
 
 	/**
@@ -285,7 +342,7 @@ public class MultiPropertyAxiomLearner {
 		this.maxSampleGenerationTimeMilliseconds = sampleGenerationTimeUnit.toMillis(sampleGenerationTimeDuration);
 	}
 
-	private List<EvaluatedAxiom<OWLAxiom>> applyAlgorithm(AxiomType<? extends OWLAxiom> axiomType, SparqlEndpointKS ks) throws ComponentInitException{
+	private List<EvaluatedAxiom<OWLAxiom>> applyAlgorithm(OWLEntity entity, AxiomType<? extends OWLAxiom> axiomType, SparqlEndpointKS ks) throws ComponentInitException{
 		Class<? extends AbstractAxiomLearningAlgorithm<? extends OWLAxiom, ? extends OWLObject, ? extends OWLEntity>> algorithmClass = AxiomAlgorithms.getAlgorithmClass(axiomType);
 		AbstractAxiomLearningAlgorithm learner = null;
 		try {
@@ -372,7 +429,7 @@ public class MultiPropertyAxiomLearner {
 	}
 
 	private void checkConfigOptions() {
-		if(multiThreaded && maxNrOfThreads == 1) {
+		if(multiThreaded && maxNrOfThreads == 1 && executor == null) {
 			logger.warn("You enabled multi-threaded execution but set the number of threads to 1. " +
 								"You probably want to increase this value.");
 		}
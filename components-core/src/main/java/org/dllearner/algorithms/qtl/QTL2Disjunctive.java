@@ -18,19 +18,21 @@
  */
 package org.dllearner.algorithms.qtl;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import com.jamonapi.MonitorFactory;
 import gnu.trove.map.TObjectIntMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
 import org.dllearner.algorithms.qtl.datastructures.impl.EvaluatedRDFResourceTree;
 import org.dllearner.algorithms.qtl.datastructures.impl.QueryTreeImpl.LiteralNodeConversionStrategy;
 import org.dllearner.algorithms.qtl.datastructures.impl.QueryTreeImpl.LiteralNodeSubsumptionStrategy;
 import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.TermDictionary;
 import org.dllearner.algorithms.qtl.heuristics.QueryTreeHeuristic;
 import org.dllearner.algorithms.qtl.heuristics.QueryTreeHeuristicSimple;
 import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
@@ -39,6 +41,7 @@ import org.dllearner.algorithms.qtl.operations.lgg.LGGGenerator;
 import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorRDFS;
 import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorSimple;
 import org.dllearner.algorithms.qtl.util.Entailment;
+import org.dllearner.algorithms.qtl.util.SubsumptionIndex;
 import org.dllearner.core.*;
 import org.dllearner.core.StringRenderer.Rendering;
 import org.dllearner.core.config.ConfigOption;
@@ -50,8 +53,11 @@ import org.dllearner.kb.sparql.ConciseBoundedDescriptionGeneratorImpl;
 import org.dllearner.learningproblems.Heuristics;
 import org.dllearner.learningproblems.PosNegLP;
 import org.dllearner.learningproblems.QueryTreeScore;
+import org.dllearner.utilities.OwlApiJenaUtils;
+import org.semanticweb.owlapi.model.EntityType;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.util.SimpleShortFormProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,12 +89,16 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	
 	private double bestCurrentScore = 0d;
 	
-	private List<RDFResourceTree> currentPosExampleTrees = new ArrayList<>();
-	private List<RDFResourceTree> currentNegExampleTrees = new ArrayList<>();
-	private Set<OWLIndividual> currentPosExamples = new HashSet<>();
-	private Set<OWLIndividual> currentNegExamples = new HashSet<>();
+	private Set<OWLIndividual> currentPosExamples = new TreeSet<>();
+	private Set<OWLIndividual> currentNegExamples = new TreeSet<>();
 	
-	private BiMap<RDFResourceTree, OWLIndividual> tree2Individual = HashBiMap.create();
+	// the trees of all examples, which are only kept in their compact encoding
+	private TermDictionary termDictionary = new TermDictionary();
+	private Map<OWLIndividual, CompactRDFResourceTree> exampleTrees = new HashMap<>();
+
+	// prefilters the example trees which might be subsumed by a query tree
+	private SubsumptionIndex exampleTreeIndex;
+	private Map<Node, Collection<Node>> subPropertyEdges = new HashMap<>();
 
 	private PosNegLP lp;
 
@@ -227,7 +237,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		// generate the query trees
 		generateQueryTrees();
 		
-		startPosExamplesSize = currentPosExampleTrees.size();
+		startPosExamplesSize = currentPosExamples.size();
 		
 		//console rendering of class expressions
 		StringRenderer.setRenderer(Rendering.MANCHESTER_SYNTAX);
@@ -251,19 +261,28 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		this.entailment = entailment;
 	}
 	
+	// the CBDs of all examples are requested at once, which allows for batching the requests
+	private Map<String, Model> getConciseBoundedDescriptions(Set<OWLIndividual> individuals) {
+		List<String> resources = new ArrayList<>(individuals.size());
+		for (OWLIndividual ind : individuals) {
+			resources.add(ind.toStringID());
+		}
+		return cbdGen.getConciseBoundedDescriptions(resources, maxTreeDepth, false);
+	}
+
 	private void generateQueryTrees(){
 		logger.info("Generating trees...");
 		RDFResourceTree queryTree;
 		
 		// positive examples
-		if(currentPosExampleTrees.isEmpty()){
+		if(currentPosExamples.isEmpty()){
+			Map<String, Model> cbds = getConciseBoundedDescriptions(lp.getPositiveExamples());
 			for (OWLIndividual ind : lp.getPositiveExamples()) {
 				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
+					Model cbd = cbds.get(ind.toStringID());
 //					cbd.write(new FileOutputStream("/tmp/dbpedia-" + ind.toStringID().substring(ind.toStringID().lastIndexOf('/') + 1) + ".ttl"), "TURTLE", null);
 					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
-					tree2Individual.put(queryTree, ind);
-					currentPosExampleTrees.add(queryTree);
+					exampleTrees.put(ind, CompactRDFResourceTree.of(queryTree, termDictionary));
 					currentPosExamples.add(ind);
 					logger.debug(ind.toStringID());
 					logger.debug(queryTree.getStringRepresentation());
@@ -275,13 +294,13 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		}
 		
 		// negative examples
-		if(currentNegExampleTrees.isEmpty()){
+		if(currentNegExamples.isEmpty()){
+			Map<String, Model> cbds = getConciseBoundedDescriptions(lp.getNegativeExamples());
 			for (OWLIndividual ind : lp.getNegativeExamples()) {
 				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
+					Model cbd = cbds.get(ind.toStringID());
 					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
-					tree2Individual.put(queryTree, ind);
-					currentNegExampleTrees.add(queryTree);
+					exampleTrees.put(ind, CompactRDFResourceTree.of(queryTree, termDictionary));
 					currentNegExamples.add(ind);
 					logger.debug(ind.toStringID());
 					logger.debug(queryTree.getStringRepresentation());
@@ -300,7 +319,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	@Override
 	public void start() {
 
-		if(currentPosExampleTrees.isEmpty()) {
+		if(currentPosExamples.isEmpty()) {
 			logger.info("No positive examples given!");
 			return;
 		}
@@ -313,8 +332,8 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		int i = 1;
 		while(!terminationCriteriaSatisfied() && (useDisjunction || i == 1)){
 			logger.info(i++ + ". iteration...");
-			logger.info("#Remaining pos. examples:" + currentPosExampleTrees.size());
-			logger.info("#Remaining neg. examples:" + currentNegExampleTrees.size());
+			logger.info("#Remaining pos. examples:" + currentPosExamples.size());
+			logger.info("#Remaining neg. examples:" + currentNegExamples.size());
 			
 			// compute best (partial) solution computed so far
 			EvaluatedRDFResourceTree bestPartialSolution = computeBestPartialSolution();
@@ -325,19 +344,17 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 				partialSolutions.add(bestPartialSolution);
 				
 				// remove all examples covered by current partial solution
-				RDFResourceTree tree;
-				for (Iterator<RDFResourceTree> iterator = currentPosExampleTrees.iterator(); iterator.hasNext();) {
-					tree = iterator.next();
-					if(!bestPartialSolution.getFalseNegatives().contains(tree)){//a pos tree that is not covered
+				OWLIndividual ind;
+				for (Iterator<OWLIndividual> iterator = currentPosExamples.iterator(); iterator.hasNext();) {
+					ind = iterator.next();
+					if(!bestPartialSolution.getFalseNegatives().contains(ind)){//a pos example that is not covered
 						iterator.remove();
-						currentPosExamples.remove(tree2Individual.get(tree));
 					}
 				}
-				for (Iterator<RDFResourceTree> iterator = currentNegExampleTrees.iterator(); iterator.hasNext();) {
-					tree = iterator.next();
-					if(bestPartialSolution.getFalsePositives().contains(tree)){//a neg example that is covered
+				for (Iterator<OWLIndividual> iterator = currentNegExamples.iterator(); iterator.hasNext();) {
+					ind = iterator.next();
+					if(bestPartialSolution.getFalsePositives().contains(ind)){//a neg example that is covered
 						iterator.remove();
-						currentNegExamples.remove(tree2Individual.get(tree));
 					}
 				}
 				
@@ -407,19 +424,19 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		logger.info("Computing best partial solution...");
 		bestCurrentScore = Double.NEGATIVE_INFINITY;
 		partialSolutionStartTime = System.currentTimeMillis();
-		initTodoList(currentPosExampleTrees, currentNegExampleTrees);
+		initTodoList(currentPosExamples, currentNegExamples);
 		
 		EvaluatedRDFResourceTree bestPartialSolutionTree = null;
 		EvaluatedRDFResourceTree currentElement;
 		RDFResourceTree currentTree;
 		
-		// generate id for each pos and neg example tree
-		TObjectIntMap<RDFResourceTree> index = new TObjectIntHashMap<>(this.currentPosExampleTrees.size() + this.currentNegExampleTrees.size());
+		// generate id for each pos and neg example
+		TObjectIntMap<OWLIndividual> index = new TObjectIntHashMap<>(this.currentPosExamples.size() + this.currentNegExamples.size());
 		int id = 1;
-		for (RDFResourceTree posTree : currentPosExampleTrees) {
-			index.put(posTree, id++);
+		for (OWLIndividual posExample : currentPosExamples) {
+			index.put(posExample, id++);
 		}
-		Set<Set<RDFResourceTree>> processedCombinations = new HashSet<>();
+		Set<Set<OWLIndividual>> processedCombinations = new HashSet<>();
 		
 		while(!partialSolutionTerminationCriteriaSatisfied()){
 			logger.trace("ToDo list size: " + todoList.size());
@@ -427,30 +444,30 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			currentElement = todoList.poll();
 			currentTree = currentElement.getTree();
 			
-			logger.trace("Next tree: {} ({})", currentElement.getBaseQueryTrees(), currentElement.getTreeScore());
+			logger.trace("Next tree: {} ({})", currentElement.getBaseExamples(), currentElement.getTreeScore());
 			
 			// generate the LGG between the chosen tree and each false negative resp. uncovered positive example
-			Collection<RDFResourceTree> falseNegatives = currentElement.getFalseNegatives();
+			Collection<OWLIndividual> falseNegatives = currentElement.getFalseNegatives();
 			
 			if(falseNegatives.isEmpty()) { // if the current solution covers already all pos examples
 //				addToSolutions(bestPartialSolutionTree);
 //				bestPartialSolutionTree = currentElement;
 			}
 			
-			Iterator<RDFResourceTree> it = falseNegatives.iterator();
+			Iterator<OWLIndividual> it = falseNegatives.iterator();
 			while (it.hasNext() && !(useDisjunction && isPartialSolutionTimeExpired()) && !isTimeExpired()) {
-				RDFResourceTree uncoveredTree = it.next();
-				logger.trace("Uncovered tree: "  + uncoveredTree);
+				OWLIndividual uncoveredExample = it.next();
+				logger.trace("Uncovered example: "  + uncoveredExample);
 				
 				// we should avoid the computation of lgg(t2,t1) if we already did lgg(t1,t2)
-				Set<RDFResourceTree> baseQueryTrees = Sets.newTreeSet(currentElement.getBaseQueryTrees());
-				baseQueryTrees.add(uncoveredTree);
+				Set<OWLIndividual> baseExamples = Sets.newTreeSet(currentElement.getBaseExamples());
+				baseExamples.add(uncoveredExample);
 //				String s = "";
-//				for (RDFResourceTree queryTree : baseQueryTrees) {
-//					s += index.get(queryTree) + ",";
+//				for (OWLIndividual example : baseExamples) {
+//					s += index.get(example) + ",";
 //				}
 //				System.err.println(s);
-				if(!processedCombinations.add(baseQueryTrees)) {
+				if(!processedCombinations.add(baseExamples)) {
 //					System.err.println("skipping");
 //					continue;
 				}
@@ -458,6 +475,8 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 				// compute the LGG
 				MonitorFactory.getTimeMonitor("lgg").start();
 				((LGGGeneratorSimple)lggGenerator).setTimeout(getRemainingPartialSolutionTime(), TimeUnit.SECONDS);
+				// the example tree is decoded for the LGG computation only
+				RDFResourceTree uncoveredTree = exampleTrees.get(uncoveredExample).toRDFResourceTree();
 				RDFResourceTree lgg = lggGenerator.getLGG(currentTree, uncoveredTree);
 				MonitorFactory.getTimeMonitor("lgg").stop();
 //				System.out.println("COMPLETE:" + ((LGGGeneratorSimple)lggGenerator).isComplete());
@@ -473,8 +492,8 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 				// evaluate the LGG
 				Set<EvaluatedRDFResourceTree> solutions = evaluate(lgg, true);
 				for (EvaluatedRDFResourceTree solution : solutions) {
-					solution.setBaseQueryTrees(baseQueryTrees);
-					logger.trace("solution: {} ({})", solution.getBaseQueryTrees(), solution.getTreeScore());
+					solution.setBaseExamples(baseExamples);
+					logger.trace("solution: {} ({})", solution.getBaseExamples(), solution.getTreeScore());
 					expressionTests++;
 					double score = solution.getScore();
 					double mas = heuristic.getMaximumAchievableScore(solution);
@@ -538,40 +557,39 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	}
 	
 	/**
-	 * Initializes the ToDo list with all distinct trees contained in the given list of positive
-	 * example trees {@code posExamples} and negative example trees {@code negExamples}.
+	 * Initializes the ToDo list with all distinct trees of the given positive examples
+	 * {@code posExamples} and negative examples {@code negExamples}.
 	 * First, distinct trees are computed and afterwards, for each tree an initial score will be
 	 *  computed.
-	 * @param posExamples the positive example trees
-	 * @param negExamples the negative example trees
+	 * @param posExamples the positive examples
+	 * @param negExamples the negative examples
 	 */
-	private void initTodoList(List<RDFResourceTree> posExamples, List<RDFResourceTree> negExamples){
+	private void initTodoList(Set<OWLIndividual> posExamples, Set<OWLIndividual> negExamples){
 		todoList = new PriorityQueue<>();
 		currentPartialSolutions = new TreeSet<>();
 //		EvaluatedRDFResourceTree dummy = new EvaluatedRDFResourceTree(new QueryTreeImpl<String>((N)"TOP"), trees, 0d);
 //		todoList.add(dummy);
 		
 		// compute distinct trees, i.e. check if some of the trees already cover others
-		Collection<RDFResourceTree> distinctTrees = new ArrayList<>();
-		for (RDFResourceTree queryTree : posExamples) {
+		Map<OWLIndividual, RDFResourceTree> distinctTrees = new LinkedHashMap<>();
+		for (OWLIndividual posExample : posExamples) {
+			RDFResourceTree queryTree = exampleTrees.get(posExample).toRDFResourceTree();
 			boolean distinct = true;
-			for (RDFResourceTree otherTree : distinctTrees) {
-				if(!queryTree.equals(otherTree)){
-					if(QueryTreeUtils.sameTrees(queryTree, otherTree)){
-						distinct = false;
-						break;
-					}
+			for (RDFResourceTree otherTree : distinctTrees.values()) {
+				if(QueryTreeUtils.sameTrees(queryTree, otherTree)){
+					distinct = false;
+					break;
 				}
 			}
 			if(distinct){
-				distinctTrees.add(queryTree);
+				distinctTrees.put(posExample, queryTree);
 			}
 		}
 		
 		// compute an initial score
-		for (RDFResourceTree queryTree : distinctTrees) {
-			EvaluatedRDFResourceTree evaluatedQueryTree = evaluateSimple(queryTree, false);
-			evaluatedQueryTree.setBaseQueryTrees(Collections.singleton(queryTree));
+		for (Entry<OWLIndividual, RDFResourceTree> entry : distinctTrees.entrySet()) {
+			EvaluatedRDFResourceTree evaluatedQueryTree = evaluateSimple(entry.getValue(), false);
+			evaluatedQueryTree.setBaseExamples(Collections.singleton(entry.getKey()));
 			todoList.add(evaluatedQueryTree);
 		}
 	}
@@ -585,7 +603,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		for (EvaluatedRDFResourceTree evTree : todoList) {
 			if(QueryTreeUtils.sameTrees(tree, evTree.getTree())){
 				logger.trace("Not added to TODO list: Already contained in.");
-//				logger.trace(evTree.getBaseQueryTrees().toString());
+//				logger.trace(evTree.getBaseExamples().toString());
 				return true;
 			}
 		}
@@ -612,23 +630,15 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	private EvaluatedRDFResourceTree evaluateSimple(RDFResourceTree tree, boolean useSpecifity){
 		//1. get a score for the coverage = recall oriented
 		//compute positive examples which are not covered by LGG
-		List<RDFResourceTree> uncoveredPositiveExampleTrees = getUncoveredTrees(tree, currentPosExampleTrees);
-		Set<OWLIndividual> uncoveredPosExamples = new TreeSet<>();
-		for (RDFResourceTree queryTree : uncoveredPositiveExampleTrees) {
-			uncoveredPosExamples.add(tree2Individual.get(queryTree));
-		}
+		Set<OWLIndividual> uncoveredPosExamples = getUncoveredExamples(tree, currentPosExamples);
 		//compute negative examples which are covered by LGG
-		Collection<RDFResourceTree> coveredNegativeExampleTrees = getCoveredTrees(tree, currentNegExampleTrees);
-		Set<OWLIndividual> coveredNegExamples = new TreeSet<>();
-		for (RDFResourceTree queryTree : coveredNegativeExampleTrees) {
-			coveredNegExamples.add(tree2Individual.get(queryTree));
-		}
+		Set<OWLIndividual> coveredNegExamples = getCoveredExamples(tree, currentNegExamples);
 		//compute score
-		int coveredPositiveExamples = currentPosExampleTrees.size() - uncoveredPositiveExampleTrees.size();
-		double recall = coveredPositiveExamples / (double)currentPosExampleTrees.size();
-		double precision = (coveredNegativeExampleTrees.size() + coveredPositiveExamples == 0)
+		int coveredPositiveExamples = currentPosExamples.size() - uncoveredPosExamples.size();
+		double recall = coveredPositiveExamples / (double)currentPosExamples.size();
+		double precision = (coveredNegExamples.size() + coveredPositiveExamples == 0)
 						? 0
-						: coveredPositiveExamples / (double)(coveredPositiveExamples + coveredNegativeExampleTrees.size());
+						: coveredPositiveExamples / (double)(coveredPositiveExamples + coveredNegExamples.size());
 		
 		double coverageScore = Heuristics.getFScore(recall, precision, beta);
 		
@@ -658,7 +668,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 //				null,null,null,null,
 //				specifityScore, nrOfSpecificNodes);
 		
-		EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree, uncoveredPositiveExampleTrees, coveredNegativeExampleTrees, queryTreeScore);
+		EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree, uncoveredPosExamples, coveredNegExamples, queryTreeScore);
 		
 		//TODO use only the heuristic to compute the score
 		score = heuristic.getScore(evaluatedTree);
@@ -687,38 +697,45 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 				};
 		for (LiteralNodeSubsumptionStrategy strategy : strategies) {
 			// 1. get a score for the coverage = recall oriented
-			List<RDFResourceTree> uncoveredPositiveExampleTrees = new ArrayList<>();
-			List<RDFResourceTree> coveredNegativeExampleTrees = new ArrayList<>();
+			Set<OWLIndividual> uncoveredPosExamples = new TreeSet<>();
+			Set<OWLIndividual> coveredNegExamples = new TreeSet<>();
+			
+			// the examples which cannot be subsumed are skipped
+			BitSet candidates = entailment == Entailment.SIMPLE
+					? exampleTreeIndex.getCandidates(tree)
+					: exampleTreeIndex.getCandidates(tree, this::getSubPropertyEdges);
+			// the terms of the tree are only looked up, thus, the dictionary does not grow with the candidates
+			CompactRDFResourceTree compactTree = entailment == Entailment.SIMPLE
+					? CompactRDFResourceTree.lookup(tree, termDictionary)
+					: null;
 			
 			// compute positive examples which are not covered by LGG
-			for (RDFResourceTree posTree : currentPosExampleTrees) {
-//				System.out.print(currentPosExampleTrees.indexOf(posTree) + ":");
-				if(!QueryTreeUtils.isSubsumedBy(posTree, tree, entailment, reasoner)){
-//					System.err.println(posTree.getStringRepresentation(true));System.err.println(tree.getStringRepresentation(true));
+			for (OWLIndividual posExample : currentPosExamples) {
+				CompactRDFResourceTree posTree = exampleTrees.get(posExample);
+				if(!exampleTreeIndex.isCandidate(candidates, posTree)
+						|| !isSubsumedBy(posTree, tree, compactTree)){
 //					System.out.println("FALSE");
-					uncoveredPositiveExampleTrees.add(posTree);
+					uncoveredPosExamples.add(posExample);
 				} else {
 //					System.out.println("TRUE");
 				}
 			}
 			
 			// compute negative examples which are covered by LGG
-			for (RDFResourceTree negTree : currentNegExampleTrees) {
-				if(QueryTreeUtils.isSubsumedBy(negTree, tree, entailment, reasoner)){
-					coveredNegativeExampleTrees.add(negTree);
+			for (OWLIndividual negExample : currentNegExamples) {
+				CompactRDFResourceTree negTree = exampleTrees.get(negExample);
+				if(exampleTreeIndex.isCandidate(candidates, negTree)
+						&& isSubsumedBy(negTree, tree, compactTree)){
+					coveredNegExamples.add(negExample);
 				}
 			}
 			
-			// convert to individuals
-			Set<OWLIndividual> uncoveredPosExamples = asIndividuals(uncoveredPositiveExampleTrees);
-			Set<OWLIndividual> coveredNegExamples = asIndividuals(coveredNegativeExampleTrees);
-			
 			// compute score
-			int coveredPositiveExamples = currentPosExampleTrees.size() - uncoveredPositiveExampleTrees.size();
-			double recall = coveredPositiveExamples / (double)currentPosExampleTrees.size();
-			double precision = (coveredNegativeExampleTrees.size() + coveredPositiveExamples == 0)
+			int coveredPositiveExamples = currentPosExamples.size() - uncoveredPosExamples.size();
+			double recall = coveredPositiveExamples / (double)currentPosExamples.size();
+			double precision = (coveredNegExamples.size() + coveredPositiveExamples == 0)
 							? 0
-							: coveredPositiveExamples / (double)(coveredPositiveExamples + coveredNegativeExampleTrees.size());
+							: coveredPositiveExamples / (double)(coveredPositiveExamples + coveredNegExamples.size());
 			
 			double coverageScore = Heuristics.getFScore(recall, precision, beta);
 			
@@ -742,7 +759,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 					coveredNegExamples, new TreeSet<>(Sets.difference(currentNegExamples, coveredNegExamples)),
 					specifityScore, nrOfSpecificNodes);
 			
-			EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree, uncoveredPositiveExampleTrees, coveredNegativeExampleTrees, queryTreeScore);
+			EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree, uncoveredPosExamples, coveredNegExamples, queryTreeScore);
 			
 			//TODO use only the heuristic to compute the score
 			score = heuristic.getScore(evaluatedTree);
@@ -814,7 +831,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			
 			//TODO use only the heuristic to compute the score
 			EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree,
-					asQueryTrees(uncoveredPosExamples), asQueryTrees(coveredNegExamples), queryTreeScore);
+					uncoveredPosExamples, coveredNegExamples, queryTreeScore);
 			score = heuristic.getScore(evaluatedTree);
 			queryTreeScore.setScore(score);
 			queryTreeScore.setAccuracy(score);
@@ -888,6 +905,13 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		
 		bestCurrentScore = minimumTreeScore;
 		
+		List<CompactRDFResourceTree> trees = new ArrayList<>(currentPosExamples.size() + currentNegExamples.size());
+		for (OWLIndividual ind : Iterables.concat(currentPosExamples, currentNegExamples)) {
+			trees.add(exampleTrees.get(ind));
+		}
+		exampleTreeIndex = SubsumptionIndex.of(trees);
+		subPropertyEdges.clear();
+		
 		MonitorFactory.getTimeMonitor("lgg").reset();
 		nanoStartTime = System.nanoTime();
 	}
@@ -957,52 +981,74 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		}
 	}
 	
-	private Set<OWLIndividual> asIndividuals(Collection<RDFResourceTree> trees){
-		Set<OWLIndividual> individuals = new HashSet<>(trees.size());
-		for (RDFResourceTree queryTree : trees) {
-			individuals.add(tree2Individual.get(queryTree));
-		}
-		return individuals;
-	}
-	
-	private Set<RDFResourceTree> asQueryTrees(Collection<OWLIndividual> individuals){
-		Set<RDFResourceTree> trees = new HashSet<>(individuals.size());
-		for (OWLIndividual ind : individuals) {
-			trees.add(tree2Individual.inverse().get(ind));
+
+	/**
+	 * Computes all examples from the given set {@code examples} whose trees are subsumed by {@code tree}.
+	 * @param tree the tree
+	 * @param examples the examples
+	 * @return all examples from the given set {@code examples} whose trees are subsumed by {@code tree}
+	 */
+	private Set<OWLIndividual> getCoveredExamples(RDFResourceTree tree, Set<OWLIndividual> examples){
+		Set<OWLIndividual> coveredExamples = new TreeSet<>();
+		BitSet candidates = exampleTreeIndex.getCandidates(tree);
+		CompactRDFResourceTree compactTree = CompactRDFResourceTree.lookup(tree, termDictionary);
+		for (OWLIndividual example : examples) {
+			CompactRDFResourceTree exampleTree = exampleTrees.get(example);
+			if(exampleTreeIndex.isCandidate(candidates, exampleTree) && exampleTree.isSubsumedBy(compactTree)){
+				coveredExamples.add(example);
+			}
 		}
-		return trees;
+		return coveredExamples;
 	}
 
 	/**
-	 * Computes all trees from the given list {@code allTrees} which are subsumed by {@code tree}.
+	 * Computes all examples from the given set {@code examples} whose trees are not subsumed by {@code tree}.
 	 * @param tree the tree
-	 * @param trees all trees
-	 * @return all trees from the given list {@code allTrees} which are subsumed by {@code tree}
+	 * @param examples the examples
+	 * @return all examples from the given set {@code examples} whose trees are not subsumed by {@code tree}.
 	 */
-	private List<RDFResourceTree> getCoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
-		List<RDFResourceTree> coveredTrees = new ArrayList<>();
-		for (RDFResourceTree queryTree : trees) {
-			if(QueryTreeUtils.isSubsumedBy(queryTree, tree)){
-				coveredTrees.add(queryTree);
+	private Set<OWLIndividual> getUncoveredExamples(RDFResourceTree tree, Set<OWLIndividual> examples){
+		Set<OWLIndividual> uncoveredExamples = new TreeSet<>();
+		BitSet candidates = exampleTreeIndex.getCandidates(tree);
+		CompactRDFResourceTree compactTree = CompactRDFResourceTree.lookup(tree, termDictionary);
+		for (OWLIndividual example : examples) {
+			CompactRDFResourceTree exampleTree = exampleTrees.get(example);
+			if(!exampleTreeIndex.isCandidate(candidates, exampleTree) || !exampleTree.isSubsumedBy(compactTree)){
+				uncoveredExamples.add(example);
 			}
 		}
-		return coveredTrees;
+		return uncoveredExamples;
 	}
 
 	/**
-	 * Computes all trees from the given list {@code trees} which are not subsumed by {@code tree}.
+	 * Checks whether the example tree is subsumed by the given tree. Without entailment, the check is done on
+	 * the compact encodings of both trees, otherwise the example tree is decoded for the check.
+	 * @param exampleTree the example tree
 	 * @param tree the tree
-	 * @param trees the trees
-	 * @return all trees from the given list {@code trees} which are not subsumed by {@code tree}.
+	 * @param compactTree the compact encoding of {@code tree}, or <code>null</code> if entailment is used
+	 * @return whether {@code exampleTree} is subsumed by {@code tree}
 	 */
-	private List<RDFResourceTree> getUncoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
-		List<RDFResourceTree> uncoveredTrees = new ArrayList<>();
-		for (RDFResourceTree queryTree : trees) {
-			if(!QueryTreeUtils.isSubsumedBy(queryTree, tree)){
-				uncoveredTrees.add(queryTree);
-			}
+	private boolean isSubsumedBy(CompactRDFResourceTree exampleTree, RDFResourceTree tree, CompactRDFResourceTree compactTree) {
+		if(compactTree != null) {
+			return exampleTree.isSubsumedBy(compactTree);
 		}
-		return uncoveredTrees;
+		return QueryTreeUtils.isSubsumedBy(exampleTree.toRDFResourceTree(), tree, entailment, reasoner);
+	}
+
+	/**
+	 * @return the edge and the edges of its sub-properties, as matched by the
+	 * subsumption check with entailment
+	 */
+	private Collection<Node> getSubPropertyEdges(Node edge) {
+		return subPropertyEdges.computeIfAbsent(edge, e -> {
+			OWLObjectProperty prop = OwlApiJenaUtils.asOWLEntity(e, EntityType.OBJECT_PROPERTY);
+			Set<Node> edges = new HashSet<>();
+			edges.add(e);
+			for (OWLObjectProperty subProp : reasoner.getSubProperties(prop)) {
+				edges.add(OwlApiJenaUtils.asNode(subProp));
+			}
+			return edges;
+		});
 	}
 
 	private boolean terminationCriteriaSatisfied() {
@@ -1033,7 +1079,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	}
 	
 	private boolean partialSolutionTerminationCriteriaSatisfied(){
-		return stop || todoList.isEmpty() || currentPosExampleTrees.isEmpty() || (useDisjunction && isPartialSolutionTimeExpired()) || isTimeExpired();
+		return stop || todoList.isEmpty() || currentPosExamples.isEmpty() || (useDisjunction && isPartialSolutionTimeExpired()) || isTimeExpired();
 	}
 	
 	private boolean isPartialSolutionTimeExpired(){
@@ -1049,8 +1095,8 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	 */
 	private void printSetup(){
 		String setup = "Setup:";
-		setup += "\n#Pos. examples:" + currentPosExampleTrees.size();
-		setup += "\n#Neg. examples:" + currentNegExampleTrees.size();
+		setup += "\n#Pos. examples:" + currentPosExamples.size();
+		setup += "\n#Neg. examples:" + currentNegExamples.size();
 		setup += "\nHeuristic:" + heuristic.getHeuristicType().name();
 		setup += "\nNoise value=" + noise;
 		setup += "\nbeta=" + beta;
@@ -1124,30 +1170,26 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	}
 	
 	/**
-	 * @param positiveExampleTrees the positive example trees to set
+	 * @param positiveExampleTrees the positive example trees to set, which are
+	 * only kept in their compact encoding
 	 */
 	public void setPositiveExampleTrees(Map<OWLIndividual,RDFResourceTree> positiveExampleTrees) {
-		this.currentPosExampleTrees = new ArrayList<>(positiveExampleTrees.values());
-		this.currentPosExamples = new HashSet<>(positiveExampleTrees.keySet());
+		this.currentPosExamples = new TreeSet<>(positiveExampleTrees.keySet());
 		
 		for (Entry<OWLIndividual, RDFResourceTree> entry : positiveExampleTrees.entrySet()) {
-			OWLIndividual ind = entry.getKey();
-			RDFResourceTree tree = entry.getValue();
-			tree2Individual.put(tree, ind);
+			exampleTrees.put(entry.getKey(), CompactRDFResourceTree.of(entry.getValue(), termDictionary));
 		}
 	}
 	
 	/**
-	 * @param negativeExampleTrees the negative example trees to set
+	 * @param negativeExampleTrees the negative example trees to set, which are
+	 * only kept in their compact encoding
 	 */
 	public void setNegativeExampleTrees(Map<OWLIndividual,RDFResourceTree> negativeExampleTrees) {
-		this.currentNegExampleTrees = new ArrayList<>(negativeExampleTrees.values());
-		this.currentNegExamples = new HashSet<>(negativeExampleTrees.keySet());
+		this.currentNegExamples = new TreeSet<>(negativeExampleTrees.keySet());
 		
 		for (Entry<OWLIndividual, RDFResourceTree> entry : negativeExampleTrees.entrySet()) {
-			OWLIndividual ind = entry.getKey();
-			RDFResourceTree tree = entry.getValue();
-			tree2Individual.put(tree, ind);
+			exampleTrees.put(entry.getKey(), CompactRDFResourceTree.of(entry.getValue(), termDictionary));
 		}
 	}
 	
@@ -160,6 +160,9 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 
 	private int nrOfThreads = Runtime.getRuntime().availableProcessors();
 
+	// the work-stealing pool computing the LGGs of all partial solutions of a run
+	private ForkJoinPool pool;
+
 	public QTL2DisjunctiveMultiThreaded() {}
 
 	public QTL2DisjunctiveMultiThreaded(PosNegLP learningProblem, AbstractReasonerComponent reasoner) {
@@ -263,15 +266,25 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 		this.nrOfThreads = nrOfThreads;
 	}
 
+	// the CBDs of all examples are requested at once, which allows for batching the requests
+	private Map<String, Model> getConciseBoundedDescriptions(Set<OWLIndividual> individuals) {
+		List<String> resources = new ArrayList<>(individuals.size());
+		for (OWLIndividual ind : individuals) {
+			resources.add(ind.toStringID());
+		}
+		return cbdGen.getConciseBoundedDescriptions(resources, maxTreeDepth, false);
+	}
+
 	private void generateQueryTrees(){
 		logger.info("Generating trees...");
 		RDFResourceTree queryTree;
 
 		// positive examples
 		if(currentPosExampleTrees.isEmpty()){
+			Map<String, Model> cbds = getConciseBoundedDescriptions(lp.getPositiveExamples());
 			for (OWLIndividual ind : lp.getPositiveExamples()) {
 				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
+					Model cbd = cbds.get(ind.toStringID());
 //					cbd.write(new FileOutputStream("/tmp/dbpedia-" + ind.toStringID().substring(ind.toStringID().lastIndexOf('/') + 1) + ".ttl"), "TURTLE", null);
 					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
 					tree2Individual.put(queryTree, ind);
@@ -288,9 +301,10 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 
 		// negative examples
 		if(currentNegExampleTrees.isEmpty()){
+			Map<String, Model> cbds = getConciseBoundedDescriptions(lp.getNegativeExamples());
 			for (OWLIndividual ind : lp.getNegativeExamples()) {
 				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
+					Model cbd = cbds.get(ind.toStringID());
 					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
 					tree2Individual.put(queryTree, ind);
 					currentNegExampleTrees.add(queryTree);
@@ -334,51 +348,56 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 			partialSolutions.addAll(solutions);
 			currentBestSolution = solutions.iterator().next().asEvaluatedDescription();
 		} else {
-			int i = 1;
-			while(!terminationCriteriaSatisfied() && (useDisjunction || i == 1)){
-				logger.info(i++ + ". iteration...");
-				logger.info("#Remaining pos. examples:" + currentPosExampleTrees.size());
-				logger.info("#Remaining neg. examples:" + currentNegExampleTrees.size());
-
-				// compute best (partial) solution computed so far
-				EvaluatedRDFResourceTree bestPartialSolution = computeBestPartialSolution();
-
-				// add to set of partial solutions if criteria are satisfied
-				if(bestPartialSolution.getScore() >= minimumTreeScore){
-
-					partialSolutions.add(bestPartialSolution);
-
-					// remove all examples covered by current partial solution
-					RDFResourceTree tree;
-					for (Iterator<RDFResourceTree> iterator = currentPosExampleTrees.iterator(); iterator.hasNext();) {
-						tree = iterator.next();
-						if(!bestPartialSolution.getFalseNegatives().contains(tree)){//a pos tree that is not covered
-							iterator.remove();
-							currentPosExamples.remove(tree2Individual.get(tree));
+			pool = new ForkJoinPool(nrOfThreads);
+			try {
+				int i = 1;
+				while(!terminationCriteriaSatisfied() && (useDisjunction || i == 1)){
+					logger.info(i++ + ". iteration...");
+					logger.info("#Remaining pos. examples:" + currentPosExampleTrees.size());
+					logger.info("#Remaining neg. examples:" + currentNegExampleTrees.size());
+
+					// compute best (partial) solution computed so far
+					EvaluatedRDFResourceTree bestPartialSolution = computeBestPartialSolution();
+
+					// add to set of partial solutions if criteria are satisfied
+					if(bestPartialSolution.getScore() >= minimumTreeScore){
+
+						partialSolutions.add(bestPartialSolution);
+
+						// remove all examples covered by current partial solution
+						RDFResourceTree tree;
+						for (Iterator<RDFResourceTree> iterator = currentPosExampleTrees.iterator(); iterator.hasNext();) {
+							tree = iterator.next();
+							if(!bestPartialSolution.getFalseNegatives().contains(tree2Individual.get(tree))){//a pos tree that is not covered
+								iterator.remove();
+								currentPosExamples.remove(tree2Individual.get(tree));
+							}
 						}
-					}
-					for (Iterator<RDFResourceTree> iterator = currentNegExampleTrees.iterator(); iterator.hasNext();) {
-						tree = iterator.next();
-						if(bestPartialSolution.getFalsePositives().contains(tree)){//a neg example that is covered
-							iterator.remove();
-							currentNegExamples.remove(tree2Individual.get(tree));
+						for (Iterator<RDFResourceTree> iterator = currentNegExampleTrees.iterator(); iterator.hasNext();) {
+							tree = iterator.next();
+							if(bestPartialSolution.getFalsePositives().contains(tree2Individual.get(tree))){//a neg example that is covered
+								iterator.remove();
+								currentNegExamples.remove(tree2Individual.get(tree));
+							}
 						}
-					}
 
-					// (re)build the current combined solution from all partial solutions
-					currentBestSolution = buildCombinedSolution();
+						// (re)build the current combined solution from all partial solutions
+						currentBestSolution = buildCombinedSolution();
 
-					logger.info("combined accuracy: " + dFormat.format(currentBestSolution.getAccuracy()));
-				} else {
-					String message = "No partial tree found which satisfies the minimal criteria.";
-					if(currentBestSolution != null) {
-						message += "- the best was: "
-								+ currentBestSolution.getDescription()
-								+ " with score " + currentBestSolution.getScore();
+						logger.info("combined accuracy: " + dFormat.format(currentBestSolution.getAccuracy()));
+					} else {
+						String message = "No partial tree found which satisfies the minimal criteria.";
+						if(currentBestSolution != null) {
+							message += "- the best was: "
+									+ currentBestSolution.getDescription()
+									+ " with score " + currentBestSolution.getScore();
+						}
+						logger.info(message);
 					}
-					logger.info(message);
-				}
 
+				}
+			} finally {
+				pool.shutdownNow();
 			}
 		}
 
@@ -439,114 +458,94 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 		for (RDFResourceTree posTree : currentPosExampleTrees) {
 			index.put(posTree, id++);
 		}
-		Set<Set<RDFResourceTree>> processedCombinations = new HashSet<>();
-
-		ExecutorService pool = Executors.newFixedThreadPool(nrOfThreads);
-
-		while(!partialSolutionTerminationCriteriaSatisfied()){
-			logger.trace("ToDo list size: " + todoList.size());
-			// pick best element from todo list
-			EvaluatedRDFResourceTree currentElement = todoList.poll();
-			final RDFResourceTree currentTree = currentElement.getTree();
+		// the combinations of examples whose LGG has been computed or is in progress
+		Set<Set<OWLIndividual>> processedCombinations = ConcurrentHashMap.newKeySet();
+
+		// the LGG computations in progress, whose results are taken in the order of completion
+		CompletionService<Set<EvaluatedRDFResourceTree>> completionService = new ExecutorCompletionService<>(pool);
+		int inFlight = 0;
+		int maxInFlight = 2 * nrOfThreads;
+
+		while(true) {
+			// keep the pool busy by taking further elements from the todo list
+			while(inFlight < maxInFlight && !partialSolutionTerminationCriteriaSatisfied()) {
+				logger.trace("ToDo list size: " + todoList.size());
+				// pick best element from todo list
+				EvaluatedRDFResourceTree currentElement = todoList.poll();
+				final RDFResourceTree currentTree = currentElement.getTree();
+
+				logger.trace("Next tree: {} ({})", currentElement.getBaseExamples(), currentElement.getTreeScore());
+
+				// the LGGs are checked for redundancy against the trees known at submission, which
+				// does not depend on the order in which the computations in progress complete
+				List<RDFResourceTree> knownTrees = getKnownTrees();
+
+				// generate the LGG between the chosen tree and each false negative resp. uncovered positive example
+				for (OWLIndividual fn : currentElement.getFalseNegatives()) {
+					Set<OWLIndividual> baseExamples = Sets.newTreeSet(Sets.union(currentElement.getBaseExamples(), Sets.newHashSet(fn)));
+					if(processedCombinations.add(Sets.newHashSet(baseExamples))) {
+						RDFResourceTree fnTree = tree2Individual.inverse().get(fn);
+						completionService.submit(() -> computePartialSolution(currentTree, fnTree, baseExamples, knownTrees));
+						inFlight++;
+					}
+				}
+			}
 
-			logger.trace("Next tree: {} ({})", currentElement.getBaseQueryTrees(), currentElement.getTreeScore());
+			if(inFlight == 0) {
+				break;
+			}
 
-			// generate the LGG between the chosen tree and each false negative resp. uncovered positive example
-			Collection<RDFResourceTree> falseNegatives = currentElement.getFalseNegatives();
+			// the results are processed by this thread only, thus, the todo list and the
+			// partial solutions are neither read nor modified by the worker threads
+			Set<EvaluatedRDFResourceTree> solutions;
+			try {
+				solutions = completionService.take().get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (ExecutionException e) {
+				logger.error("Computation of partial solution failed.", e.getCause());
+				continue;
+			} finally {
+				inFlight--;
+			}
 
-			if(falseNegatives.isEmpty()) { // if the current solution covers already all pos examples
-//				addToSolutions(bestPartialSolutionTree);
-//				bestPartialSolutionTree = currentElement;
+			// once stopped, the remaining computations are only awaited, which are bounded
+			// by the partial solution timeout, such that none of them outlasts this method;
+			// redundant LGGs are returned without any solution
+			if(solutions == null || solutions.isEmpty() || isPartialSolutionComputationStopped()) {
+				continue;
 			}
 
-			List<CompletableFuture<Void>> list = falseNegatives.stream()
-					.filter(fn -> !processedCombinations.contains(Sets.union(currentElement.getBaseQueryTrees(), Sets.newHashSet(fn))))
-					.map(fn -> CompletableFuture.supplyAsync(() -> computePartialSolution(currentTree, fn, Sets.newTreeSet(Sets.union(currentElement.getBaseQueryTrees(), Sets.newHashSet(fn)))), pool))
-					.map(solutionFuture -> solutionFuture.thenAccept(solutions -> {
-						for (EvaluatedRDFResourceTree solution : solutions) {
-							logger.trace("solution: {} ({})", solution.getBaseQueryTrees(), solution.getTreeScore());
-							processedCombinations.add(solution.getBaseQueryTrees());
-							expressionTests++;
-							double score = solution.getScore();
-							double mas = heuristic.getMaximumAchievableScore(solution);
-
-							if (score >= bestCurrentScore) {
-								if (score > bestCurrentScore) {
-									timeBestSolutionFound = getCurrentRuntimeInMilliSeconds();
-									logger.info("\tGot better solution after {}ms:" + solution.getTreeScore(), timeBestSolutionFound);
-//									logger.info("\t" + solutionAsString(solution.asEvaluatedDescription()));
-									bestCurrentScore = score;
-									bestPartialSolutionTree = solution;
-								}
-								// add to ToDo list, if not already contained in ToDo list or solution list
-								if (bestCurrentScore == 1.0 || mas > score) {
-//							todo(solution);
-								}
-							} else if (bestCurrentScore == 1.0 || mas >= bestCurrentScore) { // add to ToDo list if max. achievable score is higher
-//						todo(solution);
-							} else {
-								logger.trace("Too weak: {}", solution.getTreeScore());
-//						System.err.println(solution.getEvaluatedDescription());
-//						System.out.println("Too general");
-//						System.out.println("MAS=" + mas + "\nBest=" + bestCurrentScore);
+			for (EvaluatedRDFResourceTree solution : solutions) {
+				logger.trace("solution: {} ({})", solution.getBaseExamples(), solution.getTreeScore());
+				expressionTests++;
+				double score = solution.getScore();
+				double mas = heuristic.getMaximumAchievableScore(solution);
+
+				if (score >= bestCurrentScore) {
+					if (score > bestCurrentScore) {
+						timeBestSolutionFound = getCurrentRuntimeInMilliSeconds();
+						logger.info("\tGot better solution after {}ms:" + solution.getTreeScore(), timeBestSolutionFound);
+//						logger.info("\t" + solutionAsString(solution.asEvaluatedDescription()));
+						bestCurrentScore = score;
+						bestPartialSolutionTree = solution;
+					} else if (solution.compareTo(bestPartialSolutionTree) < 0) {
+						// equally good solutions complete in arbitrary order, thus, ties are broken by the base examples
+						bestPartialSolutionTree = solution;
+					}
+					// add to ToDo list, if not already contained in ToDo list or solution list
+					if (bestCurrentScore == 1.0 || mas > score) {
 //						todo(solution);
-							}
-							todo(solution);
-							addToSolutions(solution);
-						}
-					}))
-					.collect(Collectors.toList());
-			list.forEach(c -> {
-				try {
-					c.get();
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				} catch (ExecutionException e) {
-					e.printStackTrace();
+					}
+				} else if (bestCurrentScore == 1.0 || mas >= bestCurrentScore) { // add to ToDo list if max. achievable score is higher
+//					todo(solution);
+				} else {
+					logger.trace("Too weak: {}", solution.getTreeScore());
 				}
-			});
-
-
-//			while (it.hasNext() && !(useDisjunction && isPartialSolutionTimeExpired()) && !isTimeExpired()) {
-//				RDFResourceTree uncoveredTree = it.next();
-//				logger.trace("Uncovered tree: " + uncoveredTree);
-//				// we should avoid the computation of lgg(t2,t1) if we already did lgg(t1,t2)
-//				Set<RDFResourceTree> baseQueryTrees = Sets.newTreeSet(currentElement.getBaseQueryTrees());
-//				baseQueryTrees.add(uncoveredTree);
-////				String s = "";
-////				for (RDFResourceTree queryTree : baseQueryTrees) {
-////					s += index.get(queryTree) + ",";
-////				}
-////				System.err.println(s);
-//				if (!processedCombinations.add(baseQueryTrees)) {
-////					System.err.println("skipping");
-////					continue;
-//				}
-//
-//				PartialSolutionComputationTask callable = new PartialSolutionComputationTask(currentTree, uncoveredTree, baseQueryTrees);
-//				Future<Set<EvaluatedRDFResourceTree>> future = pool.submit(callable);
-//				set.add(future);
-//			}
-
-//			for (Future<Set<EvaluatedRDFResourceTree>> future : set) {
-//				try {
-//					Set<EvaluatedRDFResourceTree> solutions = future.get();
-//
-//
-//				} catch (InterruptedException e) {
-//					e.printStackTrace();
-//				} catch (ExecutionException e) {
-//					e.printStackTrace();
-//				}
-//			}
-//			addToSolutions(currentElement);
-		}
-
-		pool.shutdown();
-		try {
-			pool.awaitTermination(1, TimeUnit.SECONDS);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+				todo(solution);
+				addToSolutions(solution);
+			}
 		}
 
 		long endTime = System.currentTimeMillis();
@@ -612,29 +611,35 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 		// compute an initial score
 		for (RDFResourceTree queryTree : distinctTrees) {
 			EvaluatedRDFResourceTree evaluatedQueryTree = evaluateSimple(queryTree, false);
-			evaluatedQueryTree.setBaseQueryTrees(Collections.singleton(queryTree));
+			evaluatedQueryTree.setBaseExamples(Collections.singleton(tree2Individual.get(queryTree)));
 			todoList.add(evaluatedQueryTree);
 		}
 	}
 
 	/**
-	 * @return TRUE if the query tree is already contained in the solutions or
-	 * todo list, otherwise FALSE
+	 * @return the trees currently contained in the todo list and the solutions
 	 */
-	private boolean isRedundant(RDFResourceTree tree) {
-		//check if not already contained in todo list
+	private List<RDFResourceTree> getKnownTrees() {
+		List<RDFResourceTree> trees = new ArrayList<>(todoList.size() + currentPartialSolutions.size());
 		for (EvaluatedRDFResourceTree evTree : todoList) {
-			if(QueryTreeUtils.sameTrees(tree, evTree.getTree())){
-				logger.trace("Not added to TODO list: Already contained in.");
-//				logger.trace(evTree.getBaseQueryTrees().toString());
-				return true;
-			}
+			trees.add(evTree.getTree());
 		}
-
-		//check if not already contained in solutions
 		for (EvaluatedRDFResourceTree evTree : currentPartialSolutions) {
-			if(QueryTreeUtils.sameTrees(tree, evTree.getTree())){
-				logger.trace("Not added to partial solutions list: Already contained in.");
+			trees.add(evTree.getTree());
+		}
+		return trees;
+	}
+
+	/**
+	 * @param tree the query tree
+	 * @param knownTrees the trees contained in the todo list and the solutions
+	 * @return TRUE if the query tree is already contained in the solutions or
+	 * todo list, otherwise FALSE
+	 */
+	private boolean isRedundant(RDFResourceTree tree, List<RDFResourceTree> knownTrees) {
+		for (RDFResourceTree knownTree : knownTrees) {
+			if(QueryTreeUtils.sameTrees(tree, knownTree)){
+				logger.trace("Not added to TODO list: Already contained in.");
 				return true;
 			}
 		}
@@ -699,7 +704,7 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 //				null,null,null,null,
 //				specifityScore, nrOfSpecificNodes);
 
-		EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree, uncoveredPositiveExampleTrees, coveredNegativeExampleTrees, queryTreeScore);
+		EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree, uncoveredPosExamples, coveredNegExamples, queryTreeScore);
 
 		//TODO use only the heuristic to compute the score
 		score = heuristic.getScore(evaluatedTree);
@@ -783,7 +788,7 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 					coveredNegExamples, new TreeSet<>(Sets.difference(currentNegExamples, coveredNegExamples)),
 					specifityScore, nrOfSpecificNodes);
 
-			EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree, uncoveredPositiveExampleTrees, coveredNegativeExampleTrees, queryTreeScore);
+			EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree, uncoveredPosExamples, coveredNegExamples, queryTreeScore);
 
 			//TODO use only the heuristic to compute the score
 			score = heuristic.getScore(evaluatedTree);
@@ -855,7 +860,7 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 
 			//TODO use only the heuristic to compute the score
 			EvaluatedRDFResourceTree evaluatedTree = new EvaluatedRDFResourceTree(tree,
-					asQueryTrees(uncoveredPosExamples), asQueryTrees(coveredNegExamples), queryTreeScore);
+					uncoveredPosExamples, coveredNegExamples, queryTreeScore);
 			score = heuristic.getScore(evaluatedTree);
 			queryTreeScore.setScore(score);
 			queryTreeScore.setAccuracy(score);
@@ -1006,14 +1011,6 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 		return individuals;
 	}
 
-	private Set<RDFResourceTree> asQueryTrees(Collection<OWLIndividual> individuals){
-		Set<RDFResourceTree> trees = new HashSet<>(individuals.size());
-		for (OWLIndividual ind : individuals) {
-			trees.add(tree2Individual.inverse().get(ind));
-		}
-		return trees;
-	}
-
 	/**
 	 * Computes all trees from the given list {@code allTrees} which are subsumed by {@code tree}.
 	 * @param tree the tree
@@ -1074,7 +1071,11 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 	}
 
 	private boolean partialSolutionTerminationCriteriaSatisfied(){
-		return stop || todoList.isEmpty() || currentPosExampleTrees.isEmpty() || (useDisjunction && isPartialSolutionTimeExpired()) || isTimeExpired();
+		return todoList.isEmpty() || currentPosExampleTrees.isEmpty() || isPartialSolutionComputationStopped();
+	}
+
+	private boolean isPartialSolutionComputationStopped(){
+		return stop || (useDisjunction && isPartialSolutionTimeExpired()) || isTimeExpired();
 	}
 
 	private boolean isPartialSolutionTimeExpired(){
@@ -1224,9 +1225,10 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 		return new QTL2DisjunctiveMultiThreaded(this);
 	}
 
-	private Set<EvaluatedRDFResourceTree> computePartialSolution(RDFResourceTree tree1, RDFResourceTree tree2, Set<RDFResourceTree> baseQueryTrees) {
+	private Set<EvaluatedRDFResourceTree> computePartialSolution(RDFResourceTree tree1, RDFResourceTree tree2,
+																 Set<OWLIndividual> baseExamples, List<RDFResourceTree> knownTrees) {
 		try {
-//			System.err.println(baseQueryTrees);
+//			System.err.println(baseExamples);
 
 			LGGGeneratorSimple lggGenerator = new LGGGeneratorSimple();
 			// compute the LGG
@@ -1238,15 +1240,14 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 //				logger.info("LGG: "  + lgg.getStringRepresentation());
 
 			// redundancy check
-			boolean redundant = isRedundant(lgg);
-			if (redundant) {
-                logger.trace("redundant");
-                return Collections.emptySet();
-            }
+			if(isRedundant(lgg, knownTrees)) {
+				logger.trace("redundant");
+				return Collections.emptySet();
+			}
 
 			// evaluate the LGG
 			Set<EvaluatedRDFResourceTree> solutions = evaluate(lgg, true);
-			solutions.forEach(s -> s.setBaseQueryTrees(baseQueryTrees));
+			solutions.forEach(s -> s.setBaseExamples(baseExamples));
 
 			return solutions;
 		} catch (Exception e) {
@@ -38,6 +38,7 @@ import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.dllearner.algorithms.qtl.datastructures.NodeInv;
 import org.dllearner.algorithms.qtl.datastructures.QueryTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
 import org.dllearner.algorithms.qtl.datastructures.impl.GenericTree;
 import org.dllearner.algorithms.qtl.datastructures.impl.QueryTreeImpl.LiteralNodeConversionStrategy;
 import org.dllearner.algorithms.qtl.datastructures.impl.QueryTreeImpl.LiteralNodeSubsumptionStrategy;
@@ -68,6 +69,9 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -85,6 +89,8 @@ public class QueryTreeUtils {
 	public static String EMPTY_QUERY_TREE_QUERY = "SELECT ?s WHERE {?s ?p ?o.}";
 	
 	private static Reasoner reasoner = ReasonerRegistry.getRDFSSimpleReasoner();
+
+	public static final int DEFAULT_PARALLELISM_THRESHOLD = 1000;
 	
 	/**
 	 * Returns the path from the given node to the root of the given tree, i.e.
@@ -359,6 +365,134 @@ public class QueryTreeUtils {
     	return true;
     }
     
+	/**
+	 * Determines if tree1 is subsumed by tree2, i.e. whether tree2 is more general than
+	 * tree1, in the same way as {@link #isSubsumedBy(RDFResourceTree, RDFResourceTree)}.
+	 * Both trees must share the same {@link org.dllearner.algorithms.qtl.datastructures.impl.TermDictionary}.
+	 * @param tree1 the first tree
+	 * @param tree2 the second tree
+	 * @return whether tree1 is subsumed by tree2
+	 */
+	public static boolean isSubsumedBy(CompactRDFResourceTree tree1, CompactRDFResourceTree tree2) {
+		return tree1.isSubsumedBy(tree2);
+	}
+
+	/**
+	 * Determines if tree1 is subsumed by tree2, i.e. whether tree2 is more general than
+	 * tree1. The children of the different edges of tree2 are compared in parallel
+	 * as long as tree2 has more than {@link #DEFAULT_PARALLELISM_THRESHOLD} nodes.
+	 * @param tree1 the first query tree
+	 * @param tree2 the second query tree
+	 * @param pool the pool used for the parallel comparison
+	 * @return whether <code>tree1</code> is subsumed by <code>tree2</code>
+	 */
+	public static boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2, ForkJoinPool pool) {
+		return isSubsumedBy(tree1, tree2, pool, DEFAULT_PARALLELISM_THRESHOLD);
+	}
+
+	/**
+	 * Determines if tree1 is subsumed by tree2, i.e. whether tree2 is more general than
+	 * tree1. The children of the different edges of tree2 are compared in parallel
+	 * as long as tree2 has more than the given number of nodes.
+	 * @param tree1 the first query tree
+	 * @param tree2 the second query tree
+	 * @param pool the pool used for the parallel comparison
+	 * @param parallelismThreshold the number of nodes of tree2 above which its edges
+	 * are compared in parallel
+	 * @return whether <code>tree1</code> is subsumed by <code>tree2</code>
+	 */
+	public static boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2, ForkJoinPool pool,
+									   int parallelismThreshold) {
+		SubsumptionTask task = new SubsumptionTask(tree1, tree2, parallelismThreshold);
+		// within the pool, the task is forked from the current worker
+		return ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke(task);
+	}
+
+	private static class SubsumptionTask extends RecursiveTask<Boolean> {
+
+		private final RDFResourceTree tree1;
+		private final RDFResourceTree tree2;
+		private final int parallelismThreshold;
+
+		SubsumptionTask(RDFResourceTree tree1, RDFResourceTree tree2, int parallelismThreshold) {
+			this.tree1 = tree1;
+			this.tree2 = tree2;
+			this.parallelismThreshold = parallelismThreshold;
+		}
+
+		@Override
+		protected Boolean compute() {
+			if(!hasMoreNodesThan(tree2, parallelismThreshold)) {
+				return isSubsumedBy(tree1, tree2);
+			}
+
+			// the root nodes decide for resource and literal nodes
+			if((tree1.isResourceNode() && tree2.isResourceNode()) || (tree1.isLiteralNode() && tree2.isLiteralNode())) {
+				return isSubsumedBy(tree1, tree2);
+			}
+			if(tree1.isVarNode() && !tree2.isVarNode()) {
+				return false;
+			}
+
+			// one task per edge of tree2
+			List<ForkJoinTask<Boolean>> tasks = new ArrayList<>();
+			for(Node edge2 : tree2.getEdges()) {
+				List<RDFResourceTree> children1 = tree1.getChildren(edge2);
+				if(children1 == null) {
+					return false;
+				}
+				tasks.add(ForkJoinTask.adapt(() -> {
+					for(RDFResourceTree child2 : tree2.getChildren(edge2)) {
+						boolean isSubsumed = false;
+						for(RDFResourceTree child1 : children1) {
+							if(new SubsumptionTask(child1, child2, parallelismThreshold).compute()) {
+								isSubsumed = true;
+								break;
+							}
+						}
+						if(!isSubsumed) {
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			if(tasks.isEmpty()) {
+				return true;
+			}
+			for(int i = 1; i < tasks.size(); i++) {
+				tasks.get(i).fork();
+			}
+			boolean subsumed = tasks.get(0).invoke();
+			for(int i = 1; i < tasks.size(); i++) {
+				if(!subsumed) {
+					tasks.get(i).cancel(false);
+				} else {
+					subsumed = tasks.get(i).join();
+				}
+			}
+			return subsumed;
+		}
+	}
+
+	private static boolean hasMoreNodesThan(RDFResourceTree tree, int nrOfNodes) {
+		return countNodes(tree, nrOfNodes + 1) > nrOfNodes;
+	}
+
+	// counts the nodes of the tree, but stops once the limit has been reached
+	private static int countNodes(RDFResourceTree tree, int limit) {
+		int cnt = 1;
+		for(Node edge : tree.getEdges()) {
+			for(RDFResourceTree child : tree.getChildren(edge)) {
+				if(cnt >= limit) {
+					return cnt;
+				}
+				cnt += countNodes(child, limit - cnt);
+			}
+		}
+		return cnt;
+	}
+    
     public static boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2, LiteralNodeSubsumptionStrategy strategy) {
 		return isSubsumedBy(tree1, tree2);
 	}
@@ -650,7 +784,45 @@ public class QueryTreeUtils {
 		if(!tree.hasChildren()){
     		return EMPTY_QUERY_TREE_QUERY;
     	}
-    	
+		return toSPARQLQueryString(baseIRI, pm,
+				(targetVar, sb, filters, context) -> buildSPARQLQueryString(tree, targetVar, sb, filters, context));
+	}
+
+	/**
+	 * Returns a SPARQL query for the given compact tree. The triple patterns are
+	 * created directly from the arrays of the tree, i.e. without converting it
+	 * into an {@link RDFResourceTree} first.
+	 * @param tree the tree
+	 * @return the SPARQL query
+	 */
+	public static Query toSPARQLQuery(CompactRDFResourceTree tree) {
+		return QueryFactory.create(toSPARQLQueryString(tree));
+	}
+
+	public static String toSPARQLQueryString(CompactRDFResourceTree tree) {
+		return toSPARQLQueryString(tree, PrefixMapping.Standard);
+	}
+
+	public static String toSPARQLQueryString(CompactRDFResourceTree tree, PrefixMapping pm) {
+		return toSPARQLQueryString(tree, null, pm);
+	}
+
+	public static String toSPARQLQueryString(CompactRDFResourceTree tree, String baseIRI, PrefixMapping pm) {
+		if(tree.size() == 1){
+			return EMPTY_QUERY_TREE_QUERY;
+		}
+		return toSPARQLQueryString(baseIRI, pm,
+				(targetVar, sb, filters, context) -> buildSPARQLQueryString(tree, 0, targetVar, sb, context));
+	}
+
+	/**
+	 * Appends the triple patterns of a tree for the given target variable.
+	 */
+	private interface TriplePatternBuilder {
+		void build(String targetVar, StringBuilder sb, Collection<ExprNode> filters, SerializationContext context);
+	}
+
+	private static String toSPARQLQueryString(String baseIRI, PrefixMapping pm, TriplePatternBuilder triplePatternBuilder) {
     	varGen.reset();
     	
     	SerializationContext context = new SerializationContext(pm);
@@ -683,7 +855,7 @@ public class QueryTreeUtils {
     	sb.append(String.format("SELECT DISTINCT %s WHERE {\n", targetVar));
     	
     	// triple patterns
-    	buildSPARQLQueryString(tree, targetVar, sb, filters, context);
+    	triplePatternBuilder.build(targetVar, sb, filters, context);
         
     	// filters
     	if(!filters.isEmpty()) {
@@ -804,6 +976,34 @@ public class QueryTreeUtils {
 		}
     }
 
+	private static void buildSPARQLQueryString(CompactRDFResourceTree tree, int node,
+			String subjectStr, StringBuilder sb, SerializationContext context) {
+		for (int child : tree.getChildren(node)) {
+			Node edge = tree.getEdge(child);
+			String predicateStr = FmtUtils.stringForNode(edge, context);
+
+			// var nodes and literal nodes describing a set of literals are fresh vars in the SPARQL query
+			Node object = tree.getLabel(child);
+			if(tree.isVarNode(child) || (tree.isLiteralNode(child) && !tree.isLiteralValueNode(child))) {
+				object = varGen.newVar();
+			}
+			String objectStr = FmtUtils.stringForNode(object, context);
+
+			// append triple pattern
+			if(edge instanceof NodeInv) {
+				sb.append(String.format(TRIPLE_PATTERN_TEMPLATE, objectStr, predicateStr, subjectStr));
+			} else {
+				sb.append(String.format(TRIPLE_PATTERN_TEMPLATE, subjectStr, predicateStr, objectStr));
+			}
+			sb.append("\n");
+
+			// only var nodes can have children which are relevant for the query
+			if (tree.isVarNode(child)) {
+				buildSPARQLQueryString(tree, child, objectStr, sb, context);
+			}
+		}
+	}
+
     public static RDFResourceTree materializePropertyDomains(RDFResourceTree tree, AbstractReasonerComponent reasoner) {
 		RDFResourceTree newTree = new RDFResourceTree(tree.getData());
 
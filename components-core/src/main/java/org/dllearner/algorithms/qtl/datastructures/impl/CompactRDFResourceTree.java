@@ -0,0 +1,466 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.datastructures.impl;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.vocabulary.RDF;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable and compact representation of an {@link RDFResourceTree}.
+ * <p>
+ * The nodes are stored in pre-order in parallel int arrays holding the label,
+ * the datatype and the edge to the parent of each node as IDs of a shared
+ * {@link TermDictionary}, as well as the size of the subtree rooted at each
+ * node. Thus, node 0 is the root, the first child of a node directly follows
+ * the node and each subtree is a contiguous range. The children of a node are
+ * ordered by the ID of their edge.
+ * </p>
+ * <p>
+ * Trees encoded by {@link #lookup(RDFResourceTree, TermDictionary)} do not add
+ * their terms to the dictionary. Terms not contained in it get negative IDs
+ * local to the tree, which never match a term of a tree encoded by
+ * {@link #of(RDFResourceTree, TermDictionary)}.
+ * </p>
+ * Trees can only be compared if they share the same dictionary.
+ */
+public class CompactRDFResourceTree {
+
+	private static final Node[] NO_TERMS = new Node[0];
+
+	private final TermDictionary dictionary;
+
+	private final int[] labels;
+	private final int[] datatypes;
+	private final int[] edges;
+	private final int[] sizes;
+
+	// the terms which are not contained in the dictionary, term i has the ID -2 - i
+	private final Node[] unknownTerms;
+
+	private CompactRDFResourceTree(TermDictionary dictionary, int[] labels, int[] datatypes, int[] edges, int[] sizes) {
+		this(dictionary, labels, datatypes, edges, sizes, NO_TERMS);
+	}
+
+	private CompactRDFResourceTree(TermDictionary dictionary, int[] labels, int[] datatypes, int[] edges, int[] sizes,
+								   Node[] unknownTerms) {
+		this.dictionary = dictionary;
+		this.labels = labels;
+		this.datatypes = datatypes;
+		this.edges = edges;
+		this.sizes = sizes;
+		this.unknownTerms = unknownTerms;
+	}
+
+	/**
+	 * Converts the given tree into its compact representation. Note, the IDs
+	 * of the tree nodes are not kept.
+	 *
+	 * @param tree the tree
+	 * @param dictionary the dictionary the terms of the tree are added to
+	 * @return the compact tree
+	 */
+	public static CompactRDFResourceTree of(RDFResourceTree tree, TermDictionary dictionary) {
+		int size = count(tree);
+		CompactRDFResourceTree compactTree = new CompactRDFResourceTree(dictionary,
+				new int[size], new int[size], new int[size], new int[size]);
+		compactTree.fill(tree, -1, 0, dictionary::getId);
+		return compactTree;
+	}
+
+	/**
+	 * Converts the given tree into its compact representation without adding
+	 * terms to the dictionary. Terms which are not contained in the dictionary
+	 * get IDs local to the returned tree, thus, a node or edge with such a term
+	 * cannot match any node or edge of a tree encoded by
+	 * {@link #of(RDFResourceTree, TermDictionary)}. This is meant for trees
+	 * which are only compared once, e.g. candidates checked against a fixed
+	 * set of example trees.
+	 *
+	 * @param tree the tree
+	 * @param dictionary the dictionary the terms of the tree are looked up in
+	 * @return the compact tree
+	 */
+	public static CompactRDFResourceTree lookup(RDFResourceTree tree, TermDictionary dictionary) {
+		int size = count(tree);
+		List<Node> unknownTerms = new ArrayList<>();
+		Map<Node, Integer> unknownIds = new HashMap<>();
+		int[] labels = new int[size];
+		int[] datatypes = new int[size];
+		int[] edges = new int[size];
+		int[] sizes = new int[size];
+		new CompactRDFResourceTree(dictionary, labels, datatypes, edges, sizes).fill(tree, -1, 0, term -> {
+			int id = dictionary.lookup(term);
+			if (id >= 0) {
+				return id;
+			}
+			return unknownIds.computeIfAbsent(term, t -> {
+				unknownTerms.add(t);
+				return -1 - unknownTerms.size();
+			});
+		});
+		return new CompactRDFResourceTree(dictionary, labels, datatypes, edges, sizes,
+				unknownTerms.isEmpty() ? NO_TERMS : unknownTerms.toArray(new Node[unknownTerms.size()]));
+	}
+
+	private static int count(RDFResourceTree tree) {
+		int cnt = 1;
+		for (RDFResourceTree child : tree.getChildren()) {
+			cnt += count(child);
+		}
+		return cnt;
+	}
+
+	// adds the tree at the given position and returns the position after the tree
+	private int fill(RDFResourceTree tree, int edge, int pos, ToIntFunction<Node> ids) {
+		labels[pos] = ids.applyAsInt(tree.getData());
+		RDFDatatype datatype = tree.getDatatype();
+		datatypes[pos] = datatype == null ? -1 : ids.applyAsInt(NodeFactory.createURI(datatype.getURI()));
+		edges[pos] = edge;
+
+		List<Node> treeEdges = new ArrayList<>(tree.getEdges());
+		int[] edgeIds = new int[treeEdges.size()];
+		Integer[] order = new Integer[treeEdges.size()];
+		for (int i = 0; i < edgeIds.length; i++) {
+			edgeIds[i] = ids.applyAsInt(treeEdges.get(i));
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingInt(i -> edgeIds[i]));
+
+		int next = pos + 1;
+		for (int i : order) {
+			for (RDFResourceTree child : tree.getChildren(treeEdges.get(i))) {
+				next = fill(child, edgeIds[i], next, ids);
+			}
+		}
+		sizes[pos] = next - pos;
+		return next;
+	}
+
+	/**
+	 * Creates a tree with the given root and children.
+	 *
+	 * @param dictionary the dictionary of the children
+	 * @param label the ID of the label of the root
+	 * @param datatype the ID of the datatype of the root, or -1
+	 * @param childEdges the IDs of the edges to the children
+	 * @param children the children
+	 * @return the tree
+	 */
+	public static CompactRDFResourceTree newTree(TermDictionary dictionary, int label, int datatype,
+												 int[] childEdges, List<CompactRDFResourceTree> children) {
+		int size = 1;
+		Integer[] order = new Integer[children.size()];
+		for (int i = 0; i < order.length; i++) {
+			CompactRDFResourceTree child = children.get(i);
+			if (child.dictionary != dictionary) {
+				throw new IllegalArgumentException("The trees must share the dictionary.");
+			}
+			if (child.unknownTerms.length > 0) {
+				throw new IllegalArgumentException("The trees must not contain terms which are not in the dictionary.");
+			}
+			size += child.size();
+			order[i] = i;
+		}
+		// stable, i.e. the order of the children of an edge is kept
+		Arrays.sort(order, Comparator.comparingInt(i -> childEdges[i]));
+
+		CompactRDFResourceTree tree = new CompactRDFResourceTree(dictionary,
+				new int[size], new int[size], new int[size], new int[size]);
+		tree.labels[0] = label;
+		tree.datatypes[0] = datatype;
+		tree.edges[0] = -1;
+		tree.sizes[0] = size;
+		int pos = 1;
+		for (int i : order) {
+			CompactRDFResourceTree child = children.get(i);
+			int childSize = child.size();
+			System.arraycopy(child.labels, 0, tree.labels, pos, childSize);
+			System.arraycopy(child.datatypes, 0, tree.datatypes, pos, childSize);
+			System.arraycopy(child.edges, 0, tree.edges, pos, childSize);
+			System.arraycopy(child.sizes, 0, tree.sizes, pos, childSize);
+			tree.edges[pos] = childEdges[i];
+			pos += childSize;
+		}
+		return tree;
+	}
+
+	/**
+	 * @param node the node
+	 * @return the subtree rooted at the given node as a separate tree
+	 */
+	public CompactRDFResourceTree subtree(int node) {
+		if (node == 0) {
+			return this;
+		}
+		int end = node + sizes[node];
+		CompactRDFResourceTree tree = new CompactRDFResourceTree(dictionary,
+				Arrays.copyOfRange(labels, node, end),
+				Arrays.copyOfRange(datatypes, node, end),
+				Arrays.copyOfRange(edges, node, end),
+				Arrays.copyOfRange(sizes, node, end),
+				unknownTerms);
+		tree.edges[0] = -1;
+		return tree;
+	}
+
+	/**
+	 * @return the mutable tree
+	 */
+	public RDFResourceTree toRDFResourceTree() {
+		return toRDFResourceTree(0);
+	}
+
+	private RDFResourceTree toRDFResourceTree(int node) {
+		RDFResourceTree tree = new RDFResourceTree(getLabel(node));
+		tree.setDatatype(getDatatype(node));
+		int end = node + sizes[node];
+		for (int child = node + 1; child < end; child += sizes[child]) {
+			tree.addChild(toRDFResourceTree(child), getEdge(child));
+		}
+		return tree;
+	}
+
+	/**
+	 * @return the dictionary of the terms
+	 */
+	public TermDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return labels.length;
+	}
+
+	/**
+	 * @param node the node
+	 * @return the number of nodes of the subtree rooted at the given node
+	 */
+	public int getSubtreeSize(int node) {
+		return sizes[node];
+	}
+
+	/**
+	 * @param node the node
+	 * @return the child nodes, ordered by the ID of their edge
+	 */
+	public int[] getChildren(int node) {
+		int cnt = 0;
+		int end = node + sizes[node];
+		for (int child = node + 1; child < end; child += sizes[child]) {
+			cnt++;
+		}
+		int[] children = new int[cnt];
+		int i = 0;
+		for (int child = node + 1; child < end; child += sizes[child]) {
+			children[i++] = child;
+		}
+		return children;
+	}
+
+	public int getLabelId(int node) {
+		return labels[node];
+	}
+
+	public Node getLabel(int node) {
+		return getTerm(labels[node]);
+	}
+
+	public int getDatatypeId(int node) {
+		return datatypes[node];
+	}
+
+	public RDFDatatype getDatatype(int node) {
+		int id = datatypes[node];
+		return id < -1 ? TypeMapper.getInstance().getSafeTypeByName(getTerm(id).getURI()) : dictionary.getDatatype(id);
+	}
+
+	/**
+	 * @param node the node
+	 * @return the ID of the edge to the parent, or -1 for the root
+	 */
+	public int getEdgeId(int node) {
+		return edges[node];
+	}
+
+	/**
+	 * @param node the node
+	 * @return the edge to the parent, or null for the root
+	 */
+	public Node getEdge(int node) {
+		return edges[node] == -1 ? null : getTerm(edges[node]);
+	}
+
+	/**
+	 * @return whether the tree contains terms which are not contained in the
+	 * dictionary, i.e. it has been encoded by {@link #lookup(RDFResourceTree, TermDictionary)}
+	 */
+	public boolean hasUnknownTerms() {
+		return unknownTerms.length > 0;
+	}
+
+	private Node getTerm(int id) {
+		return id >= 0 ? dictionary.getTerm(id) : unknownTerms[-2 - id];
+	}
+
+	public boolean isResourceNode(int node) {
+		return getLabel(node).isURI();
+	}
+
+	public boolean isLiteralNode(int node) {
+		return getLabel(node).isLiteral();
+	}
+
+	public boolean isLiteralValueNode(int node) {
+		Node label = getLabel(node);
+		return label.isLiteral() && !label.equals(RDFResourceTree.DEFAULT_LITERAL_NODE);
+	}
+
+	public boolean isVarNode(int node) {
+		return getLabel(node).isVariable();
+	}
+
+	public boolean isClassNode(int node) {
+		return node > 0 && getEdge(node).equals(RDF.type.asNode());
+	}
+
+	/**
+	 * Determines if this tree is subsumed by the given tree, i.e. whether the
+	 * given tree is more general, as done by
+	 * {@link org.dllearner.algorithms.qtl.QueryTreeUtils#isSubsumedBy(RDFResourceTree, RDFResourceTree)}.
+	 *
+	 * At most one of the trees may contain terms which are not in the
+	 * dictionary.
+	 *
+	 * @param other the other tree
+	 * @return whether this tree is subsumed by the other tree
+	 */
+	public boolean isSubsumedBy(CompactRDFResourceTree other) {
+		if (other.dictionary != dictionary) {
+			throw new IllegalArgumentException("The trees must share the dictionary.");
+		}
+		if (hasUnknownTerms() && other.hasUnknownTerms()) {
+			// the local IDs of both trees are not comparable
+			throw new IllegalArgumentException("Only one of the trees may contain terms which are not in the dictionary.");
+		}
+		return isSubsumedBy(0, other, 0);
+	}
+
+	private boolean isSubsumedBy(int node1, CompactRDFResourceTree tree2, int node2) {
+		// 1. compare the root nodes
+		if (isResourceNode(node1) && tree2.isResourceNode(node2)) {
+			return labels[node1] == tree2.labels[node2];
+		} else if (isLiteralNode(node1) && tree2.isLiteralNode(node2)) {
+			if (isLiteralValueNode(node1)) {
+				if (tree2.isLiteralValueNode(node2)) {
+					return labels[node1] == tree2.labels[node2];
+				}
+				RDFDatatype d1 = getLabel(node1).getLiteralDatatype();
+				return d1 != null && d1.equals(tree2.getDatatype(node2));
+			}
+			// the datatypes of literal nodes are not compared, as in QueryTreeUtils
+			return !tree2.isLiteralValueNode(node2);
+		}
+
+		// (T_1 = ?) and (T_2 != ?) --> FALSE
+		if (isVarNode(node1) && !tree2.isVarNode(node2)) {
+			return false;
+		}
+
+		// 2. compare the children, which are ordered by edge in both trees
+		int end1 = node1 + sizes[node1];
+		int end2 = node2 + tree2.sizes[node2];
+		int first1 = node1 + 1;
+		for (int child2 = node2 + 1; child2 < end2; child2 += tree2.sizes[child2]) {
+			int edge = tree2.edges[child2];
+			// skip the children of tree 1 with smaller edges
+			while (first1 < end1 && edges[first1] < edge) {
+				first1 += sizes[first1];
+			}
+			boolean isSubsumed = false;
+			for (int child1 = first1; child1 < end1 && edges[child1] == edge; child1 += sizes[child1]) {
+				if (isSubsumedBy(child1, tree2, child2)) {
+					isSubsumed = true;
+					break;
+				}
+			}
+			if (!isSubsumed) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the tree, but not its dictionary.
+	 *
+	 * @param out the output
+	 * @throws IOException if writing fails
+	 */
+	public void write(DataOutput out) throws IOException {
+		if (hasUnknownTerms()) {
+			throw new IOException("The tree contains terms which are not in the dictionary.");
+		}
+		out.writeInt(size());
+		for (int i = 0; i < size(); i++) {
+			out.writeInt(labels[i]);
+			out.writeInt(datatypes[i]);
+			out.writeInt(edges[i]);
+			out.writeInt(sizes[i]);
+		}
+	}
+
+	/**
+	 * Reads a tree written by {@link #write(DataOutput)}.
+	 *
+	 * @param in the input
+	 * @param dictionary the dictionary the tree has been written with
+	 * @return the tree
+	 * @throws IOException if reading fails
+	 */
+	public static CompactRDFResourceTree read(DataInput in, TermDictionary dictionary) throws IOException {
+		int size = in.readInt();
+		CompactRDFResourceTree tree = new CompactRDFResourceTree(dictionary,
+				new int[size], new int[size], new int[size], new int[size]);
+		for (int i = 0; i < size; i++) {
+			tree.labels[i] = in.readInt();
+			tree.datatypes[i] = in.readInt();
+			tree.edges[i] = in.readInt();
+			tree.sizes[i] = in.readInt();
+		}
+		return tree;
+	}
+
+	@Override
+	public String toString() {
+		return toRDFResourceTree().getStringRepresentation();
+	}
+
+}
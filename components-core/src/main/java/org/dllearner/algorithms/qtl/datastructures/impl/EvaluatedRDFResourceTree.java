@@ -26,6 +26,7 @@ import org.dllearner.algorithms.qtl.QueryTreeUtils;
 import org.dllearner.core.EvaluatedDescription;
 import org.dllearner.core.Score;
 import org.dllearner.learningproblems.QueryTreeScore;
+import org.semanticweb.owlapi.model.OWLIndividual;
 
 import java.util.Collection;
 import java.util.Set;
@@ -45,11 +46,11 @@ public class EvaluatedRDFResourceTree implements Comparable<EvaluatedRDFResource
 	// the underlying query tree
 	private RDFResourceTree tree;
 	
-	// the positive example trees that are not covered
-	private Collection<RDFResourceTree> falseNegatives;
+	// the positive examples that are not covered
+	private Collection<OWLIndividual> falseNegatives;
 	
-	// the negative example trees that are covered
-	private Collection<RDFResourceTree> falsePositives;
+	// the negative examples that are covered
+	private Collection<OWLIndividual> falsePositives;
 	
 	// the tree score
 	private QueryTreeScore score;
@@ -58,11 +59,11 @@ public class EvaluatedRDFResourceTree implements Comparable<EvaluatedRDFResource
 	// the corresponding description set lazily
 	private EvaluatedDescription<? extends Score> description;
 	
-	// the query trees of which this query tree was generated from
-	private Set<RDFResourceTree> baseQueryTrees = new TreeSet<>();
+	// the examples of whose trees this query tree was generated from
+	private Set<OWLIndividual> baseExamples = new TreeSet<>();
 
-	public EvaluatedRDFResourceTree(RDFResourceTree tree, Collection<RDFResourceTree> falseNegatives, 
-			Collection<RDFResourceTree> falsePositives, QueryTreeScore score) {
+	public EvaluatedRDFResourceTree(RDFResourceTree tree, Collection<OWLIndividual> falseNegatives, 
+			Collection<OWLIndividual> falsePositives, QueryTreeScore score) {
 		this.tree = tree;
 		this.falseNegatives = falseNegatives;
 		this.falsePositives = falsePositives;
@@ -70,8 +71,8 @@ public class EvaluatedRDFResourceTree implements Comparable<EvaluatedRDFResource
 		this.id = cnt++;
 	}
 	
-	public EvaluatedRDFResourceTree(int id, RDFResourceTree tree, Collection<RDFResourceTree> falseNegatives, 
-			Collection<RDFResourceTree> falsePositives, QueryTreeScore score) {
+	public EvaluatedRDFResourceTree(int id, RDFResourceTree tree, Collection<OWLIndividual> falseNegatives, 
+			Collection<OWLIndividual> falsePositives, QueryTreeScore score) {
 		this.id = id;
 		this.tree = tree;
 		this.falseNegatives = falseNegatives;
@@ -85,15 +86,15 @@ public class EvaluatedRDFResourceTree implements Comparable<EvaluatedRDFResource
 //		this.score = score;
 //	}
 	
-	public void setBaseQueryTrees(Set<RDFResourceTree> baseQueryTrees) {
-		this.baseQueryTrees = baseQueryTrees;
+	public void setBaseExamples(Set<OWLIndividual> baseExamples) {
+		this.baseExamples = baseExamples;
 	}
 	
 	/**
-	 * @return the baseQueryTrees
+	 * @return the examples of whose trees this query tree was generated from
 	 */
-	public Set<RDFResourceTree> getBaseQueryTrees() {
-		return baseQueryTrees;
+	public Set<OWLIndividual> getBaseExamples() {
+		return baseExamples;
 	}
 	
 	/**
@@ -121,14 +122,14 @@ public class EvaluatedRDFResourceTree implements Comparable<EvaluatedRDFResource
 	/**
 	 * @return the positive examples that are not covered by the query tree
 	 */
-	public Collection<RDFResourceTree> getFalseNegatives() {
+	public Collection<OWLIndividual> getFalseNegatives() {
 		return falseNegatives;
 	}
 	
 	/**
 	 * @return the negative examples that are covered by the query tree
 	 */
-	public Collection<RDFResourceTree> getFalsePositives() {
+	public Collection<OWLIndividual> getFalsePositives() {
 		return falsePositives;
 	}
 	
@@ -174,7 +175,7 @@ public class EvaluatedRDFResourceTree implements Comparable<EvaluatedRDFResource
 	public int compareTo(EvaluatedRDFResourceTree other) {
 		return ComparisonChain.start()
 		         .compare(other.getScore(), this.getScore()) // score
-		         .compare(this.baseQueryTrees.toString(), other.baseQueryTrees.toString()) // base query trees
+		         .compare(this.baseExamples.toString(), other.baseExamples.toString()) // base examples
 		         .compare(this.asEvaluatedDescription(), other.asEvaluatedDescription()) // class expression representation
 		         .result();
 	}
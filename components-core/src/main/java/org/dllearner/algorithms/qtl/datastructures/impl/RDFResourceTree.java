@@ -143,11 +143,17 @@ public class RDFResourceTree extends GenericTree<Node, RDFResourceTree> implemen
 		this.id = id;
 	}
 	
+	/**
+	 * Creates a deep copy of the given tree, i.e. all nodes of the tree are
+	 * copied.
+	 * @param tree the tree
+	 */
 	public RDFResourceTree(RDFResourceTree tree) {
 		super(tree.getData());
-		this.id = getID();
+		this.id = tree.getID();
+		this.datatype = tree.getDatatype();
 		
-		for (Entry<Node, List<RDFResourceTree>> entry : edge2Children.entrySet()) {
+		for (Entry<Node, List<RDFResourceTree>> entry : tree.edge2Children.entrySet()) {
 			Node edge = entry.getKey();
 			List<RDFResourceTree> children = entry.getValue();
 			
@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.datastructures.impl;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.dllearner.algorithms.qtl.datastructures.NodeInv;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A dictionary of the RDF terms used in {@link CompactRDFResourceTree}s, which
+ * maps each term to an int ID. Trees sharing a dictionary store each term only
+ * once and can be compared by the IDs of their terms.
+ * The dictionary is thread-safe and IDs are never removed.
+ */
+public class TermDictionary {
+
+	private static final byte URI = 0;
+	private static final byte LITERAL = 1;
+	private static final byte VARIABLE = 2;
+	private static final byte INVERSE = 3;
+
+	private final Map<Node, Integer> ids = new ConcurrentHashMap<>();
+
+	// the terms by ID, an ID is published via the map after the term is set
+	private volatile Node[] terms = new Node[16];
+	private int size;
+
+	/**
+	 * Returns the ID of the term and adds the term to the dictionary if it is
+	 * not contained yet.
+	 *
+	 * @param term the term
+	 * @return the ID of the term
+	 */
+	public int getId(Node term) {
+		Integer id = ids.get(term);
+		if (id == null) {
+			synchronized (this) {
+				id = ids.get(term);
+				if (id == null) {
+					if (size == terms.length) {
+						terms = Arrays.copyOf(terms, size * 2);
+					}
+					id = size++;
+					terms[id] = term;
+					ids.put(term, id);
+				}
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * @param term the term
+	 * @return the ID of the term, or -1 if it is not contained in the dictionary
+	 */
+	public int lookup(Node term) {
+		Integer id = ids.get(term);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id the ID
+	 * @return the term with the given ID
+	 */
+	public Node getTerm(int id) {
+		return terms[id];
+	}
+
+	/**
+	 * @param datatype the datatype
+	 * @return the ID of the datatype URI, or -1 if the datatype is null
+	 */
+	public int getDatatypeId(RDFDatatype datatype) {
+		return datatype == null ? -1 : getId(NodeFactory.createURI(datatype.getURI()));
+	}
+
+	/**
+	 * @param id the ID of the datatype URI, or -1
+	 * @return the datatype, or null if the ID is -1
+	 */
+	public RDFDatatype getDatatype(int id) {
+		return id < 0 ? null : TypeMapper.getInstance().getSafeTypeByName(getTerm(id).getURI());
+	}
+
+	/**
+	 * @return the number of terms
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Writes the terms of the dictionary in the order of their IDs.
+	 *
+	 * @param out the output
+	 * @throws IOException if writing fails
+	 */
+	public synchronized void write(DataOutput out) throws IOException {
+		out.writeInt(size);
+		for (int i = 0; i < size; i++) {
+			Node term = terms[i];
+			if (term instanceof NodeInv) {
+				out.writeByte(INVERSE);
+				writeString(out, term.getURI());
+			} else if (term.isURI()) {
+				out.writeByte(URI);
+				writeString(out, term.getURI());
+			} else if (term.isLiteral()) {
+				out.writeByte(LITERAL);
+				writeString(out, term.getLiteralLexicalForm());
+				writeString(out, term.getLiteralLanguage());
+				writeString(out, term.getLiteralDatatypeURI() == null ? "" : term.getLiteralDatatypeURI());
+			} else if (term.isVariable()) {
+				out.writeByte(VARIABLE);
+				writeString(out, term.getName());
+			} else {
+				throw new IOException("Unsupported term " + term);
+			}
+		}
+	}
+
+	/**
+	 * Reads a dictionary written by {@link #write(DataOutput)}, the terms get
+	 * the same IDs as before.
+	 *
+	 * @param in the input
+	 * @return the dictionary
+	 * @throws IOException if reading fails
+	 */
+	public static TermDictionary read(DataInput in) throws IOException {
+		TermDictionary dictionary = new TermDictionary();
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			byte type = in.readByte();
+			Node term;
+			switch (type) {
+				case URI:
+					term = NodeFactory.createURI(readString(in));
+					break;
+				case INVERSE:
+					term = new NodeInv(NodeFactory.createURI(readString(in)));
+					break;
+				case LITERAL:
+					String lexicalForm = readString(in);
+					String language = readString(in);
+					String datatypeURI = readString(in);
+					term = readLiteral(lexicalForm, language, datatypeURI);
+					break;
+				case VARIABLE:
+					term = NodeFactory.createVariable(readString(in));
+					break;
+				default:
+					throw new IOException("Unknown term type " + type);
+			}
+			dictionary.getId(term);
+		}
+		return dictionary;
+	}
+
+	// unlike writeUTF, strings are not limited to 64k
+	private static void writeString(DataOutput out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static Node readLiteral(String lexicalForm, String language, String datatypeURI) {
+		if (!language.isEmpty()) {
+			return NodeFactory.createLiteral(lexicalForm, language);
+		}
+		if (datatypeURI.isEmpty()) {
+			return NodeFactory.createLiteral(lexicalForm);
+		}
+		return NodeFactory.createLiteral(lexicalForm, TypeMapper.getInstance().getSafeTypeByName(datatypeURI));
+	}
+
+}
@@ -23,26 +23,29 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
+ * Caches the query trees generated by another factory per model, resource and
+ * maximum depth. The models are only weakly referenced, i.e. the trees of a
+ * model are dropped once the model, e.g. a CBD evicted from the
+ * {@link org.dllearner.kb.sparql.CachingConciseBoundedDescriptionGenerator},
+ * is no longer used. Cached trees are shared, thus callers must not modify them.
  * 
  * @author Lorenz Bühmann
  *
  */
 public class QueryTreeFactoryCache implements QueryTreeFactory {
 	
-//	private static final long size = 0;
-//
-//	LoadingCache<String, RDFResourceTree> cache = CacheBuilder.newBuilder().
-//			maximumSize(size)
-//			.build(
-//			new CacheLoader<String, RDFResourceTree>() {
-//				@Override
-//				public RDFResourceTree load(String resource) throws Exception {
-//					return delegatee.getQueryTree(resource, model);
-//				}
-//	});
+	// models are compared by identity
+	private final Cache<Model, Map<String, RDFResourceTree>> cache = CacheBuilder.newBuilder()
+			.weakKeys()
+			.build();
 
 	private QueryTreeFactory delegatee;
 
@@ -56,6 +59,7 @@ public class QueryTreeFactoryCache implements QueryTreeFactory {
 	@Override
 	public void setMaxDepth(int maxDepth) {
 		delegatee.setMaxDepth(maxDepth);
+		cache.invalidateAll();
 	}
 	
 	/* (non-Javadoc)
@@ -63,7 +67,7 @@ public class QueryTreeFactoryCache implements QueryTreeFactory {
 	 */
 	@Override
 	public RDFResourceTree getQueryTree(String example, Model model, int maxDepth) {
-		return delegatee.getQueryTree(model.getResource(example), model, maxDepth);
+		return getQueryTree(model.getResource(example), model, maxDepth);
 	}
 
 	/* (non-Javadoc)
@@ -71,7 +75,15 @@ public class QueryTreeFactoryCache implements QueryTreeFactory {
 	 */
 	@Override
 	public RDFResourceTree getQueryTree(Resource resource, Model model, int maxDepth) {
-		return delegatee.getQueryTree(resource, model, maxDepth);
+		Map<String, RDFResourceTree> trees = cache.asMap().computeIfAbsent(model, m -> new ConcurrentHashMap<>());
+		return trees.computeIfAbsent(resource + "|" + maxDepth, key -> delegatee.getQueryTree(resource, model, maxDepth));
+	}
+
+	/**
+	 * Removes all cached trees.
+	 */
+	public void clear() {
+		cache.invalidateAll();
 	}
 	
 	/* (non-Javadoc)
@@ -80,5 +92,6 @@ public class QueryTreeFactoryCache implements QueryTreeFactory {
 	@Override
 	public void addDropFilters(Predicate<Statement>... dropFilters) {
 		delegatee.addDropFilters(dropFilters);
+		cache.invalidateAll();
 	}
 }
@@ -30,13 +30,30 @@ import org.dllearner.algorithms.qtl.operations.TimeoutableOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * An LGG generator that can be stopped and given a timeout.
+ * <p>
+ * Within the computation of an LGG, the LGGs of structurally equal pairs of
+ * subtrees and the subsumption checks between them are computed only once.
+ * Subtrees are identified by their structure, i.e. label, datatype, edges and
+ * the structure of the children, such that equal subtrees share a single id.
+ * A memoized LGG is reused as it is, or, since a tree node has a single parent,
+ * as a structural copy if it is already part of the LGG.
+ * </p>
+ * <p>
+ * If a {@link ForkJoinPool} is set, the children of the different edges of
+ * trees larger than the parallelism threshold are processed in parallel, thus
+ * the subsumption checks and the related edges of subclasses must be thread-safe
+ * then.
+ * </p>
  *
  * @author Lorenz Buehmann
  *
@@ -47,19 +64,78 @@ public abstract class AbstractLGGGenerator implements LGGGenerator, StoppableOpe
 	
 	private Monitor mon = MonitorFactory.getTimeMonitor("lgg");
 	
-	protected int subCalls;
+	public static final int DEFAULT_PARALLELISM_THRESHOLD = 1000;
+
+	protected final AtomicInteger subCalls = new AtomicInteger();
 	
 	private long timeoutMillis = -1;
 	private long startTime;
 
 	protected volatile boolean stop = false;
 
-	private boolean complete = true;
-	
+	private volatile boolean complete = true;
+
+	private ForkJoinPool pool;
+	private int parallelismThreshold = DEFAULT_PARALLELISM_THRESHOLD;
+
+	// ids and sizes of the subtrees by their structure, equal subtrees share one id
+	private final Map<RDFResourceTree, Integer> treeIds = Collections.synchronizedMap(new IdentityHashMap<>());
+	private final Map<List<Object>, Integer> structureIds = new ConcurrentHashMap<>();
+	private final Map<Integer, Integer> structureSizes = new ConcurrentHashMap<>();
+	private final AtomicInteger nextStructureId = new AtomicInteger();
+
+	// the LGGs and subsumption checks of pairs of subtrees, keyed by their ids
+	private final Map<Long, RDFResourceTree> lggCache = new ConcurrentHashMap<>();
+	private final Map<Long, Boolean> subsumptionCache = new ConcurrentHashMap<>();
+
+	// the memoized LGGs handed out already, each of them gets a parent in the LGG
+	private final Set<RDFResourceTree> usedLGGs = Collections.newSetFromMap(
+			Collections.synchronizedMap(new IdentityHashMap<>()));
+
+	private final AtomicInteger lggCacheHits = new AtomicInteger();
 
 	private void reset() {
 		stop = false;
-		subCalls = 0;
+		complete = true;
+		subCalls.set(0);
+		lggCacheHits.set(0);
+		clearCaches();
+	}
+
+	private void clearCaches() {
+		treeIds.clear();
+		structureIds.clear();
+		structureSizes.clear();
+		nextStructureId.set(0);
+		lggCache.clear();
+		subsumptionCache.clear();
+		usedLGGs.clear();
+	}
+
+	/**
+	 * Sets the pool used to compute the LGGs of large trees in parallel, by
+	 * default the LGG is computed in the calling thread only.
+	 *
+	 * @param pool the fork-join pool, or null to compute the LGG sequentially
+	 */
+	public void setForkJoinPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @return the pool used to compute the LGGs of large trees in parallel, or
+	 * null if the LGG is computed sequentially
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		return pool;
+	}
+
+	/**
+	 * @param parallelismThreshold the total number of nodes of two trees above
+	 * which their children are processed in parallel
+	 */
+	public void setParallelismThreshold(int parallelismThreshold) {
+		this.parallelismThreshold = parallelismThreshold;
 	}
 
 	/* (non-Javadoc)
@@ -77,9 +153,21 @@ public abstract class AbstractLGGGenerator implements LGGGenerator, StoppableOpe
 		
 		// compute the LGG
 		mon.start();
-		RDFResourceTree lgg = computeLGG(tree1, tree2, learnFilters);
+		RDFResourceTree lgg;
+		if(pool != null) {
+			RDFResourceTree t1 = tree1;
+			RDFResourceTree t2 = tree2;
+			lgg = pool.invoke(ForkJoinTask.adapt(() -> computeLGG(t1, t2, learnFilters)));
+		} else {
+			lgg = computeLGG(tree1, tree2, learnFilters);
+		}
 		mon.stop();
 
+		logger.trace("Computed LGG with {} calls, {} of them answered from the cache.", subCalls, lggCacheHits);
+
+		// the caches refer to the input trees and the LGG, which may be changed by the caller
+		clearCaches();
+
 		// apply some post-processing
 		lgg = postProcess(lgg);
 
@@ -89,8 +177,30 @@ public abstract class AbstractLGGGenerator implements LGGGenerator, StoppableOpe
 	}
 
 	protected RDFResourceTree computeLGG(RDFResourceTree tree1, RDFResourceTree tree2, boolean learnFilters){
-		subCalls++;
+		subCalls.incrementAndGet();
+
+		// the cheap cases return (parts of) the input, thus they are not memoized
+		if(((tree1.isResourceNode() || tree1.isLiteralValueNode()) && tree1.getData().equals(tree2.getData()))
+				|| (tree1.isLiteralNode() && tree2.isLiteralNode())) {
+			return computeLGGUncached(tree1, tree2, learnFilters);
+		}
+
+		long key = pairKey(structureId(tree1), structureId(tree2), tree1.isClassNode(), learnFilters);
+		RDFResourceTree lgg = lggCache.get(key);
+		if(lgg == null) {
+			lgg = computeLGGUncached(tree1, tree2, learnFilters);
+			lggCache.put(key, lgg);
+		} else {
+			lggCacheHits.incrementAndGet();
+		}
+		// a node can only have one parent
+		if(!usedLGGs.add(lgg)) {
+			lgg = new RDFResourceTree(lgg);
+		}
+		return lgg;
+	}
 
+	private RDFResourceTree computeLGGUncached(RDFResourceTree tree1, RDFResourceTree tree2, boolean learnFilters){
 		// 1. compare the root nodes
 		// a) if both root nodes have same URI or literal value, just return one of the two trees as LGG
 		if((tree1.isResourceNode() || tree1.isLiteralValueNode()) && tree1.getData().equals(tree2.getData())){
@@ -118,6 +228,66 @@ public abstract class AbstractLGGGenerator implements LGGGenerator, StoppableOpe
 
 		// get edges of tree 2 connected via subsumption
 		Set<Triple<Node, Node, Node>> relatedEdges = getRelatedEdges(tree1, tree2);
+		addChildLGGs(lgg, tree1, tree2, relatedEdges, learnFilters);
+
+		return lgg;
+	}
+
+	protected RDFResourceTree processClassNodes(RDFResourceTree tree1, RDFResourceTree tree2) {
+		RDFResourceTree lgg = new RDFResourceTree();
+
+		Set<Triple<Node, Node, Node>> relatedEdges = getRelatedEdges(tree1, tree2);
+		addChildLGGs(lgg, tree1, tree2, relatedEdges, false);
+
+		return lgg;
+	}
+
+	/**
+	 * Adds the most specific LGGs of the children of both trees connected via
+	 * the related edges to the LGG. The children of large trees are processed
+	 * in parallel per edge of the first tree if a fork-join pool is set.
+	 *
+	 * @param lgg the LGG
+	 * @param tree1 the first tree
+	 * @param tree2 the second tree
+	 * @param relatedEdges the related edges of both trees with their LCS
+	 * @param learnFilters whether to learn filters
+	 */
+	protected void addChildLGGs(RDFResourceTree lgg, RDFResourceTree tree1, RDFResourceTree tree2,
+								Set<Triple<Node, Node, Node>> relatedEdges, boolean learnFilters) {
+		if(relatedEdges.size() > 1 && isParallel(tree1, tree2)) {
+			// a node of the first tree might become part of the LGG, thus all children
+			// of the same edge of the first tree are processed by the same task
+			Map<Node, List<Triple<Node, Node, Node>>> edgeGroups = relatedEdges.stream()
+					.collect(Collectors.groupingBy(Triple::getLeft, LinkedHashMap::new, Collectors.toList()));
+
+			if(edgeGroups.size() > 1) {
+				List<ForkJoinTask<RDFResourceTree>> tasks = new ArrayList<>();
+				for (List<Triple<Node, Node, Node>> edges : edgeGroups.values()) {
+					tasks.add(ForkJoinTask.adapt(() -> {
+						RDFResourceTree holder = new RDFResourceTree();
+						addChildLGGsSequentially(holder, tree1, tree2, edges, learnFilters);
+						return holder;
+					}));
+				}
+				ForkJoinTask.invokeAll(tasks);
+
+				for (ForkJoinTask<RDFResourceTree> task : tasks) {
+					RDFResourceTree holder = task.join();
+					for (Node edge : holder.getEdges()) {
+						for (RDFResourceTree child : holder.getChildren(edge)) {
+							lgg.addChild(child, edge);
+						}
+					}
+				}
+				return;
+			}
+		}
+		addChildLGGsSequentially(lgg, tree1, tree2, relatedEdges, learnFilters);
+	}
+
+	private void addChildLGGsSequentially(RDFResourceTree lgg, RDFResourceTree tree1, RDFResourceTree tree2,
+										  Collection<Triple<Node, Node, Node>> relatedEdges, boolean learnFilters) {
 		for (Triple<Node, Node, Node> entry : relatedEdges){
 			if(stop || isTimeout()) {
 				complete = false;
@@ -131,13 +301,13 @@ public abstract class AbstractLGGGenerator implements LGGGenerator, StoppableOpe
 			Set<RDFResourceTree> addedChildren = new HashSet<>();
 
 			// loop over children of first tree
-			for(RDFResourceTree child1 : tree1.getChildren(edge1)){//System.out.println("c1:" + child1);
+			for(RDFResourceTree child1 : tree1.getChildren(edge1)){
 				if(stop || isTimeout()) {
 					complete = false;
 					break;
 				}
 				// loop over children of second tree
-				for(RDFResourceTree child2 : tree2.getChildren(edge2)){//System.out.println("c2:" + child2);
+				for(RDFResourceTree child2 : tree2.getChildren(edge2)){
 					if(stop || isTimeout()) {
 						complete = false;
 						break;
@@ -145,97 +315,105 @@ public abstract class AbstractLGGGenerator implements LGGGenerator, StoppableOpe
 
 					RDFResourceTree lggChild = computeLGG(child1, child2, learnFilters);
 
-					// check if there was already a more specific child computed before
-					// and if so don't add the current one
-					boolean add = true;
-					for(Iterator<RDFResourceTree> it = addedChildren.iterator(); it.hasNext();){
-						RDFResourceTree addedChild = it.next();
-
-						if(isSubTreeOf(addedChild, lggChild)){
-//								logger.trace("Skipped adding: Previously added child {} is subsumed by {}.",
-//										addedChild.getStringRepresentation(),
-//										lggChild.getStringRepresentation());
-							add = false;
-							break;
-						} else if(isSubTreeOf(lggChild, addedChild)){
-//								logger.trace("Removing child node: {} is subsumed by previously added child {}.",
-//										lggChild.getStringRepresentation(),
-//										addedChild.getStringRepresentation());
-							lgg.removeChild(addedChild, lgg.getEdgeToChild(addedChild));
-							it.remove();
-						}
-					}
-					if(add){
-						lgg.addChild(lggChild, lcs);
-						addedChildren.add(lggChild);
-//							logger.trace("Adding child {}", lggChild.getStringRepresentation());
-					}
+					addMostSpecificChild(lgg, lggChild, lcs, addedChildren);
 				}
 			}
 		}
+	}
 
-		return lgg;
+	private boolean isParallel(RDFResourceTree tree1, RDFResourceTree tree2) {
+		return pool != null && ForkJoinTask.inForkJoinPool()
+				&& size(tree1) + size(tree2) > parallelismThreshold;
 	}
 
-	protected RDFResourceTree processClassNodes(RDFResourceTree tree1, RDFResourceTree tree2) {
-		RDFResourceTree lgg = new RDFResourceTree();
+	private int size(RDFResourceTree tree) {
+		return structureSizes.get(structureId(tree));
+	}
 
-		Set<Triple<Node, Node, Node>> relatedEdges = getRelatedEdges(tree1, tree2);
-		for (Triple<Node, Node, Node> entry : relatedEdges) {
-			if (stop || isTimeout()) {
-				complete = false;
-				break;
+	/**
+	 * Adds the child to the LGG unless a more specific child has been added
+	 * before, in which case the child is skipped. Previously added children
+	 * which are more general than the child are removed.
+	 *
+	 * @param lgg the LGG
+	 * @param lggChild the child
+	 * @param edge the edge to the child
+	 * @param addedChildren the children added for the edge so far
+	 */
+	protected void addMostSpecificChild(RDFResourceTree lgg, RDFResourceTree lggChild, Node edge,
+										Set<RDFResourceTree> addedChildren) {
+		for(Iterator<RDFResourceTree> it = addedChildren.iterator(); it.hasNext();){
+			RDFResourceTree addedChild = it.next();
+
+			if(isSubTreeOfCached(addedChild, lggChild)){
+//				logger.trace("Skipped adding: Previously added child {} is subsumed by {}.",
+//						addedChild.getStringRepresentation(),
+//						lggChild.getStringRepresentation());
+				return;
+			} else if(isSubTreeOfCached(lggChild, addedChild)){
+//				logger.trace("Removing child node: {} is subsumed by previously added child {}.",
+//						lggChild.getStringRepresentation(),
+//						addedChild.getStringRepresentation());
+				lgg.removeChild(addedChild, lgg.getEdgeToChild(addedChild));
+				it.remove();
 			}
-			Node edge1 = entry.getLeft();
-			Node edge2 = entry.getMiddle();
-			Node lcs = entry.getRight();
+		}
+		lgg.addChild(lggChild, edge);
+		addedChildren.add(lggChild);
+//		logger.trace("Adding child {}", lggChild.getStringRepresentation());
+	}
 
-			Set<RDFResourceTree> addedChildren = new HashSet<>();
+	private boolean isSubTreeOfCached(RDFResourceTree tree1, RDFResourceTree tree2) {
+		int id1 = structureId(tree1);
+		int id2 = structureId(tree2);
+		if(id1 == id2) {
+			return true;
+		}
+		// the check might depend on whether the trees are connected via rdf:type
+		long key = pairKey(id1, id2, tree1.isClassNode(), tree2.isClassNode());
+		Boolean subsumed = subsumptionCache.get(key);
+		if(subsumed == null) {
+			subsumed = isSubTreeOf(tree1, tree2);
+			subsumptionCache.put(key, subsumed);
+		}
+		return subsumed;
+	}
 
-			// loop over children of first tree
-			for(RDFResourceTree child1 : tree1.getChildren(edge1)){//System.out.println("c1:" + child1);
-				if(stop || isTimeout()) {
-					complete = false;
-					break;
-				}
-				// loop over children of second tree
-				for(RDFResourceTree child2 : tree2.getChildren(edge2)){//System.out.println("c2:" + child2);
-					if(stop || isTimeout()) {
-						complete = false;
-						break;
-					}
+	private static long pairKey(int id1, int id2, boolean flag1, boolean flag2) {
+		return ((long) id1 << 32) | ((long) id2 << 2) | (flag1 ? 2 : 0) | (flag2 ? 1 : 0);
+	}
 
-					RDFResourceTree lggChild = computeLGG(child1, child2, false);
-
-					// check if there was already a more specific child computed before
-					// and if so don't add the current one
-					boolean add = true;
-					for(Iterator<RDFResourceTree> it = addedChildren.iterator(); it.hasNext();){
-						RDFResourceTree addedChild = it.next();
-
-						if(isSubTreeOf(addedChild, lggChild)){
-//								logger.trace("Skipped adding: Previously added child {} is subsumed by {}.",
-//										addedChild.getStringRepresentation(),
-//										lggChild.getStringRepresentation());
-							add = false;
-							break;
-						} else if(isSubTreeOf(lggChild, addedChild)){
-//								logger.trace("Removing child node: {} is subsumed by previously added child {}.",
-//										lggChild.getStringRepresentation(),
-//										addedChild.getStringRepresentation());
-							lgg.removeChild(addedChild, lgg.getEdgeToChild(addedChild));
-							it.remove();
-						}
-					}
-					if(add){
-						lgg.addChild(lggChild, lcs);
-						addedChildren.add(lggChild);
-//							logger.trace("Adding child {}", lggChild.getStringRepresentation());
-					}
+	/**
+	 * Returns the id of the structure of the tree, which must not be changed
+	 * afterwards during the computation of the LGG.
+	 */
+	private int structureId(RDFResourceTree tree) {
+		Integer id = treeIds.get(tree);
+		if(id == null) {
+			List<Object> structure = new ArrayList<>();
+			structure.add(tree.getData());
+			structure.add(tree.getDatatype() == null ? null : tree.getDatatype().getURI());
+			int size = 1;
+			for (Node edge : tree.getEdges()) {
+				structure.add(edge);
+				List<Integer> childIds = new ArrayList<>();
+				for (RDFResourceTree child : tree.getChildren(edge)) {
+					int childId = structureId(child);
+					childIds.add(childId);
+					size += structureSizes.get(childId);
 				}
+				Collections.sort(childIds);
+				structure.addAll(childIds);
 			}
+			int treeSize = size;
+			id = structureIds.computeIfAbsent(structure, s -> {
+				int newId = nextStructureId.getAndIncrement();
+				structureSizes.put(newId, treeSize);
+				return newId;
+			});
+			treeIds.put(tree, id);
 		}
-		return lgg;
+		return id;
 	}
 
 	protected RDFResourceTree processLiteralNodes(RDFResourceTree tree1, RDFResourceTree tree2) {
@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.operations.lgg;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.TermDictionary;
+import org.dllearner.algorithms.qtl.operations.StoppableOperation;
+import org.dllearner.algorithms.qtl.operations.TimeoutableOperation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An LGG generator for {@link CompactRDFResourceTree}s based on syntax and
+ * structure only, i.e. it computes the same LGG as {@link LGGGeneratorSimple}
+ * but works directly on the arrays of the compact trees.
+ */
+public class CompactLGGGenerator implements StoppableOperation, TimeoutableOperation {
+
+	private long timeoutMillis = -1;
+	private long startTime;
+
+	private volatile boolean stop = false;
+
+	private boolean complete = true;
+
+	/**
+	 * Returns the Least General Generalization of two trees sharing the same dictionary.
+	 *
+	 * @param tree1 the first tree
+	 * @param tree2 the second tree
+	 * @return the Least General Generalization
+	 */
+	public CompactRDFResourceTree getLGG(CompactRDFResourceTree tree1, CompactRDFResourceTree tree2) {
+		if(tree1.getDictionary() != tree2.getDictionary()) {
+			throw new IllegalArgumentException("The trees must share the dictionary.");
+		}
+		startTime = System.currentTimeMillis();
+		stop = false;
+		complete = true;
+
+		return computeLGG(tree1, 0, tree2, 0);
+	}
+
+	/**
+	 * Returns the Least General Generalization of a list of trees sharing the same dictionary.
+	 *
+	 * @param trees the trees
+	 * @return the Least General Generalization
+	 */
+	public CompactRDFResourceTree getLGG(List<CompactRDFResourceTree> trees) {
+		if(trees.isEmpty()) {
+			throw new RuntimeException("LGG computation for empty set of trees.");
+		}
+		CompactRDFResourceTree lgg = trees.get(0);
+		for (int i = 1; i < trees.size(); i++) {
+			lgg = getLGG(lgg, trees.get(i));
+		}
+		return lgg;
+	}
+
+	private CompactRDFResourceTree computeLGG(CompactRDFResourceTree tree1, int node1,
+											  CompactRDFResourceTree tree2, int node2) {
+		TermDictionary dictionary = tree1.getDictionary();
+
+		// 1. compare the root nodes
+		// a) if both root nodes have same URI or literal value, just return one of the two trees as LGG
+		if((tree1.isResourceNode(node1) || tree1.isLiteralValueNode(node1))
+				&& tree1.getLabelId(node1) == tree2.getLabelId(node2)) {
+			return tree1.subtree(node1);
+		}
+
+		// b) handle literal nodes
+		if(tree1.isLiteralNode(node1) && tree2.isLiteralNode(node2)) {
+			RDFDatatype d1 = tree1.getLabel(node1).getLiteralDatatype();
+			RDFDatatype d2 = tree2.getLabel(node2).getLiteralDatatype();
+			int datatype = d1 != null && d1.equals(d2) ? dictionary.getDatatypeId(d1) : -1;
+			return CompactRDFResourceTree.newTree(dictionary, dictionary.getId(RDFResourceTree.DEFAULT_LITERAL_NODE),
+					datatype, new int[0], new ArrayList<>());
+		}
+
+		// c) else create a var node with the LGGs of the children of the common edges,
+		// which are sorted by edge in both trees
+		List<CompactRDFResourceTree> children = new ArrayList<>();
+		List<Integer> childEdges = new ArrayList<>();
+
+		int[] children1 = tree1.getChildren(node1);
+		int[] children2 = tree2.getChildren(node2);
+		int i = 0;
+		int j = 0;
+		while(i < children1.length && j < children2.length) {
+			if(stop || isTimeout()) {
+				complete = false;
+				break;
+			}
+			int edge1 = tree1.getEdgeId(children1[i]);
+			int edge2 = tree2.getEdgeId(children2[j]);
+			if(edge1 < edge2) {
+				i++;
+			} else if(edge1 > edge2) {
+				j++;
+			} else {
+				int end1 = i;
+				while(end1 < children1.length && tree1.getEdgeId(children1[end1]) == edge1) {
+					end1++;
+				}
+				int end2 = j;
+				while(end2 < children2.length && tree2.getEdgeId(children2[end2]) == edge2) {
+					end2++;
+				}
+
+				List<CompactRDFResourceTree> addedChildren = new ArrayList<>();
+				for(int c1 = i; c1 < end1; c1++) {
+					for(int c2 = j; c2 < end2; c2++) {
+						CompactRDFResourceTree lggChild = computeLGG(tree1, children1[c1], tree2, children2[c2]);
+						addMostSpecificChild(addedChildren, lggChild);
+					}
+				}
+				for (CompactRDFResourceTree child : addedChildren) {
+					children.add(child);
+					childEdges.add(edge1);
+				}
+				i = end1;
+				j = end2;
+			}
+		}
+
+		return CompactRDFResourceTree.newTree(dictionary, dictionary.getId(RDFResourceTree.DEFAULT_VAR_NODE), -1,
+				childEdges.stream().mapToInt(Integer::intValue).toArray(), children);
+	}
+
+	/**
+	 * Adds the child unless a more specific child has been added before for the
+	 * same edge, and removes the added children which are more general than the child.
+	 */
+	private void addMostSpecificChild(List<CompactRDFResourceTree> addedChildren, CompactRDFResourceTree lggChild) {
+		for(Iterator<CompactRDFResourceTree> it = addedChildren.iterator(); it.hasNext();) {
+			CompactRDFResourceTree addedChild = it.next();
+
+			if(addedChild.isSubsumedBy(lggChild)) {
+				return;
+			} else if(lggChild.isSubsumedBy(addedChild)) {
+				it.remove();
+			}
+		}
+		addedChildren.add(lggChild);
+	}
+
+	@Override
+	public void setTimeout(long timeout, TimeUnit timeoutUnits) {
+		this.timeoutMillis = timeoutUnits.toMillis(timeout);
+	}
+
+	@Override
+	public void stop() {
+		stop = true;
+	}
+
+	private boolean isTimeout() {
+		return timeoutMillis > 0 && System.currentTimeMillis() - startTime >= timeoutMillis;
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+
+}
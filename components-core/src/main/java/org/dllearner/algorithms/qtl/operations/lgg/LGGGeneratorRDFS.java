@@ -159,51 +159,8 @@ public class LGGGeneratorRDFS extends AbstractLGGGenerator {
 		RDFResourceTree lgg = new RDFResourceTree();
 
 		Set<Triple<Node, Node, Node>> relatedEdges = getRelatedEdges(tree1, tree2);
-		for (Triple<Node, Node, Node> entry : relatedEdges) {
+		addChildLGGs(lgg, tree1, tree2, relatedEdges, false);
 
-			Node edge1 = entry.getLeft();
-			Node edge2 = entry.getMiddle();
-			Node lcs = entry.getRight();
-
-			Set<RDFResourceTree> addedChildren = new HashSet<>();
-
-			// loop over children of first tree
-			for(RDFResourceTree child1 : tree1.getChildren(edge1)){//System.out.println("c1:" + child1);
-
-				// loop over children of second tree
-				for(RDFResourceTree child2 : tree2.getChildren(edge2)){//System.out.println("c2:" + child2);
-
-
-					RDFResourceTree lggChild = computeLGG(child1, child2, false);
-
-					// check if there was already a more specific child computed before
-					// and if so don't add the current one
-					boolean add = true;
-					for(Iterator<RDFResourceTree> it = addedChildren.iterator(); it.hasNext();){
-						RDFResourceTree addedChild = it.next();
-
-						if(isSubTreeOf(addedChild, lggChild)){
-//								logger.trace("Skipped adding: Previously added child {} is subsumed by {}.",
-//										addedChild.getStringRepresentation(),
-//										lggChild.getStringRepresentation());
-							add = false;
-							break;
-						} else if(isSubTreeOf(lggChild, addedChild)){
-//								logger.trace("Removing child node: {} is subsumed by previously added child {}.",
-//										lggChild.getStringRepresentation(),
-//										addedChild.getStringRepresentation());
-							lgg.removeChild(addedChild, lgg.getEdgeToChild(addedChild));
-							it.remove();
-						}
-					}
-					if(add){
-						lgg.addChild(lggChild, lcs);
-						addedChildren.add(lggChild);
-//							logger.trace("Adding child {}", lggChild.getStringRepresentation());
-					}
-				}
-			}
-		}
 		return lgg;
 	}
 	
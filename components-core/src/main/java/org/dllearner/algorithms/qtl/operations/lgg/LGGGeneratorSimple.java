@@ -37,6 +37,7 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -58,6 +59,10 @@ public class LGGGeneratorSimple extends AbstractLGGGenerator {
 
 	@Override
 	protected boolean isSubTreeOf(RDFResourceTree tree1, RDFResourceTree tree2) {
+		ForkJoinPool pool = getForkJoinPool();
+		if(pool != null) {
+			return QueryTreeUtils.isSubsumedBy(tree1, tree2, pool);
+		}
 		return QueryTreeUtils.isSubsumedBy(tree1, tree2);
 	}
 
@@ -0,0 +1,243 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.util;
+
+import org.apache.jena.graph.Node;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * An index over a list of example trees which is used to prefilter the
+ * examples that might be subsumed by a query tree, before the recursive
+ * subsumption check runs.
+ * <p>
+ * For each example, the paths of edge labels starting at the root are indexed,
+ * as well as the resources and literals reached via these paths. A query tree
+ * yields the bitset of the examples which contain all paths of the query tree
+ * and the resources at their end, i.e. only the examples in this bitset can be
+ * subsumed by the query tree. The result is the same as for the subsumption
+ * checks in {@link org.dllearner.algorithms.qtl.QueryTreeUtils}, thus resources
+ * of the query tree are compared by equality and the children of resources are
+ * ignored.
+ * </p>
+ */
+public class SubsumptionIndex {
+
+	private static final List<Node> ROOT_PATH = Collections.emptyList();
+
+	private final int nrOfTrees;
+	// the example trees, either RDFResourceTrees or CompactRDFResourceTrees
+	private final Map<Object, Integer> treeIds = new IdentityHashMap<>();
+
+	// the examples containing the path, the resources at the end of the path
+	// and the literals at the end of the path
+	private final Map<List<Node>, BitSet> paths = new HashMap<>();
+	private final Map<List<Node>, Map<Node, BitSet>> resources = new HashMap<>();
+	private final Map<List<Node>, BitSet> literals = new HashMap<>();
+
+	/**
+	 * @param trees the example trees, the position of a tree in the list is its
+	 * ID in the bitsets
+	 */
+	public SubsumptionIndex(List<RDFResourceTree> trees) {
+		this(trees.size());
+		for (int id = 0; id < trees.size(); id++) {
+			RDFResourceTree tree = trees.get(id);
+			treeIds.put(tree, id);
+			index(tree, ROOT_PATH, id);
+		}
+	}
+
+	private SubsumptionIndex(int nrOfTrees) {
+		this.nrOfTrees = nrOfTrees;
+	}
+
+	/**
+	 * @param trees the compact example trees, the position of a tree in the
+	 * list is its ID in the bitsets
+	 * @return the index of the trees
+	 */
+	public static SubsumptionIndex of(List<CompactRDFResourceTree> trees) {
+		SubsumptionIndex index = new SubsumptionIndex(trees.size());
+		for (int id = 0; id < trees.size(); id++) {
+			CompactRDFResourceTree tree = trees.get(id);
+			index.treeIds.put(tree, id);
+			index.index(tree, 0, ROOT_PATH, id);
+		}
+		return index;
+	}
+
+	private void index(RDFResourceTree tree, List<Node> path, int id) {
+		paths.computeIfAbsent(path, p -> new BitSet(nrOfTrees)).set(id);
+		if (tree.isResourceNode()) {
+			resources.computeIfAbsent(path, p -> new HashMap<>())
+					.computeIfAbsent(tree.getData(), n -> new BitSet(nrOfTrees)).set(id);
+		} else if (tree.isLiteralNode()) {
+			literals.computeIfAbsent(path, p -> new BitSet(nrOfTrees)).set(id);
+		}
+		for (Node edge : tree.getEdges()) {
+			List<Node> childPath = append(path, edge);
+			for (RDFResourceTree child : tree.getChildren(edge)) {
+				index(child, childPath, id);
+			}
+		}
+	}
+
+	private void index(CompactRDFResourceTree tree, int node, List<Node> path, int id) {
+		paths.computeIfAbsent(path, p -> new BitSet(nrOfTrees)).set(id);
+		if (tree.isResourceNode(node)) {
+			resources.computeIfAbsent(path, p -> new HashMap<>())
+					.computeIfAbsent(tree.getLabel(node), n -> new BitSet(nrOfTrees)).set(id);
+		} else if (tree.isLiteralNode(node)) {
+			literals.computeIfAbsent(path, p -> new BitSet(nrOfTrees)).set(id);
+		}
+		for (int child : tree.getChildren(node)) {
+			index(tree, child, append(path, tree.getEdge(child)), id);
+		}
+	}
+
+	/**
+	 * @param tree the example tree
+	 * @return the ID of the example tree, or -1 if it is not contained in the
+	 * index
+	 */
+	public int getId(RDFResourceTree tree) {
+		Integer id = treeIds.get(tree);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @return the number of indexed example trees
+	 */
+	public int size() {
+		return nrOfTrees;
+	}
+
+	/**
+	 * Returns the IDs of the example trees which might be subsumed by the given
+	 * tree with simple entailment.
+	 *
+	 * @param tree the query tree
+	 * @return the IDs of the example trees which might be subsumed by the tree
+	 */
+	public BitSet getCandidates(RDFResourceTree tree) {
+		return getCandidates(tree, Collections::singleton);
+	}
+
+	/**
+	 * Returns the IDs of the example trees which might be subsumed by the given
+	 * tree, where an edge of the tree matches all edges of an example tree
+	 * returned by the given function, e.g. the edge and its sub-properties.
+	 *
+	 * @param tree the query tree
+	 * @param matchingEdges the edges of the example trees matching an edge of
+	 * the query tree
+	 * @return the IDs of the example trees which might be subsumed by the tree
+	 */
+	public BitSet getCandidates(RDFResourceTree tree, Function<Node, Collection<Node>> matchingEdges) {
+		BitSet candidates = new BitSet(nrOfTrees);
+		candidates.set(0, nrOfTrees);
+		filter(tree, Collections.singleton(ROOT_PATH), matchingEdges, candidates);
+		return candidates;
+	}
+
+	/**
+	 * @param candidates the IDs returned by one of the <code>getCandidates</code> methods
+	 * @param tree the example tree
+	 * @return whether the example tree might be subsumed, which is always the
+	 * case for trees not contained in the index
+	 */
+	public boolean isCandidate(BitSet candidates, RDFResourceTree tree) {
+		int id = getId(tree);
+		return id < 0 || candidates.get(id);
+	}
+
+	/**
+	 * @param candidates the IDs returned by one of the <code>getCandidates</code> methods
+	 * @param tree the compact example tree
+	 * @return whether the example tree might be subsumed, which is always the
+	 * case for trees not contained in the index
+	 */
+	public boolean isCandidate(BitSet candidates, CompactRDFResourceTree tree) {
+		Integer id = treeIds.get(tree);
+		return id == null || candidates.get(id);
+	}
+
+	// the paths of the examples which might contain a node matching the given tree
+	private void filter(RDFResourceTree tree, Set<List<Node>> treePaths,
+						Function<Node, Collection<Node>> matchingEdges, BitSet candidates) {
+		if (candidates.isEmpty()) {
+			return;
+		}
+		candidates.and(union(paths, treePaths));
+
+		if (tree.isResourceNode()) {
+			// the resource must be the same, only a literal subsumes a resource without children
+			BitSet matches = new BitSet(nrOfTrees);
+			for (List<Node> path : treePaths) {
+				BitSet bits = resources.getOrDefault(path, Collections.emptyMap()).get(tree.getData());
+				if (bits != null) {
+					matches.or(bits);
+				}
+			}
+			if (tree.isLeaf()) {
+				matches.or(union(literals, treePaths));
+			}
+			candidates.and(matches);
+		} else if (tree.isVarNode()) {
+			// the subsumption of the children is only checked below variables
+			for (Node edge : tree.getEdges()) {
+				Set<List<Node>> childPaths = new HashSet<>();
+				for (Node matchingEdge : matchingEdges.apply(edge)) {
+					for (List<Node> path : treePaths) {
+						List<Node> childPath = append(path, matchingEdge);
+						if (paths.containsKey(childPath)) {
+							childPaths.add(childPath);
+						}
+					}
+				}
+				for (RDFResourceTree child : tree.getChildren(edge)) {
+					filter(child, childPaths, matchingEdges, candidates);
+				}
+			}
+		}
+	}
+
+	private BitSet union(Map<List<Node>, BitSet> index, Set<List<Node>> keys) {
+		BitSet union = new BitSet(nrOfTrees);
+		for (List<Node> key : keys) {
+			BitSet bits = index.get(key);
+			if (bits != null) {
+				union.or(bits);
+			}
+		}
+		return union;
+	}
+
+	private static List<Node> append(List<Node> path, Node edge) {
+		List<Node> childPath = new ArrayList<>(path.size() + 1);
+		childPath.addAll(path);
+		childPath.add(edge);
+		return childPath;
+	}
+
+}
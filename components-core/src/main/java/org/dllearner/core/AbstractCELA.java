@@ -43,11 +43,14 @@ import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import uk.ac.manchester.cs.owl.owlapi.OWLClassImpl;
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -99,6 +102,23 @@ public abstract class AbstractCELA extends AbstractComponent implements ClassExp
 	@ConfigOption(defaultValue = "10", description = "maximum execution of the algorithm in seconds")
 	protected long maxExecutionTimeInSeconds = 10;
 
+	@ConfigOption(defaultValue = "false", description = "Whether class expressions which can not be more accurate than " +
+			"the worst of the currently best class expressions are treated as too weak. This allows to stop their " +
+			"evaluation early, but they are not refined any further.")
+	protected boolean useAccuracyBound = false;
+
+	@ConfigOption(defaultValue = "0", description = "The number of threads which check the examples in parallel " +
+			"batches if the reasoner uses instance checks. The threads share the reasoner, thus this only applies to " +
+			"thread safe reasoners like the closed world reasoner. 0 means that the examples are checked by the " +
+			"thread evaluating the class expression.")
+	protected int nrOfInstanceCheckThreads = 0;
+
+	private ExecutorService instanceCheckExecutor;
+
+	// the accuracy of the worst of the currently best class expressions, written by the search thread and read by
+	// the threads checking the examples, which must not access bestEvaluatedDescriptions
+	private volatile double accuracyBound = -1;
+
 	/**
 	 * The learning problem variable, which must be used by
 	 * all learning algorithm implementations.
@@ -457,6 +477,77 @@ public abstract class AbstractCELA extends AbstractComponent implements ClassExp
 		return hierarchy;
 	}
 	
+	/**
+	 * Lets the learning problem treat class expressions as too weak if they can not be more accurate than the worst
+	 * of the currently best class expressions (see {@link ReasoningUtils#setAccuracyBound}). Has no effect unless
+	 * {@link #useAccuracyBound} is enabled. The bound has to be kept up to date by calling
+	 * {@link #updateAccuracyBound()} whenever the best class expressions change.
+	 */
+	protected void initAccuracyBound() {
+		accuracyBound = -1;
+		ReasoningUtils reasoningUtil = learningProblem.getReasoningUtil();
+		if (useAccuracyBound && reasoningUtil != null) {
+			reasoningUtil.setAccuracyBound(() -> accuracyBound);
+		}
+	}
+
+	/**
+	 * Publishes the accuracy of the worst of the currently best class expressions as bound set by
+	 * {@link #initAccuracyBound()}. Must be called by the thread which modifies the best class expressions.
+	 */
+	protected void updateAccuracyBound() {
+		if (useAccuracyBound) {
+			accuracyBound = bestEvaluatedDescriptions.isFull()
+					? bestEvaluatedDescriptions.getWorst().getAccuracy()
+					: -1;
+		}
+	}
+
+	/**
+	 * Removes the bound set by {@link #initAccuracyBound()}, such that the learning problem computes accurate
+	 * values again, e.g. for the final solutions.
+	 */
+	protected void resetAccuracyBound() {
+		ReasoningUtils reasoningUtil = learningProblem.getReasoningUtil();
+		if (useAccuracyBound && reasoningUtil != null) {
+			reasoningUtil.setAccuracyBound(null);
+		}
+	}
+
+	/**
+	 * Lets the learning problem check the examples in parallel batches (see {@link ReasoningUtils#setExecutor}).
+	 * Has no effect unless {@link #nrOfInstanceCheckThreads} is positive and the reasoner is
+	 * {@link AbstractReasonerComponent#isThreadSafe() thread safe}.
+	 */
+	protected void initInstanceCheckExecutor() {
+		ReasoningUtils reasoningUtil = learningProblem.getReasoningUtil();
+		if (nrOfInstanceCheckThreads > 0 && reasoningUtil != null) {
+			if (!reasoningUtil.getReasoner().isThreadSafe()) {
+				logger.warn("The reasoner " + reasoningUtil.getReasoner().getClass().getSimpleName()
+						+ " is not thread safe, thus the examples are checked sequentially.");
+				return;
+			}
+			instanceCheckExecutor = Executors.newFixedThreadPool(nrOfInstanceCheckThreads,
+					new ThreadFactoryBuilder().setNameFormat("instance-check-%d").setDaemon(true).build());
+			reasoningUtil.setExecutor(instanceCheckExecutor);
+		}
+	}
+
+	/**
+	 * Stops the threads started by {@link #initInstanceCheckExecutor()}, such that the learning problem checks the
+	 * examples sequentially again.
+	 */
+	protected void shutdownInstanceCheckExecutor() {
+		if (instanceCheckExecutor != null) {
+			ReasoningUtils reasoningUtil = learningProblem.getReasoningUtil();
+			if (reasoningUtil != null && reasoningUtil.getExecutor() == instanceCheckExecutor) {
+				reasoningUtil.setExecutor(null);
+			}
+			instanceCheckExecutor.shutdownNow();
+			instanceCheckExecutor = null;
+		}
+	}
+
 	protected boolean isTimeExpired() {
 		return getCurrentRuntimeInMilliSeconds() >= TimeUnit.SECONDS.toMillis(maxExecutionTimeInSeconds);
 	}
@@ -616,6 +707,22 @@ public abstract class AbstractCELA extends AbstractComponent implements ClassExp
 		return useMinimizer;
 	}
 
+	public boolean isUseAccuracyBound() {
+		return useAccuracyBound;
+	}
+
+	public void setUseAccuracyBound(boolean useAccuracyBound) {
+		this.useAccuracyBound = useAccuracyBound;
+	}
+
+	public int getNrOfInstanceCheckThreads() {
+		return nrOfInstanceCheckThreads;
+	}
+
+	public void setNrOfInstanceCheckThreads(int nrOfInstanceCheckThreads) {
+		this.nrOfInstanceCheckThreads = nrOfInstanceCheckThreads;
+	}
+
 	public void setUseMinimizer(boolean useMinimizer) {
 		this.useMinimizer = useMinimizer;
 	}
@@ -29,6 +29,8 @@ import org.dllearner.core.owl.DatatypePropertyHierarchy;
 import org.dllearner.core.owl.ObjectPropertyHierarchy;
 import org.dllearner.core.owl.fuzzydll.FuzzyIndividual;
 import org.dllearner.reasoning.ReasonerType;
+import org.dllearner.reasoning.RetrievalCache;
+import org.dllearner.reasoning.RetrievalCache.EvictionPolicy;
 import org.dllearner.utilities.Helper;
 import org.dllearner.utilities.OWLAPIUtils;
 import org.dllearner.utilities.datastructures.SortedSetTuple;
@@ -42,6 +44,7 @@ import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -82,27 +85,33 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@ConfigOption(description = "whether to use single instance checks", defaultValue = "false")
 	protected boolean useInstanceChecks = false;
 
-	// statistical data for particular reasoning operations
-	private long instanceCheckReasoningTimeNs = 0;
-	private int nrOfInstanceChecks = 0;
-	private int nrOfMultiInstanceChecks = 0;
-	private long retrievalReasoningTimeNs = 0;
-	private int nrOfRetrievals = 0;
-	private long subsumptionReasoningTimeNs = 0;
-	private int nrOfSubsumptionChecks = 0;
-	private int nrOfMultiSubsumptionChecks = 0;
-	private int nrOfSubsumptionHierarchyQueries = 0;
+	@ConfigOption(description = "whether to cache the results of retrieval requests", defaultValue = "false")
+	protected boolean useRetrievalCache = false;
+	@ConfigOption(description = "how entries of the retrieval cache are evicted, either LRU (bounded by the number of " +
+			"class expressions) or WEIGHT (bounded by the total number of cached individuals)", defaultValue = "LRU")
+	protected EvictionPolicy retrievalCacheEvictionPolicy = EvictionPolicy.LRU;
+	@ConfigOption(description = "the maximum size of the retrieval cache, see retrievalCacheEvictionPolicy", defaultValue = "10000")
+	protected long retrievalCacheMaxSize = 10000;
+	private volatile RetrievalCache retrievalCache;
+
+	// statistical data for particular reasoning operations, updated concurrently
+	// when several threads use the same reasoner
+	private final LongAdder instanceCheckReasoningTimeNs = new LongAdder();
+	private final LongAdder nrOfInstanceChecks = new LongAdder();
+	private final LongAdder nrOfMultiInstanceChecks = new LongAdder();
+	private final LongAdder retrievalReasoningTimeNs = new LongAdder();
+	private final LongAdder nrOfRetrievals = new LongAdder();
+	private final LongAdder subsumptionReasoningTimeNs = new LongAdder();
+	private final LongAdder nrOfSubsumptionChecks = new LongAdder();
+	private final LongAdder nrOfMultiSubsumptionChecks = new LongAdder();
+	private final LongAdder nrOfSubsumptionHierarchyQueries = new LongAdder();
 
 	// rest of reasoning time
-	private long otherReasoningTimeNs = 0;
+	private final LongAdder otherReasoningTimeNs = new LongAdder();
 
 	// time for all reasoning requests (usually longer than the sum of all
 	// above)
-	private long overallReasoningTimeNs = 0;
-
-	// temporary variables (moved here for performance reasons)
-	private long reasoningStartTimeTmp;
-	private long reasoningDurationTmp;
+	private final LongAdder overallReasoningTimeNs = new LongAdder();
 
 	// list view
 	private List<OWLClass> atomicConceptsList;
@@ -205,16 +214,16 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	 * algorithm, you can use this method to reset all statistical values.
 	 */
 	public void resetStatistics() {
-		instanceCheckReasoningTimeNs = 0;
-		nrOfInstanceChecks = 0;
-		retrievalReasoningTimeNs = 0;
-		nrOfRetrievals = 0;
-		subsumptionReasoningTimeNs = 0;
-		nrOfSubsumptionChecks = 0;
+		instanceCheckReasoningTimeNs.reset();
+		nrOfInstanceChecks.reset();
+		retrievalReasoningTimeNs.reset();
+		nrOfRetrievals.reset();
+		subsumptionReasoningTimeNs.reset();
+		nrOfSubsumptionChecks.reset();
 		// subsumptionHierarchyTimeNs = 0;
-		nrOfSubsumptionHierarchyQueries = 0;
-		otherReasoningTimeNs = 0;
-		overallReasoningTimeNs = 0;
+		nrOfSubsumptionHierarchyQueries.reset();
+		otherReasoningTimeNs.reset();
+		overallReasoningTimeNs.reset();
 	}
 
 	/**
@@ -226,6 +235,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@NoConfigOption
 	public void setUpdated() {
 		// TODO currently, nothing is done to behave correctly after updates
+		if (retrievalCache != null) {
+			retrievalCache.clear();
+		}
 	}
 
 	/**
@@ -264,7 +276,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean isSuperClassOf(OWLClassExpression superClass, OWLClassExpression subClass) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		boolean result = false;
 		if(precomputeClassHierarchy) {
 			if(superClass.isAnonymous() || subClass.isAnonymous()) {
@@ -283,10 +295,10 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 				e.printStackTrace();
 			}
 		}
-		nrOfSubsumptionChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		subsumptionReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfSubsumptionChecks.increment();
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		subsumptionReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query isSuperClassOf: " + superClass + " " + subClass + " " + result);
 		}
@@ -300,17 +312,17 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean isEquivalentClass(OWLClassExpression class1, OWLClassExpression class2) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		boolean result = false;
 		try {
 			result = isEquivalentClassImpl(class1, class2);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfSubsumptionChecks+=2;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		subsumptionReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfSubsumptionChecks.add(2);
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		subsumptionReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query isEquivalentClass: " + class1 + " " + class2 + " " + result);
 		}
@@ -323,17 +335,17 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	
 	@Override
 	public final boolean isDisjoint(OWLClass class1, OWLClass class2) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		boolean result = false;
 		try {
 			result = isDisjointImpl(class1, class2);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfSubsumptionChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		subsumptionReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfSubsumptionChecks.increment();
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		subsumptionReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query isDisjoint: " + class1 + " " + class2 + " " + result);
 		}
@@ -363,18 +375,18 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@Override
 	public final Set<OWLClassExpression> isSuperClassOf(Set<OWLClassExpression> superConcepts,
 			OWLClassExpression subConcept) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		Set<OWLClassExpression> result = null;
 		try {
 			result = isSuperClassOfImpl(superConcepts, subConcept);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfSubsumptionChecks += superConcepts.size();
-		nrOfMultiSubsumptionChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		subsumptionReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfSubsumptionChecks.add(superConcepts.size());
+		nrOfMultiSubsumptionChecks.increment();
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		subsumptionReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		return result;
 	}
 
@@ -388,7 +400,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final SortedSetTuple<OWLIndividual> doubleRetrieval(OWLClassExpression concept) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		SortedSetTuple<OWLIndividual> result;
 		try {
 			result = doubleRetrievalImpl(concept);
@@ -396,9 +408,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return null;
 		}
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		otherReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		otherReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		return result;
 	}
 
@@ -409,18 +421,22 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final SortedSet<OWLIndividual> getIndividuals(OWLClassExpression concept) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		SortedSet<OWLIndividual> result;
 		try {
-			result = getIndividualsImpl(concept);
+			if (useRetrievalCache) {
+				result = getIndividualsCached(concept);
+			} else {
+				result = getIndividualsImpl(concept);
+			}
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 			return null;
 		}
-		nrOfRetrievals++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		retrievalReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfRetrievals.increment();
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		retrievalReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query getIndividuals: " + concept + " " + result);
 		}
@@ -431,10 +447,44 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			throws ReasoningMethodUnsupportedException {
 		throw new ReasoningMethodUnsupportedException();
 	}
+
+	private SortedSet<OWLIndividual> getIndividualsCached(OWLClassExpression concept)
+			throws ReasoningMethodUnsupportedException {
+		RetrievalCache cache = getRetrievalCache();
+		SortedSet<OWLIndividual> result = cache.get(concept);
+		if (result != null) {
+			// cached sets are unmodifiable
+			return new TreeSet<>(result);
+		}
+		// conjunctions (and disjunctions under CWA) can be computed from the cached operands
+		result = cache.infer(concept, getReasonerType() == ReasonerType.CLOSED_WORLD_REASONER);
+		if (result == null) {
+			result = getIndividualsImpl(concept);
+		}
+		cache.put(concept, result);
+		return result;
+	}
+
+	/**
+	 * @return the cache for retrieval results, which is created on first access
+	 */
+	public RetrievalCache getRetrievalCache() {
+		RetrievalCache cache = retrievalCache;
+		if (cache == null) {
+			synchronized (this) {
+				cache = retrievalCache;
+				if (cache == null) {
+					cache = new RetrievalCache(retrievalCacheEvictionPolicy, retrievalCacheMaxSize);
+					retrievalCache = cache;
+				}
+			}
+		}
+		return cache;
+	}
 	
 	@Override
 	public final SortedSet<FuzzyIndividual> getFuzzyIndividuals(OWLClassExpression concept) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		SortedSet<FuzzyIndividual> result;
 		try {
 			result = getFuzzyIndividualsImpl(concept);
@@ -442,10 +492,10 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return null;
 		}
-		nrOfRetrievals++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		retrievalReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfRetrievals.increment();
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		retrievalReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query getIndividuals: " + concept + " " + result);
 		}
@@ -459,17 +509,22 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean hasType(OWLClassExpression concept, OWLIndividual s) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		boolean result = false;
 		try {
-			result = hasTypeImpl(concept, s);
+			SortedSet<OWLIndividual> instances = useRetrievalCache ? getRetrievalCache().peek(concept) : null;
+			if (instances != null) {
+				result = instances.contains(s);
+			} else {
+				result = hasTypeImpl(concept, s);
+			}
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfInstanceChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		instanceCheckReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfInstanceChecks.increment();
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		instanceCheckReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		return result;
 	}
 
@@ -481,18 +536,23 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@Override
 	public final SortedSet<OWLIndividual> hasType(OWLClassExpression concept, Set<OWLIndividual> s) {
 		// logger.debug("instanceCheck "+concept.toKBSyntaxString());
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		SortedSet<OWLIndividual> result = null;
 		try {
-			result = hasTypeImpl(concept, s);
+			SortedSet<OWLIndividual> instances = useRetrievalCache ? getRetrievalCache().peek(concept) : null;
+			if (instances != null) {
+				result = new TreeSet<>(Sets.intersection(s, instances));
+			} else {
+				result = hasTypeImpl(concept, s);
+			}
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfInstanceChecks += s.size();
-		nrOfMultiInstanceChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		instanceCheckReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfInstanceChecks.add(s.size());
+		nrOfMultiInstanceChecks.increment();
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		instanceCheckReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		// logger.debug("instanceCheck done");
 		return result;
 	}
@@ -521,7 +581,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean isSatisfiable() {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		boolean result;
 		try {
 			result = isSatisfiableImpl();
@@ -529,9 +589,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return false;
 		}
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		otherReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		otherReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		return result;
 	}
 
@@ -541,7 +601,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean remainsSatisfiable(OWLAxiom axiom) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		boolean result;
 		try {
 			result = remainsSatisfiableImpl(axiom);
@@ -549,9 +609,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return false;
 		}
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		otherReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		otherReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		return result;
 	}
 
@@ -637,7 +697,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final Map<OWLIndividual, SortedSet<OWLIndividual>> getPropertyMembers(OWLObjectProperty atomicRole) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		Map<OWLIndividual, SortedSet<OWLIndividual>> result;
 		try {
 			result = getPropertyMembersImpl(atomicRole);
@@ -645,9 +705,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return null;
 		}
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		otherReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		otherReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		return result;
 	}
 
@@ -1452,55 +1512,55 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	}
 
 	public long getInstanceCheckReasoningTimeNs() {
-		return instanceCheckReasoningTimeNs;
+		return instanceCheckReasoningTimeNs.sum();
 	}
 
 	public long getRetrievalReasoningTimeNs() {
-		return retrievalReasoningTimeNs;
+		return retrievalReasoningTimeNs.sum();
 	}
 
 	public int getNrOfInstanceChecks() {
-		return nrOfInstanceChecks;
+		return (int) nrOfInstanceChecks.sum();
 	}
 
 	public int getNrOfRetrievals() {
-		return nrOfRetrievals;
+		return (int) nrOfRetrievals.sum();
 	}
 
 	public int getNrOfSubsumptionChecks() {
-		return nrOfSubsumptionChecks;
+		return (int) nrOfSubsumptionChecks.sum();
 	}
 
 	public long getSubsumptionReasoningTimeNs() {
-		return subsumptionReasoningTimeNs;
+		return subsumptionReasoningTimeNs.sum();
 	}
 
 	public int getNrOfSubsumptionHierarchyQueries() {
-		return nrOfSubsumptionHierarchyQueries;
+		return (int) nrOfSubsumptionHierarchyQueries.sum();
 	}
 
 	public long getOverallReasoningTimeNs() {
-		return overallReasoningTimeNs;
+		return overallReasoningTimeNs.sum();
 	}
 
 	public long getTimePerRetrievalNs() {
-		return retrievalReasoningTimeNs / nrOfRetrievals;
+		return retrievalReasoningTimeNs.sum() / nrOfRetrievals.sum();
 	}
 
 	public long getTimePerInstanceCheckNs() {
-		return instanceCheckReasoningTimeNs / nrOfInstanceChecks;
+		return instanceCheckReasoningTimeNs.sum() / nrOfInstanceChecks.sum();
 	}
 
 	public long getTimePerSubsumptionCheckNs() {
-		return subsumptionReasoningTimeNs / nrOfSubsumptionChecks;
+		return subsumptionReasoningTimeNs.sum() / nrOfSubsumptionChecks.sum();
 	}
 
 	public int getNrOfMultiSubsumptionChecks() {
-		return nrOfMultiSubsumptionChecks;
+		return (int) nrOfMultiSubsumptionChecks.sum();
 	}
 
 	public int getNrOfMultiInstanceChecks() {
-		return nrOfMultiInstanceChecks;
+		return (int) nrOfMultiInstanceChecks.sum();
 	}
 	
 	/**
@@ -1569,35 +1629,39 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@Override
 	public String toString() {
 		String str = "";
-		if (nrOfRetrievals > 0) {
-			str += "number of retrievals: " + nrOfRetrievals + "\n";
+		if (getNrOfRetrievals() > 0) {
+			str += "number of retrievals: " + getNrOfRetrievals() + "\n";
 			str += "retrieval reasoning time: "
-							+ Helper.prettyPrintNanoSeconds(retrievalReasoningTimeNs)
+							+ Helper.prettyPrintNanoSeconds(getRetrievalReasoningTimeNs())
 							+ " ( " + Helper.prettyPrintNanoSeconds(getTimePerRetrievalNs())
 							+ " per retrieval)" + "\n";
 		}
-		if (nrOfInstanceChecks > 0) {
-			str += "number of instance checks: " + nrOfInstanceChecks + " ("
-					+ nrOfMultiInstanceChecks + " multiple)\n";
+		if (getNrOfInstanceChecks() > 0) {
+			str += "number of instance checks: " + getNrOfInstanceChecks() + " ("
+					+ getNrOfMultiInstanceChecks() + " multiple)\n";
 			str += "instance check reasoning time: "
-					+ Helper.prettyPrintNanoSeconds(instanceCheckReasoningTimeNs) + " ( "
+					+ Helper.prettyPrintNanoSeconds(getInstanceCheckReasoningTimeNs()) + " ( "
 					+ Helper.prettyPrintNanoSeconds(getTimePerInstanceCheckNs())
 					+ " per instance check)\n";
 		}
-		if (nrOfSubsumptionHierarchyQueries > 0) {
+		if (getNrOfSubsumptionHierarchyQueries() > 0) {
 			str += "subsumption hierarchy queries: "
-					+ nrOfSubsumptionHierarchyQueries + "\n";
+					+ getNrOfSubsumptionHierarchyQueries() + "\n";
 		}
-		if (nrOfSubsumptionChecks > 0) {
-			str += "(complex) subsumption checks: " + nrOfSubsumptionChecks
-					+ " (" + nrOfMultiSubsumptionChecks + " multiple)\n";
+		if (getNrOfSubsumptionChecks() > 0) {
+			str += "(complex) subsumption checks: " + getNrOfSubsumptionChecks()
+					+ " (" + getNrOfMultiSubsumptionChecks() + " multiple)\n";
 			str += "subsumption reasoning time: "
-					+ Helper.prettyPrintNanoSeconds(subsumptionReasoningTimeNs) + " ( "
+					+ Helper.prettyPrintNanoSeconds(getSubsumptionReasoningTimeNs()) + " ( "
 					+ Helper.prettyPrintNanoSeconds(getTimePerSubsumptionCheckNs())
 					+ " per subsumption check)\n";
 		}
+		if (retrievalCache != null) {
+			str += "retrieval cache: " + retrievalCache.size() + " entries, hit rate "
+					+ numberFormat.format(retrievalCache.getStats().hitRate()) + "\n";
+		}
 		str += "overall reasoning time: "
-				+ Helper.prettyPrintNanoSeconds(overallReasoningTimeNs) + "\n";	
+				+ Helper.prettyPrintNanoSeconds(getOverallReasoningTimeNs()) + "\n";	
 		return str;
 	}
 	
@@ -1607,17 +1671,17 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	
 	@Override
 	public double hasTypeFuzzyMembership(OWLClassExpression description, FuzzyIndividual individual) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTimeTmp = System.nanoTime();
 		double result = -1;
 		try {
 			result = hasTypeFuzzyMembershipImpl(description, individual);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfInstanceChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		instanceCheckReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfInstanceChecks.increment();
+		long reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		instanceCheckReasoningTimeNs.add(reasoningDurationTmp);
+		overallReasoningTimeNs.add(reasoningDurationTmp);
 		return result;		
 	}
 
@@ -1639,6 +1703,16 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	 */
 	public abstract void setSynchronized();
 
+	/**
+	 * Whether the reasoning methods can be called by several threads at the same
+	 * time once the reasoner is initialised and its hierarchies are computed.
+	 * Reasoners are not thread safe unless they override this method.
+	 * @return whether this reasoner is thread safe
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+
 	public boolean isUseInstanceChecks() {
 		return useInstanceChecks;
 	}
@@ -1646,4 +1720,20 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	public void setUseInstanceChecks(boolean useInstanceChecks) {
 		this.useInstanceChecks = useInstanceChecks;
 	}
+
+	public boolean isUseRetrievalCache() {
+		return useRetrievalCache;
+	}
+
+	public void setUseRetrievalCache(boolean useRetrievalCache) {
+		this.useRetrievalCache = useRetrievalCache;
+	}
+
+	public void setRetrievalCacheEvictionPolicy(EvictionPolicy retrievalCacheEvictionPolicy) {
+		this.retrievalCacheEvictionPolicy = retrievalCacheEvictionPolicy;
+	}
+
+	public void setRetrievalCacheMaxSize(long retrievalCacheMaxSize) {
+		this.retrievalCacheMaxSize = retrievalCacheMaxSize;
+	}
 }
\ No newline at end of file
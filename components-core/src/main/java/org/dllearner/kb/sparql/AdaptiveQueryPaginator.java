@@ -0,0 +1,344 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryCancelledException;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.QueryParseException;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.Syntax;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.engine.ResultSetStream;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.http.QueryExceptionHTTP;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * Executes queries against a (remote) endpoint page by page, using LIMIT and
+ * OFFSET.
+ * <p>
+ * The page size starts at the maximum page size and is adjusted after each
+ * page: it shrinks if a page took longer than the target time and grows
+ * towards the number of results the endpoint delivers within the target time
+ * otherwise. Pages failing with a server error are requested again with half
+ * the size. Requests are only delayed after the endpoint signalled overload
+ * (HTTP 429 or 503), with a delay that doubles on each further signal and
+ * halves on each successful request.
+ * </p>
+ * <p>
+ * SELECT results are streamed, i.e. only the current page is held in memory.
+ * As with any LIMIT/OFFSET pagination, the pages are only guaranteed to be
+ * consistent if the query has an ORDER BY clause.
+ * </p>
+ */
+public class AdaptiveQueryPaginator {
+
+	private static final Logger logger = LoggerFactory.getLogger(AdaptiveQueryPaginator.class);
+
+	public static final int DEFAULT_MAX_PAGE_SIZE = 10000;
+	public static final int DEFAULT_MIN_PAGE_SIZE = 100;
+	public static final long DEFAULT_TARGET_PAGE_TIME_MS = 2000;
+
+	private static final long MIN_DELAY_MS = 50;
+	private static final long MAX_DELAY_MS = 30000;
+	private static final int MAX_RETRIES = 5;
+
+	private final QueryExecutionFactory qef;
+	private final int maxPageSize;
+	private final int minPageSize;
+	private final long targetPageTimeMs;
+
+	private volatile boolean adaptive = true;
+	private volatile int pageSize;
+	private volatile long delayMs = 0;
+
+	public AdaptiveQueryPaginator(QueryExecutionFactory qef) {
+		this(qef, DEFAULT_MAX_PAGE_SIZE, DEFAULT_MIN_PAGE_SIZE, DEFAULT_TARGET_PAGE_TIME_MS);
+	}
+
+	/**
+	 * @param qef the factory executing the pages
+	 * @param maxPageSize the maximum number of results requested at once,
+	 * which is also the initial page size
+	 * @param minPageSize the minimum number of results requested at once
+	 * @param targetPageTimeMs the response time per page the page size is
+	 * adjusted to
+	 */
+	public AdaptiveQueryPaginator(QueryExecutionFactory qef, int maxPageSize, int minPageSize, long targetPageTimeMs) {
+		this.qef = qef;
+		this.maxPageSize = maxPageSize;
+		this.minPageSize = Math.min(minPageSize, maxPageSize);
+		this.targetPageTimeMs = targetPageTimeMs;
+		this.pageSize = maxPageSize;
+	}
+
+	/**
+	 * Executes a SELECT query. The first page is requested immediately, the
+	 * following pages while iterating over the returned result set.
+	 *
+	 * @param queryString the query
+	 * @param timeout the timeout per request, a value <= 0 means no timeout
+	 * @param unit the unit of <code>timeout</code>
+	 * @return the results
+	 */
+	public ResultSet execSelect(String queryString, long timeout, TimeUnit unit) {
+		Query query = parse(queryString);
+		if (query == null || !query.isSelectType()) {
+			return execute(queryString, timeout, unit, qe -> ResultSetFactory.copyResults(qe.execSelect()));
+		}
+		Iterator<Binding> bindings = new PageIterator<>(query, timeout, unit, qe -> {
+			ResultSet rs = qe.execSelect();
+			List<Binding> page = new ArrayList<>();
+			while (rs.hasNext()) {
+				page.add(rs.nextBinding());
+			}
+			return page;
+		});
+		// fail here rather than when iterating if the endpoint cannot answer the query
+		bindings.hasNext();
+		return new ResultSetStream(query.getResultVars(), ModelFactory.createDefaultModel(), bindings);
+	}
+
+	/**
+	 * Executes a CONSTRUCT query. Since the number of solutions of a page
+	 * cannot be derived from the number of triples it contains, pages are
+	 * requested until an empty page is returned.
+	 *
+	 * @param queryString the query
+	 * @param timeout the timeout per request, a value <= 0 means no timeout
+	 * @param unit the unit of <code>timeout</code>
+	 * @return the union of all pages
+	 */
+	public Model execConstruct(String queryString, long timeout, TimeUnit unit) {
+		Query query = parse(queryString);
+		if (query == null || !query.isConstructType()) {
+			return execute(queryString, timeout, unit, QueryExecution::execConstruct);
+		}
+		Model model = ModelFactory.createDefaultModel();
+		PageIterator<Model> pages = new PageIterator<>(query, timeout, unit, qe -> {
+			Model page = qe.execConstruct();
+			return page.isEmpty() ? Collections.emptyList() : Collections.singletonList(page);
+		});
+		pages.forEachRemaining(model::add);
+		return model;
+	}
+
+	/**
+	 * Executes an ASK query, waiting and retrying if the endpoint is
+	 * overloaded.
+	 *
+	 * @param queryString the query
+	 * @return the result
+	 */
+	public boolean execAsk(String queryString) {
+		return execute(queryString, -1, TimeUnit.MILLISECONDS, QueryExecution::execAsk);
+	}
+
+	/**
+	 * @return the number of results requested with the next page
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @return the current delay between requests in milliseconds
+	 */
+	public long getDelay() {
+		return delayMs;
+	}
+
+	/**
+	 * @param adaptive whether to adjust the page size to the response times,
+	 * otherwise the maximum page size is used unless pages fail. Disabling this
+	 * keeps the pages of a query the same across runs, which is needed if they
+	 * are cached.
+	 */
+	public void setAdaptive(boolean adaptive) {
+		this.adaptive = adaptive;
+	}
+
+	private Query parse(String queryString) {
+		try {
+			return QueryFactory.create(queryString, Syntax.syntaxARQ);
+		} catch (QueryParseException e) {
+			// e.g. vendor specific syntax, which is passed to the endpoint as it is
+			logger.debug("Executing query without pagination, as it cannot be parsed: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private <T> T execute(String queryString, long timeout, TimeUnit unit, Function<QueryExecution, T> reader) {
+		return execute(() -> qef.createQueryExecution(queryString), timeout, unit, reader);
+	}
+
+	private <T> T execute(Supplier<QueryExecution> qeFactory, long timeout, TimeUnit unit,
+						  Function<QueryExecution, T> reader) {
+		for (int attempt = 0; ; attempt++) {
+			pause();
+			try (QueryExecution qe = qeFactory.get()) {
+				if (timeout > 0) {
+					qe.setTimeout(timeout, unit);
+				}
+				T result = reader.apply(qe);
+				onSuccess();
+				return result;
+			} catch (QueryExceptionHTTP e) {
+				if (!isOverload(e) || attempt >= MAX_RETRIES) {
+					throw e;
+				}
+				onOverload(e);
+			}
+		}
+	}
+
+	private static boolean isOverload(QueryExceptionHTTP e) {
+		return e.getResponseCode() == 429 || e.getResponseCode() == 503;
+	}
+
+	private static boolean isServerError(QueryExceptionHTTP e) {
+		return e.getResponseCode() == 500 || e.getResponseCode() == 502 || e.getResponseCode() == 504;
+	}
+
+	private void pause() {
+		long delay = delayMs;
+		if (delay > 0) {
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new QueryCancelledException();
+			}
+		}
+	}
+
+	private synchronized void onSuccess() {
+		delayMs = delayMs / 2 < MIN_DELAY_MS ? 0 : delayMs / 2;
+	}
+
+	private synchronized void onOverload(QueryExceptionHTTP e) {
+		delayMs = Math.min(MAX_DELAY_MS, Math.max(MIN_DELAY_MS, 2 * delayMs));
+		logger.warn("Endpoint {} is overloaded ({}), waiting {} ms between requests.",
+				qef.getId(), e.getResponseCode(), delayMs);
+	}
+
+	private synchronized void adjustPageSize(int requested, boolean full, long durationMs) {
+		if (!adaptive) {
+			return;
+		}
+		long size;
+		if (durationMs > targetPageTimeMs) {
+			size = requested * targetPageTimeMs / durationMs;
+		} else if (full) {
+			size = Math.min(2L * requested, requested * targetPageTimeMs / Math.max(1, durationMs));
+		} else {
+			return;
+		}
+		pageSize = (int) Math.max(minPageSize, Math.min(maxPageSize, size));
+	}
+
+	private synchronized void shrinkPageSize(int size) {
+		if (adaptive) {
+			pageSize = Math.min(pageSize, size);
+		}
+	}
+
+	/**
+	 * Iterates over the items of the pages of a query, requesting the next page
+	 * when the current one has been consumed.
+	 */
+	private class PageIterator<T> extends AbstractIterator<T> {
+
+		private final Query query;
+		private final long timeout;
+		private final TimeUnit unit;
+		private final Function<QueryExecution, List<T>> reader;
+
+		private long offset;
+		private long remaining;
+		private boolean lastPage = false;
+		private Iterator<T> page = Collections.emptyIterator();
+
+		PageIterator(Query query, long timeout, TimeUnit unit, Function<QueryExecution, List<T>> reader) {
+			this.query = query;
+			this.timeout = timeout;
+			this.unit = unit;
+			this.reader = reader;
+			this.offset = query.hasOffset() ? query.getOffset() : 0;
+			this.remaining = query.hasLimit() ? query.getLimit() : Long.MAX_VALUE;
+		}
+
+		@Override
+		protected T computeNext() {
+			while (!page.hasNext()) {
+				if (lastPage || remaining <= 0) {
+					return endOfData();
+				}
+				page = nextPage().iterator();
+			}
+			return page.next();
+		}
+
+		private List<T> nextPage() {
+			int size = (int) Math.min(pageSize, remaining);
+			while (true) {
+				Query pageQuery = query.cloneQuery();
+				pageQuery.setLimit(size);
+				if (offset > 0) {
+					pageQuery.setOffset(offset);
+				}
+				long start = System.currentTimeMillis();
+				try {
+					List<T> items = execute(() -> qef.createQueryExecution(pageQuery), timeout, unit, reader);
+					boolean full = query.isSelectType() ? items.size() == size : !items.isEmpty();
+					adjustPageSize(size, full, System.currentTimeMillis() - start);
+					offset += size;
+					remaining -= size;
+					lastPage = !full;
+					return items;
+				} catch (QueryExceptionHTTP e) {
+					if (!isServerError(e) || size <= minPageSize) {
+						throw e;
+					}
+					// often caused by too large results, thus try a smaller page
+					logger.debug("Request of {} results failed ({}), trying fewer results.", size, e.getResponseCode());
+					size = Math.max(minPageSize, size / 2);
+					shrinkPageSize(size);
+				}
+			}
+		}
+	}
+
+}
@@ -50,7 +50,10 @@ import java.util.LinkedList;
  * @author Sebastian Hellmann
  * @author Sebastian Knappe
  * @author Jens Lehmann
+ * @deprecated use {@link SparqlResultCache} via {@link CachingQueryExecutionFactory}
+ * instead, which stores results in a binary format and bounds the size of the cache
  */
+@Deprecated
 public class Cache implements Serializable {
 
 	private static Logger logger = Logger.getLogger(Cache.class);
@@ -18,73 +18,302 @@
  */
 package org.dllearner.kb.sparql;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+
+/**
+ * Caches the CBDs computed by another {@link ConciseBoundedDescriptionGenerator}
+ * in two tiers: in memory, bounded by the total number of triples of the
+ * cached CBDs, and optionally on disk as gzip compressed RDF Thrift files, from
+ * which the memory cache is filled on creation. CBDs are cached by resource,
+ * depth, whether types for the leafs are requested and the filters added via
+ * this generator. Cached CBDs are shared, thus callers must not modify them.
+ */
 public class CachingConciseBoundedDescriptionGenerator implements ConciseBoundedDescriptionGenerator{
-	
-	private Map<String, Model> cache;
-	private ConciseBoundedDescriptionGenerator delegatee;
-	
+
+	private static final Logger logger = LoggerFactory.getLogger(CachingConciseBoundedDescriptionGenerator.class);
+
+	public static final long DEFAULT_MAX_TRIPLES = 1000000;
+
+	private static final String FILE_EXTENSION = ".rt.gz";
+
+	private final ConciseBoundedDescriptionGenerator delegatee;
+	private final Cache<String, Model> cache;
+
+	// the disk cache, or null if CBDs are only cached in memory
+	private final File cacheDirectory;
+	private final long timeToLiveMs;
+
+	private final AtomicLong diskHitCount = new AtomicLong();
+	private final AtomicLong diskMissCount = new AtomicLong();
+
+	private final SortedSet<String> allowedPropertyNamespaces = new TreeSet<>();
+	private final SortedSet<String> allowedObjectNamespaces = new TreeSet<>();
+	private final SortedSet<String> propertiesToIgnore = new TreeSet<>();
+
 	public CachingConciseBoundedDescriptionGenerator(ConciseBoundedDescriptionGenerator cbdGen) {
+		this(cbdGen, DEFAULT_MAX_TRIPLES, null, 0, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param cbdGen the generator computing the CBDs
+	 * @param maxTriples the maximum number of triples of all CBDs cached in memory
+	 * @param cacheDirectory the directory of the disk cache, or null to cache
+	 * CBDs in memory only
+	 * @param timeToLive the time after which cached CBDs are computed again, a
+	 * value <= 0 means they never expire
+	 * @param unit the unit of <code>timeToLive</code>
+	 */
+	public CachingConciseBoundedDescriptionGenerator(ConciseBoundedDescriptionGenerator cbdGen,
+			long maxTriples, File cacheDirectory, long timeToLive, TimeUnit unit) {
 		this.delegatee = cbdGen;
-		cache = new HashMap<>();
+		this.cacheDirectory = cacheDirectory;
+		this.timeToLiveMs = unit.toMillis(timeToLive);
+
+		CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+		if (timeToLiveMs > 0) {
+			builder.expireAfterWrite(timeToLiveMs, TimeUnit.MILLISECONDS);
+		}
+		cache = builder
+				.maximumWeight(maxTriples)
+				.<String, Model>weigher((key, cbd) -> (int) Math.min(Integer.MAX_VALUE, cbd.size() + 1))
+				.build();
+
+		if (cacheDirectory != null) {
+			cacheDirectory.mkdirs();
+			warmUp(maxTriples);
+		}
 	}
-	
+
 	@Override
-	public Model getConciseBoundedDescription(String resourceURI){
-		Model cbd = cache.get(resourceURI);
+	public Model getConciseBoundedDescription(String resourceURI, int depth, boolean withTypesForLeafs) {
+		String key = key(resourceURI, depth, withTypesForLeafs);
+		Model cbd = getCached(key);
 		if(cbd == null){
-			cbd = delegatee.getConciseBoundedDescription(resourceURI);
-			cache.put(resourceURI, cbd);
+			cbd = delegatee.getConciseBoundedDescription(resourceURI, depth, withTypesForLeafs);
+			put(key, cbd);
 		}
 		return cbd;
 	}
-	
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The CBDs which are not cached are requested from the underlying generator
+	 * at once.
+	 * </p>
+	 */
 	@Override
-	public Model getConciseBoundedDescription(String resourceURI, int depth){
-		Model cbd = cache.get(resourceURI);
-		if(cbd == null){
-			cbd = delegatee.getConciseBoundedDescription(resourceURI, depth);
-			cache.put(resourceURI, cbd);
+	public Map<String, Model> getConciseBoundedDescriptions(Collection<String> resourceURIs, int depth, boolean withTypesForLeafs) {
+		Map<String, Model> cbds = new LinkedHashMap<>();
+		List<String> missing = new ArrayList<>();
+		for (String resourceURI : resourceURIs) {
+			Model cbd = getCached(key(resourceURI, depth, withTypesForLeafs));
+			cbds.put(resourceURI, cbd);
+			if (cbd == null) {
+				missing.add(resourceURI);
+			}
 		}
-		return cbd;
+		if (!missing.isEmpty()) {
+			Map<String, Model> computed = delegatee.getConciseBoundedDescriptions(missing, depth, withTypesForLeafs);
+			for (Map.Entry<String, Model> entry : computed.entrySet()) {
+				put(key(entry.getKey(), depth, withTypesForLeafs), entry.getValue());
+				cbds.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return cbds;
 	}
 
 	@Override
 	public void addAllowedPropertyNamespaces(Set<String> namespaces) {
 		delegatee.addAllowedPropertyNamespaces(namespaces);
+		synchronized (this) {
+			allowedPropertyNamespaces.addAll(namespaces);
+		}
 	}
-	
+
 	/* (non-Javadoc)
 	 * @see org.dllearner.kb.sparql.ConciseBoundedDescriptionGenerator#addAllowedObjectNamespaces(java.util.Set)
 	 */
 	@Override
 	public void addAllowedObjectNamespaces(Set<String> namespaces) {
 		delegatee.addAllowedObjectNamespaces(namespaces);
+		synchronized (this) {
+			allowedObjectNamespaces.addAll(namespaces);
+		}
 	}
-	
+
 	@Override
 	public void addPropertiesToIgnore(Set<String> properties) {
 		delegatee.addPropertiesToIgnore(properties);
+		synchronized (this) {
+			propertiesToIgnore.addAll(properties);
+		}
 	}
 
-	/* (non-Javadoc)
-	 * @see org.dllearner.kb.sparql.ConciseBoundedDescriptionGenerator#getConciseBoundedDescription(java.lang.String, int, boolean)
+	/**
+	 * @return the hit and miss statistics of the memory cache
 	 */
-	@Override
-	public Model getConciseBoundedDescription(String resourceURI, int depth, boolean withTypesForLeafs) {
-		Model cbd = cache.get(resourceURI);
-		if(cbd == null){
-			cbd = delegatee.getConciseBoundedDescription(resourceURI, depth, withTypesForLeafs);
-			cache.put(resourceURI, cbd);
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	/**
+	 * @return the number of CBDs not found in memory but on disk
+	 */
+	public long getDiskHitCount() {
+		return diskHitCount.get();
+	}
+
+	/**
+	 * @return the number of CBDs neither found in memory nor on disk
+	 */
+	public long getDiskMissCount() {
+		return diskMissCount.get();
+	}
+
+	/**
+	 * @return the ratio of requested CBDs which have been found in memory or
+	 * on disk, or 1 if none has been requested
+	 */
+	public double getHitRate() {
+		CacheStats stats = cache.stats();
+		long requests = stats.requestCount();
+		return requests == 0 ? 1.0 : (stats.hitCount() + diskHitCount.get()) / (double) requests;
+	}
+
+	/**
+	 * Removes all CBDs from the memory cache, the disk cache is kept.
+	 */
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	private synchronized String key(String resourceURI, int depth, boolean withTypesForLeafs) {
+		return resourceURI + "|" + depth + "|" + withTypesForLeafs + "|"
+				+ allowedPropertyNamespaces + allowedObjectNamespaces + propertiesToIgnore;
+	}
+
+	private Model getCached(String key) {
+		Model cbd = cache.getIfPresent(key);
+		if (cbd == null && cacheDirectory != null) {
+			cbd = read(file(key), key);
+			if (cbd != null) {
+				diskHitCount.incrementAndGet();
+				cache.put(key, cbd);
+			} else {
+				diskMissCount.incrementAndGet();
+			}
 		}
 		return cbd;
 	}
 
-	
+	private void put(String key, Model cbd) {
+		cache.put(key, cbd);
+		if (cacheDirectory != null) {
+			write(file(key), key, cbd);
+		}
+	}
+
+	private File file(String key) {
+		return new File(cacheDirectory, Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + FILE_EXTENSION);
+	}
+
+	private boolean isExpired(File file) {
+		return timeToLiveMs > 0 && System.currentTimeMillis() - file.lastModified() > timeToLiveMs;
+	}
+
+	// the key is stored in front of the CBD, so that the disk cache can be
+	// loaded into memory without knowing the keys
+	private void write(File file, String key, Model cbd) {
+		try {
+			File tmpFile = File.createTempFile(file.getName(), ".tmp", cacheDirectory);
+			try {
+				try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(tmpFile)))) {
+					out.writeUTF(key);
+					RDFDataMgr.write(out, cbd, RDFFormat.RDF_THRIFT);
+				}
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				Files.deleteIfExists(tmpFile.toPath());
+			}
+		} catch (IOException e) {
+			logger.warn("Failed to write CBD to " + file, e);
+		}
+	}
+
+	/**
+	 * @param key the expected key, or null to accept any key
+	 * @return the CBD stored in the file, or null if the file does not exist,
+	 * has expired or belongs to a different key
+	 */
+	private Model read(File file, String key) {
+		if (!file.exists()) {
+			return null;
+		}
+		if (isExpired(file)) {
+			file.delete();
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new GZIPInputStream(new FileInputStream(file)))) {
+			String storedKey = in.readUTF();
+			if (key != null && !key.equals(storedKey)) {
+				return null;
+			}
+			Model cbd = ModelFactory.createDefaultModel();
+			RDFDataMgr.read(cbd, in, Lang.RDFTHRIFT);
+			if (key == null) {
+				cache.put(storedKey, cbd);
+			}
+			return cbd;
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Failed to read CBD from " + file, e);
+			return null;
+		}
+	}
+
+	// loads the most recently written CBDs into memory
+	private void warmUp(long maxTriples) {
+		File[] files = cacheDirectory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+		if (files == null) {
+			return;
+		}
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+		long start = System.currentTimeMillis();
+		long nrOfTriples = 0;
+		int nrOfCBDs = 0;
+		for (File file : files) {
+			if (nrOfTriples >= maxTriples) {
+				break;
+			}
+			Model cbd = read(file, null);
+			if (cbd != null) {
+				nrOfTriples += cbd.size();
+				nrOfCBDs++;
+			}
+		}
+		logger.debug("Loaded {} CBDs with {} triples from {} in {} ms.",
+				nrOfCBDs, nrOfTriples, cacheDirectory, System.currentTimeMillis() - start);
+	}
 
 }
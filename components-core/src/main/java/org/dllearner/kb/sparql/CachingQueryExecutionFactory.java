@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import org.aksw.jena_sparql_api.core.QueryExecutionDecorator;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactoryDecorator;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+
+/**
+ * A query execution factory which answers SELECT, CONSTRUCT and ASK queries
+ * from a {@link SparqlResultCache} and adds the results of the queries
+ * executed by the decorated factory to it.
+ */
+public class CachingQueryExecutionFactory extends QueryExecutionFactoryDecorator {
+
+	private final SparqlResultCache cache;
+	private final String service;
+
+	public CachingQueryExecutionFactory(QueryExecutionFactory decoratee, SparqlResultCache cache) {
+		super(decoratee);
+		this.cache = cache;
+		this.service = decoratee.getId() + " " + decoratee.getState();
+	}
+
+	@Override
+	public QueryExecution createQueryExecution(Query query) {
+		return new CachingQueryExecution(super.createQueryExecution(query), query.toString());
+	}
+
+	@Override
+	public QueryExecution createQueryExecution(String queryString) {
+		return new CachingQueryExecution(super.createQueryExecution(queryString), queryString);
+	}
+
+	/**
+	 * @return the cache
+	 */
+	public SparqlResultCache getCache() {
+		return cache;
+	}
+
+	private class CachingQueryExecution extends QueryExecutionDecorator {
+
+		private final String queryString;
+
+		CachingQueryExecution(QueryExecution decoratee, String queryString) {
+			super(decoratee);
+			this.queryString = queryString;
+		}
+
+		@Override
+		public ResultSet execSelect() {
+			ResultSetRewindable rs = cache.getSelectResult(service, queryString);
+			if (rs == null) {
+				rs = ResultSetFactory.copyResults(super.execSelect());
+				cache.putSelectResult(service, queryString, rs);
+			}
+			return rs;
+		}
+
+		@Override
+		public Model execConstruct() {
+			Model model = cache.getConstructResult(service, queryString);
+			if (model == null) {
+				model = super.execConstruct();
+				cache.putConstructResult(service, queryString, model);
+			}
+			return model;
+		}
+
+		@Override
+		public Model execConstruct(Model model) {
+			model.add(execConstruct());
+			return model;
+		}
+
+		@Override
+		public boolean execAsk() {
+			Boolean result = cache.getAskResult(service, queryString);
+			if (result == null) {
+				result = super.execAsk();
+				cache.putAskResult(service, queryString, result);
+			}
+			return result;
+		}
+	}
+
+}
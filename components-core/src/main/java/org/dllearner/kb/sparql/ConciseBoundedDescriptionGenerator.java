@@ -18,6 +18,9 @@
  */
 package org.dllearner.kb.sparql;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.jena.rdf.model.Model;
@@ -75,6 +78,21 @@ public interface ConciseBoundedDescriptionGenerator {
 	 */
 	Model getConciseBoundedDescription(String resourceURI, int depth, boolean withTypesForLeafs);
 
+	/**
+	 * Computes the CBDs of given depth for the given resources. Implementations
+	 * may compute them with fewer requests than one per resource.
+	 *
+	 * @return the CBD for each of the given resources, in the order of the
+	 * given resources
+	 */
+	default Map<String, Model> getConciseBoundedDescriptions(Collection<String> resourceURIs, int depth, boolean withTypesForLeafs) {
+		Map<String, Model> cbds = new LinkedHashMap<>();
+		for (String resourceURI : resourceURIs) {
+			cbds.put(resourceURI, getConciseBoundedDescription(resourceURI, depth, withTypesForLeafs));
+		}
+		return cbds;
+	}
+
 	void addAllowedPropertyNamespaces(Set<String> namespaces);
 
 	void addAllowedObjectNamespaces(Set<String> namespaces);
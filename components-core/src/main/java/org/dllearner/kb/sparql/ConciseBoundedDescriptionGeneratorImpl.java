@@ -19,6 +19,7 @@
 package org.dllearner.kb.sparql;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
 import org.aksw.jena_sparql_api.cache.core.QueryExecutionFactoryCacheEx;
 import org.aksw.jena_sparql_api.cache.extra.CacheFrontend;
 import org.aksw.jena_sparql_api.cache.h2.CacheUtilsH2;
@@ -28,17 +29,21 @@ import org.aksw.jena_sparql_api.http.QueryExecutionHttpWrapper;
 import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
 import org.aksw.jena_sparql_api.pagination.core.QueryExecutionFactoryPaginated;
 import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.riot.WebContent;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.http.QueryEngineHTTP;
+import org.apache.jena.vocabulary.RDF;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 /**
@@ -58,6 +63,11 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 	
 	private Set<String> propertyBlacklist = new TreeSet<>();
 	
+	// number of resources whose CBDs are requested with a single query
+	private int batchSize = 50;
+	// number of such queries running in parallel
+	private int maxNrOfParallelBatches = 4;
+	
 	public ConciseBoundedDescriptionGeneratorImpl(SparqlEndpoint endpoint, CacheFrontend cache) {
 		qef = FluentQueryExecutionFactory
 				.http(endpoint.getURL().toString(), endpoint.getDefaultGraphURIs())
@@ -118,6 +128,93 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 		return model;
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The CBDs of {@link #setBatchSize(int)} resources are requested with a
+	 * single SELECT query which binds the resources via VALUES, and up to
+	 * {@link #setMaxNrOfParallelBatches(int)} of these queries are executed in
+	 * parallel.
+	 * </p>
+	 */
+	@Override
+	public Map<String, Model> getConciseBoundedDescriptions(Collection<String> resourceURIs, int depth, boolean withTypesForLeafs) {
+		List<String> resources = new ArrayList<>(new LinkedHashSet<>(resourceURIs));
+		List<List<String>> batches = Lists.partition(resources, batchSize);
+		logger.debug("Computing CBDs for {} resources in {} batches ...", resources.size(), batches.size());
+		long start = System.currentTimeMillis();
+
+		Map<String, Model> cbds = new HashMap<>();
+		int nrOfThreads = Math.min(maxNrOfParallelBatches, batches.size());
+		if (nrOfThreads <= 1) {
+			for (List<String> batch : batches) {
+				cbds.putAll(getConciseBoundedDescriptionsBatch(batch, depth, withTypesForLeafs));
+			}
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(nrOfThreads);
+			try {
+				List<Future<Map<String, Model>>> futures = new ArrayList<>();
+				for (List<String> batch : batches) {
+					futures.add(executor.submit(() -> getConciseBoundedDescriptionsBatch(batch, depth, withTypesForLeafs)));
+				}
+				for (Future<Map<String, Model>> future : futures) {
+					cbds.putAll(future.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while computing CBDs.", e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException("Failed to compute CBDs.", e.getCause());
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		Map<String, Model> result = new LinkedHashMap<>();
+		for (String resource : resources) {
+			result.put(resource, cbds.get(resource));
+		}
+		logger.debug("Got CBDs for {} resources in {} ms.", resources.size(), System.currentTimeMillis() - start);
+		return result;
+	}
+
+	private Map<String, Model> getConciseBoundedDescriptionsBatch(List<String> resources, int depth, boolean withTypesForLeafs) {
+		Map<String, Model> cbds = new HashMap<>();
+		for (String resource : resources) {
+			cbds.put(resource, ModelFactory.createDefaultModel());
+		}
+
+		// the triples of the result rows are added to the CBD of the resource
+		// bound to ?s0, i.e. the row is the path ?s0 ?p0 ?o0 ?p1 ?o1 ... ?type
+		String query = generateBatchQuery(resources, depth, withTypesForLeafs);
+		try(QueryExecution qe = qef.createQueryExecution(query)) {
+			ResultSet rs = qe.execSelect();
+			while (rs.hasNext()) {
+				QuerySolution qs = rs.next();
+				Model cbd = cbds.get(qs.getResource("s0").getURI());
+				if (cbd == null) {
+					continue;
+				}
+				RDFNode subject = qs.get("s0");
+				for (int i = 0; i < depth && subject != null && subject.isResource(); i++) {
+					RDFNode predicate = qs.get("p" + i);
+					RDFNode object = qs.get("o" + i);
+					if (predicate == null || object == null) {
+						subject = null;
+						break;
+					}
+					cbd.add(subject.asResource(), cbd.createProperty(predicate.asResource().getURI()), object);
+					subject = object;
+				}
+				RDFNode type = qs.get("type");
+				if (withTypesForLeafs && subject != null && subject.isResource() && type != null) {
+					cbd.add(subject.asResource(), RDF.type, type);
+				}
+			}
+		}
+		return cbds;
+	}
+	
 	@Override
 	public void addAllowedPropertyNamespaces(Set<String> namespaces) {
 		this.allowedPropertyNamespaces.addAll(namespaces);
@@ -148,7 +245,41 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 		}
 		sb.append("}\n");
 		sb.append("WHERE {\n");
-		sb.append("<").append(resource).append("> ").append("?p0 ").append("?o0").append(".\n");
+		appendPattern(sb, "<" + resource + ">", depth, withTypesForLeafs);
+		sb.append("}\n");
+		return sb.toString();
+	}
+	
+	/**
+	 * A SPARQL SELECT query is created, which returns the paths of the CBDs of
+	 * all given resources, each resource bound to <code>?s0</code>.
+	 * @param resources The resources for which the query is created.
+	 * @return the SPARQL query
+	 */
+	private String generateBatchQuery(List<String> resources, int depth, boolean withTypesForLeafs){
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT ?s0");
+		for(int i = 0; i < depth; i++){
+			sb.append(" ?p").append(i).append(" ?o").append(i);
+		}
+		if(withTypesForLeafs){
+			sb.append(" ?type");
+		}
+		sb.append(" WHERE {\n");
+		sb.append("VALUES ?s0 {");
+		for (String resource : resources) {
+			sb.append(" <").append(resource).append(">");
+		}
+		sb.append(" }\n");
+		appendPattern(sb, "?s0", depth, withTypesForLeafs);
+		sb.append("}\n");
+		return sb.toString();
+	}
+	
+	private void appendPattern(StringBuilder sb, String subject, int depth, boolean withTypesForLeafs){
+		int lastIndex = Math.max(0, depth - 1);
+		
+		sb.append(subject).append(" ").append("?p0 ").append("?o0").append(".\n");
 		sb.append(createPropertyNamespacesFilter("?p0"));
 		sb.append(createPropertyFilter(Var.alloc("p0")));
 		sb.append(createObjectNamespacesFilter("?o0"));
@@ -166,8 +297,6 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 		for(int i = 1; i < depth; i++){
 			sb.append("}");
 		}
-		sb.append("}\n");
-		return sb.toString();
 	}
 	
 	private String createPropertyFilter(final Var var) {
@@ -224,6 +353,22 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 		propertyBlacklist.addAll(properties);
 	}
 	
+	/**
+	 * @param batchSize the number of resources whose CBDs are requested with a
+	 * single query by {@link #getConciseBoundedDescriptions(Collection, int, boolean)}
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * @param maxNrOfParallelBatches the maximum number of queries
+	 * {@link #getConciseBoundedDescriptions(Collection, int, boolean)} runs in parallel
+	 */
+	public void setMaxNrOfParallelBatches(int maxNrOfParallelBatches) {
+		this.maxNrOfParallelBatches = maxNrOfParallelBatches;
+	}
+	
 	public static void main(String[] args) {
 		ConciseBoundedDescriptionGenerator cbdGen = new ConciseBoundedDescriptionGeneratorImpl(SparqlEndpoint.getEndpointDBpediaLiveAKSW());
 		cbdGen = new CachingConciseBoundedDescriptionGenerator(cbdGen);
@@ -49,8 +49,11 @@ import org.apache.jena.sparql.engine.http.QueryEngineHTTP;
  * Note: Currently, either select ot construct has to be used (not both).
  * 
  * @author Jens Lehmann
+ * @deprecated all queries go through a single shared connection, use
+ * {@link SparqlResultCache} via {@link CachingQueryExecutionFactory} instead
  *
  */
+@Deprecated
 public class ExtractionDBCache {
 
 	private String databaseDirectory = "cache";
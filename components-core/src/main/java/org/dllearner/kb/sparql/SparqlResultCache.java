@@ -0,0 +1,372 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.thrift.BinRDF;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * A disk cache for the results of SPARQL SELECT, CONSTRUCT and ASK queries,
+ * which replaces {@link Cache} and {@link ExtractionDBCache}.
+ * <p>
+ * Each result is stored in its own file, named by a hash of the service and
+ * the query, as gzip compressed RDF Thrift (CONSTRUCT) or SPARQL result set
+ * Thrift (SELECT). The file also contains the service and the query, to detect
+ * hash collisions, and the expiration time of the entry. Files are written to
+ * a temporary file first and then moved, thus reads need no locking and can
+ * happen concurrently with writes. If the total size of the files exceeds the
+ * maximum size, the least recently used entries are deleted.
+ * </p>
+ * <p>
+ * Use it via {@link CachingQueryExecutionFactory}. A cache can be shared by
+ * all query execution factories of an application, also across restarts.
+ * </p>
+ */
+public class SparqlResultCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(SparqlResultCache.class);
+
+	private static final int MAGIC = 0x444c5352;
+	private static final String FILE_EXTENSION = ".qr";
+
+	private static final byte SELECT = 0;
+	private static final byte CONSTRUCT = 1;
+	private static final byte ASK = 2;
+
+	private static class Entry {
+		final long size;
+		volatile long lastAccess;
+
+		Entry(long size, long lastAccess) {
+			this.size = size;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private interface ResultReader<T> {
+		T read(InputStream in) throws IOException;
+	}
+
+	private interface ResultWriter {
+		void write(OutputStream out) throws IOException;
+	}
+
+	private final File directory;
+	private final long maxSizeInBytes;
+	private volatile long timeToLiveMs;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicLong totalSize = new AtomicLong();
+	private final Object evictionLock = new Object();
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * @param directory the directory of the cache files, existing files are
+	 * reused
+	 * @param maxSizeInBytes the maximum size of all cache files
+	 * @param timeToLive the time after which new entries expire, a value <= 0
+	 * means they never expire
+	 * @param unit the unit of <code>timeToLive</code>
+	 */
+	public SparqlResultCache(File directory, long maxSizeInBytes, long timeToLive, TimeUnit unit) {
+		this.directory = directory;
+		this.maxSizeInBytes = maxSizeInBytes;
+		this.timeToLiveMs = unit.toMillis(timeToLive);
+
+		directory.mkdirs();
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+		if (files != null) {
+			for (File file : files) {
+				String hash = file.getName().substring(0, file.getName().length() - FILE_EXTENSION.length());
+				entries.put(hash, new Entry(file.length(), file.lastModified()));
+				totalSize.addAndGet(file.length());
+			}
+		}
+		logger.debug("Using SPARQL result cache {} with {} entries ({} bytes).", directory, entries.size(), totalSize.get());
+		evictIfNecessary();
+	}
+
+	/**
+	 * @param timeToLive the time after which entries added from now on expire,
+	 * a value <= 0 means they never expire
+	 * @param unit the unit of <code>timeToLive</code>
+	 */
+	public void setTimeToLive(long timeToLive, TimeUnit unit) {
+		this.timeToLiveMs = unit.toMillis(timeToLive);
+	}
+
+	/**
+	 * @param service the identifier of the endpoint, e.g. its URL and graphs
+	 * @param query the query
+	 * @return the cached result of the SELECT query, or null if there is none
+	 */
+	public ResultSetRewindable getSelectResult(String service, String query) {
+		return read(service, query, SELECT, in -> ResultSetFactory.copyResults(BinRDF.readResultSet(in)));
+	}
+
+	/**
+	 * Adds the result of a SELECT query. The result set is read completely and
+	 * reset afterwards.
+	 * @param service the identifier of the endpoint, e.g. its URL and graphs
+	 * @param query the query
+	 * @param rs the result of the query
+	 */
+	public void putSelectResult(String service, String query, ResultSetRewindable rs) {
+		rs.reset();
+		write(service, query, SELECT, out -> BinRDF.writeResultSet(out, rs));
+		rs.reset();
+	}
+
+	/**
+	 * @param service the identifier of the endpoint, e.g. its URL and graphs
+	 * @param query the query
+	 * @return the cached result of the CONSTRUCT query, or null if there is none
+	 */
+	public Model getConstructResult(String service, String query) {
+		return read(service, query, CONSTRUCT, in -> {
+			Model model = ModelFactory.createDefaultModel();
+			RDFDataMgr.read(model, in, Lang.RDFTHRIFT);
+			return model;
+		});
+	}
+
+	/**
+	 * Adds the result of a CONSTRUCT query.
+	 * @param service the identifier of the endpoint, e.g. its URL and graphs
+	 * @param query the query
+	 * @param model the result of the query
+	 */
+	public void putConstructResult(String service, String query, Model model) {
+		write(service, query, CONSTRUCT, out -> RDFDataMgr.write(out, model, RDFFormat.RDF_THRIFT));
+	}
+
+	/**
+	 * @param service the identifier of the endpoint, e.g. its URL and graphs
+	 * @param query the query
+	 * @return the cached result of the ASK query, or null if there is none
+	 */
+	public Boolean getAskResult(String service, String query) {
+		return read(service, query, ASK, in -> {
+			int b = in.read();
+			if (b < 0) {
+				throw new EOFException();
+			}
+			return b != 0;
+		});
+	}
+
+	/**
+	 * Adds the result of an ASK query.
+	 * @param service the identifier of the endpoint, e.g. its URL and graphs
+	 * @param query the query
+	 * @param result the result of the query
+	 */
+	public void putAskResult(String service, String query, boolean result) {
+		write(service, query, ASK, out -> out.write(result ? 1 : 0));
+	}
+
+	/**
+	 * Deletes all entries.
+	 */
+	public void clear() {
+		synchronized (evictionLock) {
+			for (Map.Entry<String, Entry> entry : new ArrayList<>(entries.entrySet())) {
+				remove(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * @return the number of queries answered from the cache
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return the number of queries not found in the cache
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the total size of the cache files in bytes
+	 */
+	public long getSizeInBytes() {
+		return totalSize.get();
+	}
+
+	private <T> T read(String service, String query, byte type, ResultReader<T> reader) {
+		String key = key(service, query);
+		String hash = hash(key);
+		Entry entry = entries.get(hash);
+		if (entry == null) {
+			missCount.incrementAndGet();
+			return null;
+		}
+		File file = file(hash);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a cache file.");
+			}
+			long expirationTime = in.readLong();
+			if (System.currentTimeMillis() > expirationTime) {
+				remove(hash, entry);
+				missCount.incrementAndGet();
+				return null;
+			}
+			if (!key.equals(readString(in)) || in.readByte() != type) {
+				missCount.incrementAndGet();
+				return null;
+			}
+			T result = reader.read(in);
+			long now = System.currentTimeMillis();
+			entry.lastAccess = now;
+			// keeps the LRU order across restarts
+			file.setLastModified(now);
+			hitCount.incrementAndGet();
+			return result;
+		} catch (FileNotFoundException e) {
+			// evicted concurrently
+			entries.remove(hash, entry);
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Failed to read cache file " + file + ", removing it.", e);
+			remove(hash, entry);
+		}
+		missCount.incrementAndGet();
+		return null;
+	}
+
+	private void write(String service, String query, byte type, ResultWriter writer) {
+		String key = key(service, query);
+		String hash = hash(key);
+		File file = file(hash);
+		long now = System.currentTimeMillis();
+		long expirationTime = timeToLiveMs > 0 ? now + timeToLiveMs : Long.MAX_VALUE;
+		try {
+			File tmpFile = File.createTempFile(hash, ".tmp", directory);
+			try {
+				try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmpFile))))) {
+					out.writeInt(MAGIC);
+					out.writeLong(expirationTime);
+					writeString(out, key);
+					out.writeByte(type);
+					writer.write(out);
+				}
+				long size = tmpFile.length();
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				Entry old = entries.put(hash, new Entry(size, now));
+				totalSize.addAndGet(size - (old != null ? old.size : 0));
+			} finally {
+				Files.deleteIfExists(tmpFile.toPath());
+			}
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Failed to write cache file " + file, e);
+		}
+		evictIfNecessary();
+	}
+
+	private void evictIfNecessary() {
+		if (totalSize.get() <= maxSizeInBytes) {
+			return;
+		}
+		synchronized (evictionLock) {
+			List<Map.Entry<String, Entry>> lru = new ArrayList<>(entries.entrySet());
+			lru.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+			// evict a bit more than necessary, so that not every write leads to an eviction
+			long targetSize = maxSizeInBytes - maxSizeInBytes / 10;
+			int nrOfEvictedEntries = 0;
+			for (Map.Entry<String, Entry> entry : lru) {
+				if (totalSize.get() <= targetSize) {
+					break;
+				}
+				remove(entry.getKey(), entry.getValue());
+				nrOfEvictedEntries++;
+			}
+			logger.debug("Evicted {} entries from SPARQL result cache {}.", nrOfEvictedEntries, directory);
+		}
+	}
+
+	private void remove(String hash, Entry entry) {
+		if (entries.remove(hash, entry)) {
+			totalSize.addAndGet(-entry.size);
+			try {
+				Files.deleteIfExists(file(hash).toPath());
+			} catch (IOException e) {
+				logger.warn("Failed to delete cache file " + file(hash), e);
+			}
+		}
+	}
+
+	private static String key(String service, String query) {
+		return service + "\n" + query;
+	}
+
+	private static String hash(String key) {
+		return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+	}
+
+	private File file(String hash) {
+		return new File(directory, hash + FILE_EXTENSION);
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
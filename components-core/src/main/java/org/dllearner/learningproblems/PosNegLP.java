@@ -33,6 +33,9 @@ import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -49,6 +52,10 @@ public abstract class PosNegLP extends AbstractClassExpressionLearningProblem<Sc
 	protected Set<OWLIndividual> negativeExamples = new TreeSet<>();
 	protected Set<OWLIndividual> allExamples = new TreeSet<>();
 
+	// fixed order of the examples, used for bit set representations of example sets
+	private List<OWLIndividual> positiveExampleList;
+	private List<OWLIndividual> negativeExampleList;
+
 	@ConfigOption(description = "\"Specifies whether to use retrieval or instance checks for testing a concept. - NO LONGER FULLY SUPPORTED.",defaultValue = "false")
     private boolean useRetrievalForClassification = false;
     @ConfigOption(description = "Percent Per Length Unit", defaultValue = "0.05", required = false)
@@ -98,6 +105,8 @@ public abstract class PosNegLP extends AbstractClassExpressionLearningProblem<Sc
 		}
 		
 		allExamples = Sets.union(positiveExamples, negativeExamples);
+		positiveExampleList = null;
+		negativeExampleList = null;
 		
 		if (accuracyMethod == null) {
 			accuracyMethod = new AccMethodPredAcc(true);
@@ -133,10 +142,34 @@ public abstract class PosNegLP extends AbstractClassExpressionLearningProblem<Sc
 	
 	public void setNegativeExamples(Set<OWLIndividual> set) {
 		this.negativeExamples=set;
+		this.negativeExampleList = null;
 	}
 
 	public void setPositiveExamples(Set<OWLIndividual> set) {
 		this.positiveExamples=set;
+		this.positiveExampleList = null;
+	}
+
+	/**
+	 * @return the positive examples in a fixed order, i.e. the bit at index i of a bit set of positive examples
+	 * denotes the i-th element of the list
+	 */
+	public List<OWLIndividual> getPositiveExampleList() {
+		if (positiveExampleList == null) {
+			positiveExampleList = Collections.unmodifiableList(new ArrayList<>(positiveExamples));
+		}
+		return positiveExampleList;
+	}
+
+	/**
+	 * @return the negative examples in a fixed order, i.e. the bit at index i of a bit set of negative examples
+	 * denotes the i-th element of the list
+	 */
+	public List<OWLIndividual> getNegativeExampleList() {
+		if (negativeExampleList == null) {
+			negativeExampleList = Collections.unmodifiableList(new ArrayList<>(negativeExamples));
+		}
+		return negativeExampleList;
 	}
 
 	public double getPercentPerLengthUnit() {
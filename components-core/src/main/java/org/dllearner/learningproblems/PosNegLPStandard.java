@@ -18,6 +18,7 @@
  */
 package org.dllearner.learningproblems;
 
+import org.dllearner.accuracymethods.AccMethodApproximate;
 import org.dllearner.core.*;
 import org.dllearner.utilities.CoverageAdapter;
 import org.dllearner.utilities.ReasoningUtils.Coverage;
@@ -25,6 +26,7 @@ import org.dllearner.utilities.owl.OWLClassExpressionUtils;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLIndividual;
 
+import java.util.BitSet;
 import java.util.SortedSet;
 
 /**
@@ -104,6 +106,41 @@ public class PosNegLPStandard extends PosNegLP implements Cloneable{
 		return reasoningUtil.getAccuracyOrTooWeak2(accuracyMethod, description, positiveExamples, negativeExamples, noise);
 	}
 
+	/**
+	 * Computes the accuracy of a class expression which can only cover the given candidate examples, e.g. because it
+	 * is a downward refinement of a class expression covering exactly those examples. Only the candidates are
+	 * checked, all other examples are considered as not covered.
+	 * The bits of the positive resp. negative bit sets are indices in {@link #getPositiveExampleList()} resp.
+	 * {@link #getNegativeExampleList()}.
+	 *
+	 * @param description the class expression
+	 * @param noise the noise level
+	 * @param candidatePositives the positive examples which may be covered
+	 * @param candidateNegatives the negative examples which may be covered
+	 * @param coveredPositives receives the covered positive examples unless the class expression is too weak
+	 * @param coveredNegatives receives the covered negative examples unless the class expression is too weak
+	 * @return the accuracy or -1 if the class expression is too weak
+	 */
+	public double getAccuracyOrTooWeak(OWLClassExpression description, double noise,
+									   BitSet candidatePositives, BitSet candidateNegatives,
+									   BitSet coveredPositives, BitSet coveredNegatives) {
+		if (!isRestrictedEvaluationSupported()) {
+			throw new UnsupportedOperationException("Restricted evaluation is not supported by the accuracy method "
+					+ accuracyMethod.getClass().getSimpleName());
+		}
+		return reasoningUtil.getAccuracyOrTooWeak2(accuracyMethod, description,
+				getPositiveExampleList(), getNegativeExampleList(),
+				candidatePositives, candidateNegatives, coveredPositives, coveredNegatives, noise);
+	}
+
+	/**
+	 * @return whether {@link #getAccuracyOrTooWeak(OWLClassExpression, double, BitSet, BitSet, BitSet, BitSet)}
+	 * can be used, which is not the case for approximate accuracy methods
+	 */
+	public boolean isRestrictedEvaluationSupported() {
+		return !(accuracyMethod instanceof AccMethodApproximate);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.dllearner.core.LearningProblem#evaluate(org.dllearner.core.owl.Description)
 	 */
@@ -18,18 +18,17 @@
 package org.dllearner.reasoning;
 
 import com.google.common.collect.*;
-import com.google.common.collect.Sets.SetView;
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hasher;
-import com.google.common.hash.Hashing;
+import com.google.common.hash.HashCode;
 import org.dllearner.core.*;
 import org.dllearner.core.annotations.NoConfigOption;
 import org.dllearner.core.config.ConfigOption;
-import org.dllearner.utilities.MapUtils;
 import org.dllearner.utilities.OWLAPIUtils;
+import org.dllearner.utilities.datastructures.CompressedAdjacency;
+import org.dllearner.utilities.datastructures.DenseIndex;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormatter;
 import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.vocab.OWLFacet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +61,8 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     private static Logger logger = LoggerFactory.getLogger(ClosedWorldReasoner.class);
 
+    private static final String GENERIC_INDIVIDUAL_IRI = "http://dl-learner.org/punning#genInd";
+
     // the underlying base reasoner implementation
     private OWLAPIReasoner baseReasoner;
     @ConfigOption(description = "the underlying reasoner implementation", defaultValue = "OWL API Reasoner")
@@ -75,12 +76,9 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     private TreeSet<OWLIndividual> individuals;
 
-    // instances of classes
-    private Map<OWLClass, TreeSet<OWLIndividual>> classInstancesPos = new TreeMap<>();
-    private Map<OWLClass, TreeSet<OWLIndividual>> classInstancesNeg = new TreeMap<>();
-    // object property mappings
-    private Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opPos = new TreeMap<>();
-//	private Map<OWLObjectProperty, Multimap<OWLIndividual, OWLIndividual>> opPos = new TreeMap<>();
+    // the instances of classes and the object property mappings are only kept
+    // in the bit set and adjacency list encoding (see buildIndividualIndex)
+
     // data property mappings
     private Map<OWLDataProperty, Map<OWLIndividual, SortedSet<OWLLiteral>>> dpPos = new TreeMap<>();
 
@@ -97,6 +95,24 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     private Map<OWLDataProperty, Map<OWLIndividual, SortedSet<Number>>> numericValueMappings = new TreeMap<>();
 
+    // dense integer IDs for all individuals occurring in the materialization, used
+    // to answer retrieval requests by bit set operations
+    private DenseIndex<OWLIndividual> individualIndex;
+    // the individuals of the knowledge base, i.e. the extension of owl:Thing
+    private BitSet individualsBits;
+    // the domain of the default negation, i.e. the individuals plus the generic
+    // individual introduced for punning
+    private BitSet negationDomainBits;
+    private Map<OWLClass, BitSet> classInstancesPosBits = new HashMap<>();
+    // only filled if default negation is disabled
+    private Map<OWLClass, BitSet> classInstancesNegBits = new HashMap<>();
+    // adjacency lists of the object properties in both directions
+    private Map<OWLObjectProperty, CompressedAdjacency> opSuccessors = new HashMap<>();
+    private Map<OWLObjectProperty, CompressedAdjacency> opPredecessors = new HashMap<>();
+    private CompressedAdjacency emptyAdjacency;
+    // the object of all facts added for punning
+    private OWLIndividual genericIndividual;
+
     @ConfigOption(description = "Whether to use default negation, i.e. an instance not being in a class means that it is in the negation of the class.", defaultValue = "true", required = false)
     private boolean defaultNegation = true;
 
@@ -131,11 +147,15 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     @ConfigOption(defaultValue = "false")
     private boolean materializeExistentialRestrictions = false;
-    @ConfigOption(defaultValue = "true")
-    private boolean useMaterializationCaching = true;
+    @ConfigOption(description = "Whether to store the materialization in a binary snapshot on disk and to reuse it "
+            + "as long as the ontology does not change.", defaultValue = "false")
+    private boolean useMaterializationCaching = false;
+    @ConfigOption(description = "The directory for materialization snapshots.", defaultValue = "cache")
+    private String materializationCacheDirectory = "cache";
     @ConfigOption(defaultValue = "false")
     private boolean handlePunning = false;
-    private boolean precomputeNegations = true;
+    // with default negation, negated classes are answered by the complement of the bit sets
+    private boolean precomputeNegations = false;
 
     public ClosedWorldReasoner() {
     }
@@ -149,8 +169,6 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             KnowledgeSource... sources) {
         super(new HashSet<>(Arrays.asList(sources)));
         this.individuals = individuals;
-        this.classInstancesPos = classInstancesPos;
-        this.opPos = opPos;
         this.id = id;
         this.bdPos = bdPos;
         this.bdNeg = bdNeg;
@@ -164,13 +182,11 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             }
         }
 
+        // the negations are not stored, they are derived from the bit sets of
+        // the positive instances by default negation (see getComplementBits)
         for (OWLClass atomicConcept : baseReasoner.getClasses()) {
-            TreeSet<OWLIndividual> pos = classInstancesPos.get(atomicConcept);
-            if (pos != null) {
-                classInstancesNeg.put(atomicConcept, new TreeSet<>(Sets.difference(individuals, pos)));
-            } else {
+            if (classInstancesPos.get(atomicConcept) == null) {
                 classInstancesPos.put(atomicConcept, new TreeSet<>());
-                classInstancesNeg.put(atomicConcept, individuals);
             }
         }
 
@@ -189,6 +205,8 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             }
 
         }
+
+        buildIndividualIndex(classInstancesPos, Collections.emptyMap(), opPos);
     }
 
     public ClosedWorldReasoner(Set<KnowledgeSource> sources) {
@@ -216,60 +234,66 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             baseReasoner.init();
         }
 
-//		loadOrDematerialize();
-        materialize();
+        loadOrDematerialize();
     }
 
     private void loadOrDematerialize() {
         if (useMaterializationCaching) {
-            File cacheDir = new File("cache");
+            File cacheDir = new File(materializationCacheDirectory);
             cacheDir.mkdirs();
-            HashFunction hf = Hashing.md5();
-            Hasher hasher = hf.newHasher();
-            hasher.putBoolean(materializeExistentialRestrictions);
-            hasher.putBoolean(handlePunning);
-            for (OWLOntology ont : Collections.singleton(baseReasoner.getOntology())) {
-                hasher.putInt(ont.getLogicalAxioms().hashCode());
-                hasher.putInt(ont.getAxioms().hashCode());
-            }
-            String filename = hasher.hash().toString() + ".obj";
+            HashCode fingerprint = MaterializationSnapshot.fingerprint(
+                    baseReasoner.getOntology(),
+                    materializeExistentialRestrictions, handlePunning, isDefaultNegation(), precomputeNegations);
+            File cacheFile = new File(cacheDir, fingerprint.toString() + ".cwr");
 
-            File cacheFile = new File(cacheDir, filename);
             if (cacheFile.exists()) {
                 logger.debug("Loading materialization from disk...");
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(cacheFile))) {
-                    Materialization mat = (Materialization) ois.readObject();
-                    classInstancesPos = mat.classInstancesPos;
-                    classInstancesNeg = mat.classInstancesNeg;
-                    opPos = mat.opPos;
-                    dpPos = mat.dpPos;
-                    bdPos = mat.bdPos;
-                    bdNeg = mat.bdNeg;
-                    dd = mat.dd;
-                    id = mat.id;
-                    sd = mat.sd;
-                } catch (ClassNotFoundException | IOException e) {
-                    e.printStackTrace();
-                }
-                logger.debug("done.");
-            } else {
-                materialize();
-                Materialization mat = new Materialization();
-                mat.classInstancesPos = classInstancesPos;
-                mat.classInstancesNeg = classInstancesNeg;
-                mat.opPos = opPos;
-                mat.dpPos = dpPos;
-                mat.bdPos = bdPos;
-                mat.bdNeg = bdNeg;
-                mat.dd = dd;
-                mat.id = id;
-                mat.sd = sd;
-                try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(cacheFile))) {
-                    oos.writeObject(mat);
-                } catch (IOException e) {
-                    e.printStackTrace();
+                try {
+                    long startTime = System.currentTimeMillis();
+                    Materialization mat = MaterializationSnapshot.read(cacheFile, fingerprint, df,
+                            baseReasoner.getOntology().getReferencedAnonymousIndividuals(Imports.INCLUDED));
+                    if (mat != null) {
+                        dpPos = mat.dpPos;
+                        bdPos = mat.bdPos;
+                        bdNeg = mat.bdNeg;
+                        dd = mat.dd;
+                        id = mat.id;
+                        sd = mat.sd;
+                        objectProperties = baseReasoner.getObjectProperties();
+                        if (mat.opSuccessors.containsKey(OWLPunningDetector.punningProperty)) {
+                            genericIndividual = df.getOWLNamedIndividual(IRI.create(GENERIC_INDIVIDUAL_IRI));
+                            objectProperties = new TreeSet<>(objectProperties);
+                            objectProperties.add(OWLPunningDetector.punningProperty);
+                            objectProperties = Collections.unmodifiableSet(objectProperties);
+                        }
+                        useIndividualIndex(mat);
+                        logger.debug("...loaded materialization in " + (System.currentTimeMillis() - startTime) + "ms.");
+                        return;
+                    }
+                    logger.debug("Outdated materialization snapshot " + cacheFile + " will be replaced.");
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Failed to load materialization from " + cacheFile + ", materializing again.", e);
                 }
             }
+
+            materialize();
+            Materialization mat = new Materialization();
+            mat.index = individualIndex;
+            mat.individuals = individualsBits;
+            mat.classInstancesPos = classInstancesPosBits;
+            mat.classInstancesNeg = classInstancesNegBits;
+            mat.opSuccessors = opSuccessors;
+            mat.dpPos = dpPos;
+            mat.bdPos = bdPos;
+            mat.bdNeg = bdNeg;
+            mat.dd = dd;
+            mat.id = id;
+            mat.sd = sd;
+            try {
+                MaterializationSnapshot.write(cacheFile, fingerprint, mat);
+            } catch (IOException e) {
+                logger.warn("Failed to write materialization to " + cacheFile, e);
+            }
         } else {
             materialize();
         }
@@ -283,6 +307,11 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
         individuals = (TreeSet<OWLIndividual>) baseReasoner.getIndividuals();
 
+        // the sets are only needed until they are encoded by buildIndividualIndex
+        Map<OWLClass, TreeSet<OWLIndividual>> classInstancesPos = new TreeMap<>();
+        Map<OWLClass, TreeSet<OWLIndividual>> classInstancesNeg = new TreeMap<>();
+        Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opPos = new TreeMap<>();
+
         logger.debug("materialising concepts");
         for (OWLClass cls : baseReasoner.getClasses()) {
             if (!cls.getIRI().isReservedVocabulary()) {
@@ -345,7 +374,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                 TreeSet<OWLIndividual> individuals = classInstancesPos.get(cls);
                 Set<OWLClassExpression> superClass = materialization.materialize(cls.toStringID());
                 for (OWLClassExpression sup : superClass) {
-                    fill(individuals, sup);
+                    fill(individuals, sup, classInstancesPos, opPos);
                 }
             }
         }
@@ -355,7 +384,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         if (handlePunning && OWLPunningDetector.hasPunning(baseReasoner.getReasoner().getRootOntology())) {
             OWLOntology ontology = baseReasoner.getReasoner().getRootOntology();
 
-            OWLIndividual genericIndividual = df.getOWLNamedIndividual(IRI.create("http://dl-learner.org/punning#genInd"));
+            genericIndividual = df.getOWLNamedIndividual(IRI.create(GENERIC_INDIVIDUAL_IRI));
             Map<OWLIndividual, SortedSet<OWLIndividual>> map = new HashMap<>();
             for (OWLIndividual individual : individuals) {
                 SortedSet<OWLIndividual> objects = new TreeSet<>();
@@ -363,7 +392,9 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                 map.put(individual, objects);
             }
             for (OWLClass cls : baseReasoner.getClasses()) {
-                classInstancesNeg.get(cls).add(genericIndividual);
+                if (classInstancesNeg.containsKey(cls)) {
+                    classInstancesNeg.get(cls).add(genericIndividual);
+                }
                 if (OWLPunningDetector.hasPunning(ontology, cls)) {
                     OWLIndividual clsAsInd = df.getOWLNamedIndividual(IRI.create(cls.toStringID()));
                     //for each x \in N_I with A(x) we add relatedTo(x,A)
@@ -386,17 +417,154 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 //					individuals.add(genericIndividual);
         }
 
+        buildIndividualIndex(classInstancesPos, classInstancesNeg, opPos);
+
         long dematDuration = System.currentTimeMillis() - dematStartTime;
         logger.info("...TBox materialised in " + dematDuration + " ms.");
     }
 
-    private void fill(SortedSet<OWLIndividual> individuals, OWLClassExpression d) {
+    /**
+     * Assigns an ID to each individual occurring in the materialization,
+     * encodes the class extensions as bit sets and builds the adjacency lists
+     * of the object properties. Only the encoded form is kept afterwards.
+     */
+    private void buildIndividualIndex(Map<OWLClass, TreeSet<OWLIndividual>> classInstancesPos,
+            Map<OWLClass, TreeSet<OWLIndividual>> classInstancesNeg,
+            Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opPos) {
+        logger.debug("indexing individuals");
+        TreeSet<OWLIndividual> universe = new TreeSet<>(individuals);
+        for (TreeSet<OWLIndividual> instances : classInstancesPos.values()) {
+            universe.addAll(instances);
+        }
+        for (TreeSet<OWLIndividual> instances : classInstancesNeg.values()) {
+            universe.addAll(instances);
+        }
+        for (Map<OWLIndividual, SortedSet<OWLIndividual>> mapping : opPos.values()) {
+            for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
+                universe.add(entry.getKey());
+                universe.addAll(entry.getValue());
+            }
+        }
+        // the subjects of the data properties are indexed for the materialization snapshot
+        bdPos.values().forEach(universe::addAll);
+        bdNeg.values().forEach(universe::addAll);
+        dpPos.values().forEach(mapping -> universe.addAll(mapping.keySet()));
+        dd.values().forEach(mapping -> universe.addAll(mapping.keySet()));
+        id.values().forEach(mapping -> universe.addAll(mapping.keySet()));
+        sd.values().forEach(mapping -> universe.addAll(mapping.keySet()));
+        individualIndex = new DenseIndex<>(universe);
+
+        classInstancesPosBits.clear();
+        for (Entry<OWLClass, TreeSet<OWLIndividual>> entry : classInstancesPos.entrySet()) {
+            classInstancesPosBits.put(entry.getKey(), individualIndex.toBitSet(entry.getValue()));
+        }
+        classInstancesNegBits.clear();
+        if (!isDefaultNegation()) {
+            for (Entry<OWLClass, TreeSet<OWLIndividual>> entry : classInstancesNeg.entrySet()) {
+                classInstancesNegBits.put(entry.getKey(), individualIndex.toBitSet(entry.getValue()));
+            }
+        }
+
+        opSuccessors.clear();
+        for (Entry<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> entry : opPos.entrySet()) {
+            opSuccessors.put(entry.getKey(), CompressedAdjacency.create(entry.getValue(), individualIndex));
+        }
+        individualsBits = individualIndex.toBitSet(individuals);
+        completeIndividualIndex();
+    }
+
+    /**
+     * Uses the index, the bit sets and the adjacency lists read from a
+     * materialization snapshot.
+     */
+    private void useIndividualIndex(Materialization mat) {
+        individualIndex = mat.index;
+        individualsBits = mat.individuals;
+        individuals = individualIndex.toSortedSet(individualsBits);
+
+        classInstancesPosBits.clear();
+        classInstancesPosBits.putAll(mat.classInstancesPos);
+        classInstancesNegBits.clear();
+        if (!isDefaultNegation()) {
+            classInstancesNegBits.putAll(mat.classInstancesNeg);
+        }
+
+        opSuccessors.clear();
+        opSuccessors.putAll(mat.opSuccessors);
+        completeIndividualIndex();
+    }
+
+    private void completeIndividualIndex() {
+        negationDomainBits = (BitSet) individualsBits.clone();
+        if (genericIndividual != null) {
+            negationDomainBits.set(individualIndex.getId(genericIndividual));
+        }
+
+        opPredecessors.clear();
+        for (Entry<OWLObjectProperty, CompressedAdjacency> entry : opSuccessors.entrySet()) {
+            opPredecessors.put(entry.getKey(), entry.getValue().inverse());
+        }
+        emptyAdjacency = CompressedAdjacency.create(Collections.<OWLIndividual, SortedSet<OWLIndividual>>emptyMap(), individualIndex);
+    }
+
+    /**
+     * @param property the object property expression
+     * @return the adjacency lists from subjects to objects of the property
+     * expression
+     */
+    private CompressedAdjacency getSuccessors(OWLObjectPropertyExpression property) {
+        Map<OWLObjectProperty, CompressedAdjacency> adjacencies = property.isAnonymous() ? opPredecessors : opSuccessors;
+        CompressedAdjacency adjacency = adjacencies.get(property.getNamedProperty());
+        return adjacency == null ? emptyAdjacency : adjacency;
+    }
+
+    /**
+     * @param property the object property expression
+     * @return the adjacency lists from objects to subjects of the property
+     * expression
+     */
+    private CompressedAdjacency getPredecessors(OWLObjectPropertyExpression property) {
+        Map<OWLObjectProperty, CompressedAdjacency> adjacencies = property.isAnonymous() ? opSuccessors : opPredecessors;
+        CompressedAdjacency adjacency = adjacencies.get(property.getNamedProperty());
+        return adjacency == null ? emptyAdjacency : adjacency;
+    }
+
+    /**
+     * @param property the object property expression
+     * @param individual the subject
+     * @return the objects related to the subject via the property expression
+     */
+    private List<OWLIndividual> getRelatedIndividuals(OWLObjectPropertyExpression property, OWLIndividual individual) {
+        int id = individualIndex.getId(individual);
+        if (id < 0) {
+            return Collections.emptyList();
+        }
+        CompressedAdjacency successors = getSuccessors(property);
+        List<OWLIndividual> objects = new ArrayList<>(successors.getDegree(id));
+        for (int i = successors.getStart(id); i < successors.getEnd(id); i++) {
+            objects.add(individualIndex.get(successors.getNeighbour(i)));
+        }
+        return objects;
+    }
+
+    /**
+     * @param bits the bit set, might be <code>null</code>
+     * @param individual the individual
+     * @return whether the individual is contained in the set encoded by the bits
+     */
+    private boolean contains(BitSet bits, OWLIndividual individual) {
+        return bits != null && individualIndex.contains(bits, individual);
+    }
+
+    private void fill(SortedSet<OWLIndividual> individuals, OWLClassExpression d,
+            Map<OWLClass, TreeSet<OWLIndividual>> classInstancesPos,
+            Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opPos) {
         if (!d.isAnonymous()) {
             classInstancesPos.get(d.asOWLClass()).addAll(individuals);
         } else if (d instanceof OWLObjectIntersectionOf) {
             Set<OWLClassExpression> operands = ((OWLObjectIntersectionOf) d).getOperands();
             for (OWLClassExpression operand : operands) {
-                fill(individuals, operand);
+                fill(individuals, operand, classInstancesPos, opPos);
             }
         } else if (d instanceof OWLObjectSomeValuesFrom) {
             OWLObjectProperty role = ((OWLObjectSomeValuesFrom) d).getProperty().asOWLObjectProperty();
@@ -415,7 +583,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                 }
                 values.add(newIndividual);
             }
-            fill(newIndividuals, filler);
+            fill(newIndividuals, filler, classInstancesPos, opPos);
 
         } else {
             throw new UnsupportedOperationException("Should not happen.");
@@ -431,14 +599,14 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         } else if (description.isOWLNothing()) {
             return false;
         } else if (!description.isAnonymous()) {
-            return classInstancesPos.get(description.asOWLClass()).contains(individual);
+            return contains(classInstancesPosBits.get(description.asOWLClass()), individual);
         } else if (description instanceof OWLObjectComplementOf) {
             OWLClassExpression operand = ((OWLObjectComplementOf) description).getOperand();
             if (!operand.isAnonymous()) {
                 if (isDefaultNegation()) {
-                    return !classInstancesPos.get(operand).contains(individual);
+                    return !contains(classInstancesPosBits.get(operand.asOWLClass()), individual);
                 } else {
-                    return classInstancesNeg.get(operand).contains(individual);
+                    return contains(classInstancesNegBits.get(operand.asOWLClass()), individual);
                 }
             } else {
                 if (isDefaultNegation()) {
@@ -467,18 +635,10 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLClassExpression fillerConcept = ((OWLObjectSomeValuesFrom) description).getFiller();
 
             if (property.isAnonymous()) {// \exists r^{-1}.C
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-
-					// check if the individual is contained in the objects and
-                    // subject is of type C
-                    if (objects.contains(individual)) {
-                        if (hasTypeImpl(fillerConcept, subject)) {
-                            return true;
-                        }
+                // check if one of the subjects related to the individual is of type C
+                for (OWLIndividual subject : getRelatedIndividuals(property, individual)) {
+                    if (hasTypeImpl(fillerConcept, subject)) {
+                        return true;
                     }
                 }
             } else {// \exists r.C
@@ -486,13 +646,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                     return true;
                 }
 
-                SortedSet<OWLIndividual> values = opPos.get(property).get(individual);
-
-                if (values == null) {
-                    return false;
-                }
-
-                for (OWLIndividual value : values) {
+                for (OWLIndividual value : getRelatedIndividuals(property, individual)) {
                     if (hasTypeImpl(fillerConcept, value)) {
                         return true;
                     }
@@ -510,18 +664,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             }
 
             if (property.isAnonymous()) {// \forall r^{-1}.C
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-                Set<OWLIndividual> values = new HashSet<>();
-
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-
-                    if (objects.contains(individual)) {
-                        values.add(subject);
-                    }
-                }
+                List<OWLIndividual> values = getRelatedIndividuals(property, individual);
 
                 // if there is no value, by standard semantics we have to return TRUE
                 if (values.isEmpty()) {
@@ -544,10 +687,10 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                 }
 
             } else {// \forall r.C
-                SortedSet<OWLIndividual> values = opPos.get(property).get(individual);
+                List<OWLIndividual> values = getRelatedIndividuals(property, individual);
 
                 // if there is no value, by standard semantics we have to return TRUE
-                if (values == null) {
+                if (values.isEmpty()) {
                     return forAllSemantics == ForallSemantics.Standard;
                 }
 
@@ -579,40 +722,33 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLClassExpression fillerConcept = ((OWLObjectMinCardinality) description).getFiller();
 
             if (property.isAnonymous()) {
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
+                List<OWLIndividual> subjects = getRelatedIndividuals(property, individual);
 
                 int index = 0;
                 int nrOfFillers = 0;
-                int nrOfEntries = mapping.keySet().size();
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-
+                for (OWLIndividual subject : subjects) {
+                    index++;
 					// count the number of subjects which are related to the individual such that
                     // subject is of type C
-                    if (objects.contains(individual)) {
-                        if (hasTypeImpl(fillerConcept, subject)) {
-                            nrOfFillers++;
+                    if (hasTypeImpl(fillerConcept, subject)) {
+                        nrOfFillers++;
 
-                            if (nrOfFillers == cardinality) {
-                                return true;
-                            }
-                        } else {
-                            if (nrOfEntries - index < cardinality) {
-                                return false;
-                            }
+                        if (nrOfFillers == cardinality) {
+                            return true;
+                        }
+                    } else {
+                        if (subjects.size() - index < cardinality - nrOfFillers) {
+                            return false;
                         }
                     }
                 }
             } else {
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property);
-
                 int nrOfFillers = 0;
 
-                SortedSet<OWLIndividual> values = mapping.get(individual);
+                List<OWLIndividual> values = getRelatedIndividuals(property, individual);
 
                 // return false if there are none or not enough role fillers
-                if (values == null || (values.size() < cardinality && property != OWLPunningDetector.punningProperty)) {
+                if (values.isEmpty() || (values.size() < cardinality && property != OWLPunningDetector.punningProperty)) {
                     return false;
                 }
 
@@ -643,44 +779,35 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             int cardinality = ((OWLObjectMaxCardinality) description).getCardinality();
 
             if (property.isAnonymous()) {
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-                int nrOfFillers = 0;
-                int nrOfSubjects = mapping.keySet().size();
+                List<OWLIndividual> subjects = getRelatedIndividuals(property, individual);
 
                 // return TRUE if there are none or not enough subjects
-                if (nrOfSubjects < cardinality) {
+                if (subjects.size() <= cardinality) {
                     return true;
                 }
 
+                int nrOfFillers = 0;
                 int index = 0;
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
+                for (OWLIndividual subject : subjects) {
                     index++;
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-                    if (objects.contains(individual) && hasTypeImpl(fillerConcept, subject)) {
+                    if (hasTypeImpl(fillerConcept, subject)) {
                         nrOfFillers++;
                         if (nrOfFillers > cardinality) {
                             return false;
                         }
-						// early abort: e.g. <= 5 hasStructure.Methyl;
-                        // if there are 6 fillers and 2 are not Methyl, the result
-                        // is true
                     } else {
-                        if (nrOfSubjects - index <= cardinality) {
+                        if (subjects.size() - index <= cardinality - nrOfFillers) {
                             return true;
                         }
                     }
                 }
             } else {
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property);
-
                 int nrOfFillers = 0;
 
-                SortedSet<OWLIndividual> roleFillers = mapping.get(individual);
+                List<OWLIndividual> roleFillers = getRelatedIndividuals(property, individual);
 
                 // return true if there are none or not enough role fillers
-                if (roleFillers == null || roleFillers.size() < cardinality) {
+                if (roleFillers.size() < cardinality) {
                     return true;
                 }
 
@@ -708,26 +835,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLObjectPropertyExpression property = ((OWLObjectHasValue) description).getProperty();
             OWLIndividual value = ((OWLObjectHasValue) description).getFiller();
 
-            Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-            if (property.isAnonymous()) {
-
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping
-                        .entrySet()) {
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-
-                    if (objects.contains(individual) && subject.equals(value)) {
-                        return true;
-                    }
-                }
-                return false;
-            } else {
-
-                SortedSet<OWLIndividual> values = mapping.get(individual);
-
-                return values != null && values.contains(value);
-            }
+            return getRelatedIndividuals(property, individual).contains(value);
         } //		else if (OWLClassExpression instanceof BooleanValueRestriction) {
         //			DatatypeProperty dp = ((BooleanValueRestriction) description)
         //					.getRestrictedPropertyExpression();
@@ -904,11 +1012,12 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     public SortedSet<OWLIndividual> getIndividualsImplStandard(OWLClassExpression concept) {
         if (!concept.isAnonymous()) {
-            return classInstancesPos.get(concept);
+            BitSet bits = classInstancesPosBits.get(concept.asOWLClass());
+            return bits == null ? new TreeSet<>() : individualIndex.toSortedSet(bits);
         } else if (concept instanceof OWLObjectComplementOf) {
             OWLClassExpression operand = ((OWLObjectComplementOf) concept).getOperand();
             if (!operand.isAnonymous()) {
-                return classInstancesNeg.get(operand);
+                return individualIndex.toSortedSet(getComplementBits(operand.asOWLClass()));
             }
         }
 
@@ -922,263 +1031,25 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         return inds;
     }
 
-    @SuppressWarnings("unchecked")
     public SortedSet<OWLIndividual> getIndividualsImplFast(OWLClassExpression description)
             throws ReasoningMethodUnsupportedException {
 		// policy: returned sets are clones, i.e. can be modified
-        // (of course we only have to clone the leafs of a class OWLClassExpression tree)
-        if (description.isOWLThing()) {
-            return (TreeSet<OWLIndividual>) individuals.clone();
-        } else if (description.isOWLNothing()) {
-            return new TreeSet<>();
-        } else if (!description.isAnonymous()) {
-            if (classInstancesPos.containsKey(description.asOWLClass())) {
-                return (TreeSet<OWLIndividual>) classInstancesPos.get(description).clone();
-            } else {
-                return new TreeSet<>();
-            }
-        } else if (description instanceof OWLObjectComplementOf) {
-            OWLClassExpression operand = ((OWLObjectComplementOf) description).getOperand();
-            if (!operand.isAnonymous()) {
-                if (isDefaultNegation()) {
-                    if (precomputeNegations) {
-                        return (TreeSet<OWLIndividual>) classInstancesNeg.get(operand).clone();
-                    }
-                    SetView<OWLIndividual> diff = Sets.difference(individuals, classInstancesPos.get(operand));
-                    return new TreeSet<>(diff);
-                } else {
-                    return (TreeSet<OWLIndividual>) classInstancesNeg.get(operand).clone();
-                }
-            }
-            // implement retrieval as default negation
-            return new TreeSet<>(Sets.difference(individuals, getIndividualsImpl(operand)));
-        } else if (description instanceof OWLObjectUnionOf) {
-            SortedSet<OWLIndividual> ret = new TreeSet<>();
-            for (OWLClassExpression operand : ((OWLObjectUnionOf) description).getOperands()) {
-                ret.addAll(getIndividualsImpl(operand));
-            }
-            return ret;
-        } else if (description instanceof OWLObjectIntersectionOf) {
-            Iterator<OWLClassExpression> iterator = ((OWLObjectIntersectionOf) description).getOperands().iterator();
-            // copy instances of first element and then subtract all others
-            SortedSet<OWLIndividual> ret = getIndividualsImpl(iterator.next());
-            while (iterator.hasNext()) {
-                ret.retainAll(getIndividualsImpl(iterator.next()));
-            }
-            return ret;
-        } else if (description instanceof OWLObjectSomeValuesFrom) {
-            SortedSet<OWLIndividual> returnSet = new TreeSet<>();
-
-            OWLObjectPropertyExpression property = ((OWLObjectSomeValuesFrom) description).getProperty();
-            OWLClassExpression filler = ((OWLObjectSomeValuesFrom) description).getFiller();
-
-            //get instances of filler concept
-            SortedSet<OWLIndividual> targetSet = getIndividualsImpl(filler);
-
-            // the mapping of instances related by r
-            Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-            if (property.isAnonymous()) { // \exists r^{-1}.C
-                // invert the mapping
-                // get all objects that are related by r to (at least) one subject which is of type C
-                Multimap<OWLIndividual, OWLIndividual> mappingInv = Multimaps.invertFrom(
-                        MapUtils.createSortedMultiMap(opPos.get(property.getNamedProperty())),
-                        TreeMultimap.<OWLIndividual, OWLIndividual>create());
-
-                mapping = mappingInv.asMap();
-            }
-
-			// each individual is connected to a set of individuals via the property;
-            // we loop through the complete mapping
-            for (Entry<OWLIndividual, ? extends Collection<OWLIndividual>> entry : mapping.entrySet()) {
-                Collection<OWLIndividual> inds = entry.getValue();
-                for (OWLIndividual ind : inds) {
-                    if (targetSet.contains(ind)) {
-                        returnSet.add(entry.getKey());
-                        // once we found an individual, we do not need to check the others
-                        break;
-                    }
-                }
-            }
-
-            return returnSet;
-        } else if (description instanceof OWLObjectAllValuesFrom) {
-			// \forall restrictions are difficult to handle; assume we want to check
-            // \forall hasChild.male with domain(hasChild)=Person; then for all non-persons
-            // this is satisfied trivially (all of their non-existing children are male)
-//			if(!configurator.getForallRetrievalSemantics().equals("standard")) {
-//				throw new Error("Only forallExists semantics currently implemented.");
-//			}
-
-			// problem: we need to make sure that \neg \exists r.\top \equiv \forall r.\bot
-            // can still be reached in an algorithm (\forall r.\bot \equiv \bot under forallExists
-            // semantics)
-            OWLObjectPropertyExpression property = ((OWLObjectAllValuesFrom) description).getProperty();
-            OWLClassExpression filler = ((OWLObjectAllValuesFrom) description).getFiller();
-
-            // get instances of filler concept
-            SortedSet<OWLIndividual> targetSet = getIndividualsImpl(filler);
-
-            // the mapping of instances related by r
-            Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-            if (property.isAnonymous()) { // \forall r^{-1}.C
-                // invert the mapping
-                // get all objects that are related by r to (at least) one subject which is of type C
-                Multimap<OWLIndividual, OWLIndividual> mappingInv = Multimaps.invertFrom(
-                        MapUtils.createSortedMultiMap(opPos.get(property.getNamedProperty())),
-                        TreeMultimap.<OWLIndividual, OWLIndividual>create());
-
-                mapping = mappingInv.asMap();
-            }
-
-//			SortedSet<OWLIndividual> returnSet = new TreeSet<OWLIndividual>(mapping.keySet());
-            SortedSet<OWLIndividual> returnSet = (SortedSet<OWLIndividual>) individuals.clone();
-
-			// each individual is connected to a set of individuals via the property;
-            // we loop through the complete mapping
-            for (Entry<OWLIndividual, ? extends Collection<OWLIndividual>> entry : mapping.entrySet()) {
-                Collection<OWLIndividual> inds = entry.getValue();
-                for (OWLIndividual ind : inds) {
-                    if (!targetSet.contains(ind)) {
-                        returnSet.remove(entry.getKey());
-                        break;
-                    }
-                }
-            }
-            return returnSet;
-        } else if (description instanceof OWLObjectMinCardinality) {
-            OWLObjectPropertyExpression property = ((OWLObjectMinCardinality) description).getProperty();
-            OWLClassExpression filler = ((OWLObjectMinCardinality) description).getFiller();
-
-            //get instances of filler concept
-            SortedSet<OWLIndividual> targetSet = getIndividualsImpl(filler);
-
-            // the mapping of instances related by r
-            Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-            if (property.isAnonymous()) { // \forall r^{-1}.C
-                // invert the mapping
-                // get all objects that are related by r to (at least) one subject which is of type C
-                Multimap<OWLIndividual, OWLIndividual> mappingInv = Multimaps.invertFrom(
-                        MapUtils.createSortedMultiMap(opPos.get(property.getNamedProperty())),
-                        TreeMultimap.<OWLIndividual, OWLIndividual>create());
-
-                mapping = mappingInv.asMap();
-            }
-
-            SortedSet<OWLIndividual> returnSet = new TreeSet<>();
-
-            int number = ((OWLObjectMinCardinality) description).getCardinality();
-
-            for (Entry<OWLIndividual, ? extends Collection<OWLIndividual>> entry : mapping.entrySet()) {
-                int nrOfFillers = 0;
-                int index = 0;
-                Collection<OWLIndividual> inds = entry.getValue();
-
-                // we do not need to run tests if there are not sufficiently many fillers
-                if (inds.size() < number) {
-                    continue;
-                }
-
-                for (OWLIndividual ind : inds) {
-                    // stop inner loop when nr of fillers is reached
-                    if (nrOfFillers >= number) {
-                        returnSet.add(entry.getKey());
-                        break;
-                    }
-                    // early abort when too many instance checks failed
-                    if (inds.size() - index < number) {
-                        break;
-                    }
-                    if (targetSet.contains(ind)) {
-                        nrOfFillers++;
-                    }
-                    index++;
-                }
-            }
-
-            return returnSet;
-        } else if (description instanceof OWLObjectMaxCardinality) {
-            OWLObjectPropertyExpression property = ((OWLObjectMaxCardinality) description).getProperty();
-            OWLClassExpression filler = ((OWLObjectMaxCardinality) description).getFiller();
-            int number = ((OWLObjectMaxCardinality) description).getCardinality();
-
-            //get instances of filler concept
-            SortedSet<OWLIndividual> targetSet = getIndividualsImpl(filler);
-
-            // the mapping of instances related by r
-            Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-            if (property.isAnonymous()) { // \forall r^{-1}.C
-                // invert the mapping
-                // get all objects that are related by r to (at least) one subject which is of type C
-                Multimap<OWLIndividual, OWLIndividual> mappingInv = Multimaps.invertFrom(
-                        MapUtils.createSortedMultiMap(opPos.get(property.getNamedProperty())),
-                        TreeMultimap.<OWLIndividual, OWLIndividual>create());
-
-                mapping = mappingInv.asMap();
-            }
-
-			// initially all individuals are in the return set and we then remove those
-            // with too many fillers
-            SortedSet<OWLIndividual> returnSet = (SortedSet<OWLIndividual>) individuals.clone();
-
-            for (Entry<OWLIndividual, ? extends Collection<OWLIndividual>> entry : mapping.entrySet()) {
-                int nrOfFillers = 0;
-                int index = 0;
-                Collection<OWLIndividual> inds = entry.getValue();
-
-                // we do not need to run tests if there are not sufficiently many fillers
-                if (number < inds.size()) {
-                    returnSet.add(entry.getKey());
-                    continue;
-                }
-
-                for (OWLIndividual ind : inds) {
-                    // stop inner loop when nr of fillers is reached
-                    if (nrOfFillers >= number) {
-                        break;
-                    }
-                    // early abort when too many instance are true already
-                    if (inds.size() - index < number) {
-                        returnSet.add(entry.getKey());
-                        break;
-                    }
-                    if (targetSet.contains(ind)) {
-                        nrOfFillers++;
-                    }
-                    index++;
-                }
-            }
-
-            return returnSet;
-        } else if (description instanceof OWLObjectHasValue) {
-            OWLObjectPropertyExpression property = ((OWLObjectHasValue) description).getProperty();
-            OWLIndividual value = ((OWLObjectHasValue) description).getFiller();
-
-            // the mapping of instances related by r
-            Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-            if (property.isAnonymous()) { // \exists r^{-1}.{a}
-                // invert the mapping
-                // get all objects that are related by r to (at least) one subject which is of type C
-                Multimap<OWLIndividual, OWLIndividual> mappingInv = Multimaps.invertFrom(
-                        MapUtils.createSortedMultiMap(opPos.get(property.getNamedProperty())),
-                        TreeMultimap.<OWLIndividual, OWLIndividual>create());
-
-                mapping = mappingInv.asMap();
-            }
-
-            SortedSet<OWLIndividual> returnSet = new TreeSet<>();
+        switch (description.getClassExpressionType()) {
+            case OWL_CLASS:
+            case OBJECT_COMPLEMENT_OF:
+            case OBJECT_UNION_OF:
+            case OBJECT_INTERSECTION_OF:
+            case OBJECT_SOME_VALUES_FROM:
+            case OBJECT_ALL_VALUES_FROM:
+            case OBJECT_MIN_CARDINALITY:
+            case OBJECT_MAX_CARDINALITY:
+            case OBJECT_HAS_VALUE:
+                return individualIndex.toSortedSet(getIndividualsBits(description));
+            default:
+                break;
+        }
 
-            for (Entry<OWLIndividual, ? extends Collection<OWLIndividual>> entry : mapping.entrySet()) {
-                if (entry.getValue().contains(value)) {
-                    returnSet.add(entry.getKey());
-                }
-            }
-            return returnSet;
-        } else if (description instanceof OWLDataSomeValuesFrom) {
+        if (description instanceof OWLDataSomeValuesFrom) {
             OWLDataPropertyExpression property = ((OWLDataSomeValuesFrom) description).getProperty();
             OWLDataRange filler = ((OWLDataSomeValuesFrom) description).getFiller();
 
@@ -1329,6 +1200,161 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     }
 
+    /**
+     * Retrieval based on the bit set encoding of the materialization. Only class
+     * expressions without data property restrictions are computed directly, all
+     * other ones are delegated to {@link #getIndividualsImplFast(OWLClassExpression)}.
+     *
+     * @param description the class expression
+     * @return a new bit set containing the IDs of all instances
+     */
+    private BitSet getIndividualsBits(OWLClassExpression description)
+            throws ReasoningMethodUnsupportedException {
+        if (description.isOWLThing()) {
+            return (BitSet) individualsBits.clone();
+        } else if (description.isOWLNothing()) {
+            return new BitSet();
+        } else if (!description.isAnonymous()) {
+            BitSet bits = classInstancesPosBits.get(description.asOWLClass());
+            return bits == null ? new BitSet() : (BitSet) bits.clone();
+        } else if (description instanceof OWLObjectComplementOf) {
+            OWLClassExpression operand = ((OWLObjectComplementOf) description).getOperand();
+            if (!operand.isAnonymous()) {
+                return getComplementBits(operand.asOWLClass());
+            }
+            // implement retrieval as default negation
+            BitSet bits = (BitSet) individualsBits.clone();
+            bits.andNot(getIndividualsBits(operand));
+            return bits;
+        } else if (description instanceof OWLObjectUnionOf) {
+            BitSet bits = new BitSet();
+            for (OWLClassExpression operand : ((OWLObjectUnionOf) description).getOperands()) {
+                bits.or(getIndividualsBits(operand));
+            }
+            return bits;
+        } else if (description instanceof OWLObjectIntersectionOf) {
+            Iterator<OWLClassExpression> iterator = ((OWLObjectIntersectionOf) description).getOperands().iterator();
+            // copy instances of first element and then subtract all others
+            BitSet bits = getIndividualsBits(iterator.next());
+            while (iterator.hasNext() && !bits.isEmpty()) {
+                bits.and(getIndividualsBits(iterator.next()));
+            }
+            return bits;
+        } else if (description instanceof OWLObjectSomeValuesFrom) {
+            OWLObjectPropertyExpression property = ((OWLObjectSomeValuesFrom) description).getProperty();
+            OWLClassExpression filler = ((OWLObjectSomeValuesFrom) description).getFiller();
+
+            // all individuals having a filler in the instances of the filler concept
+            return getPredecessors(property).getNeighbours(getIndividualsBits(filler));
+        } else if (description instanceof OWLObjectAllValuesFrom) {
+			// \forall restrictions are difficult to handle; assume we want to check
+            // \forall hasChild.male with domain(hasChild)=Person; then for all non-persons
+            // this is satisfied trivially (all of their non-existing children are male)
+
+			// problem: we need to make sure that \neg \exists r.\top \equiv \forall r.\bot
+            // can still be reached in an algorithm (\forall r.\bot \equiv \bot under forallExists
+            // semantics)
+            OWLObjectPropertyExpression property = ((OWLObjectAllValuesFrom) description).getProperty();
+            OWLClassExpression filler = ((OWLObjectAllValuesFrom) description).getFiller();
+
+            CompressedAdjacency predecessors = getPredecessors(property);
+
+            // all fillers which are not instances of the filler concept
+            BitSet wrongFillers = predecessors.getNonEmptyNodes();
+            wrongFillers.andNot(getIndividualsBits(filler));
+
+            // remove all individuals having such a filler
+            BitSet returnSet = (BitSet) individualsBits.clone();
+            returnSet.andNot(predecessors.getNeighbours(wrongFillers));
+            return returnSet;
+        } else if (description instanceof OWLObjectMinCardinality) {
+            OWLObjectPropertyExpression property = ((OWLObjectMinCardinality) description).getProperty();
+            OWLClassExpression filler = ((OWLObjectMinCardinality) description).getFiller();
+            int number = ((OWLObjectMinCardinality) description).getCardinality();
+
+            // there are always at least zero fillers
+            if (number == 0) {
+                return (BitSet) individualsBits.clone();
+            }
+
+            CompressedAdjacency predecessors = getPredecessors(property);
+            BitSet targetSet = getIndividualsBits(filler);
+
+            // all individuals having at least one filler in the target set
+            BitSet returnSet = predecessors.getNeighbours(targetSet);
+            if (number == 1) {
+                return returnSet;
+            }
+
+            // count the fillers of those individuals only
+            CompressedAdjacency successors = getSuccessors(property);
+            for (int i = returnSet.nextSetBit(0); i >= 0; i = returnSet.nextSetBit(i + 1)) {
+                if (successors.countNeighbours(i, targetSet) < number) {
+                    returnSet.clear(i);
+                }
+            }
+            return returnSet;
+        } else if (description instanceof OWLObjectMaxCardinality) {
+            OWLObjectPropertyExpression property = ((OWLObjectMaxCardinality) description).getProperty();
+            OWLClassExpression filler = ((OWLObjectMaxCardinality) description).getFiller();
+            int number = ((OWLObjectMaxCardinality) description).getCardinality();
+
+            CompressedAdjacency predecessors = getPredecessors(property);
+            BitSet targetSet = getIndividualsBits(filler);
+
+			// initially all individuals are in the return set and we then remove those
+            // with too many fillers
+            BitSet returnSet = (BitSet) individualsBits.clone();
+
+            if (number == 0) {
+                returnSet.andNot(predecessors.getNeighbours(targetSet));
+                return returnSet;
+            }
+
+            // only individuals having a filler in the target set can have too many
+            BitSet candidates = predecessors.getNeighbours(targetSet);
+            CompressedAdjacency successors = getSuccessors(property);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (successors.countNeighbours(i, targetSet) > number) {
+                    returnSet.clear(i);
+                }
+            }
+            return returnSet;
+        } else if (description instanceof OWLObjectHasValue) {
+            OWLObjectPropertyExpression property = ((OWLObjectHasValue) description).getProperty();
+            OWLIndividual value = ((OWLObjectHasValue) description).getFiller();
+
+            BitSet returnSet = new BitSet();
+            int id = individualIndex.getId(value);
+            if (id >= 0) {
+                CompressedAdjacency predecessors = getPredecessors(property);
+                for (int i = predecessors.getStart(id); i < predecessors.getEnd(id); i++) {
+                    returnSet.set(predecessors.getNeighbour(i));
+                }
+            }
+            return returnSet;
+        }
+
+        return individualIndex.toBitSet(getIndividualsImplFast(description));
+    }
+
+    /**
+     * @param cls the class
+     * @return a new bit set containing the IDs of all instances of the negated class
+     */
+    private BitSet getComplementBits(OWLClass cls) {
+        if (isDefaultNegation()) {
+            BitSet bits = (BitSet) negationDomainBits.clone();
+            BitSet pos = classInstancesPosBits.get(cls);
+            if (pos != null) {
+                bits.andNot(pos);
+            }
+            return bits;
+        } else {
+            return (BitSet) classInstancesNegBits.get(cls).clone();
+        }
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -1438,15 +1464,15 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
     @Override
     public boolean isDisjointImpl(OWLClass clsA, OWLClass clsB) {
         if (disjointnessSemantics == DisjointnessSemantics.INSTANCE_BASED) {
-            TreeSet<OWLIndividual> instancesA = classInstancesPos.get(clsA);
-            TreeSet<OWLIndividual> instancesB = classInstancesPos.get(clsB);
+            BitSet instancesA = classInstancesPosBits.get(clsA);
+            BitSet instancesB = classInstancesPosBits.get(clsB);
 
             // trivial case if one of the sets is empty
-            if (instancesA.isEmpty() || instancesB.isEmpty()) {
+            if (instancesA == null || instancesB == null || instancesA.isEmpty() || instancesB.isEmpty()) {
                 return false;
             }
 
-            return Sets.intersection(instancesA, instancesB).isEmpty();
+            return !instancesA.intersects(instancesB);
         } else {
             return baseReasoner.isDisjoint(clsA, clsB);
         }
@@ -1503,9 +1529,27 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         return baseReasoner.getRange(datatypeProperty);
     }
 
+    /**
+     * The mapping is decoded from the adjacency lists on each call, thus it
+     * should not be requested in performance critical parts.
+     */
     @Override
     public Map<OWLIndividual, SortedSet<OWLIndividual>> getPropertyMembersImpl(OWLObjectProperty atomicRole) {
-        return opPos.get(atomicRole);
+        CompressedAdjacency successors = opSuccessors.get(atomicRole);
+        if (successors == null) {
+            return null;
+        }
+        Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = new TreeMap<>();
+        for (int subject = 0; subject < successors.getNrOfNodes(); subject++) {
+            if (successors.getDegree(subject) > 0) {
+                BitSet objects = new BitSet();
+                for (int i = successors.getStart(subject); i < successors.getEnd(subject); i++) {
+                    objects.set(successors.getNeighbour(i));
+                }
+                mapping.put(individualIndex.get(subject), individualIndex.toSortedSet(objects));
+            }
+        }
+        return mapping;
     }
 
     @Override
@@ -1635,6 +1679,13 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         this.useMaterializationCaching = useMaterializationCaching;
     }
 
+    /**
+     * @param materializationCacheDirectory the materializationCacheDirectory to set
+     */
+    public void setMaterializationCacheDirectory(String materializationCacheDirectory) {
+        this.materializationCacheDirectory = materializationCacheDirectory;
+    }
+
     /**
      * @param handlePunning the handlePunning to set
      */
@@ -1668,4 +1719,13 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         baseReasoner.setSynchronized();
     }
 
+    /**
+     * The materialized data is only read after {@link #init()}, thus the
+     * reasoner is thread safe.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
 }
@@ -18,26 +18,32 @@
  */
 package org.dllearner.reasoning;
 
-import java.io.Serializable;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
+import org.dllearner.utilities.datastructures.CompressedAdjacency;
+import org.dllearner.utilities.datastructures.DenseIndex;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLDataProperty;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 
-class Materialization implements Serializable{
-		// we use sorted sets (map indices) here, because they have only log(n)
-		// complexity for checking whether an element is contained in them
+class Materialization {
+		// dense IDs of all individuals occurring in the materialization, the
+		// individuals, class extensions and object property mappings refer to them
+		public DenseIndex<OWLIndividual> index;
+		// all individuals of the knowledge base
+		public BitSet individuals = new BitSet();
 		// instances of classes
-		public Map<OWLClass, TreeSet<OWLIndividual>> classInstancesPos = new TreeMap<>();
-		public Map<OWLClass, TreeSet<OWLIndividual>> classInstancesNeg = new TreeMap<>();
-		// object property mappings
-		public Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opPos = new TreeMap<>();
+		public Map<OWLClass, BitSet> classInstancesPos = new HashMap<>();
+		public Map<OWLClass, BitSet> classInstancesNeg = new HashMap<>();
+		// object property mappings as adjacency lists from subjects to objects
+		public Map<OWLObjectProperty, CompressedAdjacency> opSuccessors = new HashMap<>();
 		// data property mappings
 		public Map<OWLDataProperty, Map<OWLIndividual, SortedSet<OWLLiteral>>> dpPos = new TreeMap<>();
 			
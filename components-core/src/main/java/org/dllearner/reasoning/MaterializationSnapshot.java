@@ -0,0 +1,540 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.Map.Entry;
+
+import org.dllearner.utilities.datastructures.CompressedAdjacency;
+import org.dllearner.utilities.datastructures.DenseIndex;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Binary snapshot of a {@link Materialization}. Individuals are stored once in
+ * a dictionary in the order of their IDs in the {@link DenseIndex}. The class
+ * extensions are stored as the words of their bit sets and the object
+ * properties as the arrays of their adjacency lists, thus they are copied in
+ * bulk from the memory mapped file without building any intermediate sets.
+ * Snapshots can be reused as long as the fingerprint of the ontology and the
+ * materialization settings does not change.
+ *
+ * <p>File layout (all numbers big-endian):
+ * <pre>
+ * magic, version, fingerprint (16 bytes)
+ * individual dictionary, bits of the individuals of the KB
+ * classes:            IRI, positive bits, negative bits (optional)
+ * object properties:  IRI, offsets, neighbours
+ * boolean properties: IRI, true bits, false bits
+ * data properties:    IRI, (subject ID, literals)*
+ * double, int and string properties: IRI, (subject ID, values)*
+ * </pre>
+ */
+class MaterializationSnapshot {
+
+	private static final int MAGIC = 0x444c4357; // "DLCW"
+	private static final int VERSION = 2;
+
+	// maximum size of a single mapped region
+	private static final long REGION_SIZE = 1 << 30;
+
+	/**
+	 * Computes an order independent fingerprint of the logical content of the
+	 * ontology and the settings that influence the materialization. The hash
+	 * codes of OWL API objects are computed from their structure, i.e. from the
+	 * IRIs, literals and node IDs they consist of, and are cached by the
+	 * axioms, thus no axiom has to be rendered.
+	 *
+	 * @param ontology the ontology
+	 * @param settings the materialization settings
+	 * @return the fingerprint
+	 */
+	static HashCode fingerprint(OWLOntology ontology, boolean... settings) {
+		List<HashCode> axiomHashes = new ArrayList<>();
+		for (OWLAxiom axiom : ontology.getAxioms(Imports.INCLUDED)) {
+			axiomHashes.add(Hashing.murmur3_128().newHasher()
+					.putInt(axiom.getAxiomType().getIndex())
+					.putInt(axiom.hashCode())
+					.hash());
+		}
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		hasher.putInt(VERSION);
+		for (boolean setting : settings) {
+			hasher.putBoolean(setting);
+		}
+		hasher.putInt(axiomHashes.size());
+		if (!axiomHashes.isEmpty()) {
+			hasher.putBytes(Hashing.combineUnordered(axiomHashes).asBytes());
+		}
+		return hasher.hash();
+	}
+
+	/**
+	 * Writes the materialization to the given file. The file is replaced
+	 * atomically, thus concurrent readers never see a partially written snapshot.
+	 * All individuals of the materialization have to be part of its index.
+	 */
+	static void write(File file, HashCode fingerprint, Materialization mat) throws IOException {
+		DenseIndex<OWLIndividual> index = mat.index;
+
+		File tmpFile = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.write(fingerprint.asBytes());
+
+			// individual dictionary
+			out.writeInt(index.size());
+			for (int i = 0; i < index.size(); i++) {
+				OWLIndividual ind = index.get(i);
+				out.writeBoolean(ind.isNamed());
+				writeString(out, ind.isNamed()
+						? ind.asOWLNamedIndividual().getIRI().toString()
+						: ind.asOWLAnonymousIndividual().getID().getID());
+			}
+			writeBits(out, mat.individuals);
+
+			out.writeInt(mat.classInstancesPos.size());
+			for (Entry<OWLClass, BitSet> entry : mat.classInstancesPos.entrySet()) {
+				writeString(out, entry.getKey().toStringID());
+				writeBits(out, entry.getValue());
+				BitSet neg = mat.classInstancesNeg.get(entry.getKey());
+				out.writeBoolean(neg != null);
+				if (neg != null) {
+					writeBits(out, neg);
+				}
+			}
+
+			out.writeInt(mat.opSuccessors.size());
+			for (Entry<OWLObjectProperty, CompressedAdjacency> entry : mat.opSuccessors.entrySet()) {
+				writeString(out, entry.getKey().toStringID());
+				CompressedAdjacency adjacency = entry.getValue();
+				out.writeInt(adjacency.getNrOfNodes());
+				for (int node = 0; node <= adjacency.getNrOfNodes(); node++) {
+					out.writeInt(node < adjacency.getNrOfNodes() ? adjacency.getStart(node) : adjacency.getNrOfEdges());
+				}
+				out.writeInt(adjacency.getNrOfEdges());
+				for (int i = 0; i < adjacency.getNrOfEdges(); i++) {
+					out.writeInt(adjacency.getNeighbour(i));
+				}
+			}
+
+			out.writeInt(mat.bdPos.size());
+			for (Entry<OWLDataProperty, TreeSet<OWLIndividual>> entry : mat.bdPos.entrySet()) {
+				writeString(out, entry.getKey().toStringID());
+				writeBits(out, toBitSet(entry.getValue(), index));
+				writeBits(out, toBitSet(mat.bdNeg.getOrDefault(entry.getKey(), new TreeSet<>()), index));
+			}
+
+			out.writeInt(mat.dpPos.size());
+			for (Entry<OWLDataProperty, Map<OWLIndividual, SortedSet<OWLLiteral>>> entry : mat.dpPos.entrySet()) {
+				writeString(out, entry.getKey().toStringID());
+				out.writeInt(entry.getValue().size());
+				for (Entry<OWLIndividual, SortedSet<OWLLiteral>> e : entry.getValue().entrySet()) {
+					out.writeInt(getId(e.getKey(), index));
+					out.writeInt(e.getValue().size());
+					for (OWLLiteral lit : e.getValue()) {
+						writeString(out, lit.getLiteral());
+						writeString(out, lit.getDatatype().toStringID());
+						writeString(out, lit.getLang());
+					}
+				}
+			}
+
+			out.writeInt(mat.dd.size());
+			for (Entry<OWLDataProperty, Map<OWLIndividual, SortedSet<Double>>> entry : mat.dd.entrySet()) {
+				writeString(out, entry.getKey().toStringID());
+				out.writeInt(entry.getValue().size());
+				for (Entry<OWLIndividual, SortedSet<Double>> e : entry.getValue().entrySet()) {
+					out.writeInt(getId(e.getKey(), index));
+					out.writeInt(e.getValue().size());
+					for (Double value : e.getValue()) {
+						out.writeDouble(value);
+					}
+				}
+			}
+
+			out.writeInt(mat.id.size());
+			for (Entry<OWLDataProperty, Map<OWLIndividual, SortedSet<Integer>>> entry : mat.id.entrySet()) {
+				writeString(out, entry.getKey().toStringID());
+				out.writeInt(entry.getValue().size());
+				for (Entry<OWLIndividual, SortedSet<Integer>> e : entry.getValue().entrySet()) {
+					out.writeInt(getId(e.getKey(), index));
+					out.writeInt(e.getValue().size());
+					for (Integer value : e.getValue()) {
+						out.writeInt(value);
+					}
+				}
+			}
+
+			out.writeInt(mat.sd.size());
+			for (Entry<OWLDataProperty, Map<OWLIndividual, SortedSet<String>>> entry : mat.sd.entrySet()) {
+				writeString(out, entry.getKey().toStringID());
+				out.writeInt(entry.getValue().size());
+				for (Entry<OWLIndividual, SortedSet<String>> e : entry.getValue().entrySet()) {
+					out.writeInt(getId(e.getKey(), index));
+					out.writeInt(e.getValue().size());
+					for (String value : e.getValue()) {
+						writeString(out, value);
+					}
+				}
+			}
+		}
+		try {
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tmpFile.toPath());
+		}
+	}
+
+	/**
+	 * Reads a snapshot from the given file. Anonymous individuals are resolved
+	 * by their node ID against the given ones, i.e. the anonymous individuals of
+	 * the current ontology.
+	 *
+	 * @return the materialization or <code>null</code> if the file was written
+	 * by another version or for a different fingerprint, or if it refers to an
+	 * anonymous individual which is not part of the given ones
+	 */
+	static Materialization read(File file, HashCode fingerprint, OWLDataFactory df,
+								Collection<OWLAnonymousIndividual> anonymousIndividuals) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath())) {
+			MappedInput in = new MappedInput(channel);
+
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			byte[] fp = new byte[fingerprint.bits() / 8];
+			in.readFully(fp);
+			if (!Arrays.equals(fp, fingerprint.asBytes())) {
+				return null;
+			}
+
+			Map<String, OWLAnonymousIndividual> nodeIds = new HashMap<>();
+			for (OWLAnonymousIndividual ind : anonymousIndividuals) {
+				nodeIds.put(ind.getID().getID(), ind);
+			}
+
+			Materialization mat = new Materialization();
+
+			int nrOfIndividuals = in.readInt();
+			OWLIndividual[] individuals = new OWLIndividual[nrOfIndividuals];
+			for (int i = 0; i < nrOfIndividuals; i++) {
+				boolean named = in.readBoolean();
+				String id = in.readString();
+				individuals[i] = named ? df.getOWLNamedIndividual(IRI.create(id)) : nodeIds.get(id);
+				if (individuals[i] == null) {
+					return null;
+				}
+			}
+			// the dictionary is sorted, thus it is the universe of the index the IDs refer to
+			mat.index = new DenseIndex<>(new SortedListView(Arrays.asList(individuals)));
+			mat.individuals = readBits(in);
+
+			int nrOfClasses = in.readInt();
+			for (int i = 0; i < nrOfClasses; i++) {
+				OWLClass cls = df.getOWLClass(IRI.create(in.readString()));
+				mat.classInstancesPos.put(cls, readBits(in));
+				if (in.readBoolean()) {
+					mat.classInstancesNeg.put(cls, readBits(in));
+				}
+			}
+
+			int nrOfObjectProperties = in.readInt();
+			for (int i = 0; i < nrOfObjectProperties; i++) {
+				OWLObjectProperty op = df.getOWLObjectProperty(IRI.create(in.readString()));
+				int[] offsets = in.readInts(in.readInt() + 1);
+				int[] neighbours = in.readInts(in.readInt());
+				mat.opSuccessors.put(op, CompressedAdjacency.create(offsets, neighbours));
+			}
+
+			int nrOfBooleanProperties = in.readInt();
+			for (int i = 0; i < nrOfBooleanProperties; i++) {
+				OWLDataProperty dp = df.getOWLDataProperty(IRI.create(in.readString()));
+				mat.bdPos.put(dp, mat.index.toSortedSet(readBits(in)));
+				mat.bdNeg.put(dp, mat.index.toSortedSet(readBits(in)));
+			}
+
+			int nrOfDataProperties = in.readInt();
+			for (int i = 0; i < nrOfDataProperties; i++) {
+				OWLDataProperty dp = df.getOWLDataProperty(IRI.create(in.readString()));
+				int nrOfSubjects = in.readInt();
+				Map<OWLIndividual, SortedSet<OWLLiteral>> mapping = new TreeMap<>();
+				for (int j = 0; j < nrOfSubjects; j++) {
+					OWLIndividual subject = individuals[in.readInt()];
+					int nrOfValues = in.readInt();
+					SortedSet<OWLLiteral> values = new TreeSet<>();
+					for (int k = 0; k < nrOfValues; k++) {
+						String lexicalForm = in.readString();
+						OWLDatatype datatype = df.getOWLDatatype(IRI.create(in.readString()));
+						String lang = in.readString();
+						values.add(lang.isEmpty() ? df.getOWLLiteral(lexicalForm, datatype) : df.getOWLLiteral(lexicalForm, lang));
+					}
+					mapping.put(subject, values);
+				}
+				mat.dpPos.put(dp, mapping);
+			}
+
+			int nrOfDoubleProperties = in.readInt();
+			for (int i = 0; i < nrOfDoubleProperties; i++) {
+				OWLDataProperty dp = df.getOWLDataProperty(IRI.create(in.readString()));
+				int nrOfSubjects = in.readInt();
+				Map<OWLIndividual, SortedSet<Double>> mapping = new TreeMap<>();
+				for (int j = 0; j < nrOfSubjects; j++) {
+					OWLIndividual subject = individuals[in.readInt()];
+					int nrOfValues = in.readInt();
+					SortedSet<Double> values = new TreeSet<>();
+					for (int k = 0; k < nrOfValues; k++) {
+						values.add(in.readDouble());
+					}
+					mapping.put(subject, values);
+				}
+				mat.dd.put(dp, mapping);
+			}
+
+			int nrOfIntProperties = in.readInt();
+			for (int i = 0; i < nrOfIntProperties; i++) {
+				OWLDataProperty dp = df.getOWLDataProperty(IRI.create(in.readString()));
+				int nrOfSubjects = in.readInt();
+				Map<OWLIndividual, SortedSet<Integer>> mapping = new TreeMap<>();
+				for (int j = 0; j < nrOfSubjects; j++) {
+					OWLIndividual subject = individuals[in.readInt()];
+					int nrOfValues = in.readInt();
+					SortedSet<Integer> values = new TreeSet<>();
+					for (int k = 0; k < nrOfValues; k++) {
+						values.add(in.readInt());
+					}
+					mapping.put(subject, values);
+				}
+				mat.id.put(dp, mapping);
+			}
+
+			int nrOfStringProperties = in.readInt();
+			for (int i = 0; i < nrOfStringProperties; i++) {
+				OWLDataProperty dp = df.getOWLDataProperty(IRI.create(in.readString()));
+				int nrOfSubjects = in.readInt();
+				Map<OWLIndividual, SortedSet<String>> mapping = new TreeMap<>();
+				for (int j = 0; j < nrOfSubjects; j++) {
+					OWLIndividual subject = individuals[in.readInt()];
+					int nrOfValues = in.readInt();
+					SortedSet<String> values = new TreeSet<>();
+					for (int k = 0; k < nrOfValues; k++) {
+						values.add(in.readString());
+					}
+					mapping.put(subject, values);
+				}
+				mat.sd.put(dp, mapping);
+			}
+
+			return mat;
+		}
+	}
+
+	private static int getId(OWLIndividual ind, DenseIndex<OWLIndividual> index) {
+		int id = index.getId(ind);
+		if (id < 0) {
+			throw new IllegalArgumentException("Individual " + ind + " is not part of the index.");
+		}
+		return id;
+	}
+
+	private static BitSet toBitSet(Collection<OWLIndividual> individuals, DenseIndex<OWLIndividual> index) {
+		BitSet bits = new BitSet(index.size());
+		for (OWLIndividual ind : individuals) {
+			bits.set(getId(ind, index));
+		}
+		return bits;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static void writeBits(DataOutputStream out, BitSet bits) throws IOException {
+		long[] words = bits.toLongArray();
+		out.writeInt(words.length);
+		for (long word : words) {
+			out.writeLong(word);
+		}
+	}
+
+	private static BitSet readBits(MappedInput in) throws IOException {
+		return BitSet.valueOf(in.readLongs(in.readInt()));
+	}
+
+	/**
+	 * Sorted set view of an already sorted list, used as universe of the
+	 * {@link DenseIndex} without building a tree.
+	 */
+	private static class SortedListView extends AbstractSet<OWLIndividual> implements SortedSet<OWLIndividual> {
+		private final List<OWLIndividual> list;
+
+		SortedListView(List<OWLIndividual> list) {
+			this.list = list;
+		}
+
+		@Override
+		public Iterator<OWLIndividual> iterator() {
+			return list.iterator();
+		}
+
+		@Override
+		public int size() {
+			return list.size();
+		}
+
+		@Override
+		public Comparator<? super OWLIndividual> comparator() {
+			return null;
+		}
+
+		@Override
+		public OWLIndividual first() {
+			return list.get(0);
+		}
+
+		@Override
+		public OWLIndividual last() {
+			return list.get(list.size() - 1);
+		}
+
+		@Override
+		public SortedSet<OWLIndividual> subSet(OWLIndividual fromElement, OWLIndividual toElement) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public SortedSet<OWLIndividual> headSet(OWLIndividual toElement) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public SortedSet<OWLIndividual> tailSet(OWLIndividual fromElement) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Sequential reader over a memory mapped file. Files larger than a single
+	 * mapping are mapped region by region.
+	 */
+	private static class MappedInput {
+		private final FileChannel channel;
+		private final long size;
+		private long regionStart = 0;
+		private MappedByteBuffer buffer;
+
+		MappedInput(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.size = channel.size();
+			map(0);
+		}
+
+		private void map(long position) throws IOException {
+			regionStart = position;
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position));
+		}
+
+		private ByteBuffer ensure(int nrOfBytes) throws IOException {
+			if (buffer.remaining() < nrOfBytes) {
+				long position = regionStart + buffer.position();
+				if (size - position < nrOfBytes) {
+					throw new EOFException();
+				}
+				map(position);
+			}
+			return buffer;
+		}
+
+		int readInt() throws IOException {
+			return ensure(4).getInt();
+		}
+
+		double readDouble() throws IOException {
+			return ensure(8).getDouble();
+		}
+
+		boolean readBoolean() throws IOException {
+			return ensure(1).get() != 0;
+		}
+
+		int[] readInts(int length) throws IOException {
+			int[] values = new int[length];
+			int offset = 0;
+			while (offset < length) {
+				int n = Math.min(length - offset, buffer.remaining() / 4);
+				if (n == 0) {
+					ensure(4);
+					continue;
+				}
+				buffer.asIntBuffer().get(values, offset, n);
+				buffer.position(buffer.position() + 4 * n);
+				offset += n;
+			}
+			return values;
+		}
+
+		long[] readLongs(int length) throws IOException {
+			long[] values = new long[length];
+			int offset = 0;
+			while (offset < length) {
+				int n = Math.min(length - offset, buffer.remaining() / 8);
+				if (n == 0) {
+					ensure(8);
+					continue;
+				}
+				buffer.asLongBuffer().get(values, offset, n);
+				buffer.position(buffer.position() + 8 * n);
+				offset += n;
+			}
+			return values;
+		}
+
+		void readFully(byte[] bytes) throws IOException {
+			int offset = 0;
+			while (offset < bytes.length) {
+				if (!buffer.hasRemaining()) {
+					ensure(1);
+				}
+				int n = Math.min(bytes.length - offset, buffer.remaining());
+				buffer.get(bytes, offset, n);
+				offset += n;
+			}
+		}
+
+		String readString() throws IOException {
+			byte[] bytes = new byte[readInt()];
+			readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+
+}
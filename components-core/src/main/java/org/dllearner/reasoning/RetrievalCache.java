@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import java.util.*;
+
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectUnionOf;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * A bounded cache for the instances of class expressions. Cached sets are
+ * stored as unmodifiable copies, thus callers have to copy them before
+ * modification.
+ */
+public class RetrievalCache {
+
+	/**
+	 * How entries are evicted once the cache is full.
+	 */
+	public enum EvictionPolicy {
+		/**
+		 * the least recently used class expressions are evicted once the
+		 * number of cached class expressions exceeds the maximum size
+		 */
+		LRU,
+		/**
+		 * the least recently used class expressions are evicted once the
+		 * total number of cached individuals exceeds the maximum size
+		 */
+		WEIGHT
+	}
+
+	private final Cache<OWLClassExpression, SortedSet<OWLIndividual>> cache;
+
+	/**
+	 * @param evictionPolicy the eviction policy
+	 * @param maxSize the maximum number of class expressions for
+	 * {@link EvictionPolicy#LRU} resp. the maximum number of individuals for
+	 * {@link EvictionPolicy#WEIGHT}
+	 */
+	public RetrievalCache(EvictionPolicy evictionPolicy, long maxSize) {
+		CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+		if (evictionPolicy == EvictionPolicy.WEIGHT) {
+			cache = builder
+					.maximumWeight(maxSize)
+					.<OWLClassExpression, SortedSet<OWLIndividual>>weigher((ce, individuals) -> individuals.size() + 1)
+					.build();
+		} else {
+			cache = builder.maximumSize(maxSize).build();
+		}
+	}
+
+	/**
+	 * @param ce the class expression
+	 * @return the cached instances of the class expression or <code>null</code>
+	 * if it is not contained in the cache
+	 */
+	public SortedSet<OWLIndividual> get(OWLClassExpression ce) {
+		return cache.getIfPresent(ce);
+	}
+
+	/**
+	 * Like {@link #get(OWLClassExpression)}, but the lookup is not recorded in
+	 * the hit and miss statistics. Used for probing the cache on instance
+	 * checks, which would otherwise dominate the statistics with misses.
+	 *
+	 * @param ce the class expression
+	 * @return the cached instances of the class expression or <code>null</code>
+	 * if it is not contained in the cache
+	 */
+	public SortedSet<OWLIndividual> peek(OWLClassExpression ce) {
+		return cache.asMap().get(ce);
+	}
+
+	/**
+	 * Computes the instances of a conjunction resp. disjunction from the cached
+	 * instances of its operands. Note, that using it for disjunctions is only
+	 * correct under closed world assumption.
+	 *
+	 * @param ce the class expression
+	 * @param useDisjunctions whether to compute the instances of disjunctions
+	 * @return the instances of the class expression or <code>null</code>
+	 * if they can not be computed from cached results
+	 */
+	public SortedSet<OWLIndividual> infer(OWLClassExpression ce, boolean useDisjunctions) {
+		if (ce instanceof OWLObjectIntersectionOf) {
+			List<SortedSet<OWLIndividual>> operandInstances = new ArrayList<>();
+			for (OWLClassExpression operand : ((OWLObjectIntersectionOf) ce).getOperands()) {
+				SortedSet<OWLIndividual> individuals = get(operand);
+				if (individuals == null) {
+					return null;
+				}
+				operandInstances.add(individuals);
+			}
+			// start with the smallest set
+			operandInstances.sort(Comparator.comparingInt(Set::size));
+			SortedSet<OWLIndividual> result = new TreeSet<>(operandInstances.get(0));
+			for (int i = 1; i < operandInstances.size() && !result.isEmpty(); i++) {
+				result.retainAll(operandInstances.get(i));
+			}
+			return result;
+		} else if (useDisjunctions && ce instanceof OWLObjectUnionOf) {
+			SortedSet<OWLIndividual> result = new TreeSet<>();
+			for (OWLClassExpression operand : ((OWLObjectUnionOf) ce).getOperands()) {
+				SortedSet<OWLIndividual> individuals = get(operand);
+				if (individuals == null) {
+					return null;
+				}
+				result.addAll(individuals);
+			}
+			return result;
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the instances of a class expression to the cache. The set is copied.
+	 *
+	 * @param ce the class expression
+	 * @param individuals the instances of the class expression
+	 */
+	public void put(OWLClassExpression ce, SortedSet<OWLIndividual> individuals) {
+		cache.put(ce, Collections.unmodifiableSortedSet(new TreeSet<>(individuals)));
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached class expressions
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return the hit and miss statistics
+	 */
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+}
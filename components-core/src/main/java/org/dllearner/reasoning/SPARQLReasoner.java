@@ -26,7 +26,6 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
-import org.aksw.jena_sparql_api.delay.core.QueryExecutionFactoryDelay;
 import org.aksw.jena_sparql_api.http.QueryExecutionFactoryHttp;
 import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
 import org.aksw.jena_sparql_api.pagination.core.QueryExecutionFactoryPaginated;
@@ -49,8 +48,11 @@ import org.dllearner.core.owl.ObjectPropertyHierarchy;
 import org.dllearner.kb.LocalModelBasedSparqlEndpointKS;
 import org.dllearner.kb.OWLFile;
 import org.dllearner.kb.SparqlEndpointKS;
+import org.dllearner.kb.sparql.AdaptiveQueryPaginator;
+import org.dllearner.kb.sparql.CachingQueryExecutionFactory;
 import org.dllearner.kb.sparql.SPARQLQueryUtils;
 import org.dllearner.kb.sparql.SparqlEndpoint;
+import org.dllearner.kb.sparql.SparqlResultCache;
 import org.dllearner.utilities.OWLAPIUtils;
 import org.dllearner.utilities.OWLCLassExpressionToOWLClassTransformer;
 import org.dllearner.utilities.OwlApiJenaUtils;
@@ -68,6 +70,7 @@ import org.slf4j.helpers.BasicMarkerFactory;
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 import org.semanticweb.owlapi.vocab.OWL2Datatype;
 
+import java.io.File;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
@@ -122,8 +125,31 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	@ConfigOption(defaultValue = "true", description = "Prefer ASK queries when there is a choice in implementation", required = false)
 	private boolean preferAsk = true;
 
+	@ConfigOption(description = "The directory of the cache for the results of queries to a remote endpoint. No cache is used if not set.")
+	private String cacheDirectory = null;
+
+	@ConfigOption(defaultValue = "1024", description = "The maximum size of the query result cache in MB, least recently used results are evicted.")
+	private long cacheMaxSizeInMB = 1024;
+
+	@ConfigOption(defaultValue = "30", description = "The number of days after which cached query results expire.")
+	private long cacheTimeToLiveInDays = 30;
+
+	private SparqlResultCache cache;
+
+	@ConfigOption(defaultValue = "10000", description = "The maximum number of results requested from a remote endpoint at once.")
+	private int pageSize = AdaptiveQueryPaginator.DEFAULT_MAX_PAGE_SIZE;
+
+	@ConfigOption(defaultValue = "100", description = "The minimum number of results requested from a remote endpoint at once.")
+	private int minPageSize = AdaptiveQueryPaginator.DEFAULT_MIN_PAGE_SIZE;
+
+	@ConfigOption(defaultValue = "2000", description = "The response time per page in ms the number of results requested from a remote endpoint at once is adjusted to. The page size is fixed if a cache is used.")
+	private long targetPageTimeInMs = AdaptiveQueryPaginator.DEFAULT_TARGET_PAGE_TIME_MS;
+
 	private QueryExecutionFactory qef;
 
+	// only set for a remote endpoint the query execution factory is created for in init()
+	private AdaptiveQueryPaginator paginator;
+
 	private SparqlEndpointKS ks;
 	private ClassHierarchy hierarchy;
 
@@ -192,17 +218,33 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 			}
 			if(ks.isRemote()){
 				qef = ks.getQueryExecutionFactory();
-				qef = new QueryExecutionFactoryDelay(qef, 50);
-//				qef = new QueryExecutionFactoryCacheEx(qef, cache);
-				qef = new QueryExecutionFactoryPaginated(qef, 10000);
+				if(cache == null && cacheDirectory != null) {
+					cache = new SparqlResultCache(new File(cacheDirectory), cacheMaxSizeInMB * 1024 * 1024,
+							cacheTimeToLiveInDays, TimeUnit.DAYS);
+				}
+				if(cache != null) {
+					qef = new CachingQueryExecutionFactory(qef, cache);
+				}
+				// only the endpoint set up here is paginated, a given query execution
+				// factory is used as it is
+				paginator = new AdaptiveQueryPaginator(qef, pageSize, minPageSize, targetPageTimeInMs);
+				// cached pages are only found again if the page size is the same
+				paginator.setAdaptive(cache == null);
 			} else {
 				qef = new QueryExecutionFactoryModel(((LocalModelBasedSparqlEndpointKS)ks).getModel());
 			}
 		}
 	}
 	
+	/**
+	 * @return the query execution factory of the knowledge base. For the
+	 * remote endpoint set up in {@link #init()} the returned factory requests
+	 * the results page by page, with the maximum page size.
+	 */
 	public QueryExecutionFactory getQueryExecutionFactory() {
-		return qef;
+		// callers create their own query executions, thus they are paginated
+		// with a fixed page size rather than through the adaptive paginator
+		return paginator != null ? new QueryExecutionFactoryPaginated(qef, pageSize) : qef;
 	}
 	
 	public void precomputePopularities(PopularityType... popularityTypes){
@@ -875,14 +917,13 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	}
 
 	private Model loadIncrementally(String query){
-		QueryExecutionFactory old = qef;
-		qef = new QueryExecutionFactoryPaginated(qef, 10000);
-		QueryExecution qe = qef.createQueryExecution(query);
 		if (logger.isTraceEnabled()) logger.trace("Sending query \n {}", query);
-		Model model = qe.execConstruct();
-		qe.close();
-		qef = old;
-		return model;
+		if (paginator != null) {
+			return paginator.execConstruct(query, -1, TimeUnit.MILLISECONDS);
+		}
+		try(QueryExecution qe = new QueryExecutionFactoryPaginated(qef, 10000).createQueryExecution(query)) {
+			return qe.execConstruct();
+		}
 	}
 
 	@Override
@@ -2337,6 +2378,16 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		if (logger.isTraceEnabled()) {
 			logger.trace("Sending query \n {}", queryString);
 		}
+		if (paginator != null) {
+			// the results are streamed page by page
+			try {
+				return paginator.execSelect(queryString, timeout, timeoutUnits);
+			} catch (QueryExceptionHTTP e) {
+				throw new QueryExceptionHTTP("Error sending query \"" + queryString + "\" to endpoint " + qef.getId(), e);
+			} catch (Exception e) {
+				throw new RuntimeException("Error sending query \"" + queryString + "\" to endpoint " + qef.getId(), e);
+			}
+		}
 		try(QueryExecution qe = qef.createQueryExecution(queryString)) {
 			qe.setTimeout(timeout, timeoutUnits);
 			ResultSet rs = qe.execSelect();
@@ -2354,6 +2405,15 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	
 	protected boolean executeAskQuery(String queryString){
 		if (logger.isTraceEnabled()) logger.trace("Sending query \n {}", queryString);
+		if (paginator != null) {
+			try {
+				return paginator.execAsk(queryString);
+			} catch (QueryExceptionHTTP e)  {
+				throw new QueryExceptionHTTP("Error sending query \"" + queryString + "\" to endpoint " + qef.getId(), e);
+			} catch (Exception e) {
+				throw new RuntimeException("Error sending query \"" + queryString + "\" to endpoint " + qef.getId(), e);
+			}
+		}
 		try(QueryExecution qe = qef.createQueryExecution(queryString)) {
 			boolean ret = qe.execAsk();
 			qe.close();
@@ -2471,6 +2531,72 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		this.useValueLists = useValueLists;
 	}
 
+	public String getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	public void setCacheDirectory(String cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	public long getCacheMaxSizeInMB() {
+		return cacheMaxSizeInMB;
+	}
+
+	public void setCacheMaxSizeInMB(long cacheMaxSizeInMB) {
+		this.cacheMaxSizeInMB = cacheMaxSizeInMB;
+	}
+
+	public long getCacheTimeToLiveInDays() {
+		return cacheTimeToLiveInDays;
+	}
+
+	public void setCacheTimeToLiveInDays(long cacheTimeToLiveInDays) {
+		this.cacheTimeToLiveInDays = cacheTimeToLiveInDays;
+	}
+
+	/**
+	 * @return the cache for the results of queries to a remote endpoint, or
+	 * null if none is used
+	 */
+	public SparqlResultCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Sets the cache for the results of queries to a remote endpoint, e.g. to
+	 * share one cache between several reasoners. Takes precedence over
+	 * {@link #setCacheDirectory(String)}.
+	 * @param cache the cache
+	 */
+	public void setCache(SparqlResultCache cache) {
+		this.cache = cache;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public void setPageSize(int pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	public int getMinPageSize() {
+		return minPageSize;
+	}
+
+	public void setMinPageSize(int minPageSize) {
+		this.minPageSize = minPageSize;
+	}
+
+	public long getTargetPageTimeInMs() {
+		return targetPageTimeInMs;
+	}
+
+	public void setTargetPageTimeInMs(long targetPageTimeInMs) {
+		this.targetPageTimeInMs = targetPageTimeInMs;
+	}
+
 	public boolean isPreferAsk() {
 		return preferAsk;
 	}
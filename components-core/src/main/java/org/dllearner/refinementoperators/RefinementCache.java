@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.refinementoperators;
+
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.dllearner.utilities.owl.OWLClassExpressionLengthMetric;
+import org.dllearner.utilities.owl.OWLClassExpressionUtils;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * A bounded, thread-safe cache for the refinements of class expressions.
+ * Entries are keyed by the class expression and the domain the refinements
+ * have to be compatible with. Each entry remembers the maximum length its
+ * refinements were computed for, so a lookup with a shorter or equal maximum
+ * length is answered by dropping the refinements which are too long, while a
+ * lookup with a larger maximum length misses. In the latter case, the
+ * refinement operator only computes the longer refinements on top of the
+ * cached ones and replaces the entry, see {@link #getMaxLength}.
+ * The cached sets are never handed out, callers always get a copy.
+ */
+public class RefinementCache {
+
+	private static class Key {
+		private final OWLClassExpression expression;
+		private final OWLClassExpression domain;
+		private final int hashCode;
+
+		Key(OWLClassExpression expression, OWLClassExpression domain) {
+			this.expression = expression;
+			this.domain = domain;
+			this.hashCode = Objects.hash(expression, domain);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return expression.equals(other.expression)
+					&& Objects.equals(domain, other.domain);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private static class Entry {
+		private final int maxLength;
+		private final SortedSet<OWLClassExpression> refinements;
+
+		Entry(int maxLength, SortedSet<OWLClassExpression> refinements) {
+			this.maxLength = maxLength;
+			this.refinements = refinements;
+		}
+	}
+
+	private final Cache<Key, Entry> cache;
+	private final OWLClassExpressionLengthMetric lengthMetric;
+
+	/**
+	 * @param maxSize the maximum number of cached refinement sets
+	 * @param lengthMetric the metric the maximum length of the refinements refers to
+	 */
+	public RefinementCache(long maxSize, OWLClassExpressionLengthMetric lengthMetric) {
+		this.lengthMetric = lengthMetric;
+		cache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+	}
+
+	/**
+	 * @param expression the refined class expression
+	 * @param maxLength the maximum length of the refinements
+	 * @param domain the domain of the refinements
+	 * @return a modifiable copy of the cached refinements up to the given length
+	 * or <code>null</code> if the cache does not contain the refinements of the
+	 * expression up to at least this length
+	 */
+	public TreeSet<OWLClassExpression> get(OWLClassExpression expression, int maxLength, OWLClassExpression domain) {
+		Key key = new Key(expression, domain);
+		Entry entry = cache.getIfPresent(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.maxLength < maxLength) {
+			// the longer refinements have not been computed yet
+			return null;
+		}
+		if (entry.maxLength == maxLength) {
+			return new TreeSet<>(entry.refinements);
+		}
+		TreeSet<OWLClassExpression> refinements = new TreeSet<>();
+		for (OWLClassExpression refinement : entry.refinements) {
+			if (OWLClassExpressionUtils.getLength(refinement, lengthMetric) <= maxLength) {
+				refinements.add(refinement);
+			}
+		}
+		return refinements;
+	}
+
+	/**
+	 * Returns the maximum length the cached refinements of a class expression were
+	 * computed for. The lookup is not recorded in the statistics.
+	 *
+	 * @param expression the refined class expression
+	 * @param domain the domain of the refinements
+	 * @return the maximum length of the cached refinements or -1 if they are not
+	 * contained in the cache
+	 */
+	public int getMaxLength(OWLClassExpression expression, OWLClassExpression domain) {
+		Entry entry = cache.asMap().get(new Key(expression, domain));
+		return entry == null ? -1 : entry.maxLength;
+	}
+
+	/**
+	 * Adds the refinements of a class expression to the cache. The set is copied.
+	 * An entry computed for a larger maximum length is kept as it already
+	 * contains these refinements.
+	 *
+	 * @param expression the refined class expression
+	 * @param maxLength the maximum length of the refinements
+	 * @param domain the domain of the refinements
+	 * @param refinements the refinements
+	 */
+	public void put(OWLClassExpression expression, int maxLength, OWLClassExpression domain,
+			SortedSet<OWLClassExpression> refinements) {
+		Entry entry = new Entry(maxLength, new TreeSet<>(refinements));
+		cache.asMap().merge(new Key(expression, domain), entry,
+				(oldEntry, newEntry) -> oldEntry.maxLength > newEntry.maxLength ? oldEntry : newEntry);
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached refinement sets
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return the hit and miss statistics
+	 */
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+}
@@ -19,6 +19,7 @@
 package org.dllearner.refinementoperators;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
@@ -48,6 +49,7 @@ import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static com.google.common.primitives.Ints.max;
@@ -116,33 +118,37 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 	private OWLClassExpression startClass = OWL_THING;
 
 	// the length of concepts of top refinements, the first values is
-	// for refinements of \rho_\top(\top), the second one for \rho_A(\top)
-	private int topRefinementsLength = 0;
-	private Map<OWLClassExpression, Integer> topARefinementsLength = new TreeMap<>();
+	// for refinements of \rho_\top(\top), the second one for \rho_A(\top);
+	// the top refinements and the sets they are computed from (M, app, mg) are
+	// only modified in computeTopRefinements, which is synchronized, all other
+	// structures are read-only after init() such that refine() can be called
+	// by multiple threads
+	private volatile int topRefinementsLength = 0;
+	private Map<OWLClassExpression, Integer> topARefinementsLength = new ConcurrentHashMap<>();
 	// M is finite and this value is the maximum length of any value in M
 	private int mMaxLength = 4;
 
 	// the sets M_\top and M_A
 	private Map<Integer,SortedSet<OWLClassExpression>> m = new TreeMap<>();
-	private Map<OWLClassExpression,Map<Integer,SortedSet<OWLClassExpression>>> mA = new TreeMap<>();
+	private Map<OWLClassExpression,Map<Integer,SortedSet<OWLClassExpression>>> mA = new ConcurrentHashMap<>();
 
 	// @see MathOperations.getCombos
 	private Map<Integer, List<List<Integer>>> combos = new HashMap<>();
 
 	// refinements of the top concept ordered by length
-	private Map<Integer, SortedSet<OWLClassExpression>> topRefinements = new TreeMap<>();
-	private Map<OWLClassExpression,Map<Integer, SortedSet<OWLClassExpression>>> topARefinements = new TreeMap<>();
+	private Map<Integer, SortedSet<OWLClassExpression>> topRefinements = new ConcurrentHashMap<>();
+	private Map<OWLClassExpression,Map<Integer, SortedSet<OWLClassExpression>>> topARefinements = new ConcurrentHashMap<>();
 
 	// cumulated refinements of top (all from length one to the specified length)
-	private Map<Integer, TreeSet<OWLClassExpression>> topRefinementsCumulative = new HashMap<>();
-	private Map<OWLClassExpression,Map<Integer, TreeSet<OWLClassExpression>>> topARefinementsCumulative = new TreeMap<>();
+	private Map<Integer, TreeSet<OWLClassExpression>> topRefinementsCumulative = new ConcurrentHashMap<>();
+	private Map<OWLClassExpression,Map<Integer, TreeSet<OWLClassExpression>>> topARefinementsCumulative = new ConcurrentHashMap<>();
 
 	// app_A set of applicable properties for a given class (separate for
 	// object properties, boolean datatypes, and double datatypes)
-	private Map<OWLClassExpression, Set<OWLObjectProperty>> appOP = new TreeMap<>();
-	private Map<OWLClassExpression, Set<OWLDataProperty>> appBD = new TreeMap<>();
-	private Map<OWLClassExpression, Set<OWLDataProperty>> appNumeric = new TreeMap<>();
-	private Map<OWLClassExpression, Set<OWLDataProperty>> appSD = new TreeMap<>();
+	private Map<OWLClassExpression, Set<OWLObjectProperty>> appOP = new ConcurrentHashMap<>();
+	private Map<OWLClassExpression, Set<OWLDataProperty>> appBD = new ConcurrentHashMap<>();
+	private Map<OWLClassExpression, Set<OWLDataProperty>> appNumeric = new ConcurrentHashMap<>();
+	private Map<OWLClassExpression, Set<OWLDataProperty>> appSD = new ConcurrentHashMap<>();
 
 	// most general applicable properties
 	private Map<OWLClassExpression,Set<OWLObjectProperty>> mgr = new TreeMap<>();
@@ -225,7 +231,16 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 	private boolean useSomeOnly = true;
 
 	// caches for reasoner queries
-	private Map<OWLClassExpression,Map<OWLClassExpression,Boolean>> cachedDisjoints = new TreeMap<>();
+	private Map<OWLClassExpression,Map<OWLClassExpression,Boolean>> cachedDisjoints = new ConcurrentHashMap<>();
+
+	@ConfigOption(description = "whether to cache the refinements of class expressions (including the refinements " +
+			"of sub expressions computed recursively)", defaultValue = "false")
+	private boolean useRefinementCache = false;
+
+	@ConfigOption(description = "maximum number of cached refinement sets", defaultValue = "10000")
+	private int refinementCacheSize = 10000;
+
+	private RefinementCache refinementCache;
 
 //	private Map<OWLClass,Map<OWLClass,Boolean>> abDisjoint = new TreeMap<OWLClass,Map<OWLClass,Boolean>>();
 //	private Map<OWLClass,Map<OWLClass,Boolean>> notABDisjoint = new TreeMap<OWLClass,Map<OWLClass,Boolean>>();
@@ -262,6 +277,8 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 		setUseObjectValueNegation(op.useObjectValueNegation);
 		setUseStringDatatypes(op.useStringDatatypes);
 		setUseNumericDatatypes(op.useNumericDatatypes);
+		setUseRefinementCache(op.useRefinementCache);
+		setRefinementCacheSize(op.refinementCacheSize);
 		initialized = false;
 	}
 
@@ -481,6 +498,19 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			dataPropertyHierarchy = reasoner.getDatatypePropertyHierarchy();
 		}
 
+		if (useRefinementCache) {
+			refinementCache = new RefinementCache(refinementCacheSize, lengthMetric);
+		}
+
+		// the following structures are only read while refining
+		opDomains = Collections.unmodifiableMap(opDomains);
+		opRanges = Collections.unmodifiableMap(opRanges);
+		dpDomains = Collections.unmodifiableMap(dpDomains);
+		maxNrOfFillers = Collections.unmodifiableMap(maxNrOfFillers);
+		frequentValues = Collections.unmodifiableMap(frequentValues);
+		frequentDataValues = Collections.unmodifiableMap(frequentDataValues);
+		splits = Collections.unmodifiableMap(splits);
+
 		initialized = true;
 	}
 
@@ -514,16 +544,70 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 		return refine(description, maxLength, knownRefinements, startClass);
 	}
 
-	@SuppressWarnings({"unchecked"})
 	public Set<OWLClassExpression> refine(OWLClassExpression description, int maxLength,
 			List<OWLClassExpression> knownRefinements, OWLClassExpression currDomain) {
+		if (refinementCache == null || knownRefinements != null) {
+			return computeRefinements(description, maxLength, 0, knownRefinements, currDomain);
+		}
+		TreeSet<OWLClassExpression> refinements = refinementCache.get(description, maxLength, currDomain);
+		if (refinements == null) {
+			// if the refinements up to a shorter length are cached, only the longer ones are computed,
+			// e.g. when a node of the search tree is expanded again with a higher horizontal expansion
+			int knownLength = refinementCache.getMaxLength(description, currDomain);
+			if (knownLength > 0 && knownLength < maxLength) {
+				refinements = refinementCache.get(description, knownLength, currDomain);
+			}
+			if (refinements == null) {
+				refinements = new TreeSet<>();
+				knownLength = 0;
+			}
+			refinements.addAll(computeRefinements(description, maxLength, knownLength, null, currDomain));
+			refinementCache.put(description, maxLength, currDomain, refinements);
+		}
+		return refinements;
+	}
+
+	/**
+	 * @param refinement the refinement of a sub expression
+	 * @param knownLength the length up to which the refinements of the sub expression are already known
+	 * @return whether the refinements built from the given refinement are already known
+	 */
+	private boolean isKnown(OWLClassExpression refinement, int knownLength) {
+		return knownLength > 0 && OWLClassExpressionUtils.getLength(refinement, lengthMetric) <= knownLength;
+	}
+
+	/**
+	 * @return the refinements of the top concept in the given domain with a length in
+	 * (<code>knownLength</code>, <code>maxLength</code>]
+	 */
+	private Iterable<OWLClassExpression> getTopRefinements(int knownLength, int maxLength, OWLClassExpression currDomain) {
+		if (knownLength < 1) {
+			return currDomain.isOWLThing()
+					? topRefinementsCumulative.get(maxLength)
+					: topARefinementsCumulative.get(currDomain).get(maxLength);
+		}
+		List<Iterable<OWLClassExpression>> topRefs = new ArrayList<>();
+		for (int i = knownLength + 1; i <= maxLength; i++) {
+			topRefs.add(currDomain.isOWLThing() ? topRefinements.get(i) : topARefinements.get(currDomain).get(i));
+		}
+		return Iterables.concat(topRefs);
+	}
+
+	/**
+	 * Computes the refinements of a class expression up to the given maximum length. If the refinements up
+	 * to a shorter length are already known, those are skipped where this saves work, i.e. the result
+	 * contains all refinements longer than <code>knownLength</code>, but not necessarily the shorter ones.
+	 */
+	@SuppressWarnings({"unchecked"})
+	private Set<OWLClassExpression> computeRefinements(OWLClassExpression description, int maxLength, int knownLength,
+			List<OWLClassExpression> knownRefinements, OWLClassExpression currDomain) {
 
 //		System.out.println("|- " + description + " " + currDomain + " " + maxLength);
 
 		// actions needing to be performed if this is the first time the
 		// current domain is used
-		if(!currDomain.isOWLThing() && !topARefinementsLength.containsKey(currDomain)){
-			topARefinementsLength.put(currDomain, 0);
+		if(!currDomain.isOWLThing()){
+			topARefinementsLength.putIfAbsent(currDomain, 0);
 		}
 
 		// check whether using list or set makes more sense
@@ -539,13 +623,12 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			if(currDomain.isOWLThing()) {
 				if(maxLength>topRefinementsLength)
 					computeTopRefinements(maxLength);
-				refinements = (TreeSet<OWLClassExpression>) topRefinementsCumulative.get(maxLength).clone();
 			} else {
 				if(maxLength>topARefinementsLength.get(currDomain)) {
 					computeTopRefinements(maxLength, currDomain);
 				}
-				refinements = (TreeSet<OWLClassExpression>) topARefinementsCumulative.get(currDomain).get(maxLength).clone();
 			}
+			Iterables.addAll(refinements, getTopRefinements(knownLength, maxLength, currDomain));
 //			refinements.addAll(classHierarchy.getMoreSpecialConcepts(description));
 		} else if(description.isOWLNothing()) {
 			// cannot be further refined
@@ -576,6 +659,9 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 
 				// create new intersection
 				for(OWLClassExpression c : tmp) {
+					if(isKnown(c, knownLength - length + childLength)) {
+						continue;
+					}
 					if(!useSomeOnly || isCombinable(description, c)) {
 						List<OWLClassExpression> newChildren = new ArrayList<>(operands);
 						newChildren.add(c);
@@ -609,6 +695,9 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 
 				// construct union (see above)
 				for(OWLClassExpression c : tmp) {
+					if(isKnown(c, knownLength - length + childLength)) {
+						continue;
+					}
 					List<OWLClassExpression> newChildren = new ArrayList<>(operands);
 					newChildren.remove(child);
 					newChildren.add(c);
@@ -651,7 +740,9 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			tmp = refine(filler, maxLength-lengthMetric.objectSomeValuesLength-lengthMetric.objectProperyLength, null, domain);
 
 			for(OWLClassExpression c : tmp){
-				refinements.add(df.getOWLObjectSomeValuesFrom(role, c));
+				if(!isKnown(c, knownLength-lengthMetric.objectSomeValuesLength-lengthMetric.objectProperyLength)) {
+					refinements.add(df.getOWLObjectSomeValuesFrom(role, c));
+				}
 			}
 
 			// rule 2: EXISTS r.D => EXISTS s.D or EXISTS r^-1.D => EXISTS s^-1.D
@@ -687,7 +778,7 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			}
 
 		} else if (description instanceof OWLObjectAllValuesFrom) {
-			refinements.addAll(refine((OWLObjectAllValuesFrom) description, maxLength));
+			refinements.addAll(refine((OWLObjectAllValuesFrom) description, maxLength, knownLength));
 		} else if (description instanceof OWLObjectCardinalityRestriction) {
 			OWLObjectPropertyExpression role = ((OWLObjectCardinalityRestriction) description).getProperty();
 			OWLClassExpression filler = ((OWLObjectCardinalityRestriction) description).getFiller();
@@ -699,7 +790,9 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 					tmp = refine(filler, maxLength-lengthMetric.objectCardinalityLength-lengthMetric.objectProperyLength, null, range);
 
 					for(OWLClassExpression d : tmp) {
-						refinements.add(df.getOWLObjectMaxCardinality(cardinality,role,d));
+						if(!isKnown(d, knownLength-lengthMetric.objectCardinalityLength-lengthMetric.objectProperyLength)) {
+							refinements.add(df.getOWLObjectMaxCardinality(cardinality,role,d));
+						}
 					}
 				}
 
@@ -713,7 +806,9 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 				tmp = refine(filler, maxLength-lengthMetric.objectCardinalityLength-lengthMetric.objectProperyLength, null, range);
 
 				for(OWLClassExpression d : tmp) {
-					refinements.add(df.getOWLObjectMinCardinality(cardinality,role,d));
+					if(!isKnown(d, knownLength-lengthMetric.objectCardinalityLength-lengthMetric.objectProperyLength)) {
+						refinements.add(df.getOWLObjectMinCardinality(cardinality,role,d));
+					}
 				}
 
 				// >= x r.C  =>  >= (x+1) r.C
@@ -790,11 +885,9 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 				computeTopRefinements(topRefLength, currDomain);
 
 			if(topRefLength>0) {
-				Set<OWLClassExpression> topRefs;
-				if(currDomain.isOWLThing())
-					topRefs = topRefinementsCumulative.get(topRefLength);
-				else
-					topRefs = topARefinementsCumulative.get(currDomain).get(topRefLength);
+				// the intersections with shorter top refinements are already known
+				Iterable<OWLClassExpression> topRefs = getTopRefinements(
+						knownLength - OWLClassExpressionUtils.getLength(description, lengthMetric) - 1, topRefLength, currDomain);
 
 				for(OWLClassExpression c : topRefs) {
 					// true if refinement should be skipped due to filters,
@@ -902,7 +995,7 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 		return combinable;
 	}
 
-	private Set<OWLClassExpression> refine(OWLObjectAllValuesFrom ce, int maxLength) {
+	private Set<OWLClassExpression> refine(OWLObjectAllValuesFrom ce, int maxLength, int knownLength) {
 		Set<OWLClassExpression> refinements = new HashSet<>();
 
 		OWLObjectPropertyExpression role = ce.getProperty();
@@ -913,7 +1006,9 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 		Set<OWLClassExpression> tmp = refine(filler, maxLength-lengthMetric.objectAllValuesLength-lengthMetric.objectProperyLength, null, range);
 
 		for(OWLClassExpression c : tmp) {
-			refinements.add(df.getOWLObjectAllValuesFrom(role, c));
+			if(!isKnown(c, knownLength-lengthMetric.objectAllValuesLength-lengthMetric.objectProperyLength)) {
+				refinements.add(df.getOWLObjectAllValuesFrom(role, c));
+			}
 		}
 
 		// rule 2: ALL r.D => ALL r.BOTTOM if D is a most specific atomic concept
@@ -1023,13 +1118,45 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 	 */
 	public void setDropDisjuncts(boolean dropDisjuncts) {
 		this.dropDisjuncts = dropDisjuncts;
+		// the refinements depend on this setting
+		if (refinementCache != null) {
+			refinementCache.clear();
+		}
+	}
+
+	public boolean isUseRefinementCache() {
+		return useRefinementCache;
+	}
+
+	public void setUseRefinementCache(boolean useRefinementCache) {
+		this.useRefinementCache = useRefinementCache;
+	}
+
+	public int getRefinementCacheSize() {
+		return refinementCacheSize;
+	}
+
+	public void setRefinementCacheSize(int refinementCacheSize) {
+		this.refinementCacheSize = refinementCacheSize;
+	}
+
+	/**
+	 * @return the refinement cache or <code>null</code> if caching is disabled
+	 */
+	public RefinementCache getRefinementCache() {
+		return refinementCache;
 	}
 
 	private void computeTopRefinements(int maxLength) {
 		computeTopRefinements(maxLength, null);
 	}
 
-	private void computeTopRefinements(int maxLength, OWLClassExpression domain) {
+	private synchronized void computeTopRefinements(int maxLength, OWLClassExpression domain) {
+		// another thread might have computed the refinements in the meantime
+		Integer computedLength = domain == null ? Integer.valueOf(topRefinementsLength) : topARefinementsLength.get(domain);
+		if(computedLength != null && computedLength >= maxLength)
+			return;
+
 		long topComputationTimeStartNs = System.nanoTime();
 //		System.out.println("computing top refinements for " + domain + " up to length " + maxLength);
 
@@ -1059,7 +1186,7 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 				topRefinements.put(i, new TreeSet<>());
 			} else {
 				if(!topARefinements.containsKey(domain))
-					topARefinements.put(domain, new TreeMap<>());
+					topARefinements.put(domain, new ConcurrentHashMap<>());
 				topARefinements.get(domain).put(i, new TreeSet<>());
 			}
 
@@ -1127,23 +1254,23 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			}
 
 			// create cumulative versions of refinements such that they can
-			// be accessed easily
-			TreeSet<OWLClassExpression> cumulativeRefinements = new TreeSet<>();
-			for(int j=1; j<=i; j++) {
+			// be accessed easily; we extend the cumulative set of the previous
+			// length (copying a sorted set does not compare its elements)
+			Map<Integer, TreeSet<OWLClassExpression>> cumulative = domain == null
+					? topRefinementsCumulative
+					: topARefinementsCumulative.computeIfAbsent(domain, d -> new ConcurrentHashMap<>());
+			TreeSet<OWLClassExpression> previousRefinements = cumulative.get(i - 1);
+			TreeSet<OWLClassExpression> cumulativeRefinements = previousRefinements == null
+					? new TreeSet<>()
+					: new TreeSet<>(previousRefinements);
+			for(int j = previousRefinements == null ? 1 : i; j<=i; j++) {
 				if(domain == null) {
 					cumulativeRefinements.addAll(topRefinements.get(j));
 				} else {
 					cumulativeRefinements.addAll(topARefinements.get(domain).get(j));
 				}
 			}
-
-			if(domain == null) {
-				topRefinementsCumulative.put(i, cumulativeRefinements);
-			} else {
-				if(!topARefinementsCumulative.containsKey(domain))
-					topARefinementsCumulative.put(domain, new TreeMap<>());
-				topARefinementsCumulative.get(domain).put(i, cumulativeRefinements);
-			}
+			cumulative.put(i, cumulativeRefinements);
 		}
 
 		// register new top refinements length
@@ -1687,8 +1814,11 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 
 		// check whether we have cached this query
 		Map<OWLClassExpression,Boolean> tmp = cachedDisjoints.get(d1);
-		if(tmp != null && tmp.containsKey(d2)) {
-			return tmp.get(d2);
+		if(tmp != null) {
+			Boolean cached = tmp.get(d2);
+			if(cached != null) {
+				return cached;
+			}
 		}
 
 		// compute the disjointness
@@ -1702,15 +1832,9 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 		// add the result to the cache (we add it twice such that
 		// the order of access does not matter)
 
-		// create new entries if necessary
-		if (tmp == null)
-			cachedDisjoints.put(d1, new TreeMap<>());
-		if (!cachedDisjoints.containsKey(d2))
-			cachedDisjoints.put(d2, new TreeMap<>());
-
 		// add result symmetrically in the OWLClassExpression matrix
-		cachedDisjoints.get(d1).put(d2, result);
-		cachedDisjoints.get(d2).put(d1, result);
+		cachedDisjoints.computeIfAbsent(d1, k -> new ConcurrentHashMap<>()).put(d2, result);
+		cachedDisjoints.computeIfAbsent(d2, k -> new ConcurrentHashMap<>()).put(d1, result);
 		//			System.out.println("---");
 		return result;
 	}
@@ -31,10 +31,19 @@ import org.semanticweb.owlapi.model.OWLIndividual;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.DoubleSupplier;
+import java.util.function.Predicate;
 
 /**
  * Common utilities for using a reasoner in learning problems
@@ -78,6 +87,24 @@ public class ReasoningUtils implements Component {
 
 	protected AbstractReasonerComponent reasoner;
 
+	// results of a single instance check
+	private static final byte TRUE = 0;
+	private static final byte FALSE = 1;
+	private static final byte UNKNOWN = 2;
+
+	/**
+	 * a (three-valued) instance check of a single example
+	 */
+	private interface InstanceCheck {
+		byte check(AbstractReasonerComponent reasoner, OWLIndividual example);
+	}
+
+	// executor for batched instance checks, null means sequential evaluation
+	private ExecutorService executor;
+	private int instanceCheckBatchSize = 100;
+	// class expressions which can not reach this accuracy are treated as too weak (disabled if null)
+	private DoubleSupplier accuracyBound;
+
 	/**
 	 * create new reasoning utils
 	 * @param reasoner reasoner to use
@@ -92,6 +119,64 @@ public class ReasoningUtils implements Component {
 	 */
 	protected boolean interrupted() { return false; }
 
+	/**
+	 * Runs an instance check for each example. If an executor is set and the reasoner is
+	 * {@link AbstractReasonerComponent#isThreadSafe() thread safe}, the examples are partitioned into batches
+	 * which are evaluated in parallel. Each batch writes its results into a separate range of the result array,
+	 * thus no locking is required.
+	 * @param examples the examples
+	 * @param check the instance check
+	 * @return the result of the check for each example in iteration order of the examples, or null when
+	 * {@link #interrupted()} requested to abort
+	 */
+	private byte[] checkInstances(Set<OWLIndividual> examples, InstanceCheck check) {
+		List<OWLIndividual> exampleList = new ArrayList<>(examples);
+		byte[] results = new byte[exampleList.size()];
+
+		if (executor == null || exampleList.size() <= instanceCheckBatchSize || !getReasoner().isThreadSafe()) {
+			for (int i = 0; i < results.length; i++) {
+				results[i] = check.check(getReasoner(), exampleList.get(i));
+				if (interrupted()) {
+					return null;
+				}
+			}
+			return results;
+		}
+
+		AtomicBoolean cancelled = new AtomicBoolean(false);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int start = 0; start < results.length; start += instanceCheckBatchSize) {
+			int from = start;
+			int to = Math.min(start + instanceCheckBatchSize, results.length);
+			futures.add(executor.submit(() -> {
+				AbstractReasonerComponent rc = getReasoner();
+				for (int i = from; i < to && !cancelled.get(); i++) {
+					results[i] = check.check(rc, exampleList.get(i));
+					if (interrupted()) {
+						cancelled.set(true);
+					}
+				}
+			}));
+		}
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			cancelled.set(true);
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			cancelled.set(true);
+			throw new RuntimeException("Instance check failed", e.getCause());
+		}
+		return cancelled.get() ? null : results;
+	}
+
+	private static InstanceCheck instanceCheck(OWLClassExpression concept) {
+		return (rc, example) -> rc.hasType(concept, example) ? TRUE : FALSE;
+	}
+
 
 	/**
 	 * binary partition a list of sets into true and false, depending on whether they satisfy concept. wrapper to convert collections to sets
@@ -147,19 +232,22 @@ public class ReasoningUtils implements Component {
 				}
 			}
 		} else {
+			InstanceCheck check = instanceCheck(concept);
 			for (int i = 0; i < sets.length; ++i) {
 				rv[i] = new Coverage();
 				rv[i].total = sets[i].size();
 
+				byte[] results = checkInstances(sets[i], check);
+				if (results == null) {
+					return null;
+				}
+				int j = 0;
 				for (OWLIndividual example : sets[i]) {
-					if (getReasoner().hasType(concept, example)) {
+					if (results[j++] == TRUE) {
 						rv[i].trueSet.add(example);
 					} else {
 						rv[i].falseSet.add(example);
 					}
-					if (interrupted()) {
-						return null;
-					}
 				}
 
 				rv[i].trueCount = rv[i].trueSet.size();
@@ -220,19 +308,21 @@ public class ReasoningUtils implements Component {
 				}
 			}
 		} else {
+			InstanceCheck check = instanceCheck(concept);
 			for (int i = 0; i < sets.length; ++i) {
 				rv[i] = new CoverageCount();
 				rv[i].total = sets[i].size();
 
-				for (OWLIndividual example : sets[i]) {
-					if (getReasoner().hasType(concept, example)) {
+				byte[] results = checkInstances(sets[i], check);
+				if (results == null) {
+					return null;
+				}
+				for (byte result : results) {
+					if (result == TRUE) {
 						++rv[i].trueCount;
 					} else {
 						++rv[i].falseCount;
 					}
-					if (interrupted()) {
-						return null;
-					}
 				}
 			}
 		}
@@ -284,21 +374,26 @@ public class ReasoningUtils implements Component {
 				}
 			}
 		} else {
+			InstanceCheck check = (rc, example) -> rc.hasType(trueConcept, example) ? TRUE
+					: rc.hasType(falseConcept, example) ? FALSE : UNKNOWN;
 			for (int i = 0; i < sets.length; ++i) {
 				rv[i] = new Coverage3();
 				rv[i].total = sets[i].size();
 
+				byte[] results = checkInstances(sets[i], check);
+				if (results == null) {
+					return null;
+				}
+				int j = 0;
 				for (OWLIndividual example : sets[i]) {
-					if (getReasoner().hasType(trueConcept, example)) {
+					byte result = results[j++];
+					if (result == TRUE) {
 						rv[i].trueSet.add(example);
-					} else if (getReasoner().hasType(falseConcept, example)) {
+					} else if (result == FALSE) {
 						rv[i].falseSet.add(example);
 					} else {
 						rv[i].unknownSet.add(example);
 					}
-					if (interrupted()) {
-						return null;
-					}
 				}
 
 				rv[i].trueCount = rv[i].trueSet.size();
@@ -323,13 +418,187 @@ public class ReasoningUtils implements Component {
 		if (accuracyMethod instanceof AccMethodApproximate) {
 			logger.trace("AccMethodApproximate");
 			return ((AccMethodTwoValuedApproximate) accuracyMethod).getAccApprox2(description, positiveExamples, negativeExamples, noise);
-		} else {
+		} else if (!isIncrementalEvaluationPossible()) {
 			CoverageCount[] cc = getCoverageCount(description, positiveExamples, negativeExamples);
 			logger.trace("AccMethodExact: " + (new CoverageAdapter.CoverageCountAdapter2(cc)));
 			return getAccuracyOrTooWeakExact2(accuracyMethod, cc, noise);
+		} else {
+			return getAccuracyOrTooWeakIncremental2(accuracyMethod, description, positiveExamples, negativeExamples, noise);
+		}
+	}
+
+	private boolean isIncrementalEvaluationPossible() {
+		if (reasoner.isUseInstanceChecks()) {
+			// batches are evaluated in parallel
+			return executor == null;
+		}
+		// the counts are computed by the SPARQL endpoint
+		return !(reasoner instanceof SPARQLReasoner && ((SPARQLReasoner) reasoner).isUseValueLists());
+	}
+
+	/**
+	 * Computes the accuracy of a concept by checking the examples one by one, positives first, and stops as soon as
+	 * the concept is too weak even if all remaining positive examples were covered, or (if an accuracy bound is set)
+	 * as soon as the accuracy could not reach the bound even if no remaining negative example was covered.
+	 * This assumes that the accuracy method is monotonic, i.e. covering a positive or not covering a negative example
+	 * never decreases the accuracy, which holds for the two-valued accuracy methods of DL-Learner.
+	 * @return -1 when the concept is too weak, its accuracy is below the bound or the evaluation was interrupted,
+	 * and the accuracy value otherwise
+	 */
+	private double getAccuracyOrTooWeakIncremental2(AccMethodTwoValued accuracyMethod, OWLClassExpression description,
+	                                                 Collection<OWLIndividual> positiveExamples,
+	                                                 Collection<OWLIndividual> negativeExamples, double noise) {
+		Predicate<OWLIndividual> covered = coveredBy(description);
+		boolean checkInterrupted = reasoner.isUseInstanceChecks();
+
+		int nrOfPos = positiveExamples.size();
+		int nrOfNeg = negativeExamples.size();
+
+		// positive examples: the best case is that all remaining ones are covered
+		int tp = 0;
+		int fn = 0;
+		for (OWLIndividual example : positiveExamples) {
+			if (covered.test(example)) {
+				tp++;
+			} else {
+				fn++;
+				if (accuracyMethod.getAccOrTooWeak2(nrOfPos - fn, fn, 0, nrOfNeg, noise) == -1) {
+					logger.trace("too weak after " + (tp + fn) + " of " + nrOfPos + " positive examples");
+					return -1;
+				}
+			}
+			if (checkInterrupted && interrupted()) {
+				return -1;
+			}
+		}
+
+		// negative examples: the best case is that none of the remaining ones is covered
+		double minAccuracy = accuracyBound == null ? -1 : accuracyBound.getAsDouble();
+		int fp = 0;
+		int tn = 0;
+		for (OWLIndividual example : negativeExamples) {
+			if (covered.test(example)) {
+				fp++;
+				if (minAccuracy > 0) {
+					double maxAccuracy = accuracyMethod.getAccOrTooWeak2(tp, fn, fp, nrOfNeg - fp, noise);
+					if (maxAccuracy < minAccuracy) {
+						logger.trace("below accuracy bound after " + (fp + tn) + " of " + nrOfNeg + " negative examples");
+						return -1;
+					}
+				}
+			} else {
+				tn++;
+			}
+			if (checkInterrupted && interrupted()) {
+				return -1;
+			}
+		}
+
+		logger.trace("AccMethodIncremental: [" + tp + "," + fn + "," + fp + "," + tn + "]");
+		return accuracyMethod.getAccOrTooWeak2(tp, fn, fp, tn, noise);
+	}
+
+
+	private Predicate<OWLIndividual> coveredBy(OWLClassExpression description) {
+		if (reasoner.isUseInstanceChecks()) {
+			return example -> getReasoner().hasType(description, example);
+		}
+		SortedSet<OWLIndividual> individuals = reasoner.getIndividuals(description);
+		return individuals::contains;
+	}
+
+	/**
+	 * calculate accuracy of a concept which can only cover some of the examples, e.g. because it is a specialisation
+	 * of a concept covering exactly those examples. Only the candidates are checked, all other examples count as not
+	 * covered.
+	 * @param accuracyMethod accuracy method to use, must not be approximate
+	 * @param description concept to test
+	 * @param positiveExamples the positive examples, the bits of the positive bit sets are indices in this list
+	 * @param negativeExamples the negative examples, the bits of the negative bit sets are indices in this list
+	 * @param candidatePositives the positive examples which may be covered
+	 * @param candidateNegatives the negative examples which may be covered
+	 * @param coveredPositives receives the covered positive examples, complete only if the concept is not too weak
+	 * @param coveredNegatives receives the covered negative examples, complete only if the concept is not too weak
+	 * @param noise noise level of the data
+	 * @return -1 when the concept is too weak or the accuracy value as calculated by the accuracy method
+	 */
+	public double getAccuracyOrTooWeak2(AccMethodTwoValued accuracyMethod, OWLClassExpression description,
+	                                    List<OWLIndividual> positiveExamples, List<OWLIndividual> negativeExamples,
+	                                    BitSet candidatePositives, BitSet candidateNegatives,
+	                                    BitSet coveredPositives, BitSet coveredNegatives, double noise) {
+		int nrOfPos = positiveExamples.size();
+		int nrOfNeg = negativeExamples.size();
+
+		if (!isIncrementalEvaluationPossible()) {
+			Coverage[] cc = getCoverage(description,
+					toSet(positiveExamples, candidatePositives), toSet(negativeExamples, candidateNegatives));
+			if (cc == null) {
+				return -1;
+			}
+			toBitSet(positiveExamples, candidatePositives, cc[0].trueSet, coveredPositives);
+			toBitSet(negativeExamples, candidateNegatives, cc[1].trueSet, coveredNegatives);
+			return accuracyMethod.getAccOrTooWeak2(cc[0].trueCount, nrOfPos - cc[0].trueCount,
+					cc[1].trueCount, nrOfNeg - cc[1].trueCount, noise);
+		}
+
+		Predicate<OWLIndividual> covered = coveredBy(description);
+		boolean checkInterrupted = reasoner.isUseInstanceChecks();
+
+		// positive examples which are no candidates can not be covered
+		int tp = 0;
+		int fn = nrOfPos - candidatePositives.cardinality();
+		if (accuracyMethod.getAccOrTooWeak2(nrOfPos - fn, fn, 0, nrOfNeg, noise) == -1) {
+			return -1;
+		}
+		for (int i = candidatePositives.nextSetBit(0); i >= 0; i = candidatePositives.nextSetBit(i + 1)) {
+			if (covered.test(positiveExamples.get(i))) {
+				tp++;
+				coveredPositives.set(i);
+			} else {
+				fn++;
+				if (accuracyMethod.getAccOrTooWeak2(nrOfPos - fn, fn, 0, nrOfNeg, noise) == -1) {
+					return -1;
+				}
+			}
+			if (checkInterrupted && interrupted()) {
+				return -1;
+			}
+		}
+
+		double minAccuracy = accuracyBound == null ? -1 : accuracyBound.getAsDouble();
+		int fp = 0;
+		for (int i = candidateNegatives.nextSetBit(0); i >= 0; i = candidateNegatives.nextSetBit(i + 1)) {
+			if (covered.test(negativeExamples.get(i))) {
+				fp++;
+				coveredNegatives.set(i);
+				if (minAccuracy > 0 && accuracyMethod.getAccOrTooWeak2(tp, fn, fp, nrOfNeg - fp, noise) < minAccuracy) {
+					return -1;
+				}
+			}
+			if (checkInterrupted && interrupted()) {
+				return -1;
+			}
 		}
+
+		logger.trace("AccMethodRestricted: [" + tp + "," + fn + "," + fp + "," + (nrOfNeg - fp) + "]");
+		return accuracyMethod.getAccOrTooWeak2(tp, fn, fp, nrOfNeg - fp, noise);
 	}
 
+	private static Set<OWLIndividual> toSet(List<OWLIndividual> examples, BitSet bits) {
+		Set<OWLIndividual> set = new TreeSet<>();
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			set.add(examples.get(i));
+		}
+		return set;
+	}
+
+	private static void toBitSet(List<OWLIndividual> examples, BitSet candidates, Set<OWLIndividual> covered, BitSet bits) {
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			if (covered.contains(examples.get(i))) {
+				bits.set(i);
+			}
+		}
+	}
 
 	/**
 	 * wrapper to call accuracy method with coverage count
@@ -357,6 +626,49 @@ public class ReasoningUtils implements Component {
 		this.reasoner = reasoner;
 	}
 
+	/**
+	 * Set an executor to evaluate instance checks (see {@link AbstractReasonerComponent#isUseInstanceChecks()}) in
+	 * parallel batches. The threads of the executor share the reasoner of this object, thus the executor is only
+	 * used if the reasoner is {@link AbstractReasonerComponent#isThreadSafe() thread safe}, otherwise the examples
+	 * are checked sequentially. Learning algorithms set it via
+	 * {@link org.dllearner.core.AbstractCELA#setNrOfInstanceCheckThreads(int)}.
+	 * @param executor the executor or null for sequential evaluation
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * @param instanceCheckBatchSize the number of examples checked by one task of the executor; sets of at most
+	 * this size are evaluated on the calling thread
+	 */
+	public void setInstanceCheckBatchSize(int instanceCheckBatchSize) {
+		if (instanceCheckBatchSize < 1) {
+			throw new IllegalArgumentException("batch size must be positive");
+		}
+		this.instanceCheckBatchSize = instanceCheckBatchSize;
+	}
+
+	public int getInstanceCheckBatchSize() {
+		return instanceCheckBatchSize;
+	}
+
+	/**
+	 * Set a lower bound for the accuracy computed by
+	 * {@link #getAccuracyOrTooWeak2(AccMethodTwoValued, OWLClassExpression, Collection, Collection, double)}:
+	 * class expressions which can not reach it are reported as too weak, which allows to stop the evaluation of the
+	 * negative examples early.
+	 * @param accuracyBound supplier of the current bound (e.g. the accuracy of the worst class expression a learning
+	 * algorithm would still keep) or null to compute the accuracy of all class expressions which are not too weak
+	 */
+	public void setAccuracyBound(DoubleSupplier accuracyBound) {
+		this.accuracyBound = accuracyBound;
+	}
+
 	/**
 	 * helper method to create a set from a collection
 	 * @param collection
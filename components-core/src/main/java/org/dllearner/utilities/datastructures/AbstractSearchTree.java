@@ -21,6 +21,7 @@ package org.dllearner.utilities.datastructures;
 import org.dllearner.core.AbstractSearchTreeNode;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 public class AbstractSearchTree <T extends AbstractSearchTreeNode> {
 
@@ -32,6 +33,10 @@ public class AbstractSearchTree <T extends AbstractSearchTreeNode> {
 
 	// root of search tree
 	protected T root;
+
+	// the nodes which can be expanded (only maintained if a predicate is set)
+	protected NavigableSet<T> expandableNodes;
+	private Predicate<? super T> expandable;
 	
 	/**
 	 * create a new search tree
@@ -61,8 +66,12 @@ public class AbstractSearchTree <T extends AbstractSearchTreeNode> {
 	 */
 	public final void notifyNode(T node) {
 		if (node.getParent() == null || nodes.contains(node.getParent())) {
-			if (allowedNode(node))
+			if (allowedNode(node)) {
 				nodes.add(node);
+				if (expandableNodes != null && expandable.test(node)) {
+					expandableNodes.add(node);
+				}
+			}
 		}
 	}
 
@@ -92,11 +101,16 @@ public class AbstractSearchTree <T extends AbstractSearchTreeNode> {
 	 * @param node the node
 	 */
 	public final void updatePrepare(T node) {
-		for (T child : (Collection<T>)node.getChildren()) {
-			if (allowedNode(child))
-				updatePrepare(child);
+		if (isChildOrderDependent()) {
+			for (T child : (Collection<T>)node.getChildren()) {
+				if (allowedNode(child))
+					updatePrepare(child);
+			}
 		}
 		nodes.remove(node);
+		if (expandableNodes != null) {
+			expandableNodes.remove(node);
+		}
 	}
 	
 	/**
@@ -105,12 +119,84 @@ public class AbstractSearchTree <T extends AbstractSearchTreeNode> {
 	public final void updateDone(T node) {
 		if (allowedNode(node)) {
 			nodes.add(node);
-			for (T child : (Collection<T>)node.getChildren()) {
-				updateDone(child);
+			if (expandableNodes != null && expandable.test(node)) {
+				expandableNodes.add(node);
+			}
+			if (isChildOrderDependent()) {
+				for (T child : (Collection<T>)node.getChildren()) {
+					updateDone(child);
+				}
 			}
 		}
 	}
 
+	/**
+	 * whether the order of the children of a node may change when the node is modified, i.e.
+	 * whether {@link #updatePrepare} and {@link #updateDone} have to re-insert the whole subtree
+	 * @return true by default
+	 */
+	protected boolean isChildOrderDependent() {
+		return true;
+	}
+
+	/**
+	 * @return a new empty set for the nodes of this tree
+	 */
+	protected NavigableSet<T> createNodeSet() {
+		return new TreeSet<>(sortOrderComp);
+	}
+
+	/**
+	 * Keeps track of the nodes which can be expanded, i.e. which satisfy the given predicate, such that the best
+	 * of them can be found without iterating over all nodes which are already exhausted. The predicate is evaluated
+	 * when a node is added and in {@link #updateDone}, thus it must only depend on state which is modified between
+	 * {@link #updatePrepare} and {@link #updateDone}.
+	 * @param expandable the predicate or null to stop tracking expandable nodes
+	 */
+	public void setExpandablePredicate(Predicate<? super T> expandable) {
+		if (expandable == null) {
+			expandableNodes = null;
+			this.expandable = null;
+		} else {
+			this.expandable = expandable;
+			expandableNodes = createNodeSet();
+			for (T node : nodes) {
+				if (expandable.test(node)) {
+					expandableNodes.add(node);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the best expandable node according to comparator or null if there is no such node
+	 * @see #setExpandablePredicate(Predicate)
+	 */
+	public T bestExpandable() {
+		checkExpandable();
+		try {
+			return expandableNodes.last();
+		} catch (NoSuchElementException e) {
+			// empty (not checked beforehand since the set may be modified concurrently)
+			return null;
+		}
+	}
+
+	/**
+	 * @return an iterator over the expandable nodes in descending comparison order
+	 * @see #setExpandablePredicate(Predicate)
+	 */
+	public Iterator<T> descendingExpandableIterator() {
+		checkExpandable();
+		return expandableNodes.descendingIterator();
+	}
+
+	private void checkExpandable() {
+		if (expandableNodes == null) {
+			throw new IllegalStateException("Expandable nodes are not tracked, set a predicate first.");
+		}
+	}
+
 	/**
 	 * @return an iterator over the elements in this search tree in descending comparison order
 	 */
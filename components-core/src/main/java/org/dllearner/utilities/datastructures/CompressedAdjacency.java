@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable adjacency lists of a binary relation over the elements of a
+ * {@link DenseIndex}, stored in compressed sparse row format: the neighbours
+ * of node {@code i} are {@code getNeighbour(getStart(i))} to
+ * {@code getNeighbour(getEnd(i) - 1)}, in ascending order.
+ */
+public class CompressedAdjacency {
+
+	private final int[] offsets;
+	private final int[] neighbours;
+
+	private CompressedAdjacency(int[] offsets, int[] neighbours) {
+		this.offsets = offsets;
+		this.neighbours = neighbours;
+	}
+
+	/**
+	 * Builds the adjacency lists of the given subject to objects mapping.
+	 * Elements which are not part of the index are ignored.
+	 *
+	 * @param mapping the mapping
+	 * @param index the index of the elements
+	 * @return the adjacency lists
+	 */
+	public static <T extends Comparable<? super T>> CompressedAdjacency create(
+			Map<T, ? extends Collection<T>> mapping, DenseIndex<T> index) {
+		int[][] rows = new int[index.size()][];
+		for (Entry<T, ? extends Collection<T>> entry : mapping.entrySet()) {
+			int subject = index.getId(entry.getKey());
+			if (subject < 0) {
+				continue;
+			}
+			int[] row = new int[entry.getValue().size()];
+			int length = 0;
+			for (T object : entry.getValue()) {
+				int o = index.getId(object);
+				if (o >= 0) {
+					row[length++] = o;
+				}
+			}
+			Arrays.sort(row, 0, length);
+			// drop duplicates, the given collection does not have to be a set
+			int distinct = 0;
+			for (int i = 0; i < length; i++) {
+				if (distinct == 0 || row[i] != row[distinct - 1]) {
+					row[distinct++] = row[i];
+				}
+			}
+			rows[subject] = distinct == row.length ? row : Arrays.copyOf(row, distinct);
+		}
+		return create(rows);
+	}
+
+	/**
+	 * Builds the adjacency lists from the given rows.
+	 *
+	 * @param rows the neighbour IDs of each node in ascending order and without
+	 * duplicates, or <code>null</code> if a node has no neighbours
+	 * @return the adjacency lists
+	 */
+	public static CompressedAdjacency create(int[][] rows) {
+		int n = rows.length;
+		int[] offsets = new int[n + 1];
+		int nrOfEdges = 0;
+		for (int[] row : rows) {
+			if (row != null) {
+				nrOfEdges += row.length;
+			}
+		}
+		int[] neighbours = new int[nrOfEdges];
+		int pos = 0;
+		for (int i = 0; i < n; i++) {
+			offsets[i] = pos;
+			if (rows[i] != null) {
+				System.arraycopy(rows[i], 0, neighbours, pos, rows[i].length);
+				pos += rows[i].length;
+			}
+		}
+		offsets[n] = pos;
+		return new CompressedAdjacency(offsets, neighbours);
+	}
+
+	/**
+	 * Wraps the given arrays of a compressed sparse row encoding, e.g. as
+	 * obtained by {@link #getStart(int)} and {@link #getNeighbour(int)}. The
+	 * arrays are not copied.
+	 *
+	 * @param offsets the position of the first neighbour of each node, followed
+	 * by the number of edges
+	 * @param neighbours the neighbour IDs, sorted in ascending order per node
+	 * @return the adjacency lists
+	 */
+	public static CompressedAdjacency create(int[] offsets, int[] neighbours) {
+		if (offsets.length == 0 || offsets[offsets.length - 1] != neighbours.length) {
+			throw new IllegalArgumentException("Offsets do not match the number of neighbours.");
+		}
+		return new CompressedAdjacency(offsets, neighbours);
+	}
+
+	/**
+	 * @return the adjacency lists of the inverse relation
+	 */
+	public CompressedAdjacency inverse() {
+		int n = offsets.length - 1;
+		int[] invOffsets = new int[n + 1];
+		// count the incoming edges
+		for (int target : neighbours) {
+			invOffsets[target + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			invOffsets[i + 1] += invOffsets[i];
+		}
+		int[] fill = new int[n];
+		System.arraycopy(invOffsets, 0, fill, 0, n);
+		int[] invNeighbours = new int[neighbours.length];
+		// sources are visited in ascending order, thus the inverse rows are sorted as well
+		for (int source = 0; source < n; source++) {
+			for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+				invNeighbours[fill[neighbours[i]]++] = source;
+			}
+		}
+		return new CompressedAdjacency(invOffsets, invNeighbours);
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNrOfNodes() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * @return the number of edges
+	 */
+	public int getNrOfEdges() {
+		return neighbours.length;
+	}
+
+	/**
+	 * @param node the node ID
+	 * @return the position of the first neighbour of the node
+	 */
+	public int getStart(int node) {
+		return offsets[node];
+	}
+
+	/**
+	 * @param node the node ID
+	 * @return the position after the last neighbour of the node
+	 */
+	public int getEnd(int node) {
+		return offsets[node + 1];
+	}
+
+	/**
+	 * @param position the position in the neighbour array
+	 * @return the node ID at the given position
+	 */
+	public int getNeighbour(int position) {
+		return neighbours[position];
+	}
+
+	/**
+	 * @param node the node ID
+	 * @return the number of neighbours of the node
+	 */
+	public int getDegree(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	/**
+	 * @return the nodes which have at least one neighbour
+	 */
+	public BitSet getNonEmptyNodes() {
+		BitSet bits = new BitSet(getNrOfNodes());
+		for (int i = 0; i < getNrOfNodes(); i++) {
+			if (offsets[i + 1] > offsets[i]) {
+				bits.set(i);
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Computes the union of the neighbours of the given nodes. The costs are
+	 * proportional to the number of edges starting in the given set.
+	 *
+	 * @param nodes the set of nodes
+	 * @return all nodes which are neighbours of the given nodes
+	 */
+	public BitSet getNeighbours(BitSet nodes) {
+		BitSet result = new BitSet(getNrOfNodes());
+		int n = getNrOfNodes();
+		for (int node = nodes.nextSetBit(0); node >= 0 && node < n; node = nodes.nextSetBit(node + 1)) {
+			for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+				result.set(neighbours[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the neighbours of a single node which are contained in the given
+	 * set. The costs are proportional to the degree of the node.
+	 *
+	 * @param node the node ID
+	 * @param nodes the set of nodes
+	 * @return the number of neighbours of the node in the set
+	 */
+	public int countNeighbours(int node, BitSet nodes) {
+		int count = 0;
+		for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+			if (nodes.get(neighbours[i])) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
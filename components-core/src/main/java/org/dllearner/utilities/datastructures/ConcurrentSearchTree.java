@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.dllearner.core.AbstractSearchTreeNode;
+
+/**
+ * A search tree which can be modified and traversed by multiple threads without a global lock.
+ * The nodes are kept in a {@link ConcurrentSkipListSet}, i.e. iterators are weakly consistent
+ * and {@link #size()} is not a constant time operation.
+ * <p>
+ * The update protocol ({@link #updatePrepare} and {@link #updateDone}) only re-inserts the node
+ * itself, thus the score of a node must not depend on mutable state of its ancestors (as it is the
+ * case for the CELOE heuristics, which only use the accuracy of the parent). Concurrent updates
+ * of the same node have to be avoided by the caller, e.g. by letting only the thread which
+ * expands a node modify it.
+ *
+ * @param <T> the type of the tree nodes
+ */
+public class ConcurrentSearchTree<T extends AbstractSearchTreeNode> extends AbstractSearchTree<T> {
+
+	public ConcurrentSearchTree(Comparator<T> comparator) {
+		super(comparator);
+		nodes = new ConcurrentSkipListSet<>(sortOrderComp);
+	}
+
+	@Override
+	protected NavigableSet<T> createNodeSet() {
+		return new ConcurrentSkipListSet<>(sortOrderComp);
+	}
+
+	@Override
+	protected boolean isChildOrderDependent() {
+		return false;
+	}
+
+}
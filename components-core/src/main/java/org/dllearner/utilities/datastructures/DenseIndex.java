@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import java.util.*;
+
+/**
+ * Assigns a dense integer ID to each element of a fixed universe, such that
+ * subsets of the universe can be stored as {@link BitSet}s and intersection,
+ * union and complement become bit operations instead of comparator calls.
+ * IDs follow the natural ordering of the elements, thus converting a bit set
+ * back into a {@link TreeSet} does not need any comparisons.
+ *
+ * @param <T> The datatype (usually OWLIndividual).
+ */
+public class DenseIndex<T extends Comparable<? super T>> {
+
+	private final List<T> elements;
+	private final Map<T, Integer> ids;
+
+	/**
+	 * @param universe all elements that can be member of an indexed set
+	 */
+	public DenseIndex(SortedSet<T> universe) {
+		if (universe.comparator() != null) {
+			throw new IllegalArgumentException("Universe has to be sorted by natural ordering.");
+		}
+		elements = new ArrayList<>(universe);
+		ids = new HashMap<>(elements.size() * 4 / 3 + 1);
+		int id = 0;
+		for (T element : elements) {
+			ids.put(element, id++);
+		}
+	}
+
+	/**
+	 * @return the number of indexed elements
+	 */
+	public int size() {
+		return elements.size();
+	}
+
+	/**
+	 * @param element the element
+	 * @return the ID of the element or -1 if it is not part of the universe
+	 */
+	public int getId(T element) {
+		Integer id = ids.get(element);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id the ID
+	 * @return the element with the given ID
+	 */
+	public T get(int id) {
+		return elements.get(id);
+	}
+
+	/**
+	 * @param bits the bit set
+	 * @param element the element
+	 * @return whether the element is contained in the set encoded by the bits
+	 */
+	public boolean contains(BitSet bits, T element) {
+		int id = getId(element);
+		return id >= 0 && bits.get(id);
+	}
+
+	/**
+	 * Encodes a collection as bit set. Elements which are not part of the
+	 * universe are ignored.
+	 *
+	 * @param elements the elements
+	 * @return a new bit set
+	 */
+	public BitSet toBitSet(Collection<? extends T> elements) {
+		BitSet bits = new BitSet(size());
+		for (T element : elements) {
+			int id = getId(element);
+			if (id >= 0) {
+				bits.set(id);
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Decodes a bit set into a new (modifiable) sorted set.
+	 *
+	 * @param bits the bit set
+	 * @return a new sorted set
+	 */
+	public TreeSet<T> toSortedSet(BitSet bits) {
+		return new TreeSet<>(new SortedView(bits));
+	}
+
+	/**
+	 * Read-only view of a bit set in ID order. {@link TreeSet#TreeSet(SortedSet)}
+	 * only needs the size and the iterator of it to build a balanced tree in
+	 * linear time.
+	 */
+	private class SortedView extends AbstractSet<T> implements SortedSet<T> {
+
+		private final BitSet bits;
+		private final int size;
+
+		SortedView(BitSet bits) {
+			this.bits = bits;
+			this.size = bits.cardinality();
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return new Iterator<T>() {
+				int next = bits.nextSetBit(0);
+
+				@Override
+				public boolean hasNext() {
+					return next >= 0;
+				}
+
+				@Override
+				public T next() {
+					if (next < 0) {
+						throw new NoSuchElementException();
+					}
+					T element = elements.get(next);
+					next = bits.nextSetBit(next + 1);
+					return element;
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Comparator<? super T> comparator() {
+			return null;
+		}
+
+		@Override
+		public T first() {
+			if (size == 0) {
+				throw new NoSuchElementException();
+			}
+			return elements.get(bits.nextSetBit(0));
+		}
+
+		@Override
+		public T last() {
+			if (size == 0) {
+				throw new NoSuchElementException();
+			}
+			return elements.get(bits.length() - 1);
+		}
+
+		@Override
+		public SortedSet<T> subSet(T fromElement, T toElement) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public SortedSet<T> headSet(T toElement) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public SortedSet<T> tailSet(T fromElement) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
@@ -33,6 +33,9 @@ public class SearchTreeNonWeakPartialSet<T extends AbstractSearchTreeNode & Weak
 	@Override
 	public void retainAll(Collection<T> promisingNodes) {
 		this.nodes.retainAll(promisingNodes);
+		if (expandableNodes != null) {
+			expandableNodes.retainAll(promisingNodes);
+		}
 	}
 
 }
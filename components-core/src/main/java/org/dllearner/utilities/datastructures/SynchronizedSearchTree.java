@@ -19,6 +19,7 @@
 package org.dllearner.utilities.datastructures;
 
 import java.util.Comparator;
+import java.util.NavigableSet;
 import java.util.TreeSet;
 
 import org.dllearner.core.AbstractSearchTreeNode;
@@ -29,7 +30,12 @@ public class SynchronizedSearchTree<T extends AbstractSearchTreeNode> extends Ab
 
 	public SynchronizedSearchTree(Comparator<T> comparator) {
 		super(comparator);
-		nodes = Sets.synchronizedNavigableSet(new TreeSet<>(sortOrderComp));
+		nodes = createNodeSet();
+	}
+
+	@Override
+	protected NavigableSet<T> createNodeSet() {
+		return Sets.synchronizedNavigableSet(new TreeSet<>(sortOrderComp));
 	}
 
 }
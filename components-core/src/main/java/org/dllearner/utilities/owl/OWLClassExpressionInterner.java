@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.owl;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.semanticweb.owlapi.model.*;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Interns class expressions, i.e. assigns each structurally distinct class
+ * expression a unique int ID. Lookups are based on a 64-bit structural
+ * fingerprint, thus, unlike a {@link java.util.TreeSet}, no comparisons of
+ * class expressions are needed and only expressions with equal fingerprints
+ * are compared for equality.
+ * <p>
+ * Expressions are compared syntactically, hence they should be normalised
+ * beforehand (e.g. by {@link ConceptTransformation#nnf(OWLClassExpression)}
+ * as done by the refinement operators). The class is thread-safe, IDs are
+ * assigned in the order in which the expressions are added.
+ */
+public class OWLClassExpressionInterner {
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private static final class Entry {
+		private final OWLClassExpression expression;
+		private final int id;
+		private final Entry next;
+
+		private Entry(OWLClassExpression expression, int id, Entry next) {
+			this.expression = expression;
+			this.id = id;
+			this.next = next;
+		}
+	}
+
+	// fingerprint -> expressions with this fingerprint
+	private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+	// fingerprints of entities, which occur in most expressions
+	private final ConcurrentMap<OWLObject, Long> entityFingerprints = new ConcurrentHashMap<>();
+	private final AtomicInteger nextId = new AtomicInteger();
+
+	/**
+	 * @param ce the class expression
+	 * @return the ID of the class expression, which is newly assigned if it
+	 * has not been interned before
+	 */
+	public int intern(OWLClassExpression ce) {
+		return lookup(ce, true, null);
+	}
+
+	/**
+	 * Interns the class expression.
+	 *
+	 * @param ce the class expression
+	 * @return <code>true</code> if it has not been interned before
+	 */
+	public boolean add(OWLClassExpression ce) {
+		boolean[] created = new boolean[1];
+		lookup(ce, true, created);
+		return created[0];
+	}
+
+	/**
+	 * @param ce the class expression
+	 * @return the ID of the class expression or -1 if it has not been interned
+	 */
+	public int getId(OWLClassExpression ce) {
+		return lookup(ce, false, null);
+	}
+
+	/**
+	 * @param ce the class expression
+	 * @return whether the class expression has been interned
+	 */
+	public boolean contains(OWLClassExpression ce) {
+		return getId(ce) >= 0;
+	}
+
+	/**
+	 * @return the number of interned class expressions
+	 */
+	public int size() {
+		return nextId.get();
+	}
+
+	private int lookup(OWLClassExpression ce, boolean create, boolean[] created) {
+		long fingerprint = fingerprint(ce);
+		int id = find(entries.get(fingerprint), ce);
+		if (id >= 0 || !create) {
+			return id;
+		}
+		int[] result = new int[1];
+		entries.compute(fingerprint, (key, head) -> {
+			// another thread may have added it in the meantime
+			int existing = find(head, ce);
+			if (existing >= 0) {
+				result[0] = existing;
+				return head;
+			}
+			result[0] = nextId.getAndIncrement();
+			if (created != null) {
+				created[0] = true;
+			}
+			return new Entry(ce, result[0], head);
+		});
+		return result[0];
+	}
+
+	private static int find(Entry head, OWLClassExpression ce) {
+		for (Entry e = head; e != null; e = e.next) {
+			if (e.expression == ce || e.expression.equals(ce)) {
+				return e.id;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Computes a 64-bit fingerprint of the structure of a class expression.
+	 * Structurally equal class expressions have equal fingerprints, the
+	 * operands of intersections, unions and enumerations are combined
+	 * independently of their order.
+	 *
+	 * @param ce the class expression
+	 * @return the fingerprint
+	 */
+	public long fingerprint(OWLClassExpression ce) {
+		long type = ce.getClassExpressionType().ordinal() + 1;
+		if (ce instanceof OWLClass) {
+			return entityFingerprint((OWLClass) ce);
+		} else if (ce instanceof OWLNaryBooleanClassExpression) {
+			return mix(type, unordered(((OWLNaryBooleanClassExpression) ce).getOperandsAsList()));
+		} else if (ce instanceof OWLObjectOneOf) {
+			return mix(type, unordered(((OWLObjectOneOf) ce).getIndividuals()));
+		} else if (ce instanceof OWLObjectComplementOf) {
+			return mix(type, fingerprint(((OWLObjectComplementOf) ce).getOperand()));
+		} else if (ce instanceof OWLCardinalityRestriction) {
+			OWLCardinalityRestriction<?> r = (OWLCardinalityRestriction<?>) ce;
+			return mix(mix(mix(type, objectFingerprint(r.getProperty())), objectFingerprint(r.getFiller())),
+					r.getCardinality());
+		} else if (ce instanceof OWLQuantifiedRestriction) {
+			OWLQuantifiedRestriction<?> r = (OWLQuantifiedRestriction<?>) ce;
+			return mix(mix(type, objectFingerprint(r.getProperty())), objectFingerprint(r.getFiller()));
+		} else if (ce instanceof OWLHasValueRestriction) {
+			OWLHasValueRestriction<?> r = (OWLHasValueRestriction<?>) ce;
+			return mix(mix(type, objectFingerprint(r.getProperty())), objectFingerprint(r.getFiller()));
+		} else if (ce instanceof OWLObjectHasSelf) {
+			return mix(type, objectFingerprint(((OWLObjectHasSelf) ce).getProperty()));
+		}
+		return mix(type, stringFingerprint(ce.toString()));
+	}
+
+	private long objectFingerprint(OWLObject o) {
+		if (o instanceof OWLClassExpression) {
+			return fingerprint((OWLClassExpression) o);
+		} else if (o instanceof OWLEntity) {
+			return entityFingerprint((OWLEntity) o);
+		} else if (o instanceof OWLObjectInverseOf) {
+			return mix(-1, objectFingerprint(((OWLObjectInverseOf) o).getInverse()));
+		}
+		// literals, anonymous individuals and data ranges
+		return stringFingerprint(o.toString());
+	}
+
+	private long entityFingerprint(OWLEntity entity) {
+		Long fingerprint = entityFingerprints.get(entity);
+		if (fingerprint == null) {
+			fingerprint = mix(entity.getEntityType().hashCode(), stringFingerprint(entity.toStringID()));
+			entityFingerprints.put(entity, fingerprint);
+		}
+		return fingerprint;
+	}
+
+	private long unordered(Collection<? extends OWLObject> operands) {
+		long sum = 0;
+		for (OWLObject operand : operands) {
+			sum += mix(0, objectFingerprint(operand));
+		}
+		return sum;
+	}
+
+	private static long stringFingerprint(String s) {
+		return HASH_FUNCTION.hashUnencodedChars(s).asLong();
+	}
+
+	// combination based on the finalisation step of MurmurHash3
+	private static long mix(long h, long value) {
+		long k = h * 0x9E3779B97F4A7C15L + value;
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+}
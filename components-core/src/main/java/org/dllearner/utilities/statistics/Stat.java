@@ -87,7 +87,7 @@ public class Stat {
      * @param number
      *            The new number.
      */
-    public void addNumber(double number) {
+    public synchronized void addNumber(double number) {
         count++;
         sum += number;
         squareSum += number * number;
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.celoe;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.learningproblems.PosNegLPStandard;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.PrefixManager;
+import org.semanticweb.owlapi.util.DefaultPrefixManager;
+
+public class PCELOETest {
+
+	@Test
+	public void testExpandAccuracy100Nodes() throws Exception {
+		assertEquals(1.0, learn(true), 0.000000001d);
+	}
+
+	@Test
+	public void testDefault() throws Exception {
+		assertEquals(1.0, learn(false), 0.000000001d);
+	}
+
+	/**
+	 * Learns A0 and A1, which needs a second horizontal expansion of A0.
+	 *
+	 * @return the accuracy of the best class expression
+	 */
+	private double learn(boolean expandAccuracy100Nodes) throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLOntology kb = man.createOntology();
+		PrefixManager pm = new DefaultPrefixManager();
+		pm.setDefaultPrefix("http://dl-learner.org/junit/");
+
+		OWLClass a0 = df.getOWLClass("A0", pm);
+		OWLClass a1 = df.getOWLClass("A1", pm);
+		OWLIndividual[] ind = new OWLIndividual[6];
+		for(int i=0; i<ind.length; i++) {
+			ind[i] = df.getOWLNamedIndividual("i" + i, pm);
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(i < 4 ? a0 : df.getOWLThing(), ind[i]));
+			if(i >= 2) {
+				man.addAxiom(kb, df.getOWLClassAssertionAxiom(a1, ind[i]));
+			}
+		}
+
+		AbstractReasonerComponent reasoner = new ClosedWorldReasoner(new OWLAPIOntology(kb));
+		reasoner.init();
+
+		SortedSet<OWLIndividual> posExamples = new TreeSet<>();
+		posExamples.add(ind[2]);
+		posExamples.add(ind[3]);
+		SortedSet<OWLIndividual> negExamples = new TreeSet<>();
+		negExamples.add(ind[0]);
+		negExamples.add(ind[1]);
+		negExamples.add(ind[4]);
+		negExamples.add(ind[5]);
+
+		PosNegLPStandard lp = new PosNegLPStandard(reasoner, posExamples, negExamples);
+		lp.init();
+
+		PCELOE alg = new PCELOE(lp, reasoner);
+		alg.setExpandAccuracy100Nodes(expandAccuracy100Nodes);
+		alg.setNrOfThreads(2);
+		alg.setMaxExecutionTimeInSeconds(10);
+		alg.setStopOnFirstDefinition(true);
+		alg.init();
+		alg.start();
+
+		return alg.getCurrentlyBestAccuracy();
+	}
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl;
+
+import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.core.EvaluatedDescription;
+import org.dllearner.learningproblems.PosNegLPStandard;
+import org.dllearner.learningproblems.QueryTreeScore;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import uk.ac.manchester.cs.owl.owlapi.OWLNamedIndividualImpl;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class QTL2DisjunctiveMultiThreadedTest {
+
+	private static final String NS = "http://test.org/";
+
+	private static Node uri(String localName) {
+		return NodeFactory.createURI(NS + localName);
+	}
+
+	private static OWLIndividual individual(String localName) {
+		return new OWLNamedIndividualImpl(IRI.create(NS + localName));
+	}
+
+	// ? -type-> class, ? -genre-> genre, ? -label-> "name"
+	private static RDFResourceTree tree(String name, String cls, String genre) {
+		RDFResourceTree tree = new RDFResourceTree(uri(name));
+		tree.addChild(new RDFResourceTree(uri(cls)), RDF.type.asNode());
+		tree.addChild(new RDFResourceTree(uri(genre)), uri("genre"));
+		tree.addChild(new RDFResourceTree(NodeFactory.createLiteral(name)), uri("label"));
+		return tree;
+	}
+
+	private EvaluatedDescription run(int nrOfThreads) throws Exception {
+		Map<OWLIndividual, RDFResourceTree> posExampleTrees = new LinkedHashMap<>();
+		posExampleTrees.put(individual("p1"), tree("p1", "Book", "Fantasy"));
+		posExampleTrees.put(individual("p2"), tree("p2", "Book", "Fantasy"));
+		posExampleTrees.put(individual("p3"), tree("p3", "Book", "Fantasy"));
+		posExampleTrees.put(individual("p4"), tree("p4", "Book", "Crime"));
+		Map<OWLIndividual, RDFResourceTree> negExampleTrees = new LinkedHashMap<>();
+		negExampleTrees.put(individual("n1"), tree("n1", "Book", "Crime"));
+		negExampleTrees.put(individual("n2"), tree("n2", "Book", "Crime"));
+
+		PosNegLPStandard lp = new PosNegLPStandard();
+		lp.setPositiveExamples(new TreeSet<>(posExampleTrees.keySet()));
+		lp.setNegativeExamples(new TreeSet<>(negExampleTrees.keySet()));
+
+		QTL2DisjunctiveMultiThreaded la = new QTL2DisjunctiveMultiThreaded(lp,
+				new QueryExecutionFactoryModel(ModelFactory.createDefaultModel()));
+		la.setPositiveExampleTrees(posExampleTrees);
+		la.setNegativeExampleTrees(negExampleTrees);
+		la.setNrOfThreads(nrOfThreads);
+		la.init();
+		la.start();
+
+		return la.getCurrentlyBestEvaluatedDescription();
+	}
+
+	@Test
+	public void testSchedulerIsDeterministic() throws Exception {
+		EvaluatedDescription expected = run(1);
+
+		// the examples sharing the genre are covered, but neither the remaining one nor the negative examples
+		QueryTreeScore score = (QueryTreeScore) expected.getScore();
+		assertEquals(new TreeSet<>(Arrays.asList(individual("p1"), individual("p2"), individual("p3"))),
+				score.getCoveredPositives());
+		assertEquals(Collections.emptySet(), score.getCoveredNegatives());
+
+		// the computations complete in arbitrary order, which must not change the solution
+		for (int i = 0; i < 5; i++) {
+			EvaluatedDescription actual = run(4);
+			assertEquals(expected.getDescription(), actual.getDescription());
+			assertEquals(expected.getAccuracy(), actual.getAccuracy(), 0d);
+		}
+	}
+}
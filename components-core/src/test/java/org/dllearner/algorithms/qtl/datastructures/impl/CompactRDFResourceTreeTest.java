@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.datastructures.impl;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.NodeInv;
+import org.dllearner.algorithms.qtl.operations.lgg.CompactLGGGenerator;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorSimple;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompactRDFResourceTreeTest {
+
+	private static final String NS = "http://test.org/";
+
+	private static Node uri(String localName) {
+		return NodeFactory.createURI(NS + localName);
+	}
+
+	@Test
+	public void testConversion() throws IOException {
+		TermDictionary dictionary = new TermDictionary();
+		Random rnd = new Random(42);
+		List<RDFResourceTree> trees = new ArrayList<>();
+		List<CompactRDFResourceTree> compactTrees = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			RDFResourceTree tree = randomTree(rnd, 3);
+			CompactRDFResourceTree compactTree = CompactRDFResourceTree.of(tree, dictionary);
+			assertEquals(QueryTreeUtils.getNrOfNodes(tree), compactTree.size());
+			assertEquals(canonical(tree), canonical(compactTree.toRDFResourceTree()));
+			trees.add(tree);
+			compactTrees.add(compactTree);
+		}
+
+		// write and read the dictionary and the trees
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			dictionary.write(out);
+			for (CompactRDFResourceTree compactTree : compactTrees) {
+				compactTree.write(out);
+			}
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			TermDictionary readDictionary = TermDictionary.read(in);
+			assertEquals(dictionary.size(), readDictionary.size());
+			for (RDFResourceTree tree : trees) {
+				CompactRDFResourceTree readTree = CompactRDFResourceTree.read(in, readDictionary);
+				assertEquals(canonical(tree), canonical(readTree.toRDFResourceTree()));
+			}
+		}
+	}
+
+	@Test
+	public void testSubsumption() {
+		TermDictionary dictionary = new TermDictionary();
+		Random rnd = new Random(42);
+		List<RDFResourceTree> trees = new ArrayList<>();
+		List<CompactRDFResourceTree> compactTrees = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			RDFResourceTree tree = randomTree(rnd, 3);
+			trees.add(tree);
+			compactTrees.add(CompactRDFResourceTree.of(tree, dictionary));
+		}
+
+		int subsumed = 0;
+		for (int i = 0; i < trees.size(); i++) {
+			for (int j = 0; j < trees.size(); j++) {
+				boolean expected = QueryTreeUtils.isSubsumedBy(trees.get(i), trees.get(j));
+				assertEquals(expected, QueryTreeUtils.isSubsumedBy(compactTrees.get(i), compactTrees.get(j)));
+				if (expected) {
+					subsumed++;
+				}
+			}
+		}
+		assertTrue(subsumed > trees.size());
+	}
+
+	@Test
+	public void testLookup() {
+		TermDictionary dictionary = new TermDictionary();
+		Random rnd = new Random(42);
+		List<RDFResourceTree> examples = new ArrayList<>();
+		List<CompactRDFResourceTree> compactExamples = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			RDFResourceTree tree = randomTree(rnd, 3);
+			examples.add(tree);
+			compactExamples.add(CompactRDFResourceTree.of(tree, dictionary));
+		}
+		int dictionarySize = dictionary.size();
+
+		for (int i = 0; i < 50; i++) {
+			RDFResourceTree tree = randomTree(rnd, 2);
+			if (i % 2 == 0) {
+				// terms which are not contained in any example
+				tree.addChild(new RDFResourceTree(uri("unknown")), uri("q" + i % 3));
+			}
+			CompactRDFResourceTree compactTree = CompactRDFResourceTree.lookup(tree, dictionary);
+			assertEquals(canonical(tree), canonical(compactTree.toRDFResourceTree()));
+			for (int j = 0; j < examples.size(); j++) {
+				assertEquals(QueryTreeUtils.isSubsumedBy(examples.get(j), tree),
+						compactExamples.get(j).isSubsumedBy(compactTree));
+			}
+		}
+		assertEquals(dictionarySize, dictionary.size());
+	}
+
+	@Test
+	public void testLGG() {
+		TermDictionary dictionary = new TermDictionary();
+		CompactLGGGenerator compactLggGen = new CompactLGGGenerator();
+		LGGGeneratorSimple lggGen = new LGGGeneratorSimple();
+		Random rnd = new Random(42);
+		for (int i = 0; i < 100; i++) {
+			RDFResourceTree tree1 = randomTree(rnd, 3);
+			RDFResourceTree tree2 = randomTree(rnd, 3);
+
+			CompactRDFResourceTree lgg = compactLggGen.getLGG(
+					CompactRDFResourceTree.of(tree1, dictionary), CompactRDFResourceTree.of(tree2, dictionary));
+
+			assertEquals(canonical(lggGen.getLGG(tree1, tree2)), canonical(lgg.toRDFResourceTree()));
+		}
+	}
+
+	@Test
+	public void testSPARQLQuery() {
+		// ?s -p0-> ?x0 -type-> A, ?s -p1-> "1", ?s <-p2- B
+		RDFResourceTree tree = new RDFResourceTree();
+		RDFResourceTree child = new RDFResourceTree();
+		child.addChild(new RDFResourceTree(uri("A")), RDF.type.asNode());
+		tree.addChild(child, uri("p0"));
+		tree.addChild(new RDFResourceTree(NodeFactory.createLiteral("1", XSDDatatype.XSDinteger)), uri("p1"));
+		tree.addChild(new RDFResourceTree(uri("B")), new NodeInv(uri("p2")));
+
+		CompactRDFResourceTree compactTree = CompactRDFResourceTree.of(tree, new TermDictionary());
+		assertEquals(QueryTreeUtils.toSPARQLQueryString(tree), QueryTreeUtils.toSPARQLQueryString(compactTree));
+
+		assertEquals(QueryTreeUtils.EMPTY_QUERY_TREE_QUERY,
+				QueryTreeUtils.toSPARQLQueryString(CompactRDFResourceTree.of(new RDFResourceTree(), new TermDictionary())));
+	}
+
+	private static RDFResourceTree randomTree(Random rnd, int depth) {
+		int type = rnd.nextInt(6);
+		RDFResourceTree tree;
+		if (type == 0) {
+			tree = new RDFResourceTree(NodeFactory.createLiteral(String.valueOf(rnd.nextInt(2)),
+					rnd.nextBoolean() ? XSDDatatype.XSDinteger : XSDDatatype.XSDstring));
+		} else if (type == 1) {
+			tree = new RDFResourceTree(XSDDatatype.XSDinteger);
+		} else if (type == 2) {
+			tree = new RDFResourceTree(uri("R" + rnd.nextInt(3)));
+		} else {
+			tree = new RDFResourceTree();
+		}
+		if (depth > 0 && !tree.isLiteralNode()) {
+			int nrOfChildren = rnd.nextInt(4);
+			for (int i = 0; i < nrOfChildren; i++) {
+				int edge = rnd.nextInt(3);
+				Node edgeNode = edge == 2 ? new NodeInv(uri("p0")) : uri("p" + edge);
+				tree.addChild(randomTree(rnd, depth - 1), edgeNode);
+			}
+		}
+		return tree;
+	}
+
+	// a string representation which is the same for trees of the same structure
+	private static String canonical(RDFResourceTree tree) {
+		List<String> children = new ArrayList<>();
+		for (Node edge : tree.getEdges()) {
+			for (RDFResourceTree child : tree.getChildren(edge)) {
+				children.add(edge + (edge instanceof NodeInv ? "^-1" : "") + "->" + canonical(child));
+			}
+		}
+		Collections.sort(children);
+		return tree.getData() + "^^" + (tree.getDatatype() == null ? null : tree.getDatatype().getURI()) + children;
+	}
+
+}
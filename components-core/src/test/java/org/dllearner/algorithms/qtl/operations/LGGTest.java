@@ -37,6 +37,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
 import static org.junit.Assert.assertTrue;
@@ -178,6 +179,40 @@ public class LGGTest {
 //		System.out.println(lggSimple.getStringRepresentation());
 	}
 	
+	@Test
+	public void testParallel() {
+		Model model = ModelFactory.createDefaultModel();
+		RDFDataMgr.read(
+				model,
+				this.getClass().getClassLoader().getResourceAsStream("org/dllearner/algorithms/qtl/dbpedia-Awolnation.ttl"),
+				Lang.TURTLE);
+		RDFDataMgr.read(
+				model,
+				this.getClass().getClassLoader().getResourceAsStream("org/dllearner/algorithms/qtl/dbpedia-Big_Star.ttl"),
+				Lang.TURTLE);
+
+		RDFResourceTree tree1 = treeFactory.getQueryTree("http://dbpedia.org/resource/Awolnation", model);
+		RDFResourceTree tree2 = treeFactory.getQueryTree("http://dbpedia.org/resource/Big_Star", model);
+
+		RDFResourceTree lgg = new LGGGeneratorSimple().getLGG(tree1, tree2);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			LGGGeneratorSimple lggGen = new LGGGeneratorSimple();
+			lggGen.setForkJoinPool(pool);
+			lggGen.setParallelismThreshold(10);
+			RDFResourceTree lggParallel = lggGen.getLGG(
+					treeFactory.getQueryTree("http://dbpedia.org/resource/Awolnation", model),
+					treeFactory.getQueryTree("http://dbpedia.org/resource/Big_Star", model));
+
+			assertTrue(QueryTreeUtils.sameTrees(lgg, lggParallel));
+			assertTrue(QueryTreeUtils.isSubsumedBy(lggParallel, lgg, pool, 10));
+			assertTrue(QueryTreeUtils.isSubsumedBy(lgg, lggParallel, pool, 10));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
 //	@Test
 	public void correctness() {
 		treeFactory.setMaxDepth(2);
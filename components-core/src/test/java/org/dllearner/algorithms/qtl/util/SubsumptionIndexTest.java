@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.util;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.TermDictionary;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SubsumptionIndexTest {
+
+	private static final String NS = "http://test.org/";
+
+	private static Node uri(String localName) {
+		return NodeFactory.createURI(NS + localName);
+	}
+
+	@Test
+	public void testCandidates() {
+		// a1 -r-> A, a1 -s-> B
+		RDFResourceTree tree1 = new RDFResourceTree(uri("a1"));
+		tree1.addChild(new RDFResourceTree(uri("A")), uri("r"));
+		tree1.addChild(new RDFResourceTree(uri("B")), uri("s"));
+		// a2 -r-> B
+		RDFResourceTree tree2 = new RDFResourceTree(uri("a2"));
+		tree2.addChild(new RDFResourceTree(uri("B")), uri("r"));
+		// a3 -r-> ? -s-> "1"
+		RDFResourceTree tree3 = new RDFResourceTree(uri("a3"));
+		RDFResourceTree child = new RDFResourceTree();
+		child.addChild(new RDFResourceTree(NodeFactory.createLiteral("1", XSDDatatype.XSDinteger)), uri("s"));
+		tree3.addChild(child, uri("r"));
+
+		SubsumptionIndex index = new SubsumptionIndex(Arrays.asList(tree1, tree2, tree3));
+
+		// ? -r-> ?
+		RDFResourceTree query = new RDFResourceTree();
+		query.addChild(new RDFResourceTree(), uri("r"));
+		assertEquals(bits(0, 1, 2), index.getCandidates(query));
+
+		// ? -r-> A
+		query = new RDFResourceTree();
+		query.addChild(new RDFResourceTree(uri("A")), uri("r"));
+		assertEquals(bits(0), index.getCandidates(query));
+
+		// ? -s-> ?
+		query = new RDFResourceTree();
+		query.addChild(new RDFResourceTree(), uri("s"));
+		BitSet candidates = index.getCandidates(query);
+		assertEquals(bits(0), candidates);
+		assertTrue(index.isCandidate(candidates, tree1));
+		assertFalse(index.isCandidate(candidates, tree2));
+		assertTrue(index.isCandidate(candidates, new RDFResourceTree()));
+
+		// ? -r-> ? -s-> ?
+		query = new RDFResourceTree();
+		child = new RDFResourceTree();
+		child.addChild(new RDFResourceTree(), uri("s"));
+		query.addChild(child, uri("r"));
+		assertEquals(bits(2), index.getCandidates(query));
+
+		// ? -t-> ? only matches with t as a super-property of r
+		query = new RDFResourceTree();
+		query.addChild(new RDFResourceTree(), uri("t"));
+		assertTrue(index.getCandidates(query).isEmpty());
+		assertEquals(bits(0, 1, 2), index.getCandidates(query,
+				edge -> edge.equals(uri("t")) ? Arrays.asList(uri("t"), uri("r")) : Collections.singleton(edge)));
+	}
+
+	@Test
+	public void testSoundness() {
+		Random rnd = new Random(42);
+		List<RDFResourceTree> examples = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			examples.add(randomTree(rnd, 3, true));
+		}
+		SubsumptionIndex index = new SubsumptionIndex(examples);
+
+		int subsumed = 0;
+		for (int i = 0; i < 200; i++) {
+			RDFResourceTree query = randomTree(rnd, 3, false);
+			BitSet candidates = index.getCandidates(query);
+			for (RDFResourceTree example : examples) {
+				if (QueryTreeUtils.isSubsumedBy(example, query)) {
+					assertTrue(index.isCandidate(candidates, example));
+					subsumed++;
+				}
+			}
+		}
+		assertTrue(subsumed > 0);
+	}
+
+	@Test
+	public void testCompactTrees() {
+		Random rnd = new Random(42);
+		TermDictionary dictionary = new TermDictionary();
+		List<RDFResourceTree> examples = new ArrayList<>();
+		List<CompactRDFResourceTree> compactExamples = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			RDFResourceTree example = randomTree(rnd, 3, true);
+			examples.add(example);
+			compactExamples.add(CompactRDFResourceTree.of(example, dictionary));
+		}
+		SubsumptionIndex index = new SubsumptionIndex(examples);
+		SubsumptionIndex compactIndex = SubsumptionIndex.of(compactExamples);
+
+		for (int i = 0; i < 200; i++) {
+			RDFResourceTree query = randomTree(rnd, 3, false);
+			BitSet candidates = compactIndex.getCandidates(query);
+			assertEquals(index.getCandidates(query), candidates);
+			for (int j = 0; j < examples.size(); j++) {
+				assertEquals(index.isCandidate(candidates, examples.get(j)),
+						compactIndex.isCandidate(candidates, compactExamples.get(j)));
+			}
+		}
+	}
+
+	private static RDFResourceTree randomTree(Random rnd, int depth, boolean example) {
+		int type = rnd.nextInt(example ? 4 : 6);
+		RDFResourceTree tree;
+		if (type == 0) {
+			tree = new RDFResourceTree(NodeFactory.createLiteral(String.valueOf(rnd.nextInt(2)), XSDDatatype.XSDinteger));
+		} else if (type == 1) {
+			tree = new RDFResourceTree(uri("R" + rnd.nextInt(3)));
+		} else if (example) {
+			tree = new RDFResourceTree(uri("R" + rnd.nextInt(3)));
+		} else {
+			tree = new RDFResourceTree();
+		}
+		if (depth > 0 && !tree.isLiteralNode()) {
+			int nrOfChildren = rnd.nextInt(example ? 4 : 3);
+			for (int i = 0; i < nrOfChildren; i++) {
+				tree.addChild(randomTree(rnd, depth - 1, example), uri("p" + rnd.nextInt(2)));
+			}
+		}
+		return tree;
+	}
+
+	private static BitSet bits(int... ids) {
+		BitSet bits = new BitSet();
+		for (int id : ids) {
+			bits.set(id);
+		}
+		return bits;
+	}
+
+}
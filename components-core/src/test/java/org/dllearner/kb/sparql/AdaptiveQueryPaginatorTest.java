@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aksw.jena_sparql_api.core.QueryExecutionFactoryDecorator;
+import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.sparql.engine.http.QueryExceptionHTTP;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveQueryPaginatorTest {
+
+	private static final String NS = "http://dl-learner.org/test#";
+
+	private Model model;
+
+	/**
+	 * Records the limits of the executed queries and fails the first requests
+	 * with the given HTTP response code.
+	 */
+	private static class TestQueryExecutionFactory extends QueryExecutionFactoryDecorator {
+
+		private final List<Long> limits = new ArrayList<>();
+		private final AtomicInteger failures;
+		private final int responseCode;
+
+		TestQueryExecutionFactory(Model model, int failures, int responseCode) {
+			super(new QueryExecutionFactoryModel(model));
+			this.failures = new AtomicInteger(failures);
+			this.responseCode = responseCode;
+		}
+
+		@Override
+		public QueryExecution createQueryExecution(Query query) {
+			limits.add(query.getLimit());
+			if (failures.getAndDecrement() > 0) {
+				throw new QueryExceptionHTTP(responseCode);
+			}
+			return super.createQueryExecution(query);
+		}
+
+		@Override
+		public QueryExecution createQueryExecution(String queryString) {
+			if (failures.getAndDecrement() > 0) {
+				throw new QueryExceptionHTTP(responseCode);
+			}
+			return super.createQueryExecution(queryString);
+		}
+	}
+
+	@Before
+	public void setUp() {
+		model = ModelFactory.createDefaultModel();
+		Property p = model.createProperty(NS + "p");
+		for (int i = 0; i < 1050; i++) {
+			model.add(model.createResource(NS + "s" + i), p, model.createResource(NS + "o" + i));
+		}
+	}
+
+	private Set<String> subjects(ResultSet rs) {
+		Set<String> subjects = new HashSet<>();
+		while (rs.hasNext()) {
+			subjects.add(rs.next().getResource("s").getURI());
+		}
+		return subjects;
+	}
+
+	@Test
+	public void testSelectPages() {
+		TestQueryExecutionFactory qef = new TestQueryExecutionFactory(model, 0, 0);
+		AdaptiveQueryPaginator paginator = new AdaptiveQueryPaginator(qef, 100, 10, 60000);
+		paginator.setAdaptive(false);
+
+		ResultSet rs = paginator.execSelect("SELECT ?s WHERE {?s ?p ?o} ORDER BY ?s", -1, TimeUnit.MILLISECONDS);
+		// only the first page has been requested so far
+		assertEquals(1, qef.limits.size());
+		assertEquals(1050, subjects(rs).size());
+		assertEquals(11, qef.limits.size());
+
+		// the limit of the query is kept
+		assertEquals(250, subjects(paginator.execSelect(
+				"SELECT ?s WHERE {?s ?p ?o} ORDER BY ?s LIMIT 250", -1, TimeUnit.MILLISECONDS)).size());
+		assertEquals(50, (long) qef.limits.get(qef.limits.size() - 1));
+	}
+
+	@Test
+	public void testServerErrorShrinksPage() {
+		TestQueryExecutionFactory qef = new TestQueryExecutionFactory(model, 2, 500);
+		AdaptiveQueryPaginator paginator = new AdaptiveQueryPaginator(qef, 1000, 100, 60000);
+
+		assertEquals(1050, subjects(paginator.execSelect("SELECT ?s WHERE {?s ?p ?o}", -1, TimeUnit.MILLISECONDS)).size());
+		assertEquals(1000, (long) qef.limits.get(0));
+		assertEquals(500, (long) qef.limits.get(1));
+		assertEquals(250, (long) qef.limits.get(2));
+		// fast pages let the page size grow again
+		assertEquals(500, (long) qef.limits.get(3));
+		assertEquals(1000, paginator.getPageSize());
+	}
+
+	@Test
+	public void testOverloadDelaysRequests() {
+		TestQueryExecutionFactory qef = new TestQueryExecutionFactory(model, 2, 503);
+		AdaptiveQueryPaginator paginator = new AdaptiveQueryPaginator(qef);
+
+		assertTrue(paginator.execAsk("ASK {?s ?p ?o}"));
+		assertTrue(paginator.getDelay() > 0);
+		// successful requests reduce the delay
+		assertFalse(paginator.execAsk("ASK {?s <" + NS + "q> ?o}"));
+		assertEquals(0, paginator.getDelay());
+	}
+
+	@Test
+	public void testConstruct() {
+		TestQueryExecutionFactory qef = new TestQueryExecutionFactory(model, 0, 0);
+		AdaptiveQueryPaginator paginator = new AdaptiveQueryPaginator(qef, 100, 10, 60000);
+
+		Model result = paginator.execConstruct("CONSTRUCT {?s ?p ?o} WHERE {?s ?p ?o}", -1, TimeUnit.MILLISECONDS);
+		assertTrue(result.isIsomorphicWith(model));
+	}
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CachingConciseBoundedDescriptionGeneratorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Returns a CBD with one triple per depth and counts the requests.
+	 */
+	private static class CountingGenerator implements ConciseBoundedDescriptionGenerator {
+		final AtomicInteger nrOfRequests = new AtomicInteger();
+
+		@Override
+		public Model getConciseBoundedDescription(String resourceURI, int depth, boolean withTypesForLeafs) {
+			nrOfRequests.incrementAndGet();
+			Model cbd = ModelFactory.createDefaultModel();
+			Resource r = cbd.createResource(resourceURI);
+			for (int i = 0; i < depth; i++) {
+				cbd.add(r, RDFS.label, "label" + i);
+			}
+			if (withTypesForLeafs) {
+				cbd.add(r, RDF.type, RDFS.Resource);
+			}
+			return cbd;
+		}
+
+		@Override
+		public void addAllowedPropertyNamespaces(Set<String> namespaces) {}
+
+		@Override
+		public void addAllowedObjectNamespaces(Set<String> namespaces) {}
+
+		@Override
+		public void addPropertiesToIgnore(Set<String> properties) {}
+	}
+
+	private static final String A = "http://dl-learner.org/test#a";
+	private static final String B = "http://dl-learner.org/test#b";
+
+	@Test
+	public void testMemoryCache() {
+		CountingGenerator delegatee = new CountingGenerator();
+		CachingConciseBoundedDescriptionGenerator cbdGen = new CachingConciseBoundedDescriptionGenerator(delegatee);
+
+		Model cbd = cbdGen.getConciseBoundedDescription(A, 2);
+		assertSame(cbd, cbdGen.getConciseBoundedDescription(A, 2));
+		assertEquals(1, delegatee.nrOfRequests.get());
+
+		// different depth and filters are different CBDs
+		assertEquals(3, cbdGen.getConciseBoundedDescription(A, 3).size());
+		cbdGen.addPropertiesToIgnore(Collections.singleton(RDFS.comment.getURI()));
+		cbdGen.getConciseBoundedDescription(A, 2);
+		assertEquals(3, delegatee.nrOfRequests.get());
+
+		Map<String, Model> cbds = cbdGen.getConciseBoundedDescriptions(Arrays.asList(A, B), 2, false);
+		assertEquals(Arrays.asList(A, B), Arrays.asList(cbds.keySet().toArray()));
+		assertEquals(4, delegatee.nrOfRequests.get());
+		assertTrue(cbdGen.getHitRate() > 0);
+	}
+
+	@Test
+	public void testDiskCache() throws Exception {
+		File dir = folder.newFolder();
+		CountingGenerator delegatee = new CountingGenerator();
+		CachingConciseBoundedDescriptionGenerator cbdGen = new CachingConciseBoundedDescriptionGenerator(
+				delegatee, 1000, dir, 1, TimeUnit.DAYS);
+		Model cbd = cbdGen.getConciseBoundedDescription(A, 2, true);
+		cbdGen.getConciseBoundedDescription(B, 2, true);
+
+		// loaded from disk on creation
+		cbdGen = new CachingConciseBoundedDescriptionGenerator(delegatee, 1000, dir, 1, TimeUnit.DAYS);
+		assertTrue(cbd.isIsomorphicWith(cbdGen.getConciseBoundedDescription(A, 2, true)));
+		assertEquals(1, cbdGen.getStats().hitCount());
+
+		// read from disk on demand if not in memory
+		cbdGen.clear();
+		assertTrue(cbd.isIsomorphicWith(cbdGen.getConciseBoundedDescription(A, 2, true)));
+		assertEquals(1, cbdGen.getDiskHitCount());
+		assertEquals(2, delegatee.nrOfRequests.get());
+	}
+
+}
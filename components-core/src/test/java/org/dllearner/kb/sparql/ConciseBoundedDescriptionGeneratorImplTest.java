@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.Test;
+
+/**
+ * Checks that the CBDs requested in batches are the same as the ones
+ * requested for each resource separately.
+ */
+public class ConciseBoundedDescriptionGeneratorImplTest {
+
+	private static final String NS = "http://dl-learner.org/test#";
+
+	private static final String DATA =
+			"@prefix : <" + NS + "> .\n" +
+			":a :p :b ; :q \"a\" .\n" +
+			":b :p :c ; :q \"b\" ; a :B .\n" +
+			":c :p :d ; a :C .\n" +
+			":d a :D .\n" +
+			":e :p :a .\n";
+
+	private Model createModel() {
+		Model model = ModelFactory.createDefaultModel();
+		model.read(new StringReader(DATA), null, "TURTLE");
+		return model;
+	}
+
+	@Test
+	public void testBatchesEqualSingleCBDs() {
+		List<String> resources = new ArrayList<>();
+		for (String r : Arrays.asList("a", "b", "c", "d", "e", "unknown")) {
+			resources.add(NS + r);
+		}
+
+		for (int depth = 1; depth <= 3; depth++) {
+			for (boolean withTypes : new boolean[]{false, true}) {
+				for (int batchSize : new int[]{1, 2, 10}) {
+					ConciseBoundedDescriptionGeneratorImpl cbdGen = new ConciseBoundedDescriptionGeneratorImpl(createModel());
+					cbdGen.setBatchSize(batchSize);
+					cbdGen.setMaxNrOfParallelBatches(2);
+
+					Map<String, Model> cbds = cbdGen.getConciseBoundedDescriptions(resources, depth, withTypes);
+					assertEquals(resources, new ArrayList<>(cbds.keySet()));
+					for (String resource : resources) {
+						Model expected = cbdGen.getConciseBoundedDescription(resource, depth, withTypes);
+						assertTrue(resource + " at depth " + depth,
+								expected.isIsomorphicWith(cbds.get(resource)));
+					}
+				}
+			}
+		}
+	}
+
+}
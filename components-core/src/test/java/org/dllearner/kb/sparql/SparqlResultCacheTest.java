@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.query.ResultSetRewindable;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SparqlResultCacheTest {
+
+	private static final String SERVICE = "http://dl-learner.org/sparql []";
+
+	private static final String SELECT_QUERY = "SELECT * WHERE {?s ?p ?o}";
+	private static final String CONSTRUCT_QUERY = "CONSTRUCT WHERE {?s ?p ?o}";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Model createModel() {
+		Model model = ModelFactory.createDefaultModel();
+		model.read(new StringReader(
+				"@prefix : <http://dl-learner.org/test#> .\n" +
+				":a :p :b , \"x\"@en , 1 .\n" +
+				":b :p [ :q :c ] .\n"), null, "TURTLE");
+		return model;
+	}
+
+	private ResultSetRewindable select(Model model) {
+		try (QueryExecution qe = QueryExecutionFactory.create(SELECT_QUERY, model)) {
+			return ResultSetFactory.copyResults(qe.execSelect());
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		File dir = folder.newFolder();
+		Model model = createModel();
+		SparqlResultCache cache = new SparqlResultCache(dir, 1024 * 1024, 1, TimeUnit.DAYS);
+		assertNull(cache.getSelectResult(SERVICE, SELECT_QUERY));
+
+		ResultSetRewindable rs = select(model);
+		cache.putSelectResult(SERVICE, SELECT_QUERY, rs);
+		assertEquals(5, rs.size());
+		cache.putConstructResult(SERVICE, CONSTRUCT_QUERY, model);
+		cache.putAskResult(SERVICE, "ASK {}", true);
+
+		// a new instance reuses the files
+		cache = new SparqlResultCache(dir, 1024 * 1024, 1, TimeUnit.DAYS);
+		assertEquals(3, cache.size());
+		assertTrue(org.apache.jena.sparql.resultset.ResultSetCompare.equalsByTerm(select(model), cache.getSelectResult(SERVICE, SELECT_QUERY)));
+		assertTrue(model.isIsomorphicWith(cache.getConstructResult(SERVICE, CONSTRUCT_QUERY)));
+		assertTrue(cache.getAskResult(SERVICE, "ASK {}"));
+		assertEquals(3, cache.getHitCount());
+
+		// different service, query or query form
+		assertNull(cache.getSelectResult("http://other.org/sparql []", SELECT_QUERY));
+		assertNull(cache.getConstructResult(SERVICE, SELECT_QUERY));
+		assertNull(cache.getAskResult(SERVICE, "ASK {?s ?p ?o}"));
+	}
+
+	@Test
+	public void testTimeToLive() throws Exception {
+		SparqlResultCache cache = new SparqlResultCache(folder.newFolder(), 1024 * 1024, 1, TimeUnit.MILLISECONDS);
+		cache.putAskResult(SERVICE, "ASK {}", false);
+		Thread.sleep(10);
+		assertNull(cache.getAskResult(SERVICE, "ASK {}"));
+		assertEquals(0, cache.size());
+
+		cache.setTimeToLive(1, TimeUnit.DAYS);
+		cache.putAskResult(SERVICE, "ASK {}", false);
+		assertFalse(cache.getAskResult(SERVICE, "ASK {}"));
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		SparqlResultCache cache = new SparqlResultCache(folder.newFolder(), 100000, 0, TimeUnit.DAYS);
+		Model model = createModel();
+		for (int i = 0; i < 1000; i++) {
+			cache.putConstructResult(SERVICE, CONSTRUCT_QUERY + i, model);
+			// keep the first one in use
+			assertNotNull(cache.getConstructResult(SERVICE, CONSTRUCT_QUERY + 0));
+		}
+		assertTrue(cache.getSizeInBytes() <= 100000);
+		assertTrue(cache.size() < 1000);
+		assertNotNull(cache.getConstructResult(SERVICE, CONSTRUCT_QUERY + 0));
+		assertNull(cache.getConstructResult(SERVICE, CONSTRUCT_QUERY + 1));
+	}
+
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.learningproblems;
+
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+public class PosNegLPStandardTest {
+
+	private static final String NS = "http://dl-learner.org/test#";
+
+	private final OWLDataFactory df = OWLManager.getOWLDataFactory();
+
+	private final OWLClass a = df.getOWLClass(IRI.create(NS + "A"));
+	private final OWLClass b = df.getOWLClass(IRI.create(NS + "B"));
+
+	private PosNegLPStandard lp;
+
+	private OWLNamedIndividual individual(String name) {
+		return df.getOWLNamedIndividual(IRI.create(NS + name));
+	}
+
+	private SortedSet<OWLIndividual> individuals(String... names) {
+		SortedSet<OWLIndividual> individuals = new TreeSet<>();
+		for (String name : names) {
+			individuals.add(individual(name));
+		}
+		return individuals;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLOntology ontology = man.createOntology();
+		for (String name : new String[]{"p1", "p2", "n1"}) {
+			man.addAxiom(ontology, df.getOWLClassAssertionAxiom(a, individual(name)));
+		}
+		for (String name : new String[]{"p1", "n1", "n2"}) {
+			man.addAxiom(ontology, df.getOWLClassAssertionAxiom(b, individual(name)));
+		}
+		for (String name : new String[]{"p3", "n3"}) {
+			man.addAxiom(ontology, df.getOWLDeclarationAxiom(individual(name)));
+		}
+		OWLAPIOntology ks = new OWLAPIOntology(ontology);
+		ks.init();
+		ClosedWorldReasoner reasoner = new ClosedWorldReasoner(ks);
+		reasoner.init();
+
+		lp = new PosNegLPStandard(reasoner, individuals("p1", "p2", "p3"), individuals("n1", "n2", "n3"));
+		lp.init();
+	}
+
+	@Test
+	public void testRestrictedEvaluation() {
+		BitSet allPositives = new BitSet();
+		allPositives.set(0, 3);
+		BitSet allNegatives = new BitSet();
+		allNegatives.set(0, 3);
+
+		// A covers p1, p2 and n1
+		BitSet coveredPositivesA = new BitSet();
+		BitSet coveredNegativesA = new BitSet();
+		double accuracyA = lp.getAccuracyOrTooWeak(a, 1.0, allPositives, allNegatives, coveredPositivesA, coveredNegativesA);
+		assertEquals(lp.getAccuracyOrTooWeak(a, 1.0), accuracyA, 1e-9);
+		assertEquals(2, coveredPositivesA.cardinality());
+		assertEquals(1, coveredNegativesA.cardinality());
+		assertEquals(individual("n1"), lp.getNegativeExampleList().get(coveredNegativesA.nextSetBit(0)));
+
+		// A and B is only checked against the examples covered by A
+		OWLClassExpression ab = df.getOWLObjectIntersectionOf(a, b);
+		BitSet coveredPositivesAB = new BitSet();
+		BitSet coveredNegativesAB = new BitSet();
+		double accuracyAB = lp.getAccuracyOrTooWeak(ab, 1.0, coveredPositivesA, coveredNegativesA, coveredPositivesAB, coveredNegativesAB);
+		assertEquals(lp.getAccuracyOrTooWeak(ab, 1.0), accuracyAB, 1e-9);
+		assertEquals(individual("p1"), lp.getPositiveExampleList().get(coveredPositivesAB.nextSetBit(0)));
+		assertEquals(1, coveredPositivesAB.cardinality());
+		assertEquals(1, coveredNegativesAB.cardinality());
+	}
+
+	@Test
+	public void testRestrictedEvaluationTooWeak() {
+		// without noise, a class expression which can not cover all positive examples is too weak
+		BitSet candidatePositives = new BitSet();
+		candidatePositives.set(0, 2);
+		BitSet candidateNegatives = new BitSet();
+		assertEquals(-1, lp.getAccuracyOrTooWeak(df.getOWLThing(), 0.0, candidatePositives, candidateNegatives,
+				new BitSet(), new BitSet()), 0);
+	}
+
+}
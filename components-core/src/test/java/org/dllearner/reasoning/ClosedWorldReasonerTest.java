@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.*;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.kb.OWLAPIOntology;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.util.DefaultPrefixManager;
+
+/**
+ * Checks the retrieval of the bit set based {@link ClosedWorldReasoner}
+ * against the expected instances, for a reasoner materialized from an
+ * ontology, for one loaded from a materialization snapshot and for one created
+ * from the materialized sets.
+ */
+public class ClosedWorldReasonerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private OWLDataFactory df;
+	private OWLOntology kb;
+	private OWLIndividual[] ind = new OWLIndividual[6];
+	private OWLClass a;
+	private OWLClass b;
+	private OWLObjectProperty r;
+
+	/**
+	 * A = {a0, a1, a2}, B = {a2, a3} and
+	 * r = {(a0, a1), (a0, a2), (a0, a3), (a1, a3), (a4, a4)}
+	 */
+	@Before
+	public void setUp() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		df = man.getOWLDataFactory();
+		kb = man.createOntology();
+		PrefixManager pm = new DefaultPrefixManager();
+		pm.setDefaultPrefix("http://dl-learner.org/junit/");
+
+		a = df.getOWLClass("A", pm);
+		b = df.getOWLClass("B", pm);
+		r = df.getOWLObjectProperty("r", pm);
+		man.addAxiom(kb, df.getOWLDeclarationAxiom(a));
+		man.addAxiom(kb, df.getOWLDeclarationAxiom(b));
+		man.addAxiom(kb, df.getOWLDeclarationAxiom(r));
+		for (int i = 0; i < ind.length; i++) {
+			ind[i] = df.getOWLNamedIndividual("a" + i, pm);
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(df.getOWLThing(), ind[i]));
+		}
+		for (int i : new int[]{0, 1, 2}) {
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(a, ind[i]));
+		}
+		for (int i : new int[]{2, 3}) {
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(b, ind[i]));
+		}
+		int[][] edges = {{0, 1}, {0, 2}, {0, 3}, {1, 3}, {4, 4}};
+		for (int[] edge : edges) {
+			man.addAxiom(kb, df.getOWLObjectPropertyAssertionAxiom(r, ind[edge[0]], ind[edge[1]]));
+		}
+	}
+
+	@Test
+	public void testMaterializedRetrieval() throws Exception {
+		ClosedWorldReasoner reasoner = new ClosedWorldReasoner(new OWLAPIOntology(kb));
+		reasoner.init();
+		checkRetrieval(reasoner);
+	}
+
+	@Test
+	public void testRetrievalFromSnapshot() throws Exception {
+		File cacheDir = folder.newFolder();
+		for (int i = 0; i < 2; i++) {
+			// the first reasoner writes the snapshot, the second one reads it
+			ClosedWorldReasoner reasoner = new ClosedWorldReasoner(new OWLAPIOntology(kb));
+			reasoner.setUseMaterializationCaching(true);
+			reasoner.setMaterializationCacheDirectory(cacheDir.getPath());
+			reasoner.init();
+			assertEquals(1, cacheDir.list().length);
+			assertEquals(instances(0, 1, 2, 3, 4, 5), reasoner.getIndividuals());
+			checkRetrieval(reasoner);
+		}
+	}
+
+	@Test
+	public void testRetrievalFromSets() throws Exception {
+		TreeSet<OWLIndividual> individuals = new TreeSet<>(Arrays.asList(ind));
+		Map<OWLClass, TreeSet<OWLIndividual>> classInstances = new TreeMap<>();
+		classInstances.put(a, instances(0, 1, 2));
+		classInstances.put(b, instances(2, 3));
+		Map<OWLIndividual, SortedSet<OWLIndividual>> successors = new TreeMap<>();
+		successors.put(ind[0], instances(1, 2, 3));
+		successors.put(ind[1], instances(3));
+		successors.put(ind[4], instances(4));
+		Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opPos = new TreeMap<>();
+		opPos.put(r, successors);
+
+		ClosedWorldReasoner reasoner = new ClosedWorldReasoner(individuals, classInstances, opPos,
+				new TreeMap<>(), new TreeMap<>(), new TreeMap<>(), new OWLAPIOntology(kb));
+		checkRetrieval(reasoner);
+	}
+
+	private void checkRetrieval(AbstractReasonerComponent reasoner) {
+		OWLClassExpression top = df.getOWLThing();
+
+		// negation
+		check(reasoner, df.getOWLObjectComplementOf(a), 3, 4, 5);
+		check(reasoner, df.getOWLObjectComplementOf(b), 0, 1, 4, 5);
+		check(reasoner, df.getOWLObjectComplementOf(df.getOWLObjectHasValue(r, ind[3])), 2, 3, 4, 5);
+
+		// cardinality restrictions
+		check(reasoner, df.getOWLObjectMinCardinality(2, r, top), 0);
+		check(reasoner, df.getOWLObjectMinCardinality(2, r, b), 0);
+		check(reasoner, df.getOWLObjectMinCardinality(1, r, df.getOWLObjectComplementOf(b)), 0, 4);
+		check(reasoner, df.getOWLObjectMaxCardinality(1, r, b), 1, 2, 3, 4, 5);
+		check(reasoner, df.getOWLObjectMaxCardinality(0, r, df.getOWLObjectComplementOf(a)), 2, 3, 5);
+		check(reasoner, df.getOWLObjectIntersectionOf(
+				df.getOWLObjectMinCardinality(1, r, b), df.getOWLObjectMaxCardinality(1, r, b)), 1);
+
+		// hasValue
+		check(reasoner, df.getOWLObjectHasValue(r, ind[3]), 0, 1);
+		check(reasoner, df.getOWLObjectHasValue(r, ind[4]), 4);
+		check(reasoner, df.getOWLObjectHasValue(r, ind[5]));
+
+		// the property members are decoded from the adjacency lists
+		Map<OWLIndividual, SortedSet<OWLIndividual>> successors = new TreeMap<>();
+		successors.put(ind[0], instances(1, 2, 3));
+		successors.put(ind[1], instances(3));
+		successors.put(ind[4], instances(4));
+		assertEquals(successors, reasoner.getPropertyMembers(r));
+	}
+
+	private void check(AbstractReasonerComponent reasoner, OWLClassExpression ce, int... expected) {
+		assertEquals(ce.toString(), instances(expected), reasoner.getIndividuals(ce));
+		// the instance checks have to agree with the retrieval
+		for (OWLIndividual individual : ind) {
+			assertEquals(ce + "(" + individual + ")",
+					instances(expected).contains(individual), reasoner.hasType(ce, individual));
+		}
+	}
+
+	private TreeSet<OWLIndividual> instances(int... ids) {
+		TreeSet<OWLIndividual> instances = new TreeSet<>();
+		for (int id : ids) {
+			instances.add(ind[id]);
+		}
+		return instances;
+	}
+
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map.Entry;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.dllearner.utilities.datastructures.CompressedAdjacency;
+import org.dllearner.utilities.datastructures.DenseIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import com.google.common.hash.HashCode;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class MaterializationSnapshotTest {
+
+	private static final String NS = "http://dl-learner.org/test#";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final OWLAnonymousIndividual anon = df.getOWLAnonymousIndividual("_:b0");
+
+	private OWLIndividual ind(String name) {
+		return df.getOWLNamedIndividual(IRI.create(NS + name));
+	}
+
+	private Materialization createMaterialization() {
+		OWLIndividual x = ind("x");
+		OWLIndividual y = ind("y");
+		Materialization mat = new Materialization();
+		mat.index = new DenseIndex<>(new TreeSet<>(Arrays.asList(x, y, anon)));
+		mat.individuals = mat.index.toBitSet(Arrays.asList(x, y));
+
+		OWLClass a = df.getOWLClass(IRI.create(NS + "A"));
+		mat.classInstancesPos.put(a, mat.index.toBitSet(Collections.singleton(x)));
+		mat.classInstancesNeg.put(a, new BitSet());
+
+		TreeMap<OWLIndividual, SortedSet<OWLIndividual>> successors = new TreeMap<>();
+		successors.put(x, new TreeSet<>(Arrays.asList(x, y, anon)));
+		mat.opSuccessors.put(df.getOWLObjectProperty(IRI.create(NS + "p")),
+							 CompressedAdjacency.create(successors, mat.index));
+
+		OWLDataProperty d = df.getOWLDataProperty(IRI.create(NS + "d"));
+		mat.bdPos.put(d, new TreeSet<>(Collections.singleton(y)));
+		mat.bdNeg.put(d, new TreeSet<>());
+
+		TreeMap<OWLIndividual, SortedSet<OWLLiteral>> values = new TreeMap<>();
+		SortedSet<OWLLiteral> literals = new TreeSet<>();
+		literals.add(df.getOWLLiteral(1.5));
+		literals.add(df.getOWLLiteral("Hallo", "de"));
+		values.put(y, literals);
+		mat.dpPos.put(d, values);
+
+		TreeMap<OWLIndividual, SortedSet<Double>> doubles = new TreeMap<>();
+		doubles.put(y, new TreeSet<>(Collections.singleton(1.5)));
+		mat.dd.put(d, doubles);
+		return mat;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Materialization mat = createMaterialization();
+		File file = folder.newFile("snapshot.cwr");
+		HashCode fingerprint = HashCode.fromLong(42);
+		MaterializationSnapshot.write(file, fingerprint, mat);
+
+		Materialization loaded = MaterializationSnapshot.read(file, fingerprint, df, Collections.singleton(anon));
+		assertNotNull(loaded);
+		assertEquals(mat.index.size(), loaded.index.size());
+		for (int i = 0; i < mat.index.size(); i++) {
+			assertEquals(mat.index.get(i), loaded.index.get(i));
+		}
+		// anonymous individuals are the given ones
+		assertSame(anon, loaded.index.get(loaded.index.getId(anon)));
+		assertEquals(mat.individuals, loaded.individuals);
+		assertEquals(mat.classInstancesPos, loaded.classInstancesPos);
+		assertEquals(mat.classInstancesNeg, loaded.classInstancesNeg);
+		assertEquals(mat.opSuccessors.keySet(), loaded.opSuccessors.keySet());
+		for (Entry<OWLObjectProperty, CompressedAdjacency> entry : mat.opSuccessors.entrySet()) {
+			CompressedAdjacency expected = entry.getValue();
+			CompressedAdjacency actual = loaded.opSuccessors.get(entry.getKey());
+			assertEquals(expected.getNrOfNodes(), actual.getNrOfNodes());
+			assertEquals(expected.getNrOfEdges(), actual.getNrOfEdges());
+			for (int node = 0; node < expected.getNrOfNodes(); node++) {
+				assertEquals(expected.getStart(node), actual.getStart(node));
+				assertEquals(expected.getEnd(node), actual.getEnd(node));
+			}
+			for (int i = 0; i < expected.getNrOfEdges(); i++) {
+				assertEquals(expected.getNeighbour(i), actual.getNeighbour(i));
+			}
+		}
+		assertEquals(mat.bdPos, loaded.bdPos);
+		assertEquals(mat.bdNeg, loaded.bdNeg);
+		assertEquals(mat.dpPos, loaded.dpPos);
+		assertEquals(mat.dd, loaded.dd);
+	}
+
+	@Test
+	public void testUnknownAnonymousIndividual() throws Exception {
+		File file = folder.newFile("snapshot.cwr");
+		HashCode fingerprint = HashCode.fromLong(42);
+		MaterializationSnapshot.write(file, fingerprint, createMaterialization());
+
+		// the snapshot refers to an anonymous individual which does not exist anymore
+		assertNull(MaterializationSnapshot.read(file, fingerprint, df, Collections.emptySet()));
+	}
+
+	@Test
+	public void testFingerprintMismatch() throws Exception {
+		File file = folder.newFile("snapshot.cwr");
+		MaterializationSnapshot.write(file, HashCode.fromLong(42), createMaterialization());
+
+		assertNull(MaterializationSnapshot.read(file, HashCode.fromLong(43), df, Collections.singleton(anon)));
+	}
+
+	@Test
+	public void testFingerprint() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLClass a = df.getOWLClass(IRI.create(NS + "A"));
+		OWLClass b = df.getOWLClass(IRI.create(NS + "B"));
+		OWLAxiom subClassOf = df.getOWLSubClassOfAxiom(a, b);
+		OWLAxiom assertion = df.getOWLClassAssertionAxiom(a, df.getOWLNamedIndividual(IRI.create(NS + "x")));
+
+		OWLOntology ont1 = man.createOntology(new TreeSet<>(Arrays.asList(subClassOf, assertion)));
+		OWLOntology ont2 = man.createOntology();
+		man.addAxiom(ont2, assertion);
+		man.addAxiom(ont2, subClassOf);
+		// the fingerprint does not depend on the order of the axioms
+		assertEquals(MaterializationSnapshot.fingerprint(ont1, true), MaterializationSnapshot.fingerprint(ont2, true));
+		assertNotEquals(MaterializationSnapshot.fingerprint(ont1, true), MaterializationSnapshot.fingerprint(ont1, false));
+
+		man.addAxiom(ont2, df.getOWLSubClassOfAxiom(b, a));
+		assertNotEquals(MaterializationSnapshot.fingerprint(ont1, true), MaterializationSnapshot.fingerprint(ont2, true));
+	}
+
+}
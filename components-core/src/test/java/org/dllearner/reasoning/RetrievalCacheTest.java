@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.dllearner.reasoning.RetrievalCache.EvictionPolicy;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class RetrievalCacheTest {
+
+	private static final String NS = "http://dl-learner.org/test#";
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final OWLClass a = df.getOWLClass(IRI.create(NS + "A"));
+	private final OWLClass b = df.getOWLClass(IRI.create(NS + "B"));
+
+	private SortedSet<OWLIndividual> individuals(String... names) {
+		SortedSet<OWLIndividual> individuals = new TreeSet<>();
+		for (String name : names) {
+			individuals.add(df.getOWLNamedIndividual(IRI.create(NS + name)));
+		}
+		return individuals;
+	}
+
+	@Test
+	public void testInferFromOperands() {
+		RetrievalCache cache = new RetrievalCache(EvictionPolicy.LRU, 10);
+		cache.put(a, individuals("x", "y"));
+		assertNull(cache.infer(df.getOWLObjectIntersectionOf(a, b), true));
+
+		cache.put(b, individuals("y", "z"));
+		assertEquals(individuals("y"), cache.infer(df.getOWLObjectIntersectionOf(a, b), true));
+		assertEquals(individuals("x", "y", "z"), cache.infer(df.getOWLObjectUnionOf(a, b), true));
+		// disjunctions are only inferred under closed world assumption
+		assertNull(cache.infer(df.getOWLObjectUnionOf(a, b), false));
+		assertEquals(1, cache.getStats().missCount());
+		assertEquals(5, cache.getStats().hitCount());
+	}
+
+	@Test
+	public void testPeekIsNotRecorded() {
+		RetrievalCache cache = new RetrievalCache(EvictionPolicy.LRU, 10);
+		cache.put(a, individuals("x"));
+		assertEquals(individuals("x"), cache.peek(a));
+		assertNull(cache.peek(b));
+		assertEquals(0, cache.getStats().requestCount());
+
+		assertNull(cache.get(b));
+		assertEquals(1, cache.getStats().missCount());
+	}
+
+	@Test
+	public void testWeightBasedEviction() {
+		RetrievalCache cache = new RetrievalCache(EvictionPolicy.WEIGHT, 4);
+		cache.put(a, individuals("x", "y"));
+		cache.put(b, individuals("x", "y", "z"));
+		assertTrue(cache.size() < 2);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testCachedSetsAreUnmodifiable() {
+		RetrievalCache cache = new RetrievalCache(EvictionPolicy.LRU, 10);
+		cache.put(a, individuals("x"));
+		cache.get(a).addAll(Arrays.asList(df.getOWLNamedIndividual(IRI.create(NS + "y"))));
+	}
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.refinementoperators;
+
+import static org.junit.Assert.*;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.dllearner.utilities.owl.OWLClassExpressionLengthMetric;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class RefinementCacheTest {
+
+	private static final String NS = "http://dl-learner.org/test#";
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final OWLClass a = df.getOWLClass(IRI.create(NS + "A"));
+	private final OWLClass b = df.getOWLClass(IRI.create(NS + "B"));
+	private final OWLClass c = df.getOWLClass(IRI.create(NS + "C"));
+	private final OWLObjectProperty r = df.getOWLObjectProperty(IRI.create(NS + "r"));
+
+	// lengths 1, 3 and 5 under the default metric
+	private final OWLClassExpression length1 = b;
+	private final OWLClassExpression length3 = df.getOWLObjectSomeValuesFrom(r, b);
+	private final OWLClassExpression length5 = df.getOWLObjectIntersectionOf(c, df.getOWLObjectSomeValuesFrom(r, b));
+
+	private RefinementCache newCache() {
+		return new RefinementCache(100, OWLClassExpressionLengthMetric.getDefaultMetric());
+	}
+
+	private SortedSet<OWLClassExpression> set(OWLClassExpression... expressions) {
+		SortedSet<OWLClassExpression> set = new TreeSet<>();
+		for (OWLClassExpression expression : expressions) {
+			set.add(expression);
+		}
+		return set;
+	}
+
+	@Test
+	public void testShorterLengthReusesEntry() {
+		RefinementCache cache = newCache();
+		cache.put(a, 5, df.getOWLThing(), set(length1, length3, length5));
+
+		assertEquals(set(length1, length3, length5), cache.get(a, 5, df.getOWLThing()));
+		assertEquals(set(length1, length3), cache.get(a, 4, df.getOWLThing()));
+		assertEquals(set(length1), cache.get(a, 2, df.getOWLThing()));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testLongerLengthReplacesEntry() {
+		RefinementCache cache = newCache();
+		cache.put(a, 3, df.getOWLThing(), set(length1, length3));
+		assertNull(cache.get(a, 5, df.getOWLThing()));
+
+		cache.put(a, 5, df.getOWLThing(), set(length1, length3, length5));
+		assertEquals(set(length1, length3, length5), cache.get(a, 5, df.getOWLThing()));
+
+		// refinements for a shorter length do not replace the longer ones
+		cache.put(a, 3, df.getOWLThing(), set(length1, length3));
+		assertEquals(set(length1, length3, length5), cache.get(a, 5, df.getOWLThing()));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testDomainsAreSeparate() {
+		RefinementCache cache = newCache();
+		cache.put(a, 5, df.getOWLThing(), set(length1, length3));
+		cache.put(a, 5, c, set(length1));
+
+		assertEquals(set(length1, length3), cache.get(a, 5, df.getOWLThing()));
+		assertEquals(set(length1), cache.get(a, 5, c));
+		assertNull(cache.get(b, 5, df.getOWLThing()));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testCachedSetsAreCopied() {
+		RefinementCache cache = newCache();
+		SortedSet<OWLClassExpression> refinements = set(length1);
+		cache.put(a, 5, df.getOWLThing(), refinements);
+		refinements.add(length3);
+		cache.get(a, 5, df.getOWLThing()).add(length5);
+
+		assertEquals(set(length1), cache.get(a, 5, df.getOWLThing()));
+	}
+
+	@Test
+	public void testClear() {
+		RefinementCache cache = newCache();
+		cache.put(a, 5, df.getOWLThing(), set(length1));
+		cache.clear();
+
+		assertNull(cache.get(a, 5, df.getOWLThing()));
+		assertEquals(0, cache.size());
+	}
+
+}
@@ -47,6 +47,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.TreeSet;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -374,6 +375,49 @@ public class RefinementOperatorTest {
 		}
 	}
 	
+	@Test
+	public void rhoDRDownCacheTest() throws ComponentInitException {
+		AbstractReasonerComponent reasoner = TestOntologies.getTestOntology(TestOntology.FATHER);
+		reasoner.init();
+		OWLClass male = new OWLClassImpl(IRI.create("http://example.com/father#male"));
+		OWLClass female = new OWLClassImpl(IRI.create("http://example.com/father#female"));
+		OWLClass top = new OWLClassImpl(IRI.create("http://www.w3.org/2002/07/owl#Thing"));
+
+		RhoDRDown op = newRhoDRDown(reasoner, false);
+		Set<OWLClassExpression> expected4 = op.refine(male, 4, null, top);
+		Set<OWLClassExpression> expected5 = op.refine(male, 5, null, top);
+
+		// refining again with a larger length extends the cached refinements
+		RhoDRDown cachedOp = newRhoDRDown(reasoner, true);
+		assertEquals(expected4, cachedOp.refine(male, 4, null, top));
+		assertEquals(expected5, cachedOp.refine(male, 5, null, top));
+		assertEquals(expected4, cachedOp.refine(male, 4, null, top));
+
+		// the cached refinements up to length 4 are not computed again, only the longer ones are added
+		cachedOp = newRhoDRDown(reasoner, true);
+		cachedOp.getRefinementCache().put(male, 4, top, new TreeSet<>(Collections.singleton(female)));
+		Set<OWLClassExpression> expected = new TreeSet<>();
+		expected.add(female);
+		for (OWLClassExpression refinement : expected5) {
+			if (OWLClassExpressionUtils.getLength(refinement) > 4) {
+				expected.add(refinement);
+			}
+		}
+		assertEquals(expected, cachedOp.refine(male, 5, null, top));
+	}
+
+	private RhoDRDown newRhoDRDown(AbstractReasonerComponent reasoner, boolean useRefinementCache)
+			throws ComponentInitException {
+		RhoDRDown op = new RhoDRDown();
+		op.setReasoner(reasoner);
+		op.setSubHierarchy(reasoner.getClassHierarchy());
+		op.setObjectPropertyHierarchy(reasoner.getObjectPropertyHierarchy());
+		op.setDataPropertyHierarchy(reasoner.getDatatypePropertyHierarchy());
+		op.setUseRefinementCache(useRefinementCache);
+		op.init();
+		return op;
+	}
+
 	private String uri(String name) {
 		return "\""+baseURI+name+"\"";
 	}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities;
+
+import static org.junit.Assert.*;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.dllearner.utilities.ReasoningUtils.Coverage;
+import org.dllearner.utilities.ReasoningUtils.Coverage3;
+import org.dllearner.utilities.ReasoningUtils.CoverageCount;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.PrefixManager;
+import org.semanticweb.owlapi.util.DefaultPrefixManager;
+
+public class ReasoningUtilsTest {
+
+	/**
+	 * Checks that the coverage computed by instance checks in parallel batches
+	 * is the same as the one computed sequentially.
+	 */
+	@Test
+	public void testBatchedInstanceChecks() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLOntology kb = man.createOntology();
+		PrefixManager pm = new DefaultPrefixManager();
+		pm.setDefaultPrefix("http://dl-learner.org/junit/");
+
+		// A contains every second and B every third individual
+		OWLClass a = df.getOWLClass("A", pm);
+		OWLClass b = df.getOWLClass("B", pm);
+		SortedSet<OWLIndividual> pos = new TreeSet<>();
+		SortedSet<OWLIndividual> neg = new TreeSet<>();
+		for (int i = 0; i < 250; i++) {
+			OWLIndividual ind = df.getOWLNamedIndividual("i" + i, pm);
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(i % 2 == 0 ? a : df.getOWLThing(), ind));
+			if (i % 3 == 0) {
+				man.addAxiom(kb, df.getOWLClassAssertionAxiom(b, ind));
+			}
+			(i % 5 == 0 ? neg : pos).add(ind);
+		}
+
+		AbstractReasonerComponent reasoner = new ClosedWorldReasoner(new OWLAPIOntology(kb));
+		reasoner.setUseInstanceChecks(true);
+		reasoner.init();
+		OWLClassExpression concept = df.getOWLObjectIntersectionOf(a, df.getOWLObjectComplementOf(b));
+
+		ReasoningUtils sequential = new ReasoningUtils(reasoner);
+		sequential.init();
+		ReasoningUtils batched = new ReasoningUtils(reasoner);
+		batched.init();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			batched.setExecutor(executor);
+			batched.setInstanceCheckBatchSize(16);
+
+			Coverage[] expected = sequential.getCoverage(concept, pos, neg);
+			Coverage[] actual = batched.getCoverage(concept, pos, neg);
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i].trueSet, actual[i].trueSet);
+				assertEquals(expected[i].falseSet, actual[i].falseSet);
+				assertEquals(expected[i].trueCount, actual[i].trueCount);
+				assertEquals(expected[i].falseCount, actual[i].falseCount);
+			}
+			assertFalse(expected[0].trueSet.isEmpty());
+			assertFalse(expected[0].falseSet.isEmpty());
+
+			CoverageCount[] expectedCount = sequential.getCoverageCount(concept, pos, neg);
+			CoverageCount[] actualCount = batched.getCoverageCount(concept, pos, neg);
+			for (int i = 0; i < expectedCount.length; i++) {
+				assertEquals(expectedCount[i].trueCount, actualCount[i].trueCount);
+				assertEquals(expectedCount[i].falseCount, actualCount[i].falseCount);
+				assertEquals(expectedCount[i].total, actualCount[i].total);
+			}
+
+			Coverage3[] expected3 = sequential.getCoverage3(a, b, pos);
+			Coverage3[] actual3 = batched.getCoverage3(a, b, pos);
+			assertEquals(expected3[0].trueSet, actual3[0].trueSet);
+			assertEquals(expected3[0].falseSet, actual3[0].falseSet);
+			assertEquals(expected3[0].unknownSet, actual3[0].unknownSet);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Checks that the examples are checked sequentially if the reasoner is not
+	 * thread safe, i.e. the executor is not used.
+	 */
+	@Test
+	public void testSequentialChecksForUnsafeReasoner() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLOntology kb = man.createOntology();
+		PrefixManager pm = new DefaultPrefixManager();
+		pm.setDefaultPrefix("http://dl-learner.org/junit/");
+
+		OWLClass a = df.getOWLClass("A", pm);
+		SortedSet<OWLIndividual> pos = new TreeSet<>();
+		for (int i = 0; i < 50; i++) {
+			OWLIndividual ind = df.getOWLNamedIndividual("i" + i, pm);
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(i % 2 == 0 ? a : df.getOWLThing(), ind));
+			pos.add(ind);
+		}
+
+		AbstractReasonerComponent reasoner = new ClosedWorldReasoner(new OWLAPIOntology(kb)) {
+			@Override
+			public boolean isThreadSafe() {
+				return false;
+			}
+		};
+		reasoner.setUseInstanceChecks(true);
+		reasoner.init();
+
+		ReasoningUtils batched = new ReasoningUtils(reasoner);
+		batched.init();
+		// a shut down executor rejects all batches
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.shutdown();
+		batched.setExecutor(executor);
+		batched.setInstanceCheckBatchSize(8);
+
+		CoverageCount[] count = batched.getCoverageCount(a, pos);
+		assertEquals(25, count[0].trueCount);
+		assertEquals(25, count[0].falseCount);
+	}
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+public class CompressedAdjacencyTest {
+
+	@Test
+	public void testForwardAndInverse() {
+		DenseIndex<String> index = new DenseIndex<>(new TreeSet<>(Arrays.asList("a", "b", "c", "d")));
+		Map<String, SortedSet<String>> mapping = new HashMap<>();
+		mapping.put("a", new TreeSet<>(Arrays.asList("b", "c")));
+		mapping.put("b", new TreeSet<>(Collections.singleton("c")));
+
+		CompressedAdjacency successors = CompressedAdjacency.create(mapping, index);
+		assertEquals(3, successors.getNrOfEdges());
+		assertEquals(2, successors.getDegree(index.getId("a")));
+		assertEquals(0, successors.getDegree(index.getId("d")));
+		assertEquals(index.toBitSet(Arrays.asList("a", "b")), successors.getNonEmptyNodes());
+
+		CompressedAdjacency predecessors = successors.inverse();
+		int c = index.getId("c");
+		assertEquals(2, predecessors.getDegree(c));
+		assertEquals(index.getId("a"), predecessors.getNeighbour(predecessors.getStart(c)));
+		assertEquals(index.getId("b"), predecessors.getNeighbour(predecessors.getEnd(c) - 1));
+
+		// \exists r.{c}
+		BitSet filler = index.toBitSet(Collections.singleton("c"));
+		assertEquals(index.toBitSet(Arrays.asList("a", "b")), predecessors.getNeighbours(filler));
+
+		// >= 2 r.{b,c}
+		BitSet targetSet = index.toBitSet(Arrays.asList("b", "c"));
+		assertEquals(2, successors.countNeighbours(index.getId("a"), targetSet));
+		assertEquals(1, successors.countNeighbours(index.getId("b"), targetSet));
+		assertEquals(0, successors.countNeighbours(index.getId("d"), targetSet));
+	}
+
+}
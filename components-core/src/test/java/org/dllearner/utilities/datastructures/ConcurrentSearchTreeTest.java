@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.algorithms.celoe.OENode;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class ConcurrentSearchTreeTest {
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	// accuracy minus expansion penalty, ties broken by the expression
+	private final Comparator<OENode> comparator = Comparator
+			.comparingDouble((OENode n) -> n.getAccuracy() - 0.01 * n.getHorizontalExpansion())
+			.thenComparing(OENode::getExpression);
+
+	private OENode node(int i) {
+		return new OENode(df.getOWLClass(IRI.create("http://dl-learner.org/test#C" + i)), (i % 100) / 100d);
+	}
+
+	@Test
+	public void testConcurrentExpansion() throws Exception {
+		ConcurrentSearchTree<OENode> tree = new ConcurrentSearchTree<>(comparator);
+		OENode root = node(0);
+		tree.addNode(null, root);
+
+		int nrOfThreads = 8;
+		int nrOfChildren = 200;
+		List<OENode> parents = new ArrayList<>();
+		for (int i = 1; i <= nrOfThreads; i++) {
+			OENode parent = node(i);
+			tree.addNode(root, parent);
+			parents.add(parent);
+		}
+
+		ExecutorService service = Executors.newFixedThreadPool(nrOfThreads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < nrOfThreads; t++) {
+			OENode parent = parents.get(t);
+			int offset = 1000 * (t + 1);
+			futures.add(service.submit(() -> {
+				for (int i = 0; i < nrOfChildren; i++) {
+					// each worker only modifies the node it expands
+					tree.updatePrepare(parent);
+					parent.incHorizontalExpansion();
+					tree.updateDone(parent);
+					tree.addNode(parent, node(offset + i));
+					tree.best();
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		service.shutdown();
+		assertTrue(service.awaitTermination(1, TimeUnit.MINUTES));
+
+		assertEquals(1 + nrOfThreads + nrOfThreads * nrOfChildren, tree.size());
+		for (OENode parent : parents) {
+			assertEquals(nrOfChildren, parent.getHorizontalExpansion());
+			assertTrue(tree.getNodeSet().contains(parent));
+		}
+
+		// the order must still be consistent with the modified nodes
+		Iterator<OENode> it = tree.descendingIterator();
+		OENode previous = it.next();
+		while (it.hasNext()) {
+			OENode next = it.next();
+			assertTrue(comparator.compare(previous, next) > 0);
+			previous = next;
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class DenseIndexTest {
+
+	private final DenseIndex<String> index = new DenseIndex<>(new TreeSet<>(Arrays.asList("d", "a", "c", "b")));
+
+	@Test
+	public void testIdsFollowNaturalOrder() {
+		assertEquals(4, index.size());
+		assertEquals(0, index.getId("a"));
+		assertEquals(3, index.getId("d"));
+		assertEquals("c", index.get(2));
+		assertEquals(-1, index.getId("x"));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		BitSet bits = index.toBitSet(Arrays.asList("d", "b", "x"));
+		assertEquals(2, bits.cardinality());
+		assertTrue(index.contains(bits, "b"));
+		assertFalse(index.contains(bits, "a"));
+		assertFalse(index.contains(bits, "x"));
+
+		TreeSet<String> set = index.toSortedSet(bits);
+		assertEquals(new TreeSet<>(Arrays.asList("b", "d")), set);
+		// the returned set has to be modifiable
+		set.add("a");
+		assertEquals("a", set.first());
+		assertTrue(index.toSortedSet(new BitSet()).isEmpty());
+	}
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import static org.junit.Assert.*;
+
+import java.util.Comparator;
+
+import org.dllearner.algorithms.celoe.OENode;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class SearchTreeTest {
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final Comparator<OENode> comparator = Comparator
+			.comparingDouble(OENode::getAccuracy)
+			.thenComparing(OENode::getExpression);
+
+	private OENode node(String name, double accuracy) {
+		return new OENode(df.getOWLClass(IRI.create("http://dl-learner.org/test#" + name)), accuracy);
+	}
+
+	@Test
+	public void testExpandableNodes() {
+		SearchTree<OENode> tree = new SearchTree<>(comparator);
+		// as in CELOE: perfect nodes are exhausted once their horizontal expansion reached their length
+		tree.setExpandablePredicate(n -> n.getAccuracy() < 1.0 || n.getHorizontalExpansion() < 1);
+
+		OENode root = node("A", 0.5);
+		tree.addNode(null, root);
+		OENode perfect = node("B", 1.0);
+		tree.addNode(root, perfect);
+		OENode other = node("C", 0.7);
+		tree.addNode(root, other);
+
+		assertSame(perfect, tree.best());
+		assertSame(perfect, tree.bestExpandable());
+
+		tree.updatePrepare(perfect);
+		perfect.incHorizontalExpansion();
+		tree.updateDone(perfect);
+
+		assertSame(perfect, tree.best());
+		assertSame(other, tree.bestExpandable());
+		assertEquals(3, tree.size());
+	}
+
+	@Test
+	public void testPredicateAppliesToExistingNodes() {
+		SearchTree<OENode> tree = new SearchTree<>(comparator);
+		OENode root = node("A", 0.5);
+		tree.addNode(null, root);
+		tree.addNode(root, node("B", 1.0));
+
+		tree.setExpandablePredicate(n -> n.getAccuracy() < 1.0);
+		assertSame(root, tree.bestExpandable());
+
+		tree.setExpandablePredicate(n -> false);
+		assertNull(tree.bestExpandable());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testExpandableNodesNotTracked() {
+		new SearchTree<OENode>(comparator).bestExpandable();
+	}
+
+}
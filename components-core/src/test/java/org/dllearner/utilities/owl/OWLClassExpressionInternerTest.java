@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.owl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.dllearner.core.owl.OWLObjectIntersectionOfImplExt;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.*;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class OWLClassExpressionInternerTest {
+
+	private static final String NS = "http://dl-learner.org/test#";
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final OWLClass a = df.getOWLClass(IRI.create(NS + "A"));
+	private final OWLClass b = df.getOWLClass(IRI.create(NS + "B"));
+	private final OWLObjectProperty r = df.getOWLObjectProperty(IRI.create(NS + "r"));
+
+	@Test
+	public void testStructurallyEqualExpressionsShareId() {
+		OWLClassExpressionInterner interner = new OWLClassExpressionInterner();
+		OWLClassExpression ce1 = df.getOWLObjectSomeValuesFrom(r, df.getOWLObjectIntersectionOf(a, b));
+		OWLClassExpression ce2 = df.getOWLObjectSomeValuesFrom(r, df.getOWLObjectIntersectionOf(b, a));
+
+		assertTrue(interner.add(ce1));
+		assertFalse(interner.add(ce2));
+		assertEquals(interner.getId(ce1), interner.getId(ce2));
+		assertEquals(interner.fingerprint(ce1), interner.fingerprint(ce2));
+		assertEquals(1, interner.size());
+	}
+
+	@Test
+	public void testDistinctExpressionsGetConsecutiveIds() {
+		OWLClassExpressionInterner interner = new OWLClassExpressionInterner();
+		OWLClassExpression some = df.getOWLObjectSomeValuesFrom(r, a);
+		OWLClassExpression all = df.getOWLObjectAllValuesFrom(r, a);
+
+		assertEquals(-1, interner.getId(a));
+		assertEquals(0, interner.intern(a));
+		assertEquals(1, interner.intern(some));
+		assertEquals(2, interner.intern(all));
+		assertEquals(1, interner.intern(some));
+		assertNotEquals(interner.fingerprint(some), interner.fingerprint(all));
+		assertNotEquals(interner.fingerprint(df.getOWLObjectMinCardinality(2, r, a)),
+				interner.fingerprint(df.getOWLObjectMinCardinality(3, r, a)));
+		assertFalse(interner.contains(df.getOWLObjectComplementOf(a)));
+	}
+
+	@Test
+	public void testDuplicateOperands() {
+		OWLClassExpressionInterner interner = new OWLClassExpressionInterner();
+		OWLClassExpression some = df.getOWLObjectSomeValuesFrom(r, a);
+		OWLClassExpression ce = new OWLObjectIntersectionOfImplExt(Arrays.asList(some, some));
+
+		assertTrue(interner.add(ce));
+		assertTrue(interner.add(some));
+		assertFalse(interner.add(new OWLObjectIntersectionOfImplExt(Arrays.asList(some, some))));
+	}
+
+}
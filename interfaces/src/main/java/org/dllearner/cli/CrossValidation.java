@@ -60,6 +60,8 @@ public class CrossValidation {
 	public static boolean writeToFile = false;
 	public static File outputFile;
 	public static boolean multiThreaded = false;
+	/** heap space (in MB) a single fold is expected to need when folds are run in parallel */
+	public static int memoryPerFoldInMB = 512;
 	
 	protected Stat trainingCompletenessStat = new Stat();
 	protected Stat trainingCorrectnessStat = new Stat();
@@ -150,7 +152,8 @@ public class CrossValidation {
 
 		// run the algorithm
 			if( multiThreaded && lp instanceof Cloneable && la instanceof Cloneable){
-				ExecutorService es = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()-1);
+				prepareSharedReasoner(rs);
+				ExecutorService es = Executors.newFixedThreadPool(getNrOfThreads(folds));
 				for(int currFold=0; currFold<folds; currFold++) {
 					try {
 						final AbstractClassExpressionLearningProblem lpClone = (AbstractClassExpressionLearningProblem) lp.getClass().getMethod("clone").invoke(lp);
@@ -286,6 +289,32 @@ public class CrossValidation {
 		outputWriter(output);
 	}
 	
+	/**
+	 * The folds share the reasoner, which after its initialisation is only
+	 * read. The hierarchies are built lazily on first access, so this is done
+	 * here once instead of concurrently by the learning algorithms of the folds.
+	 * @param rs the reasoner shared by all folds
+	 */
+	protected static void prepareSharedReasoner(AbstractReasonerComponent rs) {
+		rs.getClassHierarchy();
+		rs.getObjectPropertyHierarchy();
+		rs.getDatatypePropertyHierarchy();
+	}
+
+	/**
+	 * @param folds the number of folds
+	 * @return the number of folds to run in parallel, which is bounded by the
+	 * available processors and by the free heap space divided by
+	 * {@link #memoryPerFoldInMB}, but at least 1
+	 */
+	protected static int getNrOfThreads(int folds) {
+		Runtime runtime = Runtime.getRuntime();
+		long freeMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+		long foldsByMemory = freeMemory / (memoryPerFoldInMB * 1024L * 1024L);
+		long nrOfThreads = Math.min(Math.min(folds, runtime.availableProcessors()), foldsByMemory);
+		return (int) Math.max(1, nrOfThreads);
+	}
+
 	protected int getCorrectPosClassified(AbstractReasonerComponent rs, OWLClassExpression concept, Set<OWLIndividual> testSetPos) {
 		return rs.hasType(concept, testSetPos).size();
 	}
@@ -348,7 +377,7 @@ public class CrossValidation {
 		return runtime;
 	}
 	
-	protected void outputWriter(String output) {
+	protected synchronized void outputWriter(String output) {
 		if(writeToFile) {
 			Files.appendToFile(outputFile, output +"\n");
 			System.out.println(output);
@@ -138,7 +138,8 @@ public class CrossValidation2  extends org.dllearner.cli.CrossValidation{
 
 		// run the algorithm
 		if( multiThreaded && lp instanceof Cloneable && la instanceof Cloneable){
-			ExecutorService es = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()-1);
+			prepareSharedReasoner(rs);
+			ExecutorService es = Executors.newFixedThreadPool(getNrOfThreads(folds));
 			for(int currFold=0; currFold<folds; currFold++) {
 				try {
 					final AbstractClassExpressionLearningProblem lpClone = (AbstractClassExpressionLearningProblem) lp.getClass().getMethod("clone").invoke(lp);
@@ -142,6 +142,9 @@ public class Enrichment {
 	private int maxNrOfPositiveExamples = 20;
 	private int maxNrOfNegativeExamples = 20;
 
+	// max. number of concurrently running sample queries and algorithms for properties
+	private int nrOfThreads = Runtime.getRuntime().availableProcessors();
+
 	private boolean useInference;
 	private SPARQLReasoner reasoner;
 	private String cacheDir = "cache";
@@ -301,33 +304,56 @@ public class Enrichment {
 	}
 
 	private void processProperties(Set<? extends OWLProperty> properties, Set<AxiomType<? extends OWLAxiom>> axiomTypes){
-		MultiPropertyAxiomLearner la = new MultiPropertyAxiomLearner(ks);
-//		la.setUseSampling(true);
-		la.setProgressMonitor(progressMonitor);
-		la.setAxiomTypes(axiomTypes);
-		for(OWLProperty property : properties) {
-			System.out.println("Processing property " + property.toStringID());
-			la.setEntityToDescribe(property);
-			la.start();
-
-			for (AxiomType<? extends OWLAxiom> axiomType : axiomTypes) {
-
-				List<EvaluatedAxiom<OWLAxiom>> evaluatedAxioms = la.getCurrentlyBestEvaluatedAxioms(axiomType, threshold);
-				learnedEvaluatedAxioms.addAll(evaluatedAxioms);
-
-				AbstractAxiomLearningAlgorithm algorithm = la.getAlgorithm(axiomType);
-				
-				if(algorithm != null) {
-					AlgorithmRun algorithmRun = new AlgorithmRun(
-							AxiomAlgorithms.getAlgorithmClass(axiomType),
-							evaluatedAxioms,
-							ConfigHelper.getConfigOptionValues(la.getAlgorithm(axiomType)));
-					algorithmRuns.add(algorithmRun);
-				} else {
-					// TODO what to do when algorithm failed
+		// the pool is the budget for all properties, i.e. a property is processed while others wait for the endpoint
+		ExecutorService threadPool = Executors.newFixedThreadPool(nrOfThreads);
+		// the learners which have finished, collected in this thread as the results are not thread-safe
+		BlockingQueue<MultiPropertyAxiomLearner> finished = new LinkedBlockingQueue<>();
+		int inProgress = 0;
+		try {
+			for(OWLProperty property : properties) {
+				// each learner holds its sample, thus only a bounded number of properties is processed at once
+				while(inProgress >= nrOfThreads) {
+					collectResults(finished.take(), axiomTypes);
+					inProgress--;
 				}
-				
+				System.out.println("Processing property " + property.toStringID());
+				MultiPropertyAxiomLearner la = new MultiPropertyAxiomLearner(ks);
+//				la.setUseSampling(true);
+				la.setProgressMonitor(progressMonitor);
+				la.setAxiomTypes(axiomTypes);
+				la.setExecutor(threadPool);
+				la.setEntityToDescribe(property);
+				la.startAsync().whenComplete((result, e) -> finished.add(la));
+				inProgress++;
 			}
+			for(; inProgress > 0; inProgress--) {
+				collectResults(finished.take(), axiomTypes);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			threadPool.shutdownNow();
+		}
+	}
+
+	private void collectResults(MultiPropertyAxiomLearner la, Set<AxiomType<? extends OWLAxiom>> axiomTypes) {
+		for (AxiomType<? extends OWLAxiom> axiomType : axiomTypes) {
+
+			List<EvaluatedAxiom<OWLAxiom>> evaluatedAxioms = la.getCurrentlyBestEvaluatedAxioms(axiomType, threshold);
+			learnedEvaluatedAxioms.addAll(evaluatedAxioms);
+
+			AbstractAxiomLearningAlgorithm algorithm = la.getAlgorithm(axiomType);
+
+			if(algorithm != null) {
+				AlgorithmRun algorithmRun = new AlgorithmRun(
+						AxiomAlgorithms.getAlgorithmClass(axiomType),
+						evaluatedAxioms,
+						ConfigHelper.getConfigOptionValues(la.getAlgorithm(axiomType)));
+				algorithmRuns.add(algorithmRun);
+			} else {
+				// TODO what to do when algorithm failed
+			}
+
 		}
 	}
 
@@ -890,6 +916,13 @@ public class Enrichment {
 		}
 	}
 
+	/**
+	 * @param nrOfThreads the max. number of concurrently running sample queries and algorithms for properties
+	 */
+	public void setNrOfThreads(int nrOfThreads) {
+		this.nrOfThreads = nrOfThreads;
+	}
+
 	public List<AlgorithmRun> getAlgorithmRuns() {
 		return algorithmRuns;
 	}
@@ -959,6 +992,8 @@ public class Enrichment {
 		"Specifies the max execution time for each algorithm run and each entity.").withRequiredArg().ofType(Integer.class).defaultsTo(10);
 		parser.acceptsAll(asList("omitExistingAxioms"),
 				"Specifies whether return only axioms which not already exist in the knowlegde base.").withOptionalArg().ofType(Boolean.class).defaultsTo(false);
+		parser.acceptsAll(asList("threads"),
+				"Specifies the max. number of concurrently running queries and algorithms for properties.").withRequiredArg().ofType(Integer.class).defaultsTo(Runtime.getRuntime().availableProcessors());
 		OptionSpec<String> allowedNamespacesOption = parser.accepts( "ns" ).withRequiredArg().ofType( String.class )
 	            .withValuesSeparatedBy( ',' );
 
@@ -1105,6 +1140,7 @@ public class Enrichment {
 			int chunksize = (Integer) options.valueOf("chunksize");
 			int maxExecutionTimeInSeconds = (Integer) options.valueOf("maxExecutionTimeInSeconds");
 			boolean omitExistingAxioms = (Boolean) options.valueOf("omitExistingAxioms");
+			int nrOfThreads = (Integer) options.valueOf("threads");
 
 			// TODO: some handling for inaccessible files or overwriting existing files
 			File f = (File) options.valueOf("o");
@@ -1129,6 +1165,7 @@ public class Enrichment {
 			e.setProcessObjectProperties(processObjectProperties);
 			e.setProcessDataProperties(processDataProperties);
 			e.setProcessClasses(processClasses);
+			e.setNrOfThreads(nrOfThreads);
 			e.start();
 
 			// print output in correct format
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.dllearner.core.AbstractComponent;
 import org.dllearner.core.AbstractKnowledgeSource;
@@ -62,6 +63,17 @@ public class ClientState {
 	
 	private boolean isAlgorithmRunning = false;
 	
+	private volatile long lastAccessTime = System.currentTimeMillis();
+	
+	// the learning run submitted to the learning service, if any
+	private volatile Future<?> learningTask;
+	
+	// the initialised reasoner shared with other clients having the same
+	// configuration, which replaces the reasoner component set by the client
+	private AbstractReasonerComponent sharedReasonerComponent;
+	
+	private String reasonerFingerprint;
+	
 	private int generateComponentID(AbstractComponent component) {
 		int id;
 		do {
@@ -89,6 +101,42 @@ public class ClientState {
 		return queryIDs.get(id);
 	}
 	
+	/**
+	 * Marks the session as used now.
+	 */
+	public void touch() {
+		lastAccessTime = System.currentTimeMillis();
+	}
+	
+	/**
+	 * @return the time of the last access to this session in milliseconds
+	 */
+	public long getLastAccessTime() {
+		return lastAccessTime;
+	}
+	
+	/**
+	 * @return whether a learning run of this client is queued or running
+	 */
+	public boolean isLearning() {
+		Future<?> task = learningTask;
+		return task != null && !task.isDone();
+	}
+	
+	/**
+	 * @return the learning run submitted last, or null if there is none
+	 */
+	public Future<?> getLearningTask() {
+		return learningTask;
+	}
+	
+	/**
+	 * @param learningTask the learning run submitted to the learning service
+	 */
+	public void setLearningTask(Future<?> learningTask) {
+		this.learningTask = learningTask;
+	}
+	
 	/**
 	 * @return the isAlgorithmRunning
 	 */
@@ -158,11 +206,40 @@ public class ClientState {
 	}
 
 	/**
-	 * @return the reasonerComponent
+	 * @return the shared reasoner component if the session uses one,
+	 * otherwise the reasoner component set by the client
 	 */
 	public AbstractReasonerComponent getReasonerComponent() {
+		return sharedReasonerComponent != null ? sharedReasonerComponent : reasonerComponent;
+	}
+	
+	/**
+	 * @return the reasoner component set by the client, which holds its
+	 * configuration
+	 */
+	public AbstractReasonerComponent getConfiguredReasonerComponent() {
 		return reasonerComponent;
 	}
+	
+	/**
+	 * @return the fingerprint of the shared reasoner component, or null if
+	 * the session does not use one
+	 */
+	public String getReasonerFingerprint() {
+		return reasonerFingerprint;
+	}
+	
+	/**
+	 * Lets the session use a reasoner component shared with other sessions.
+	 * 
+	 * @param sharedReasonerComponent the shared reasoner, or null to use the
+	 * reasoner component set by the client again
+	 * @param fingerprint the fingerprint of the configuration of the shared reasoner
+	 */
+	public void setSharedReasonerComponent(AbstractReasonerComponent sharedReasonerComponent, String fingerprint) {
+		this.sharedReasonerComponent = sharedReasonerComponent;
+		this.reasonerFingerprint = fingerprint;
+	}
 
 	/**
 	 * Sets the reasoner component and creates the corresponding
@@ -172,6 +249,7 @@ public class ClientState {
 	 */
 	public int setReasonerComponent(AbstractReasonerComponent reasonerComponent) {
 		this.reasonerComponent = reasonerComponent;
+		setSharedReasonerComponent(null, null);
 //		reasoningService = new ReasonerComponent(reasonerComponent);
 		return generateComponentID(reasonerComponent);
 	}
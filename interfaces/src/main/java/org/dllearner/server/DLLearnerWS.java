@@ -62,8 +62,7 @@ public class DLLearnerWS {
 
 	private static Logger logger = Logger.getLogger(DLLearnerWS.class);
 
-	private Map<Integer, ClientState> clients = new TreeMap<>();
-	private Random rand=new Random();
+	private LearningService service = new LearningService();
 	private static AnnComponentManager cm = AnnComponentManager.getInstance();
 
 	/**
@@ -150,6 +149,14 @@ public class DLLearnerWS {
 //		return Info.build;
 //	}
 
+	/**
+	 * Stops all learning algorithms started via the web service.
+	 */
+	@WebMethod(exclude = true)
+	public void shutdown() {
+		service.shutdown();
+	}
+
 	/**
 	 * Method to check whether web service is online and how fast it responses.
 	 * This method simply returns true.
@@ -169,11 +176,7 @@ public class DLLearnerWS {
 	 */
 	@WebMethod
 	public int generateID() {
-		int id;
-		do {
-			id = Math.abs(rand.nextInt());
-		} while(clients.containsKey(id));
-		clients.put(id, new ClientState());
+		int id = service.addClient();
 		logger.info("New client " + id + " at DL-Learner web service.");
 		return id;
 	}
@@ -329,6 +332,7 @@ public class DLLearnerWS {
 			e.printStackTrace();
 		}
 		logger.info("...done.");
+		service.releaseReasoner(state);
 		return state.setReasonerComponent(rc);
 	}
 
@@ -397,16 +401,7 @@ public class DLLearnerWS {
 	 */
 	@WebMethod
 	public void initAll(int id) throws ClientNotKnownException, ComponentInitException {
-		ClientState state = getState(id);
-		logger.info("Initializing knowledge sources...");
-		for(AbstractKnowledgeSource ks : state.getKnowledgeSources())
-			ks.init();
-		logger.info("Initializing reasoner...");
-		state.getReasonerComponent().init();
-		logger.info("Initializing learning problem...");
-		state.getLearningProblem().init();
-		logger.info("Initializing learning algorithm...");
-		state.getLearningAlgorithm().init();
+		service.initAll(getState(id));
 	}
 
 	/**
@@ -432,11 +427,12 @@ public class DLLearnerWS {
 	 * @param format The format of the result string: "manchester", "kb", "dl".
 	 * @return The best solution found.
 	 * @throws ClientNotKnownException Thrown if client (session ID) is not known.
+	 * @throws LearningRejectedException Thrown if the client is already learning or the web service is busy.
 	 */
 	@WebMethod
-	public String learn(int id, String format) throws ClientNotKnownException {
+	public String learn(int id, String format) throws ClientNotKnownException, LearningRejectedException {
 		ClientState state = getState(id);
-		state.getLearningAlgorithm().start();
+		service.learn(state);
 		OWLClassExpression solution = state.getLearningAlgorithm().getCurrentlyBestDescription();
 		switch (format) {
 			case "manchester":
@@ -456,11 +452,12 @@ public class DLLearnerWS {
 	 * @param id The session ID.
 	 * @return A JSON string encoding learned descriptions.
 	 * @throws ClientNotKnownException Thrown if client (session ID) is not known.
+	 * @throws LearningRejectedException Thrown if the client is already learning or the web service is busy.
 	 */
 	@WebMethod
-	public String learnDescriptionsEvaluated(int id) throws ClientNotKnownException {
+	public String learnDescriptionsEvaluated(int id) throws ClientNotKnownException, LearningRejectedException {
 		ClientState state = getState(id);
-		state.getLearningAlgorithm().start();
+		service.learn(state);
 		NavigableSet<? extends EvaluatedDescription> descriptions = state.getLearningAlgorithm()
 				.getCurrentlyBestEvaluatedDescriptions();
 		String json = "{";
@@ -485,11 +482,12 @@ public class DLLearnerWS {
 	 * @param limit Maximum number of results desired.
 	 * @return A JSON string encoding learned descriptions.
 	 * @throws ClientNotKnownException Thrown if client (session ID) is not known.
+	 * @throws LearningRejectedException Thrown if the client is already learning or the web service is busy.
 	 */
 	@WebMethod
-	public String learnDescriptionsEvaluatedLimit(int id, int limit) throws ClientNotKnownException {
+	public String learnDescriptionsEvaluatedLimit(int id, int limit) throws ClientNotKnownException, LearningRejectedException {
 		ClientState state = getState(id);
-		state.getLearningAlgorithm().start();
+		service.learn(state);
 		List<? extends EvaluatedDescription> descriptions = state.getLearningAlgorithm().getCurrentlyBestEvaluatedDescriptions(limit);
 		String json = "{";
 		int count = 1;
@@ -504,24 +502,16 @@ public class DLLearnerWS {
 
 	/**
 	 * Starts the learning algorithm and returns immediately. The learning
-	 * algorithm is executed in its own thread and can be queried and
-	 * controlled using other Web Service methods.
+	 * algorithm is executed by the thread pool of the web service and can be
+	 * queried and controlled using other Web Service methods.
 	 *
 	 * @param id Session ID.
 	 * @throws ClientNotKnownException Thrown if client (session ID) is not known.
+	 * @throws LearningRejectedException Thrown if the client is already learning or the web service is busy.
 	 */
 	@WebMethod
-	public void learnThreaded(int id) throws ClientNotKnownException {
-		final ClientState state = getState(id);
-		Thread learningThread = new Thread() {
-			@Override
-			public void run() {
-//				state.setAlgorithmRunning(true);
-				state.getLearningAlgorithm().start();
-//				state.setAlgorithmRunning(false);
-			}
-		};
-		learningThread.start();
+	public void learnThreaded(int id) throws ClientNotKnownException, LearningRejectedException {
+		service.startLearning(getState(id));
 	}
 
 	/**
@@ -1157,10 +1147,7 @@ public class DLLearnerWS {
 
 	// returns session state or throws client not known exception
 	private ClientState getState(int id) throws ClientNotKnownException {
-		ClientState state = clients.get(id);
-		if(state==null)
-			throw new ClientNotKnownException(id);
-		return state;
+		return service.getClient(id);
 	}
 
 	@SuppressWarnings({"unchecked"})
@@ -130,6 +130,7 @@ public class DLLearnerWSStart {
 	
 			System.out.print("Stopping web service ... ");
 			endpoint.stop();
+			ws.shutdown();
 	
 			server.stop(1);
 			threads.shutdown();
@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2007, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ * 
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.dllearner.server;
+
+/**
+ * Exception for indicating that a learning algorithm could not be started,
+ * either because the client has already started one or because the web
+ * service has no capacity for further learning runs.
+ *
+ */
+public class LearningRejectedException extends Exception {
+
+	private static final long serialVersionUID = 3925412385367284526L;
+
+	public LearningRejectedException(String message) {
+		super(message);
+	}
+
+}
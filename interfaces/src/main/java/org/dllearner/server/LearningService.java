@@ -0,0 +1,390 @@
+/**
+ * Copyright (C) 2007, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ * 
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package org.dllearner.server;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.log4j.Logger;
+import org.dllearner.core.*;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Manages the client sessions of the web service and the learning runs
+ * started by them:
+ * <ul>
+ * <li>learning algorithms are run by a bounded thread pool with a bounded
+ * queue, and each client can have at most one queued or running learning
+ * run,</li>
+ * <li>sessions which have not been accessed for a given time are evicted,
+ * unless a learning run of them is still in progress,</li>
+ * <li>clients whose reasoner and knowledge sources have the same
+ * configuration share one initialised reasoner component, which is
+ * released when the last of those clients is evicted. The shared reasoner
+ * is a copy of the reasoner of the first of those clients, so that clients
+ * cannot change its configuration. As the learning runs of those clients
+ * use the reasoner at the same time, only
+ * {@link AbstractReasonerComponent#isThreadSafe() thread safe} reasoners are
+ * shared, all other reasoners are initialised by each client.</li>
+ * </ul>
+ *
+ */
+public class LearningService {
+
+	private static Logger logger = Logger.getLogger(LearningService.class);
+
+	public static final int DEFAULT_MAX_QUEUED_LEARNING_RUNS = 50;
+	public static final long DEFAULT_MAX_IDLE_TIME_MINUTES = 30;
+
+	private final Map<Integer, ClientState> clients = new ConcurrentHashMap<>();
+	private final Random rand = new Random();
+
+	private final ThreadPoolExecutor learningExecutor;
+	private final ScheduledExecutorService evictionExecutor;
+	private final long maxIdleTimeMs;
+
+	// initialised reasoners by the fingerprint of their configuration
+	private final Map<String, SharedReasoner> sharedReasoners = new HashMap<>();
+
+	private static class SharedReasoner {
+		final AbstractReasonerComponent reasoner;
+		int nrOfClients = 0;
+		boolean initialized = false;
+
+		SharedReasoner(AbstractReasonerComponent reasoner) {
+			this.reasoner = reasoner;
+		}
+	}
+
+	public LearningService() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_QUEUED_LEARNING_RUNS,
+				DEFAULT_MAX_IDLE_TIME_MINUTES, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * @param nrOfLearningThreads the number of learning runs executed in parallel
+	 * @param maxQueuedLearningRuns the number of learning runs waiting for a
+	 * free thread, further learning runs are rejected
+	 * @param maxIdleTime the time after which a session which has not been
+	 * accessed is evicted
+	 * @param unit the unit of <code>maxIdleTime</code>
+	 */
+	public LearningService(int nrOfLearningThreads, int maxQueuedLearningRuns, long maxIdleTime, TimeUnit unit) {
+		learningExecutor = new ThreadPoolExecutor(nrOfLearningThreads, nrOfLearningThreads,
+				0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(maxQueuedLearningRuns),
+				new ThreadFactoryBuilder().setNameFormat("dllearner-ws-learning-%d").setDaemon(true).build());
+		maxIdleTimeMs = unit.toMillis(maxIdleTime);
+		evictionExecutor = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setNameFormat("dllearner-ws-eviction").setDaemon(true).build());
+		long period = Math.max(1000, maxIdleTimeMs / 10);
+		evictionExecutor.scheduleWithFixedDelay(this::evictIdleClients, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Creates a new session.
+	 * @return the ID of the session
+	 */
+	public int addClient() {
+		ClientState state = new ClientState();
+		int id;
+		do {
+			id = Math.abs(rand.nextInt());
+		} while (clients.putIfAbsent(id, state) != null);
+		return id;
+	}
+
+	/**
+	 * @param id the session ID
+	 * @return the state of the session
+	 * @throws ClientNotKnownException if there is no such session, e.g.
+	 * because it has been evicted
+	 */
+	public ClientState getClient(int id) throws ClientNotKnownException {
+		ClientState state = clients.get(id);
+		if (state == null)
+			throw new ClientNotKnownException(id);
+		state.touch();
+		return state;
+	}
+
+	/**
+	 * Initialises the learning problem and the learning algorithm of the
+	 * session with a shared reasoner having the configuration of the reasoner
+	 * and the knowledge sources of the session. The shared reasoner is created
+	 * and initialised by the first session using it, the reasoner and the
+	 * knowledge sources of the session itself are not initialised.
+	 * If the reasoner is not thread safe, the session initialises and uses its
+	 * own reasoner and knowledge sources instead.
+	 * @param state the session
+	 * @throws ComponentInitException if the initialisation of a component fails
+	 */
+	public void initAll(ClientState state) throws ComponentInitException {
+		AbstractReasonerComponent reasoner = state.getConfiguredReasonerComponent();
+		if (!reasoner.isThreadSafe()) {
+			releaseReasoner(state);
+			logger.info("Initializing knowledge sources...");
+			for (KnowledgeSource ks : state.getKnowledgeSources()) {
+				ks.init();
+			}
+			logger.info("Initializing reasoner...");
+			reasoner.init();
+			initLearningComponents(state, reasoner);
+			return;
+		}
+
+		String fingerprint = fingerprint(reasoner);
+
+		if (!fingerprint.equals(state.getReasonerFingerprint())) {
+			SharedReasoner shared;
+			synchronized (sharedReasoners) {
+				shared = sharedReasoners.get(fingerprint);
+				if (shared == null) {
+					shared = new SharedReasoner(copy(reasoner));
+					sharedReasoners.put(fingerprint, shared);
+				}
+				shared.nrOfClients++;
+			}
+			releaseReasoner(state);
+			state.setSharedReasonerComponent(shared.reasoner, fingerprint);
+		}
+
+		AbstractReasonerComponent sharedReasoner = state.getReasonerComponent();
+		SharedReasoner shared;
+		synchronized (sharedReasoners) {
+			shared = sharedReasoners.get(fingerprint);
+		}
+		synchronized (shared) {
+			if (!shared.initialized) {
+				logger.info("Initializing knowledge sources...");
+				for (KnowledgeSource ks : sharedReasoner.getSources()) {
+					ks.init();
+				}
+				logger.info("Initializing reasoner...");
+				sharedReasoner.init();
+				// the hierarchies are computed lazily, which must not happen
+				// concurrently in the learning runs of the sessions
+				sharedReasoner.getClassHierarchy();
+				sharedReasoner.getObjectPropertyHierarchy();
+				sharedReasoner.getDatatypePropertyHierarchy();
+				shared.initialized = true;
+			} else {
+				logger.info("Using initialized reasoner shared by " + shared.nrOfClients + " clients.");
+			}
+		}
+
+		initLearningComponents(state, sharedReasoner);
+	}
+
+	private void initLearningComponents(ClientState state, AbstractReasonerComponent reasoner)
+			throws ComponentInitException {
+		AbstractClassExpressionLearningProblem lp = state.getLearningProblem();
+		lp.setReasoner(reasoner);
+		logger.info("Initializing learning problem...");
+		lp.init();
+		AbstractCELA la = state.getLearningAlgorithm();
+		la.setReasoner(reasoner);
+		logger.info("Initializing learning algorithm...");
+		la.init();
+	}
+
+	/**
+	 * Stops using the shared reasoner of the session, if any. The shared
+	 * reasoner is dropped when no other session uses it.
+	 * @param state the session
+	 */
+	public void releaseReasoner(ClientState state) {
+		String fingerprint = state.getReasonerFingerprint();
+		if (fingerprint == null) {
+			return;
+		}
+		state.setSharedReasonerComponent(null, null);
+		synchronized (sharedReasoners) {
+			SharedReasoner shared = sharedReasoners.get(fingerprint);
+			if (shared != null && --shared.nrOfClients <= 0) {
+				sharedReasoners.remove(fingerprint);
+				logger.info("Released shared reasoner " + shared.reasoner.getClass().getSimpleName() + ".");
+			}
+		}
+	}
+
+	/**
+	 * Submits a learning run of the session.
+	 * @param state the session
+	 * @return the future of the learning run
+	 * @throws LearningRejectedException if the session has a learning run in
+	 * progress or the queue of learning runs is full
+	 */
+	public Future<?> startLearning(final ClientState state) throws LearningRejectedException {
+		synchronized (state) {
+			if (state.isLearning()) {
+				throw new LearningRejectedException("A learning algorithm is already running for this client.");
+			}
+			final AbstractCELA la = state.getLearningAlgorithm();
+			try {
+				Future<?> task = learningExecutor.submit(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							la.start();
+						} finally {
+							state.touch();
+						}
+					}
+				});
+				state.setLearningTask(task);
+				return task;
+			} catch (RejectedExecutionException e) {
+				throw new LearningRejectedException("Too many learning algorithms are running, please try again later.");
+			}
+		}
+	}
+
+	/**
+	 * Submits a learning run of the session and waits for it to finish.
+	 * @param state the session
+	 * @throws LearningRejectedException if the learning run could not be started
+	 */
+	public void learn(ClientState state) throws LearningRejectedException {
+		Future<?> task = startLearning(state);
+		try {
+			task.get();
+		} catch (InterruptedException e) {
+			state.getLearningAlgorithm().stop();
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Learning failed.", e.getCause());
+		}
+	}
+
+	/**
+	 * Stops all learning runs and the eviction of idle sessions.
+	 */
+	public void shutdown() {
+		evictionExecutor.shutdownNow();
+		for (ClientState state : clients.values()) {
+			if (state.isLearning()) {
+				state.getLearningAlgorithm().stop();
+			}
+		}
+		learningExecutor.shutdown();
+	}
+
+	void evictIdleClients() {
+		long now = System.currentTimeMillis();
+		Iterator<Map.Entry<Integer, ClientState>> it = clients.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Integer, ClientState> entry = it.next();
+			ClientState state = entry.getValue();
+			if (now - state.getLastAccessTime() > maxIdleTimeMs && !state.isLearning()) {
+				it.remove();
+				releaseReasoner(state);
+				logger.info("Evicted idle client " + entry.getKey() + ".");
+			}
+		}
+	}
+
+	/**
+	 * @return the number of reasoners shared by the sessions
+	 */
+	int getNrOfSharedReasoners() {
+		synchronized (sharedReasoners) {
+			return sharedReasoners.size();
+		}
+	}
+
+	/**
+	 * Creates an uninitialised copy of the reasoner and its knowledge sources
+	 * with the same values of the configuration options.
+	 * @param reasoner the reasoner
+	 * @return the copy
+	 * @throws ComponentInitException if a component cannot be copied
+	 */
+	static AbstractReasonerComponent copy(AbstractReasonerComponent reasoner) throws ComponentInitException {
+		Set<KnowledgeSource> sources = new HashSet<>();
+		for (KnowledgeSource ks : reasoner.getSources()) {
+			sources.add(copyConfiguration(ks, null));
+		}
+		AbstractReasonerComponent copy = copyConfiguration(reasoner, reasoner.getSources());
+		copy.setSources(sources);
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Component> T copyConfiguration(T component, Object sources) throws ComponentInitException {
+		try {
+			T copy = (T) component.getClass().getConstructor().newInstance();
+			for (Field field : AnnComponentManager.getConfigOptions(component.getClass())) {
+				field.setAccessible(true);
+				Object value = field.get(component);
+				if (value != sources) {
+					field.set(copy, value);
+				}
+			}
+			return copy;
+		} catch (ReflectiveOperationException e) {
+			throw new ComponentInitException("Component " + component.getClass().getSimpleName() + " can not be shared.", e);
+		}
+	}
+
+	/**
+	 * The fingerprint of a reasoner consists of the values of the
+	 * configuration options of the reasoner and of its knowledge sources, i.e.
+	 * two reasoners with the same fingerprint will be in the same state after
+	 * initialisation.
+	 * @param reasoner the (uninitialised) reasoner
+	 * @return the fingerprint
+	 */
+	static String fingerprint(AbstractReasonerComponent reasoner) {
+		List<String> sources = new ArrayList<>();
+		for (KnowledgeSource ks : reasoner.getSources()) {
+			sources.add(describe(ks, null));
+		}
+		Collections.sort(sources);
+		return describe(reasoner, reasoner.getSources()) + sources;
+	}
+
+	private static String describe(Component component, Object sources) {
+		StringBuilder sb = new StringBuilder(component.getClass().getName());
+		SortedMap<String, String> options = new TreeMap<>();
+		for (Field field : AnnComponentManager.getConfigOptions(component.getClass())) {
+			field.setAccessible(true);
+			Object value;
+			try {
+				value = field.get(component);
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+			if (value == sources) {
+				continue;
+			}
+			// other components are not compared by their configuration, so
+			// the reasoner is only shared if it uses the very same instance
+			options.put(field.getDeclaringClass().getName() + "." + field.getName(),
+					value instanceof Component
+					? value.getClass().getName() + "@" + System.identityHashCode(value)
+					: String.valueOf(value));
+		}
+		return sb.append(options).toString();
+	}
+
+}
@@ -0,0 +1,204 @@
+package org.dllearner.server;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.core.AbstractCELA;
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.kb.OWLFile;
+import org.dllearner.learningproblems.PosOnlyLP;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the admission control, the eviction of idle sessions and the sharing
+ * of reasoners of the {@link LearningService}.
+ */
+public class LearningServiceTest {
+
+	private LearningService service;
+
+	/**
+	 * A learning algorithm which runs until it is released.
+	 */
+	private static class BlockingCELA extends AbstractCELA {
+
+		private final CountDownLatch release;
+
+		BlockingCELA(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void init() throws ComponentInitException {
+			initialized = true;
+		}
+
+		@Override
+		public void start() {
+			isRunning = true;
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				isRunning = false;
+			}
+		}
+
+		@Override
+		public void stop() {
+			release.countDown();
+		}
+	}
+
+	@After
+	public void tearDown() {
+		if (service != null) {
+			service.shutdown();
+		}
+	}
+
+	private ClientState learningClient(CountDownLatch release) throws ClientNotKnownException {
+		ClientState state = service.getClient(service.addClient());
+		state.setLearningAlgorithm(new BlockingCELA(release));
+		return state;
+	}
+
+	private ClientState sharingClient() throws ClientNotKnownException {
+		OWLFile ks = new OWLFile("../examples/father.owl");
+		return client(ks, new ClosedWorldReasoner(ks));
+	}
+
+	private ClientState client(OWLFile ks, AbstractReasonerComponent reasoner) throws ClientNotKnownException {
+		ClientState state = service.getClient(service.addClient());
+		state.addKnowledgeSource(ks);
+		state.setReasonerComponent(reasoner);
+		state.setLearningProblem(new PosOnlyLP());
+		state.setLearningAlgorithm(new BlockingCELA(new CountDownLatch(0)));
+		return state;
+	}
+
+	@Test
+	public void testAdmissionControl() throws Exception {
+		service = new LearningService(1, 1, 1, TimeUnit.HOURS);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ClientState running = learningClient(release);
+		Future<?> runningTask = service.startLearning(running);
+		try {
+			service.startLearning(running);
+			fail("a client must not start a second learning run");
+		} catch (LearningRejectedException e) {
+			// expected
+		}
+
+		ClientState queued = learningClient(release);
+		Future<?> queuedTask = service.startLearning(queued);
+		ClientState rejected = learningClient(release);
+		try {
+			service.startLearning(rejected);
+			fail("a learning run must be rejected if the queue is full");
+		} catch (LearningRejectedException e) {
+			// expected
+		}
+		assertFalse(rejected.isLearning());
+
+		release.countDown();
+		runningTask.get(10, TimeUnit.SECONDS);
+		queuedTask.get(10, TimeUnit.SECONDS);
+		assertFalse(running.isLearning());
+		assertFalse(queued.isLearning());
+
+		// once the runs have finished, the client can learn again
+		service.startLearning(rejected).get(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		service = new LearningService(1, 1, 10, TimeUnit.MILLISECONDS);
+		CountDownLatch release = new CountDownLatch(1);
+
+		int idleID = service.addClient();
+		int learningID = service.addClient();
+		ClientState learning = service.getClient(learningID);
+		learning.setLearningAlgorithm(new BlockingCELA(release));
+		Future<?> task = service.startLearning(learning);
+
+		Thread.sleep(50);
+		service.evictIdleClients();
+		try {
+			service.getClient(idleID);
+			fail("an idle client must be evicted");
+		} catch (ClientNotKnownException e) {
+			// expected
+		}
+		// the learning client is still known
+		assertSame(learning, service.getClient(learningID));
+
+		release.countDown();
+		task.get(10, TimeUnit.SECONDS);
+		Thread.sleep(50);
+		service.evictIdleClients();
+		try {
+			service.getClient(learningID);
+			fail("an idle client must be evicted after its learning run");
+		} catch (ClientNotKnownException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testSharedReasoner() throws Exception {
+		service = new LearningService(1, 1, 1, TimeUnit.HOURS);
+
+		ClientState client1 = sharingClient();
+		ClientState client2 = sharingClient();
+		service.initAll(client1);
+		service.initAll(client2);
+
+		AbstractReasonerComponent shared = client1.getReasonerComponent();
+		assertSame(shared, client2.getReasonerComponent());
+		assertNotSame(shared, client1.getConfiguredReasonerComponent());
+		assertNotSame(shared, client2.getConfiguredReasonerComponent());
+		assertEquals(1, service.getNrOfSharedReasoners());
+		assertFalse(shared.getIndividuals().isEmpty());
+
+		// initialising a session again does not create another reasoner
+		service.initAll(client1);
+		assertSame(shared, client1.getReasonerComponent());
+		assertEquals(1, service.getNrOfSharedReasoners());
+
+		service.releaseReasoner(client1);
+		assertEquals(1, service.getNrOfSharedReasoners());
+		service.releaseReasoner(client2);
+		assertEquals(0, service.getNrOfSharedReasoners());
+	}
+
+	@Test
+	public void testUnsafeReasonerIsNotShared() throws Exception {
+		service = new LearningService(1, 1, 1, TimeUnit.HOURS);
+
+		ClientState[] clients = new ClientState[2];
+		for (int i = 0; i < clients.length; i++) {
+			OWLFile ks = new OWLFile("../examples/father.owl");
+			clients[i] = client(ks, new ClosedWorldReasoner(ks) {
+				@Override
+				public boolean isThreadSafe() {
+					return false;
+				}
+			});
+			service.initAll(clients[i]);
+			assertSame(clients[i].getConfiguredReasonerComponent(), clients[i].getReasonerComponent());
+			assertFalse(clients[i].getReasonerComponent().getIndividuals().isEmpty());
+		}
+		assertNotSame(clients[0].getReasonerComponent(), clients[1].getReasonerComponent());
+		assertEquals(0, service.getNrOfSharedReasoners());
+	}
+
+}